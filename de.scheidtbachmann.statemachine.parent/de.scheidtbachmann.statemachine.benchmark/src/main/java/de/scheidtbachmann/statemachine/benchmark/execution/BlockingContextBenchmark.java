@@ -0,0 +1,113 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.execution;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares the execution factories for ticks whose context calls block, e.g. on I/O.
+ *
+ * Every benchmark invocation applies one tick to each machine. Each tick parks for the configured time to simulate a
+ * blocking context call, and the invocation completes once all machines have finished their tick. Run the benchmark
+ * jar on Java 21 or newer, otherwise the virtual thread factory falls back to platform threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xss256k" })
+public class BlockingContextBenchmark {
+
+    @Param({ "THREAD_PER_MACHINE", "SHARED_STRANDS", "VIRTUAL_THREADS" })
+    private FactoryType factoryType;
+
+    @Param({ "1000", "10000" })
+    private int machines;
+
+    @Param({ "1" })
+    private long blockingMillis;
+
+    private StateMachineExecutionFactory factory;
+    private ScheduledExecutorService[] executors;
+
+    @Setup(Level.Trial)
+    public void createMachines() throws InterruptedException, ExecutionException {
+        final FootprintSampler footprint = new FootprintSampler();
+        footprint.begin();
+
+        factory = factoryType.createFactory();
+        executors = new ScheduledExecutorService[machines];
+        for (int i = 0; i < machines; i++) {
+            executors[i] = factory.createExecutor("Benchmark-" + i);
+            executors[i].submit(() -> { /* The default executors create their thread lazily */ }).get();
+        }
+
+        System.out.println(footprint.end(factoryType.name(), machines));
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseMachines() throws InterruptedException {
+        for (final ScheduledExecutorService executor : executors) {
+            factory.releaseExecutor(executor);
+        }
+        for (final ScheduledExecutorService executor : executors) {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        factoryType.disposeFactory(factory);
+    }
+
+    /**
+     * Time until a blocking tick has been applied to all machines.
+     */
+    @Benchmark
+    public void applyBlockingTickToAllMachines() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(machines);
+        final long blockingNanos = TimeUnit.MILLISECONDS.toNanos(blockingMillis);
+        for (final ScheduledExecutorService executor : executors) {
+            executor.execute(() -> {
+                simulateBlockingContextCall(blockingNanos);
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+
+    private static void simulateBlockingContextCall(final long blockingNanos) {
+        final long deadline = System.nanoTime() + blockingNanos;
+        long remaining = blockingNanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.execution;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the thread-per-machine execution with shared strands for a large number of idle state machines.
+ *
+ * The latency benchmarks submit a tick-like task to a randomly chosen machine and wait for its completion, which is
+ * what a synchronous {@code apply()} on a generated state machine does. The memory and thread footprint of the
+ * machines is printed once per trial during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xss256k" })
+public class ExecutionFactoryBenchmark {
+
+    private static final int FAN_OUT = 16;
+
+    @Param({ "THREAD_PER_MACHINE", "SHARED_STRANDS" })
+    private FactoryType factoryType;
+
+    @Param({ "1000", "10000" })
+    private int machines;
+
+    private StateMachineExecutionFactory factory;
+    private ScheduledExecutorService[] executors;
+    private long[] machineStates;
+
+    @Setup(Level.Trial)
+    public void createMachines() throws InterruptedException, ExecutionException {
+        final FootprintSampler footprint = new FootprintSampler();
+        footprint.begin();
+
+        factory = factoryType.createFactory();
+        executors = new ScheduledExecutorService[machines];
+        machineStates = new long[machines];
+        for (int i = 0; i < machines; i++) {
+            executors[i] = factory.createExecutor("Benchmark-" + i);
+            // The default executors create their thread lazily, so run one tick on every machine
+            executors[i].submit(tickOf(i)).get();
+        }
+
+        System.out.println(footprint.end(factoryType.name(), machines));
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseMachines() throws InterruptedException {
+        for (final ScheduledExecutorService executor : executors) {
+            factory.releaseExecutor(executor);
+        }
+        for (final ScheduledExecutorService executor : executors) {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        factoryType.disposeFactory(factory);
+    }
+
+    /**
+     * Latency of a single synchronous apply on a random machine.
+     */
+    @Benchmark
+    public Object applyLatency() throws InterruptedException, ExecutionException {
+        final int machine = ThreadLocalRandom.current().nextInt(machines);
+        return executors[machine].submit(tickOf(machine)).get();
+    }
+
+    /**
+     * Latency until a burst of applies on several random machines has been processed completely.
+     */
+    @Benchmark
+    public void applyFanOut() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(FAN_OUT);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < FAN_OUT; i++) {
+            final int machine = random.nextInt(machines);
+            executors[machine].execute(() -> {
+                tickOf(machine).run();
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+
+    private Runnable tickOf(final int machine) {
+        return () -> machineStates[machine]++;
+    }
+}
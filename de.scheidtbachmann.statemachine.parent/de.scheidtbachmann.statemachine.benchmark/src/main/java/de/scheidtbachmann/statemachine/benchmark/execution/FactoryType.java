@@ -0,0 +1,64 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.execution;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+import de.scheidtbachmann.statemachine.runtime.execution.impl.StateMachineExecutionFactoryService;
+import de.scheidtbachmann.statemachine.runtime.execution.impl.StateMachineStrandExecutionFactory;
+import de.scheidtbachmann.statemachine.runtime.execution.impl.StateMachineVirtualThreadExecutionFactory;
+
+import java.util.function.Supplier;
+
+/**
+ * The execution factory implementations that are compared by the benchmarks.
+ */
+public enum FactoryType {
+
+    /** One platform thread per state machine, as created by the default OSGi service. */
+    THREAD_PER_MACHINE(StateMachineExecutionFactoryService::new),
+
+    /** Like {@link #THREAD_PER_MACHINE}, but with the former thread tracking that scans all executor threads. */
+    THREAD_PER_MACHINE_LEGACY_SCAN(LegacyScanExecutionFactory::new),
+
+    /** Strands multiplexed onto a carrier pool with one thread per available processor. */
+    SHARED_STRANDS(StateMachineStrandExecutionFactory::new),
+
+    /** One virtual thread per state machine, requires Java 21 or newer to not fall back to platform threads. */
+    VIRTUAL_THREADS(StateMachineVirtualThreadExecutionFactory::new);
+
+    private final Supplier<StateMachineExecutionFactory> factorySupplier;
+
+    FactoryType(final Supplier<StateMachineExecutionFactory> factorySupplier) {
+        this.factorySupplier = factorySupplier;
+    }
+
+    /**
+     * Creates a new instance of the execution factory.
+     *
+     * @return The created factory.
+     */
+    public StateMachineExecutionFactory createFactory() {
+        return factorySupplier.get();
+    }
+
+    /**
+     * Frees the resources held by the factory itself, after all executors have been released.
+     *
+     * @param factory
+     *            The factory created by {@link #createFactory()}.
+     */
+    public void disposeFactory(final StateMachineExecutionFactory factory) {
+        if (factory instanceof StateMachineStrandExecutionFactory) {
+            ((StateMachineStrandExecutionFactory) factory).shutdown();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.execution;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Coarse measurement of the live heap and the number of live threads before and after some setup step.
+ *
+ * The numbers are only meant to compare execution strategies with each other. They do not include the native
+ * stack memory of the threads, which is usually the dominant part for thread-per-machine setups.
+ */
+final class FootprintSampler {
+
+    private static final int GC_ROUNDS = 3;
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private long heapBefore;
+    private int threadsBefore;
+
+    void begin() {
+        heapBefore = settledHeapUsage();
+        threadsBefore = threadBean.getThreadCount();
+    }
+
+    String end(final String label, final int machines) {
+        final long heapDelta = settledHeapUsage() - heapBefore;
+        final int threadDelta = threadBean.getThreadCount() - threadsBefore;
+        return String.format("%n[footprint] %s: machines=%d, threads=%+d, heap=%+d KiB (%d bytes/machine)", label,
+            machines, threadDelta, heapDelta / 1024, heapDelta / Math.max(1, machines));
+    }
+
+    private long settledHeapUsage() {
+        for (int i = 0; i < GC_ROUNDS; i++) {
+            System.gc();
+        }
+        return memoryBean.getHeapMemoryUsage().getUsed();
+    }
+}
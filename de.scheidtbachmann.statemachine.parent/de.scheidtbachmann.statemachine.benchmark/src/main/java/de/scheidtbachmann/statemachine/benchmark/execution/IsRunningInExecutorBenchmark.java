@@ -0,0 +1,85 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.execution;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link StateMachineExecutionFactory#isRunningInExecutor()} under contention.
+ *
+ * The generated state machines call the check on every getter, setter and query, from many threads at once. The
+ * benchmark threads are no executor threads, which is the worst case for the former implementation, as the whole list
+ * of executor threads has to be scanned.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xss256k" })
+@Threads(8)
+public class IsRunningInExecutorBenchmark {
+
+    @Param({ "THREAD_PER_MACHINE_LEGACY_SCAN", "THREAD_PER_MACHINE" })
+    private FactoryType factoryType;
+
+    @Param({ "1000", "5000" })
+    private int machines;
+
+    private StateMachineExecutionFactory factory;
+    private ScheduledExecutorService[] executors;
+
+    @Setup(Level.Trial)
+    public void createMachines() throws InterruptedException, ExecutionException {
+        factory = factoryType.createFactory();
+        executors = new ScheduledExecutorService[machines];
+        for (int i = 0; i < machines; i++) {
+            executors[i] = factory.createExecutor("Benchmark-" + i);
+            executors[i].submit(() -> { /* The default executors create their thread lazily */ }).get();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseMachines() throws InterruptedException {
+        for (final ScheduledExecutorService executor : executors) {
+            factory.releaseExecutor(executor);
+        }
+        for (final ScheduledExecutorService executor : executors) {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        factoryType.disposeFactory(factory);
+    }
+
+    @Benchmark
+    public boolean isRunningInExecutor() {
+        return factory.isRunningInExecutor();
+    }
+}
@@ -0,0 +1,55 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.execution;
+
+import de.scheidtbachmann.statemachine.runtime.execution.impl.StateMachineExecutionFactoryService;
+
+import java.lang.Thread.State;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Baseline for the benchmarks: the former thread tracking of {@link StateMachineExecutionFactoryService}, which
+ * scans a synchronized list of all executor threads on each {@link #isRunningInExecutor()} call.
+ */
+class LegacyScanExecutionFactory extends StateMachineExecutionFactoryService {
+
+    private final List<WeakReference<Thread>> executorThreadReferences =
+        Collections.synchronizedList(new LinkedList<>());
+
+    @Override
+    public boolean isRunningInExecutor() {
+        final Thread currentThread = Thread.currentThread();
+        synchronized (executorThreadReferences) {
+            return executorThreadReferences.stream().anyMatch(threadRef -> threadRef.get() == currentThread);
+        }
+    }
+
+    @Override
+    protected Thread createThread(final String threadName, final Runnable runnable) {
+        purgeTerminatedThreadRefs();
+        final Thread createdThread = super.createThread(threadName, runnable);
+        executorThreadReferences.add(new WeakReference<>(createdThread));
+        return createdThread;
+    }
+
+    private void purgeTerminatedThreadRefs() {
+        executorThreadReferences.removeIf(this::isThreadTerminated);
+    }
+
+    private boolean isThreadTerminated(final WeakReference<Thread> threadRef) {
+        final Thread thread = threadRef.get();
+        return thread == null || thread.getState() == State.TERMINATED;
+    }
+}
@@ -0,0 +1,148 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.execution;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineBoundedMailbox;
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineOverflowPolicy;
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineRingBufferMailbox;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the enqueue path of generated {@code apply} calls, with several producers feeding one state machine.
+ *
+ * The former design hands a capturing lambda per application to the {@link ScheduledThreadPoolExecutor} of the state
+ * machine, so every producer allocates and takes the lock of the executor queue. The ring buffer mailbox claims a
+ * preallocated slot with a single compare-and-set and submits one drain task per burst. Run with
+ * {@code java -jar target/benchmarks.jar MailboxContentionBenchmark -prof gc} to compare the allocation rates.
+ *
+ * The benchmark drives the runtime mailboxes with stand-ins for the generated slot and event classes, it does not run
+ * generated state machine code. The producers use four threads, so the results are only meaningful on a machine with
+ * at least five cores.
+ *
+ * The executor variant has no natural bound, so its producers wait while more than {@link #CAPACITY} applications are
+ * pending. Otherwise the executor queue would grow until the heap is exhausted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class MailboxContentionBenchmark {
+
+    private static final int CAPACITY = 1024;
+
+    /** Enqueue path of a generated state machine. */
+    public enum MailboxType {
+        EXECUTOR, BOUNDED_MAILBOX, RING_BUFFER
+    }
+
+    /** Stand-in for the {@code InputEvent} enum of a generated state machine. */
+    private enum InputEvent {
+        GO
+    }
+
+    /** Stand-in for the slot class of a generated state machine. */
+    private static final class ApplySlot {
+        private Runnable preExecutionTask;
+        private Collection<InputEvent> events;
+        private Runnable postExecutionTask;
+    }
+
+    private static final Collection<InputEvent> EVENTS = List.of(InputEvent.GO);
+
+    @Param({ "EXECUTOR", "BOUNDED_MAILBOX", "RING_BUFFER" })
+    private MailboxType mailboxType;
+
+    private ScheduledThreadPoolExecutor executor;
+    private StateMachineBoundedMailbox<Collection<InputEvent>> boundedMailbox;
+    private StateMachineRingBufferMailbox<ApplySlot> ringBufferMailbox;
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+
+    /** Written by the executor thread only. */
+    private long processedApplications;
+
+    @Setup(Level.Iteration)
+    public void createMailbox() {
+        executor = new ScheduledThreadPoolExecutor(1);
+        // The producers are benchmark threads, never the executor of the state machine
+        boundedMailbox = new StateMachineBoundedMailbox<>(executor, CAPACITY, StateMachineOverflowPolicy.BLOCK,
+            this::tick, null, () -> false);
+        ringBufferMailbox = new StateMachineRingBufferMailbox<>(executor, CAPACITY, StateMachineOverflowPolicy.BLOCK,
+            ApplySlot::new, this::processSlot, () -> false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void drainMailbox() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public boolean apply() throws InterruptedException {
+        switch (mailboxType) {
+            case BOUNDED_MAILBOX:
+                return boundedMailbox.offer(EVENTS);
+            case RING_BUFFER:
+                final long sequence = ringBufferMailbox.claim();
+                final ApplySlot slot = ringBufferMailbox.slot(sequence);
+                slot.events = EVENTS;
+                ringBufferMailbox.publish(sequence);
+                return true;
+            case EXECUTOR:
+            default:
+                while (pendingTasks.get() >= CAPACITY) {
+                    Thread.onSpinWait();
+                }
+                pendingTasks.incrementAndGet();
+                final Collection<InputEvent> events = EVENTS;
+                executor.execute(() -> {
+                    pendingTasks.decrementAndGet();
+                    tick(events);
+                });
+                return true;
+        }
+    }
+
+    private void processSlot(final ApplySlot slot) {
+        final Collection<InputEvent> events = slot.events;
+        slot.preExecutionTask = null;
+        slot.events = null;
+        slot.postExecutionTask = null;
+        tick(events);
+    }
+
+    private void tick(final Collection<InputEvent> events) {
+        processedApplications += events.size();
+    }
+}
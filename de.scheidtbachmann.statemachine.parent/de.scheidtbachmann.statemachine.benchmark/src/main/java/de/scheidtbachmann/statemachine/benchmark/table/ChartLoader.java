@@ -0,0 +1,90 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.table;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.LongConsumer;
+
+/**
+ * Loads a generated chart class and its nested classes anew, so every instance starts with interpreted code.
+ *
+ * All other classes, in particular the runtime, are shared with the class loader of the benchmark.
+ */
+final class ChartLoader extends ClassLoader {
+
+    private final String chartClassName;
+
+    private ChartLoader(final Class<?> chartClass) {
+        super(chartClass.getClassLoader());
+        chartClassName = chartClass.getName();
+    }
+
+    /**
+     * @param chartClass
+     *            The generated chart class, generated with {@code NO_EXECUTOR}.
+     * @return a new initialized chart of the class loaded anew, accepting event masks.
+     */
+    static LongConsumer load(final Class<?> chartClass) {
+        try {
+            final Class<?> coldClass = new ChartLoader(chartClass).loadClass(chartClass.getName());
+            final Object chart = coldClass.getConstructor(String.class).newInstance("Cold");
+            coldClass.getMethod("init").invoke(chart);
+            final MethodHandle apply = MethodHandles.publicLookup()
+                .findVirtual(coldClass, "apply", MethodType.methodType(void.class, long.class))
+                .bindTo(chart);
+            return eventMask -> {
+                try {
+                    apply.invokeExact(eventMask);
+                } catch (final Throwable e) {
+                    throw new IllegalStateException("Tick of " + chartClass.getSimpleName() + " failed", e);
+                }
+            };
+        } catch (final ClassNotFoundException | InstantiationException | IllegalAccessException
+            | InvocationTargetException | NoSuchMethodException e) {
+            throw new IllegalStateException("Cannot load " + chartClass.getName(), e);
+        }
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+        if (!name.equals(chartClassName) && !name.startsWith(chartClassName + "$")) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> result = findLoadedClass(name);
+            if (result == null) {
+                final byte[] classFile = readClassFile(name);
+                result = defineClass(name, classFile, 0, classFile.length);
+            }
+            if (resolve) {
+                resolveClass(result);
+            }
+            return result;
+        }
+    }
+
+    private byte[] readClassFile(final String name) throws ClassNotFoundException {
+        try (InputStream classFile = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+            if (classFile == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return classFile.readAllBytes();
+        } catch (final IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+    }
+}
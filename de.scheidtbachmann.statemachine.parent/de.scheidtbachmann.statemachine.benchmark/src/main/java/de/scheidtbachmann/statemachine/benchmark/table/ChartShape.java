@@ -0,0 +1,107 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.table;
+
+import de.scheidtbachmann.statemachine.benchmark.table.lean.LargeLeanChart;
+import de.scheidtbachmann.statemachine.benchmark.table.table.LargeTableChart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.function.LongConsumer;
+
+/**
+ * The generated variants of the chart in {@code src/main/charts}, which only differ in the template they are
+ * generated with.
+ *
+ * Both charts declare the same input events in the same order, so the event masks of one variant are valid for the
+ * other.
+ */
+public enum ChartShape {
+
+    /** Generated by the lean template, one method per state. */
+    LEAN(LargeLeanChart.class, LargeLeanChart.InputEvent.values().length) {
+        @Override
+        LongConsumer newChart() {
+            final LargeLeanChart chart = new LargeLeanChart("Lean");
+            chart.init();
+            return chart::apply;
+        }
+
+        @Override
+        long eventMask(final int event) {
+            return LargeLeanChart.InputEvent.values()[event].mask();
+        }
+    },
+
+    /** Generated by the table-driven template, one transition table and a generic dispatch loop. */
+    TABLE(LargeTableChart.class, LargeTableChart.InputEvent.values().length) {
+        @Override
+        LongConsumer newChart() {
+            final LargeTableChart chart = new LargeTableChart("Table");
+            chart.init();
+            return chart::apply;
+        }
+
+        @Override
+        long eventMask(final int event) {
+            return LargeTableChart.InputEvent.values()[event].mask();
+        }
+    };
+
+    private final Class<?> chartClass;
+    private final int eventCount;
+
+    ChartShape(final Class<?> chartClass, final int eventCount) {
+        this.chartClass = chartClass;
+        this.eventCount = eventCount;
+    }
+
+    /**
+     * @return a new initialized chart of the classes loaded with the benchmark, accepting event masks.
+     */
+    abstract LongConsumer newChart();
+
+    /**
+     * @param event
+     *            The index of the input event.
+     * @return the event mask of the single event.
+     */
+    abstract long eventMask(int event);
+
+    /**
+     * @return a new initialized chart of classes that are loaded anew, accepting event masks.
+     */
+    LongConsumer newColdChart() {
+        return ChartLoader.load(chartClass);
+    }
+
+    int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * @return the summed size of the class files of the chart class and its nested classes.
+     */
+    int getClassFileSize() {
+        int size = 0;
+        for (final Class<?> member : chartClass.getNestMembers()) {
+            final String resource = "/" + member.getName().replace('.', '/') + ".class";
+            try (InputStream classFile = chartClass.getResourceAsStream(resource)) {
+                size += classFile.readAllBytes().length;
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Cannot read " + resource, e);
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,114 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.table;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Compares the lean and the table-driven template for a large chart.
+ *
+ * Both variants of the 1000-state chart in {@code src/main/charts} are generated by the state machine plugin when the
+ * benchmarks are built, the summed class file size of each variant is printed when the trial is set up.
+ * {@link #tick(Chart)} measures the throughput of ticks with random events once the code is compiled by the JIT,
+ * {@link #warmUp(ColdChart)} measures the time of the first ticks of freshly loaded classes, which run in the
+ * interpreter or in code that has just been compiled.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class TransitionTableBenchmark {
+
+    private static final int INPUT_COUNT = 1 << 16;
+    private static final int WARM_UP_TICKS = 20_000;
+
+    @Param({ "LEAN", "TABLE" })
+    private ChartShape shape;
+
+    private long[] eventMasks;
+
+    @Setup(Level.Trial)
+    public void createEvents() {
+        System.out.printf("%n[class size] %s: class files=%d bytes%n", shape, shape.getClassFileSize());
+        // One of the events or no event at all, so some ticks do not take a transition
+        final Random random = new Random(42);
+        eventMasks = new long[INPUT_COUNT];
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            final int event = random.nextInt(shape.getEventCount() + 1);
+            eventMasks[i] = event < shape.getEventCount() ? shape.eventMask(event) : 0L;
+        }
+    }
+
+    /**
+     * Chart instance of the classes loaded with the benchmark.
+     */
+    @State(Scope.Thread)
+    public static class Chart {
+
+        private LongConsumer chart;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void create(final TransitionTableBenchmark benchmark) {
+            chart = benchmark.shape.newChart();
+        }
+    }
+
+    /**
+     * Chart instance of classes that are loaded anew for every iteration.
+     */
+    @State(Scope.Thread)
+    public static class ColdChart {
+
+        private LongConsumer chart;
+
+        @Setup(Level.Iteration)
+        public void load(final TransitionTableBenchmark benchmark) {
+            chart = benchmark.shape.newColdChart();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public void tick(final Chart chart) {
+        final long eventMask = eventMasks[chart.next];
+        chart.next = (chart.next + 1) & (INPUT_COUNT - 1);
+        chart.chart.accept(eventMask);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 10)
+    public void warmUp(final ColdChart chart) {
+        for (int i = 0; i < WARM_UP_TICKS; i++) {
+            chart.chart.accept(eventMasks[i & (INPUT_COUNT - 1)]);
+        }
+    }
+}
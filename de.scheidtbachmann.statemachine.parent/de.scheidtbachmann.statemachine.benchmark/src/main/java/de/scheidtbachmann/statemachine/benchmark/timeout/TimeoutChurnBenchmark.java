@@ -0,0 +1,128 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.timeout;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutManager;
+import de.scheidtbachmann.statemachine.runtime.execution.impl.StateMachineExecutionFactoryService;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Restarts inactivity timeouts at a fixed rate of {@value #RESTARTS_PER_SECOND} restarts per second.
+ *
+ * Each invocation paces {@value #RESTARTS_PER_SECOND} restarts evenly over one second, spread round-robin over the
+ * timeouts. The single shot time stays at about one second as long as the engine keeps up with the rate. The
+ * auxiliary counters report the restarts that fell behind the pace, the expired timeouts (which should stay zero,
+ * as every timeout is restarted long before its delay). Run with {@code -prof gc} to compare the allocation
+ * rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TimeoutChurnBenchmark {
+
+    private static final int RESTARTS_PER_SECOND = 1_000_000;
+    private static final long PACE_NANOS = TimeUnit.SECONDS.toNanos(1) / RESTARTS_PER_SECOND;
+    private static final long LATE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({ "EXECUTOR", "LAZY_DEADLINE", "TIMING_WHEEL" })
+    private TimeoutEngine engine;
+
+    @Param({ "1000" })
+    private int timeoutCount;
+
+    @Param({ "100" })
+    private long inactivityMillis;
+
+    private StateMachineExecutionFactory factory;
+    private ScheduledExecutorService executor;
+    private StateMachineTimeoutManager[] timeouts;
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Counters reported per iteration in addition to the time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ChurnCounters {
+        public long lateRestarts;
+        public long expiredTimeouts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            lateRestarts = 0;
+            expiredTimeouts = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void armTimeouts() {
+        factory = engine.decorate(new StateMachineExecutionFactoryService());
+        executor = factory.createExecutor("Benchmark");
+        timeouts = new StateMachineTimeoutManager[timeoutCount];
+        for (int i = 0; i < timeoutCount; i++) {
+            timeouts[i] = factory.createTimeout(executor, "Inactivity-" + i, inactivityMillis, TimeUnit.MILLISECONDS,
+                expirations::incrementAndGet, true);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseTimeouts() {
+        for (final StateMachineTimeoutManager timeout : timeouts) {
+            timeout.cancel();
+        }
+        factory.releaseExecutor(executor);
+        engine.dispose(factory);
+    }
+
+    @Benchmark
+    public void restartAtFixedRate(final ChurnCounters counters) {
+        final long expirationsBefore = expirations.get();
+        final long start = System.nanoTime();
+        long late = 0;
+        for (int i = 0; i < RESTARTS_PER_SECOND; i++) {
+            final long due = start + i * PACE_NANOS;
+            long now = System.nanoTime();
+            while (now < due) {
+                Thread.onSpinWait();
+                now = System.nanoTime();
+            }
+            if (now - due > LATE_THRESHOLD_NANOS) {
+                late++;
+            }
+            timeouts[i % timeoutCount].restart();
+        }
+        counters.lateRestarts += late;
+        counters.expiredTimeouts += expirations.get() - expirationsBefore;
+    }
+}
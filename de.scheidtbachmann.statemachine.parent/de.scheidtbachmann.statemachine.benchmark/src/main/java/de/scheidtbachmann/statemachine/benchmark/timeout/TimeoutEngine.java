@@ -0,0 +1,62 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.timeout;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+import de.scheidtbachmann.statemachine.runtime.execution.impl.StateMachineLazyTimeoutExecutionFactory;
+import de.scheidtbachmann.statemachine.runtime.execution.impl.StateMachineTimingWheelExecutionFactory;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * The timeout implementations that are compared by the benchmarks.
+ */
+public enum TimeoutEngine {
+
+    /** One scheduled future per started timeout in the executor of the state machine. */
+    EXECUTOR(UnaryOperator.identity()),
+
+    /** One wake-up task per timeout in the executor of the state machine, restarts only move the deadline. */
+    LAZY_DEADLINE(StateMachineLazyTimeoutExecutionFactory::new),
+
+    /** Shared hierarchical timing wheel. */
+    TIMING_WHEEL(StateMachineTimingWheelExecutionFactory::new);
+
+    private final UnaryOperator<StateMachineExecutionFactory> decorator;
+
+    TimeoutEngine(final UnaryOperator<StateMachineExecutionFactory> decorator) {
+        this.decorator = decorator;
+    }
+
+    /**
+     * Creates an execution factory whose timeouts are handled by this engine.
+     *
+     * @param executionFactory
+     *            The factory that creates the executors.
+     * @return The factory to create the timeouts with.
+     */
+    public StateMachineExecutionFactory decorate(final StateMachineExecutionFactory executionFactory) {
+        return decorator.apply(executionFactory);
+    }
+
+    /**
+     * Frees the resources held by the decorated factory.
+     *
+     * @param factory
+     *            The factory created by {@link #decorate(StateMachineExecutionFactory)}.
+     */
+    public void dispose(final StateMachineExecutionFactory factory) {
+        if (factory instanceof StateMachineTimingWheelExecutionFactory) {
+            ((StateMachineTimingWheelExecutionFactory) factory).shutdown();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.benchmark.timeout;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutManager;
+import de.scheidtbachmann.statemachine.runtime.execution.impl.StateMachineExecutionFactoryService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures restarting and cancelling armed watchdog timeouts.
+ *
+ * A large number of timeouts with a long delay is armed in the executor of one state machine. The benchmarks pick
+ * random timeouts and restart or cancel and start them, which is what a state machine does with a watchdog on every
+ * tick. The live heap after the measurement is printed, as cancelled scheduled futures are kept in the executor queue
+ * until their deadline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeoutRestartBenchmark {
+
+    private static final long WATCHDOG_DELAY_SECONDS = 600;
+
+    @Param({ "EXECUTOR", "LAZY_DEADLINE", "TIMING_WHEEL" })
+    private TimeoutEngine engine;
+
+    @Param({ "100000" })
+    private int timeoutCount;
+
+    private StateMachineExecutionFactory factory;
+    private ScheduledExecutorService executor;
+    private StateMachineTimeoutManager[] timeouts;
+
+    @Setup(Level.Trial)
+    public void armTimeouts() {
+        factory = engine.decorate(new StateMachineExecutionFactoryService());
+        executor = factory.createExecutor("Benchmark");
+        timeouts = new StateMachineTimeoutManager[timeoutCount];
+        for (int i = 0; i < timeoutCount; i++) {
+            timeouts[i] = factory.createTimeout(executor, "Watchdog-" + i, WATCHDOG_DELAY_SECONDS, TimeUnit.SECONDS,
+                () -> { /* never expires during the benchmark */ }, true);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void releaseTimeouts() {
+        System.gc();
+        System.out.printf("%n[footprint] %s: timeouts=%d, live heap=%d KiB%n", engine, timeoutCount,
+            ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / 1024);
+        for (final StateMachineTimeoutManager timeout : timeouts) {
+            timeout.cancel();
+        }
+        factory.releaseExecutor(executor);
+        engine.dispose(factory);
+    }
+
+    @Benchmark
+    public void restart() {
+        timeouts[ThreadLocalRandom.current().nextInt(timeoutCount)].restart();
+    }
+
+    @Benchmark
+    public void cancelAndStart() {
+        final StateMachineTimeoutManager timeout = timeouts[ThreadLocalRandom.current().nextInt(timeoutCount)];
+        timeout.cancel();
+        timeout.start();
+    }
+}
@@ -19,6 +19,7 @@ import de.cau.cs.kieler.kicool.registration.KiCoolRegistration
 import de.cau.cs.kieler.sccharts.processors.statebased.codegen.StatebasedCCodeGenerator
 import de.cau.cs.kieler.sccharts.text.SCTXStandaloneSetup
 import de.cau.cs.kieler.scg.ScgPackage
+import de.scheidtbachmann.statemachine.runtime.StateMachineFlightRecording
 import de.scheidtbachmann.statemachine.transformators.ModelSelect
 import java.io.ByteArrayOutputStream
 import java.io.IOException
@@ -53,6 +54,7 @@ class Generator implements Runnable {
     static val CMD_VALIDATE = 'validate'
     static val CMD_DRAW = 'draw'
     static val CMD_GENERATE = 'generate'
+    static val CMD_FLIGHT = 'flight'
 
     @Accessors(PROTECTED_SETTER)
     CommandLine.Help.Ansi ansi = CommandLine.Help.Ansi.AUTO
@@ -650,4 +652,41 @@ class Generator implements Runnable {
             System.out.write(altSysout.toByteArray)
         }
     }
+
+    /*
+     * ------------------------
+     * FLIGHT RECORDING
+     * ------------------------
+     */
+    /**
+     * Definition of the flight recording command.
+     * Takes the dump file of a flight recorder and prints its records, the oldest one first.
+     */
+    @Command(name=CMD_FLIGHT, header='Print the ticks recorded in the given flight recorder dump.',
+        parameterListHeading="%nParameters:%n", optionListHeading="%nOptions:%n", sortOptions=false)
+    def void flight(
+        @Parameters(arity="0..1", paramLabel="<dumpFile>", description="The flight recorder dump file.")
+        String dumpFileName
+    ) {
+        if (dumpFileName.nullOrEmpty) {
+            // No dump file given. Show usage.
+            commandSpec.subcommands.get(CMD_FLIGHT).usage(System.out, ansi)
+            return
+        }
+        val dumpFile = basePath.resolve(dumpFileName)
+        if (!dumpFile.isRegularFile) {
+            println('''Input file '«dumpFileName»' not found!''')
+            return
+        }
+        try {
+            // Decode the dump and print one line per tick
+            val recording = StateMachineFlightRecording.read(dumpFile)
+            for (record : recording.records) {
+                println(recording.format(record))
+            }
+            println('''«recording.records.size» ticks of «recording.machineNames.size» state machines recorded.''')
+        } catch (IOException e) {
+            println('''Reading '«dumpFileName»' failed: «e.message»''')
+        }
+    }
 }
@@ -14,6 +14,8 @@ package de.scheidtbachmann.statemachine.cli;
 import static org.assertj.core.api.Assumptions.assumeThat;
 import static org.assertj.core.api.BDDAssertions.then;
 
+import de.scheidtbachmann.statemachine.runtime.StateMachineFlightRecording;
+
 import org.assertj.core.api.Assumptions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -41,6 +43,7 @@ class GeneratorTest {
 
     private static final String TEST_FILE_NAME = "foo.sctx";
     private static final String STRATEGY_FILE_NAME = "bar.kico";
+    private static final String DUMP_FILE_NAME = "dump.sfr";
     private static final String OUTPUT_FOLDER = "gen";
 
     private static final String EMPTY_INPUT = "";
@@ -331,6 +334,47 @@ class GeneratorTest {
         }
     }
 
+    @Nested
+    class Flight {
+        @Test
+        void testFlight_NoInput() throws IOException {
+            whenPrintingFlightRecording(Paths.get(""));
+
+            thenErrorOutputIsEmpty();
+            thenRegularOutputStartsWithDataFromFile("flight.noFile.start");
+        }
+
+        @Test
+        void testFlight_NonExistingInput() throws IOException {
+            whenPrintingFlightRecording(Paths.get(""), DUMP_FILE_NAME);
+
+            thenErrorOutputIsEmpty();
+            thenRegularOutputMatchesDataFromFile("flight.missingFile.stdout");
+        }
+
+        @Test
+        void testFlight_ValidDump() throws IOException {
+            givenTempDirForTest();
+            givenFlightRecordingInFile();
+
+            whenPrintingFlightRecording(basePath, DUMP_FILE_NAME);
+
+            thenErrorOutputIsEmpty();
+            thenRegularOutputMatchesDataFromFile("flight.validFile.stdout");
+        }
+
+        @Test
+        void testFlight_InvalidDump() throws IOException {
+            givenTempDirForTest();
+            Files.write(basePath.resolve(DUMP_FILE_NAME), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+
+            whenPrintingFlightRecording(basePath, DUMP_FILE_NAME);
+
+            thenErrorOutputIsEmpty();
+            thenRegularOutputStartsWithDataFromFile("flight.invalidFile.start");
+        }
+    }
+
     /*
      * ----------------------------------------------------------------------------------
      */
@@ -353,6 +397,13 @@ class GeneratorTest {
             StandardOpenOption.WRITE);
     }
 
+    private void givenFlightRecordingInFile() throws IOException {
+        new StateMachineFlightRecording(List.of("Door", "Lock"),
+            List.of(new StateMachineFlightRecording.Record(1_700_000_000_123_456_789L, 0, 1, 2, 0x1L, false),
+                new StateMachineFlightRecording.Record(1_700_000_001_000_000_000L, 1, 2, -1, 0L, true)))
+                    .write(basePath.resolve(DUMP_FILE_NAME));
+    }
+
     private void givenStrategyFileIsUnreadable() {
         basePath.resolve(STRATEGY_FILE_NAME).toFile().setReadable(false, false);
     }
@@ -380,6 +431,11 @@ class GeneratorTest {
         commandLineRun(basePath, params);
     }
 
+    private void whenPrintingFlightRecording(final Path basePath, final String... args) {
+        final String[] params = Stream.concat(Stream.of("flight"), Arrays.stream(args)).toArray(String[]::new);
+        commandLineRun(basePath, params);
+    }
+
     private void thenErrorOutputIsEmpty() {
         then(interceptingSysErr.toString()).isEmpty();
     }
@@ -82,8 +82,10 @@ class StrategyCandidatesTest {
         "%n  de.cau.cs.kieler.scl.ssa.scssa", "%n  de.cau.cs.kieler.scl.ssa.scssa.sccp",
         "%n  de.cau.cs.kieler.scl.ssa.scssa.simple", "%n  de.cau.cs.kieler.scl.ssa.seq",
         "%n  de.cau.cs.kieler.slic.schedule",
+        "%n  de.scheidtbachmann.statemachine.codegen.statebased.fleet.java.template",
         "%n  de.scheidtbachmann.statemachine.codegen.statebased.lean.cpp.template",
         "%n  de.scheidtbachmann.statemachine.codegen.statebased.lean.java.template",
-        "%n  de.scheidtbachmann.statemachine.codegen.statebased.lean.java.template.selective"
+        "%n  de.scheidtbachmann.statemachine.codegen.statebased.lean.java.template.selective",
+        "%n  de.scheidtbachmann.statemachine.codegen.statebased.table.java.template"
             + ", %n  or a path to a custom <.kico> file");
 }
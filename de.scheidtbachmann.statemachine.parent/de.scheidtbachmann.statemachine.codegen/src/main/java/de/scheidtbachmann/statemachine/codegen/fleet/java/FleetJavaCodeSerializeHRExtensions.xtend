@@ -0,0 +1,29 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.codegen.fleet.java
+
+import de.cau.cs.kieler.kexpressions.ValuedObjectReference
+import de.scheidtbachmann.statemachine.codegen.lean.java.EnhancedStatebasedJavaCodeSerializeHRExtensions
+
+/**
+ * Serializes expressions for the fleet template, where every variable is an array with one element per instance.
+ */
+class FleetJavaCodeSerializeHRExtensions extends EnhancedStatebasedJavaCodeSerializeHRExtensions {
+
+    override dispatch CharSequence serializeHR(ValuedObjectReference valuedObjectReference) {
+        if (!valuedObjectReference.indices.empty || valuedObjectReference.subReference !== null) {
+            throw new IllegalArgumentException("The fleet generator does not support arrays or sub references: "
+                + valuedObjectReference.valuedObject.name)
+        }
+        return valuedObjectReference.valuedObject.name + "[instance]"
+    }
+}
@@ -0,0 +1,41 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+package de.scheidtbachmann.statemachine.codegen.fleet.java
+
+import de.cau.cs.kieler.kicool.compilation.CodeContainer
+import de.cau.cs.kieler.sccharts.SCCharts
+import de.scheidtbachmann.statemachine.codegen.lean.java.StatebasedLeanJavaCodeGenerator
+import de.scheidtbachmann.statemachine.codegen.lean.java.StatebasedLeanJavaTemplate
+
+/**
+ * Java Code Generator for a fleet of many instances of the same chart. The generated class keeps the states and
+ * variables of all instances in arrays, see {@link StatebasedFleetJavaTemplate}.
+ */
+class StatebasedFleetJavaCodeGenerator extends StatebasedLeanJavaCodeGenerator {
+
+    override getId() {
+        "de.scheidtbachmann.statemachine.codegen.statebased.fleet.java"
+    }
+
+    override getName() {
+        "State-based Java Code (Fleet)"
+    }
+
+    override protected createTemplate() {
+        return injector.getInstance(StatebasedFleetJavaTemplate)
+    }
+
+    override protected writeToCodeContainer(CodeContainer codeContainer, StatebasedLeanJavaTemplate template,
+        String codeFilename, SCCharts scc) {
+        super.writeToCodeContainer(codeContainer, template, codeFilename + StatebasedFleetJavaTemplate.FLEET_SUFFIX,
+            scc)
+    }
+}
@@ -0,0 +1,480 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.codegen.fleet.java
+
+import com.google.inject.Inject
+import de.cau.cs.kieler.annotations.extensions.AnnotationsExtensions
+import de.cau.cs.kieler.kexpressions.ReferenceDeclaration
+import de.cau.cs.kieler.kexpressions.ValuedObject
+import de.cau.cs.kieler.kexpressions.VariableDeclaration
+import de.cau.cs.kieler.kexpressions.extensions.KExpressionsTypeExtensions
+import de.cau.cs.kieler.kexpressions.extensions.KExpressionsValuedObjectExtensions
+import de.cau.cs.kieler.sccharts.ControlflowRegion
+import de.cau.cs.kieler.sccharts.DelayType
+import de.cau.cs.kieler.sccharts.PreemptionType
+import de.cau.cs.kieler.sccharts.State
+import de.cau.cs.kieler.sccharts.Transition
+import de.cau.cs.kieler.sccharts.extensions.SCChartsStateExtensions
+import de.cau.cs.kieler.sccharts.extensions.SCChartsTransitionExtensions
+import de.scheidtbachmann.statemachine.codegen.lean.java.StatebasedLeanJavaTemplate
+import java.util.List
+
+/**
+ * Variant of the {@link StatebasedLeanJavaTemplate} for many instances of the same chart.
+ *
+ * Instead of one object graph per instance, the generated fleet class keeps the active state, thread status and
+ * variables of all instances in primitive arrays indexed by the instance id. The state and region methods take the
+ * instance id instead of a context. Input events are passed as bit masks, so a whole fleet can be ticked with
+ * {@code tickAll(long[])} without allocation. The fleet does not support host calls, arrays, the context interface or
+ * the features of the lean template.
+ */
+class StatebasedFleetJavaTemplate extends StatebasedLeanJavaTemplate {
+
+    @Inject extension AnnotationsExtensions
+    @Inject extension KExpressionsTypeExtensions
+    @Inject extension KExpressionsValuedObjectExtensions
+    @Inject extension SCChartsStateExtensions
+    @Inject extension SCChartsTransitionExtensions
+    @Inject FleetJavaCodeSerializeHRExtensions fleetSerializer
+
+    public static val FLEET_SUFFIX = "Fleet"
+    static val MAX_EVENTS = Long.SIZE
+
+    override protected createCode() {
+        checkSupported()
+        val regions = scopes.filter(ControlflowRegion).toList
+        val variables = variableValuedObjects
+        val events = eventValuedObjects
+        val fleetName = rootState.uniqueName + FLEET_SUFFIX
+
+        //CHECKSTYLEOFF LineLength This is template code that can't be arbitrarily formatted
+        source.append('''
+          @SuppressWarnings("all")
+          @de.scheidtbachmann.statemachine.runtime.Generated(message = "de.scheidtbachmann.statemachine.compiler")
+          public class « fleetName » {
+
+            private static final byte TERMINATED = 0;
+            private static final byte RUNNING = 1;
+            private static final byte READY = 2;
+
+            /** Estimated number of bytes of array elements per instance. */
+            public static final int BYTES_PER_INSTANCE = « 1 + regions.fold(0)[sum, r | sum + r.bytesPerInstance] + variables.fold(0)[sum, vo | sum + vo.bytesPerElement] »;
+            « IF !events.empty »
+
+              @de.scheidtbachmann.statemachine.runtime.Generated(message = "de.scheidtbachmann.statemachine.compiler")
+              public enum InputEvent {
+                « FOR event : events SEPARATOR ', ' »« event.name »« ENDFOR »;
+
+                /**
+                 * @return the bit of this event in the event masks of {@link « fleetName »#apply(int, long)}.
+                 */
+                public long mask() {
+                  return 1L << ordinal();
+                }
+
+                /**
+                 * @param events
+                 *            The events to combine.
+                 * @return the event mask of the given events.
+                 */
+                public static long mask(InputEvent... events) {
+                  long mask = 0L;
+                  for (InputEvent event : events) {
+                    mask |= event.mask();
+                  }
+                  return mask;
+                }
+              }
+            « ENDIF »
+
+            « FOR r : regions »
+              « FOR c : r.stateConstants.indexed »
+                private static final int « c.value » = « c.key »;
+              « ENDFOR »
+              private static final String[] « r.uniqueName »_NAMES = { « FOR s : r.states SEPARATOR ', ' »"« getDisplayName(s.sourceState) »"« IF s.isHierarchical », null« ENDIF »« ENDFOR » };
+
+            « ENDFOR »
+            private final int capacity;
+            private final byte[] threadStatus;
+            « FOR r : regions »
+              private final « r.stateArrayType »[] « r.uniqueName »State;
+              private final byte[] « r.uniqueName »Status;
+              « IF r.needsDelayedEnabled »
+                private final boolean[] « r.uniqueName »Delayed;
+              « ENDIF »
+            « ENDFOR »
+            « FOR vo : variables »
+              private final « vo.declarationType »[] « vo.name »;« IF vo.isInput » // Input« ENDIF »« IF vo.isOutput » // Output« ENDIF »
+            « ENDFOR »
+
+            /**
+             * Creates a fleet of instances that are terminated until they are initialized.
+             *
+             * @param capacity
+             *            The number of instances, addressed by the ids 0 to capacity - 1.
+             */
+            public « fleetName »(int capacity) {
+              this.capacity = capacity;
+              threadStatus = new byte[capacity];
+              « FOR r : regions »
+                « r.uniqueName »State = new « r.stateArrayType »[capacity];
+                « r.uniqueName »Status = new byte[capacity];
+                « IF r.needsDelayedEnabled »
+                  « r.uniqueName »Delayed = new boolean[capacity];
+                « ENDIF »
+              « ENDFOR »
+              « FOR vo : variables »
+                « vo.name » = new « vo.declarationType »[capacity];
+              « ENDFOR »
+            }
+
+            public int getCapacity() {
+              return capacity;
+            }
+
+            /**
+             * Resets the variables of the instance and performs the initial tick.
+             */
+            public void init(int instance) {
+              « FOR vo : variables »
+                « vo.name »[instance] = « vo.defaultValue »;
+              « ENDFOR »
+              « FOR r : rootState.regions.filter(ControlflowRegion) »
+                « r.uniqueName »State[instance] = « r.states.filter[initial].head.stateConstant »;
+                « IF r.needsDelayedEnabled »
+                  « r.uniqueName »Delayed[instance] = false;
+                « ENDIF »
+                « r.uniqueName »Status[instance] = READY;
+              « ENDFOR »
+              threadStatus[instance] = READY;
+              tick(instance);
+            }
+
+            public void initAll() {
+              for (int instance = 0; instance < capacity; instance++) {
+                init(instance);
+              }
+            }
+
+            public void tick(int instance) {
+              if (threadStatus[instance] == TERMINATED) {
+                return;
+              }
+              « rootState.uniqueName »_root(instance);
+              « FOR event : events »
+                « event.name »[instance] = false;
+              « ENDFOR »
+            }
+            « IF events.empty »
+
+              public void tickAll() {
+                for (int instance = 0; instance < capacity; instance++) {
+                  tick(instance);
+                }
+              }
+            « ELSE »
+
+              /**
+               * Sets the given input events and ticks the instance.
+               *
+               * @param eventMask
+               *            The events to set, as combined by {@link InputEvent#mask(InputEvent...)}.
+               */
+              public void apply(int instance, long eventMask) {
+                « FOR event : events.indexed »
+                  « event.value.name »[instance] = (eventMask & « 1L << event.key »L) != 0;
+                « ENDFOR »
+                tick(instance);
+              }
+
+              public void apply(int instance, InputEvent... events) {
+                apply(instance, InputEvent.mask(events));
+              }
+
+              /**
+               * Ticks all instances in the order of their ids.
+               *
+               * @param eventMasks
+               *            The events to set for every instance, indexed by the instance id.
+               */
+              public void tickAll(long[] eventMasks) {
+                if (eventMasks.length != capacity) {
+                  throw new IllegalArgumentException("Expected " + capacity + " event masks, got " + eventMasks.length);
+                }
+                for (int instance = 0; instance < capacity; instance++) {
+                  apply(instance, eventMasks[instance]);
+                }
+              }
+            « ENDIF »
+
+            public boolean isTerminated(int instance) {
+              return threadStatus[instance] == TERMINATED;
+            }
+
+            public String getCurrentState(int instance) {
+              final java.util.Set<String> activeStates = new java.util.LinkedHashSet<>();
+              « FOR r : rootState.regions.filter(ControlflowRegion) »
+                addActiveStates_« r.uniqueName »(instance, activeStates);
+              « ENDFOR »
+              return String.join(",", activeStates);
+            }
+            « FOR vo : variables.filter[!variableDeclaration.hasAnnotation("InputEvent")] »
+              « IF vo.isOutput »
+
+                public « vo.declarationType » « IF vo.isBool »is« ELSE »get« ENDIF »« vo.name.toFirstUpper »(int instance) {
+                  return « vo.name »[instance];
+                }
+              « ENDIF »
+              « IF vo.isInput »
+
+                public void set« vo.name.toFirstUpper »(int instance, « vo.declarationType » value) {
+                  « vo.name »[instance] = value;
+                }
+              « ENDIF »
+            « ENDFOR »
+
+            « FOR r : regions »
+              « createFleetRegion(r) »
+
+              « createFleetActiveStates(r) »
+
+            « ENDFOR »
+            « FOR s : scopes.filter(State) »
+              « createFleetState(s) »
+
+            « ENDFOR »
+          }
+        ''')
+        //CHECKSTYLEON LineLength
+    }
+
+    /**
+     * The fleet has no dispatch over the configuration of an instance.
+     */
+    override isFlatDispatchEnabled() {
+        return false
+    }
+
+    private def void checkSupported() {
+        if (rootState.declarations.exists[it instanceof ReferenceDeclaration || hasAnnotation('Context')]) {
+            throw new IllegalArgumentException("The fleet generator does not support host calls or a context interface")
+        }
+        val arrays = variableValuedObjects.filter[isArray]
+        if (!arrays.empty) {
+            throw new IllegalArgumentException("The fleet generator does not support arrays: "
+                + arrays.map[name].join(", "))
+        }
+        if (eventValuedObjects.size > MAX_EVENTS) {
+            throw new IllegalArgumentException("The fleet generator supports at most " + MAX_EVENTS + " input events")
+        }
+    }
+
+    private def CharSequence createFleetRegion(ControlflowRegion region) {
+        return '''
+          private void « region.uniqueName »(int instance) {
+            while (« region.uniqueName »Status[instance] == RUNNING) {
+              switch (« region.uniqueName »State[instance]) {
+                « FOR s : region.states »
+                  case « s.stateConstant »:
+                    « s.uniqueName »(instance);
+                    « IF s.isHierarchical »
+                      « s.uniqueName »_running(instance);
+                    « ENDIF »
+                    break;
+                  « IF s.isHierarchical »
+                    case « s.stateConstant »_RUNNING:
+                      « s.uniqueName »_running(instance);
+                      break;
+                  « ENDIF »
+                « ENDFOR »
+              }
+            }
+          }
+        '''
+    }
+
+    /**
+     * Collects the display names of the active simple states of a region, descending into active superstates.
+     */
+    private def CharSequence createFleetActiveStates(ControlflowRegion region) {
+        return '''
+          private void addActiveStates_« region.uniqueName »(int instance, java.util.Set<String> activeStates) {
+            switch (« region.uniqueName »State[instance]) {
+              « FOR s : region.states.filter[isHierarchical] »
+                case « s.stateConstant »:
+                case « s.stateConstant »_RUNNING:
+                  « FOR r : s.regions.filter(ControlflowRegion) »
+                    addActiveStates_« r.uniqueName »(instance, activeStates);
+                  « ENDFOR »
+                  return;
+              « ENDFOR »
+              default:
+                activeStates.add(« region.uniqueName »_NAMES[« region.uniqueName »State[instance]]);
+            }
+          }
+        '''
+    }
+
+    private def CharSequence createFleetState(State state) {
+        val status = state.statusAccess
+        //CHECKSTYLEOFF LineLength This is template code that can't be arbitrarily formatted
+        return '''
+          « IF state === rootState »
+            private void « state.uniqueName »_root(int instance) {
+          « ELSE »
+            private void « state.uniqueName »(int instance) {
+            « IF state.isHierarchical »
+              « FOR r : state.regions.filter(ControlflowRegion) »
+                « r.uniqueName »State[instance] = « r.states.filter[initial].head.stateConstant »;
+                « IF r.needsDelayedEnabled »
+                  « r.uniqueName »Delayed[instance] = false;
+                « ENDIF »
+                « r.uniqueName »Status[instance] = READY;
+              « ENDFOR »
+              « state.parentRegion.uniqueName »State[instance] = « state.stateConstant »_RUNNING;
+            }
+
+            private void « state.uniqueName »_running(int instance) {
+            « ENDIF »
+          « ENDIF »
+            « FOR r : state.regions.filter(ControlflowRegion) »
+              if (« r.uniqueName »Status[instance] != TERMINATED) {
+                « r.uniqueName »Status[instance] = RUNNING;
+              }
+            « ENDFOR »
+            « FOR r : state.regions.filter(ControlflowRegion) »
+              « r.uniqueName »(instance);
+            « ENDFOR »
+            « IF state.isFinal »
+              « status » = TERMINATED;
+            « ELSE »
+              « FOR t : state.outgoingTransitions.indexed »
+                « IF t.key == 0 »
+                  if (« t.value.fleetCondition ») {
+                « ELSEIF t.value.isDefault »
+                  } else {
+                « ELSE »
+                  } else if (« t.value.fleetCondition ») {
+                « ENDIF »
+                  « t.value.fleetEffect »
+              « ENDFOR »
+              « IF state.outgoingTransitions.empty »
+                « state.fleetReadyCode »
+              « ELSEIF !state.outgoingTransitions.exists[isDefault] »
+                } else {
+                  « state.fleetReadyCode »
+                }
+              « ELSE »
+                }
+              « ENDIF »
+            « ENDIF »
+          }
+        '''
+        //CHECKSTYLEON LineLength
+    }
+
+    private def CharSequence fleetReadyCode(State state) {
+        return '''
+          « FOR r : state.regions.filter(ControlflowRegion).filter[needsDelayedEnabled] »
+            « r.uniqueName »Delayed[instance] = true;
+          « ENDFOR »
+          « state.statusAccess » = READY;
+        '''
+    }
+
+    private def CharSequence fleetCondition(Transition transition) {
+        if (transition.preemption == PreemptionType.TERMINATION) {
+            return transition.sourceState.regions.filter(ControlflowRegion)
+                .map[uniqueName + "Status[instance] == TERMINATED"].join(" && ")
+        }
+        val trigger = if (transition.trigger === null) null else fleetSerializer.serializeHR(transition.trigger)
+        if (transition.immediate) {
+            return trigger ?: "true"
+        }
+        val delayed = transition.sourceState.parentRegion.uniqueName + "Delayed[instance]"
+        return if (trigger === null) delayed else delayed + " && (" + trigger + ")"
+    }
+
+    private def CharSequence fleetEffect(Transition transition) {
+        val region = transition.sourceState.parentRegion
+        return '''
+          « FOR e : transition.effects »
+            « fleetSerializer.serializeHR(e) »;
+          « ENDFOR »
+          « IF region.needsDelayedEnabled »
+            « region.uniqueName »Delayed[instance] = false;
+          « ENDIF »
+          « IF transition.sourceState != transition.targetState || transition.targetState.isHierarchical »
+            « region.uniqueName »State[instance] = « transition.targetState.stateConstant »;
+          « ENDIF »
+        '''
+    }
+
+    private def boolean isDefault(Transition transition) {
+        return transition.trigger === null && transition.delay == DelayType.IMMEDIATE
+            && transition.preemption != PreemptionType.TERMINATION
+    }
+
+    /**
+     * @return the thread status of the context the state is running in.
+     */
+    private def String statusAccess(State state) {
+        return if (state === rootState) "threadStatus[instance]" else state.parentRegion.uniqueName + "Status[instance]"
+    }
+
+    private def String stateConstant(State state) {
+        return state.parentRegion.uniqueName + "_" + state.uniqueEnumName
+    }
+
+    /**
+     * @return the names of the state constants of the region, in the order of their values.
+     */
+    private def List<String> stateConstants(ControlflowRegion region) {
+        return region.states.map[s | if (s.isHierarchical) #[s.stateConstant, s.stateConstant + "_RUNNING"]
+            else #[s.stateConstant]].flatten.toList
+    }
+
+    private def String stateArrayType(ControlflowRegion region) {
+        val count = region.stateConstants.size
+        return if (count <= Byte.MAX_VALUE) "byte" else if (count <= Short.MAX_VALUE) "short" else "int"
+    }
+
+    private def int bytesPerInstance(ControlflowRegion region) {
+        val stateBytes = switch (region.stateArrayType) { case "byte": 1 case "short": 2 default: 4 }
+        return stateBytes + 1 + (if (region.needsDelayedEnabled) 1 else 0)
+    }
+
+    private def int bytesPerElement(ValuedObject vo) {
+        return switch (vo.declarationType.toString) {
+            case "boolean", case "byte": 1
+            case "short", case "char": 2
+            case "long", case "double": 8
+            default: 4
+        }
+    }
+
+    private def String defaultValue(ValuedObject vo) {
+        return switch (vo.declarationType.toString) {
+            case "boolean": "false"
+            case "byte", case "short", case "char", case "int", case "long", case "float", case "double": "0"
+            default: "null"
+        }
+    }
+
+    private def List<ValuedObject> getVariableValuedObjects() {
+        return rootState.declarations.filter(VariableDeclaration).map[valuedObjects].flatten.toList
+    }
+
+    private def List<ValuedObject> getEventValuedObjects() {
+        return eventDeclarations.map[valuedObjects].flatten.toList
+    }
+}
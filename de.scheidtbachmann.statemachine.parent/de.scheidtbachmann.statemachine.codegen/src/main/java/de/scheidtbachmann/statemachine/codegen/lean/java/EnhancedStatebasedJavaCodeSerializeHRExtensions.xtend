@@ -14,9 +14,13 @@ package de.scheidtbachmann.statemachine.codegen.lean.java
 import com.google.inject.Inject
 import de.cau.cs.kieler.annotations.extensions.AnnotationsExtensions
 import de.cau.cs.kieler.kexpressions.ReferenceCall
+import de.cau.cs.kieler.kexpressions.ValuedObject
+import de.cau.cs.kieler.kexpressions.ValuedObjectReference
 import de.cau.cs.kieler.kexpressions.extensions.KExpressionsValuedObjectExtensions
 import de.cau.cs.kieler.kexpressions.keffects.ReferenceCallEffect
 import de.cau.cs.kieler.sccharts.processors.statebased.codegen.java.StatebasedJavaCodeSerializeHRExtensions
+import java.util.Map
+import org.eclipse.xtend.lib.annotations.Accessors
 
 /**
  * Enhanced version of {@code StatebasedJavaCodeSerializeHRExtensions} to support external 
@@ -28,7 +32,19 @@ class EnhancedStatebasedJavaCodeSerializeHRExtensions extends StatebasedJavaCode
     
     @Inject extension AnnotationsExtensions
     @Inject extension KExpressionsValuedObjectExtensions
+
+    /** Expressions that replace plain references to the given valued objects, e.g. bit tests on an event mask. */
+    @Accessors var Map<ValuedObject, String> valuedObjectReplacements = emptyMap
       
+    override dispatch CharSequence serializeHR(ValuedObjectReference valuedObjectReference) {
+        val replacement = valuedObjectReplacements.get(valuedObjectReference.valuedObject)
+        if (replacement !== null && valuedObjectReference.indices.empty
+            && valuedObjectReference.subReference === null) {
+            return "(" + replacement + ")"
+        }
+        return super._serializeHR(valuedObjectReference)
+    }
+
     override dispatch CharSequence serialize(ReferenceCallEffect referenceCall) {
         val declaration = referenceCall.valuedObject.referenceDeclaration
         if (declaration.extern.nullOrEmpty) { 
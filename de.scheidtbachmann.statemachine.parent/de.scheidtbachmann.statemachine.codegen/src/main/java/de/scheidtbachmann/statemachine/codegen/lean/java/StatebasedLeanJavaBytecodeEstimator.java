@@ -0,0 +1,161 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.codegen.lean.java;
+
+/**
+ * Estimates the bytecode size of generated Java code, to keep generated methods within the limits of the JIT.
+ *
+ * The estimate is based on the tokens of the source: every variable access, field access, method invocation, literal,
+ * operator and control flow statement is weighted with the typical size of the instructions it compiles to. It is
+ * meant to be conservative for the code generated by the lean template and does not parse the code.
+ */
+public final class StatebasedLeanJavaBytecodeEstimator {
+
+    /** HotSpot does not compile methods with more bytecode than this, see {@code -XX:HugeMethodLimit}. */
+    public static final int HUGE_METHOD_LIMIT = 8000;
+
+    /** HotSpot inlines frequently called methods up to this size, see {@code -XX:FreqInlineSize}. */
+    public static final int FREQ_INLINE_SIZE = 325;
+
+    private static final int LOCAL_ACCESS = 2;
+    private static final int MEMBER_ACCESS = 3;
+    private static final int BRANCH = 3;
+    private static final int SWITCH_CASE = 8;
+    private static final int LITERAL = 2;
+    private static final int ARITHMETIC = 1;
+
+    private StatebasedLeanJavaBytecodeEstimator() {
+        // Utility class
+    }
+
+    /**
+     * @param code
+     *            Java statements or a complete method.
+     * @return the estimated number of bytes of bytecode.
+     */
+    public static int estimate(final CharSequence code) {
+        int size = 0;
+        int i = 0;
+        final int length = code.length();
+        while (i < length) {
+            final char c = code.charAt(i);
+            if (Character.isJavaIdentifierStart(c)) {
+                final int start = i;
+                while (i < length && Character.isJavaIdentifierPart(code.charAt(i))) {
+                    i++;
+                }
+                size += estimateWord(code.subSequence(start, i).toString(), start > 0 && code.charAt(start - 1) == '.');
+            } else if (Character.isDigit(c)) {
+                while (i < length && (Character.isLetterOrDigit(code.charAt(i)) || code.charAt(i) == '.')) {
+                    i++;
+                }
+                size += LITERAL;
+            } else if (c == '"' || c == '\'') {
+                i = skipLiteral(code, i);
+                size += LITERAL;
+            } else if (c == '/' && i + 1 < length && (code.charAt(i + 1) == '/' || code.charAt(i + 1) == '*')) {
+                i = skipComment(code, i);
+            } else {
+                size += estimateOperator(code, i);
+                i++;
+            }
+        }
+        return size;
+    }
+
+    private static int estimateWord(final String word, final boolean member) {
+        switch (word) {
+            case "if":
+            case "else":
+            case "while":
+            case "for":
+            case "break":
+            case "continue":
+                return BRANCH;
+            case "case":
+                return SWITCH_CASE;
+            case "return":
+            case "throw":
+            case "this":
+            case "true":
+            case "false":
+            case "null":
+                return 1;
+            case "new":
+                return MEMBER_ACCESS + 1;
+            case "final":
+            case "private":
+            case "protected":
+            case "public":
+            case "static":
+            case "void":
+            case "int":
+            case "long":
+            case "boolean":
+            case "default":
+            case "switch":
+                return 0;
+            default:
+                return member ? MEMBER_ACCESS : LOCAL_ACCESS;
+        }
+    }
+
+    private static int estimateOperator(final CharSequence code, final int index) {
+        switch (code.charAt(index)) {
+            case '=':
+            case '<':
+            case '>':
+                // Comparisons compile to branches, assignments to stores
+                return BRANCH;
+            case '&':
+            case '|':
+            case '!':
+            case '?':
+                return BRANCH;
+            case '+':
+            case '-':
+            case '*':
+            case '/':
+            case '%':
+            case '^':
+            case '~':
+                return ARITHMETIC;
+            default:
+                return 0;
+        }
+    }
+
+    private static int skipLiteral(final CharSequence code, final int start) {
+        final char quote = code.charAt(start);
+        int i = start + 1;
+        while (i < code.length() && code.charAt(i) != quote) {
+            i += code.charAt(i) == '\\' ? 2 : 1;
+        }
+        return i + 1;
+    }
+
+    private static int skipComment(final CharSequence code, final int start) {
+        if (code.charAt(start + 1) == '/') {
+            int i = start;
+            while (i < code.length() && code.charAt(i) != '\n') {
+                i++;
+            }
+            return i;
+        }
+        for (int i = start + 2; i + 1 < code.length(); i++) {
+            if (code.charAt(i) == '*' && code.charAt(i + 1) == '/') {
+                return i + 2;
+            }
+        }
+        return code.length();
+    }
+}
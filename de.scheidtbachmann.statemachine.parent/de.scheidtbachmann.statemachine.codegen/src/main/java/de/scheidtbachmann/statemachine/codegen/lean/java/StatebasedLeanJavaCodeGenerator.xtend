@@ -48,6 +48,16 @@ class StatebasedLeanJavaCodeGenerator extends ExogenousProcessor<SCCharts, CodeC
 
     protected static val FEATURES = PragmaRegistry.register("features", StringPragma,
         "Comma-separated list of feature overrides for the generated code")
+    protected static val MAILBOX_CAPACITY = PragmaRegistry.register("mailboxCapacity", StringPragma,
+        "Maximum number of pending applications if the BOUNDED_MAILBOX or RING_BUFFER_MAILBOX feature is enabled")
+    protected static val MAILBOX_POLICY = PragmaRegistry.register("mailboxPolicy", StringPragma,
+        "Behavior of the full mailbox (BLOCK, REJECT, DROP_OLDEST, COALESCE), the RING_BUFFER_MAILBOX supports BLOCK and REJECT only")
+    protected static val COALESCE_MAX_BATCH = PragmaRegistry.register("coalesceMaxBatch", StringPragma,
+        "Maximum number of pending applications merged into one tick if the COALESCE_TICKS feature is enabled")
+    protected static val COALESCE_WINDOW = PragmaRegistry.register("coalesceWindow", StringPragma,
+        "Time in milliseconds to collect applications for one tick if the COALESCE_TICKS feature is enabled")
+    protected static val HISTORY_CAPACITY = PragmaRegistry.register("historyCapacity", StringPragma,
+        "Number of activations kept in the activity history, unless the NO_HISTORY feature is enabled")
 
     public static val JAVA_EXTENSION = ".java"
     public static val IMPORTS = "imports"
@@ -64,7 +74,7 @@ class StatebasedLeanJavaCodeGenerator extends ExogenousProcessor<SCCharts, CodeC
     }
 
     override process() {
-        val template = injector.getInstance(StatebasedLeanJavaTemplate)
+        val template = createTemplate()
 
         if (model.getStringPragmas(SUPERCLASS).size > 0) {
             template.superClass = model.getStringPragmas(SUPERCLASS).head.values.head
@@ -72,8 +82,21 @@ class StatebasedLeanJavaCodeGenerator extends ExogenousProcessor<SCCharts, CodeC
 
         val Set<StatebasedLeanJavaFeatureOverrides> featureOverrideSet = getFeatureSet()
         applyOverridesToTemplate(featureOverrideSet, template)
+        applyMailboxSettingsToTemplate(template)
+        applyCoalescingSettingsToTemplate(template)
+        applyHistorySettingsToTemplate(template)
         
         template.create(model.rootStates.head)
+        reportOversizedMethods(template)
+        if (featureOverrideSet.contains(StatebasedLeanJavaFeatureOverrides.FLAT_DISPATCH)
+            && !template.isFlatDispatchEnabled) {
+            environment.warnings.add("The FLAT_DISPATCH feature is ignored, it does not support concurrent regions "
+                + "or the table-driven generator")
+        }
+        if (template.isFlightRecorderTruncatingEvents) {
+            environment.warnings.add("The FLIGHT_RECORDER feature only records the first 64 input events of a tick, "
+                + "the further input events of this chart are missing in the recording")
+        }
 
         val cc = new CodeContainer
         cc.writeToCodeContainer(template, model.rootStates.head.name.hostcodeSafeName, model)
@@ -81,6 +104,26 @@ class StatebasedLeanJavaCodeGenerator extends ExogenousProcessor<SCCharts, CodeC
         setModel(cc)
     }
 
+    /**
+     * Warns about generated methods that are too large to be compiled by the JIT, even after splitting.
+     */
+    protected def void reportOversizedMethods(StatebasedLeanJavaTemplate template) {
+        if (template.oversizedMethods.empty) {
+            return
+        }
+        val report = '''
+            The following generated methods exceed the JIT limit of about «StatebasedLeanJavaBytecodeEstimator.HUGE_METHOD_LIMIT» bytes of bytecode and will only be interpreted:
+            «FOR method : template.oversizedMethods»
+              «method»
+            «ENDFOR»
+        '''
+        environment.warnings.add(report)
+    }
+
+    protected def StatebasedLeanJavaTemplate createTemplate() {
+        return injector.getInstance(StatebasedLeanJavaTemplate)
+    }
+
     protected def void writeToCodeContainer(CodeContainer codeContainer, StatebasedLeanJavaTemplate template,
         String codeFilename, SCCharts scc) {
         val javaFilename = codeFilename + JAVA_EXTENSION
@@ -157,6 +200,24 @@ class StatebasedLeanJavaCodeGenerator extends ExogenousProcessor<SCCharts, CodeC
         }
     }
 
+    protected def void applyCoalescingSettingsToTemplate(StatebasedLeanJavaTemplate template) {
+        if (model.getPragma(COALESCE_MAX_BATCH) !== null) {
+            template.coalesceMaxBatch = Integer.parseInt(model.getStringPragmas(COALESCE_MAX_BATCH).head.values.head.trim)
+        }
+        if (model.getPragma(COALESCE_WINDOW) !== null) {
+            template.coalesceWindowMillis = Long.parseLong(model.getStringPragmas(COALESCE_WINDOW).head.values.head.trim)
+        }
+    }
+
+    protected def void applyHistorySettingsToTemplate(StatebasedLeanJavaTemplate template) {
+        if (model.getPragma(HISTORY_CAPACITY) !== null) {
+            template.historyCapacity = Integer.parseInt(model.getStringPragmas(HISTORY_CAPACITY).head.values.head.trim)
+            if (template.historyCapacity < 1) {
+                throw new IllegalArgumentException("The history capacity must be positive: " + template.historyCapacity)
+            }
+        }
+    }
+
     protected def void applyOverridesToTemplate(Set<StatebasedLeanJavaFeatureOverrides> featureOverrides,
         StatebasedLeanJavaTemplate template) {
         featureOverrides.forEach[
@@ -164,12 +225,38 @@ class StatebasedLeanJavaCodeGenerator extends ExogenousProcessor<SCCharts, CodeC
         ]
     }
 
+    protected def void applyMailboxSettingsToTemplate(StatebasedLeanJavaTemplate template) {
+        if (model.getPragma(MAILBOX_CAPACITY) !== null) {
+            template.mailboxCapacity = Integer.parseInt(model.getStringPragmas(MAILBOX_CAPACITY).head.values.head.trim)
+        }
+        if (model.getPragma(MAILBOX_POLICY) !== null) {
+            template.mailboxPolicy = StatebasedLeanJavaMailboxPolicy.valueOf(
+                model.getStringPragmas(MAILBOX_POLICY).head.values.head.trim.toUpperCase)
+        }
+        if (template.featureOverrides.contains(StatebasedLeanJavaFeatureOverrides.RING_BUFFER_MAILBOX)
+            && template.mailboxPolicy != StatebasedLeanJavaMailboxPolicy.BLOCK
+            && template.mailboxPolicy != StatebasedLeanJavaMailboxPolicy.REJECT) {
+            throw new IllegalArgumentException(
+                "The RING_BUFFER_MAILBOX feature does not support the mailbox policy " + template.mailboxPolicy)
+        }
+    }
+
     protected def Set<StatebasedLeanJavaFeatureOverrides> getFeatureSet() {
         if (model.getPragma(FEATURES) !== null) {
-            return model.getStringPragmas(FEATURES).head?.values //
+            val features = model.getStringPragmas(FEATURES).head?.values //
             .map[it.toUpperCase] //
             .map[StatebasedLeanJavaFeatureOverrides.valueOf(it)] //
             .toSet
+            val queueingFeatures = features.filter[
+                it == StatebasedLeanJavaFeatureOverrides.BOUNDED_MAILBOX
+                    || it == StatebasedLeanJavaFeatureOverrides.COALESCE_TICKS
+                    || it == StatebasedLeanJavaFeatureOverrides.RING_BUFFER_MAILBOX
+            ].toList
+            if (queueingFeatures.size > 1) {
+                throw new IllegalArgumentException("The features " + queueingFeatures.join(", ")
+                    + " cannot be combined, use the COALESCE mailbox policy to merge pending applications of a bounded mailbox")
+            }
+            return features
         } else {
             return #{}
         }
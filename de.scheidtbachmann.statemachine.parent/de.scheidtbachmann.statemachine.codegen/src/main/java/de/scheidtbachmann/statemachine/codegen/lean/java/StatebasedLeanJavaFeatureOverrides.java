@@ -15,5 +15,7 @@ package de.scheidtbachmann.statemachine.codegen.lean.java;
  * Listing of extended features that can be enabled in the generated code.
  */
 public enum StatebasedLeanJavaFeatureOverrides {
-    NO_LOGGER, NO_STRING_CONTAINER, NO_EXECUTOR, NO_HISTORY, THREADACCESS_WARN_ONLY
+    NO_LOGGER, NO_STRING_CONTAINER, NO_EXECUTOR, NO_HISTORY, THREADACCESS_WARN_ONLY, BOUNDED_MAILBOX,
+    COALESCE_TICKS, RING_BUFFER_MAILBOX, STATE_SNAPSHOT, FLAT_DISPATCH, STATE_PERSISTENCE,
+    FLIGHT_RECORDER, COMPACT_LAYOUT
 }
@@ -0,0 +1,20 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.codegen.lean.java;
+
+/**
+ * Overflow policies of the bounded mailbox that can be selected for the generated code.
+ * The names have to match the constants of {@code StateMachineOverflowPolicy} in the runtime.
+ */
+public enum StatebasedLeanJavaMailboxPolicy {
+    BLOCK, REJECT, DROP_OLDEST, COALESCE
+}
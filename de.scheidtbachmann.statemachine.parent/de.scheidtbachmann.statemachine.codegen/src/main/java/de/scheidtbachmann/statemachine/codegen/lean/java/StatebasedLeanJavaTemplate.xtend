@@ -27,6 +27,7 @@ import de.cau.cs.kieler.kexpressions.ValuedObjectReference
 import de.cau.cs.kieler.kexpressions.VariableDeclaration
 import de.cau.cs.kieler.kexpressions.extensions.KExpressionsTypeExtensions
 import de.cau.cs.kieler.kexpressions.extensions.KExpressionsValuedObjectExtensions
+import de.cau.cs.kieler.kexpressions.keffects.Assignment
 import de.cau.cs.kieler.sccharts.ControlflowRegion
 import de.cau.cs.kieler.sccharts.DelayType
 import de.cau.cs.kieler.sccharts.PreemptionType
@@ -38,10 +39,16 @@ import de.cau.cs.kieler.sccharts.extensions.SCChartsStateExtensions
 import de.cau.cs.kieler.sccharts.extensions.SCChartsTransitionExtensions
 import de.cau.cs.kieler.sccharts.processors.statebased.DebugAnnotations
 import de.cau.cs.kieler.sccharts.processors.statebased.lean.codegen.AbstractStatebasedLeanTemplate
+import java.math.BigInteger
+import java.nio.charset.StandardCharsets
 import java.util.LinkedList
 import java.util.List
+import java.util.Map
+import java.util.UUID
 import org.eclipse.xtend.lib.annotations.Accessors
 
+import static de.scheidtbachmann.statemachine.codegen.lean.java.StatebasedLeanJavaBytecodeEstimator.*
+
 class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
 
     @Inject extension AnnotationsExtensions
@@ -53,6 +60,14 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
     @Inject extension EnhancedStatebasedJavaCodeSerializeHRExtensions
 
     static val INTERFACE_PARAM_NAME = "arg"
+    static val DEFAULT_MAILBOX_CAPACITY = 1024
+    static val DEFAULT_COALESCE_MAX_BATCH = 16
+    static val DEFAULT_HISTORY_CAPACITY = 10
+    // Encoded sizes of the variable types supported by the state persistence
+    static val Map<String, Integer> PERSISTED_TYPE_SIZES = #{"boolean" -> 1, "byte" -> 1, "short" -> 2, "char" -> 2,
+        "int" -> 4, "float" -> 4, "long" -> 8, "double" -> 8}
+    // Estimated bytecode size above which transition chains and region dispatch are split into helper methods
+    static val METHOD_SPLIT_SIZE = 2000
 
     // Output for the generated code and interface
     @Accessors(PUBLIC_GETTER) val source = new StringBuilder
@@ -61,8 +76,23 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
     // Externally set flags to configure generated code   
     @Accessors var String superClass = null
     @Accessors var List<StatebasedLeanJavaFeatureOverrides> featureOverrides = newLinkedList()
+    @Accessors var int mailboxCapacity = DEFAULT_MAILBOX_CAPACITY
+    @Accessors var StatebasedLeanJavaMailboxPolicy mailboxPolicy = StatebasedLeanJavaMailboxPolicy.BLOCK
+    @Accessors var int coalesceMaxBatch = DEFAULT_COALESCE_MAX_BATCH
+    @Accessors var long coalesceWindowMillis = 0
+    @Accessors var int historyCapacity = DEFAULT_HISTORY_CAPACITY
     
+    // Generated methods that are estimated to be too large to be compiled by the JIT
+    @Accessors(PUBLIC_GETTER) val List<String> oversizedMethods = newArrayList
+
     var boolean generateContextInterface = false
+    // Helper methods of the current state, generated after the state methods
+    val List<CharSequence> outlinedMethods = newArrayList
+    // Index of every simple state in the flat dispatch, created on demand
+    val Map<State, Integer> flatConfigurations = newLinkedHashMap
+    var Boolean flatDispatchEnabled = null
+    // Guard replacements of the input events, created on demand
+    var Map<ValuedObject, String> eventBitTests = null
     protected Iterable<VariableDeclaration> eventDeclarations
 
 
@@ -98,7 +128,8 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
         if (eventDeclarations.size > 0) {
             addImports("java.util.Arrays",
                 "java.util.Collection",
-                "java.util.Collections"
+                "java.util.Collections",
+                "java.util.StringJoiner"
             )
         }
         
@@ -117,22 +148,67 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
             addImports(
                 "java.util.Arrays",
                 "java.util.Collection",
+                "java.util.Iterator",
                 "java.util.List",
                 "java.util.concurrent.Callable",
+                "java.util.concurrent.CompletableFuture",
                 "java.util.concurrent.ExecutionException",
+                "java.util.concurrent.RejectedExecutionException",
                 "java.util.concurrent.ScheduledExecutorService",
                 "java.util.concurrent.TimeUnit",
+                "java.util.function.Consumer",
                 "de.scheidtbachmann.statemachine.runtime.MultiEventSupplier",
                 "de.scheidtbachmann.statemachine.runtime.SingleEventSupplier",
                 "de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory",
                 "de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutManager")
         }
+
+        if (isPendingApplyNeeded) {
+            addImports(
+                "java.util.LinkedHashSet",
+                "java.util.Set")
+        }
+
+        if (isTickCoalescingEnabled) {
+            addImports("de.scheidtbachmann.statemachine.runtime.execution.StateMachineTickCoalescer")
+        }
+
+        if (isBoundedMailboxEnabled) {
+            addImports("de.scheidtbachmann.statemachine.runtime.execution.StateMachineBoundedMailbox")
+        }
+
+        if (isRingBufferMailboxEnabled) {
+            addImports("de.scheidtbachmann.statemachine.runtime.execution.StateMachineRingBufferMailbox")
+        }
+
+        if (isMailboxEnabled) {
+            addImports(
+                "de.scheidtbachmann.statemachine.runtime.execution.StateMachineMailboxMetrics",
+                "de.scheidtbachmann.statemachine.runtime.execution.StateMachineOverflowPolicy")
+        }
         
-        if (isHistoryEnabled) {
+        if (isStateSnapshotEnabled) {
             addImports(
+                "java.util.Arrays",
                 "java.util.Collections",
-                "java.util.LinkedList",
+                "java.util.List")
+        }
+
+        if (isStatePersistenceEnabled) {
+            addImports("java.nio.ByteBuffer")
+            if (isExecutorEnabled) {
+                addImports("java.util.concurrent.ExecutionException")
+            }
+        }
+
+        if (isFlightRecorderEnabled) {
+            addImports("de.scheidtbachmann.statemachine.runtime.StateMachineFlightRecorder")
+        }
+
+        if (isHistoryEnabled) {
+            addImports(
                 "java.util.List",
+                "de.scheidtbachmann.statemachine.runtime.StateMachineActivityHistory",
                 "de.scheidtbachmann.statemachine.runtime.StateMachineHistoryEntry"
             )
         }
@@ -143,7 +219,7 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
           @SuppressWarnings("all")
           @de.scheidtbachmann.statemachine.runtime.StateMachineForContext(« rootState.uniqueName »«StatebasedLeanJavaCodeGenerator.CONTEXT_SUFFIX ».class)
           @de.scheidtbachmann.statemachine.runtime.Generated(message = "de.scheidtbachmann.statemachine.compiler")
-          public class « rootState.uniqueName »« IF superClass !== null » extends « superClass »« ENDIF » {
+          public class « rootState.uniqueName »« IF superClass !== null » extends « superClass »« ENDIF »« IF isStatePersistenceEnabled » implements de.scheidtbachmann.statemachine.runtime.StateMachinePersistable« ENDIF » {
               
             « generatePeripheralObjects() »
             « generateDebuggingHelper() »
@@ -153,10 +229,17 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
             « generateBehaviour() »
             « generateInteractions() »
             « generateCurrentStateOutput() »
+            « IF isStateSnapshotEnabled »
+              « generateStateSnapshot() »
+            « ENDIF »
+            « IF isStatePersistenceEnabled »
+              « generateStatePersistence() »
+            « ENDIF »
             « generateConstructor() »
             « generateDisposal() »
             « generateTimeoutMethods() »
             « generateGlobalObjects() »
+            « generateFlightRecording() »
             « generateActivityHistory() »
           }
         ''')
@@ -169,12 +252,29 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
               private static final Logger LOG = LoggerFactory.getLogger(«rootState.uniqueName».class);
               private final String loggingPrefix;
               
+            « ENDIF »
+            « IF isFlightRecorderEnabled »
+              private final StateMachineFlightRecorder flightRecorder = StateMachineFlightRecorder.getDefault();
+              private int flightRecorderId;
+
             « ENDIF »
             « IF isExecutorEnabled »
               private final StateMachineExecutionFactory executionFactory;
               private final ScheduledExecutorService executor;
 
             « ENDIF »
+            « IF isBoundedMailboxEnabled »
+              private final StateMachineBoundedMailbox<PendingApply> mailbox;
+
+            « ENDIF »
+            « IF isTickCoalescingEnabled »
+              private final StateMachineTickCoalescer<PendingApply> tickCoalescer;
+
+            « ENDIF »
+            « IF isRingBufferMailboxEnabled »
+              private final StateMachineRingBufferMailbox<ApplySlot> mailbox;
+
+            « ENDIF »
         '''
         // CHECKSTYLEON LineLength
     }
@@ -201,13 +301,78 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
     }    
 
     private def generateInputEvents() {
+        val events = eventValuedObjects
         return '''
             « IF eventDeclarations.size > 0 »
               @de.scheidtbachmann.statemachine.runtime.Generated(message = "de.scheidtbachmann.statemachine.compiler")
               public enum InputEvent {
-                « FOR decl : eventDeclarations SEPARATOR ',' »
-                  «FOR event : decl.valuedObjects SEPARATOR ', ' »«event.name»« ENDFOR »
-                « ENDFOR »
+                «FOR event : events SEPARATOR ', ' »«event.name»(« events.indexOf(event) »)« ENDFOR »;
+
+                private final int index;
+                « IF isRingBufferMailboxEnabled »
+
+                  /** Preallocated list of this event, to apply single events without allocation. */
+                  private final List<InputEvent> singletonList = List.of(this);
+                « ENDIF »
+
+                InputEvent(int index) {
+                  this.index = index;
+                }
+
+                /**
+                 * @return the stable bit index of this event in event masks.
+                 */
+                public int index() {
+                  return index;
+                }
+                « IF eventMaskWords == 1 »
+
+                  /**
+                   * @return the event mask containing only this event.
+                   */
+                  public long mask() {
+                    return 1L << index;
+                  }
+                « ENDIF »
+              }
+
+              « IF eventMaskWords == 1 »
+                public static long eventMask(InputEvent... events) {
+                  long eventMask = 0L;
+                  for (InputEvent event : events) {
+                    eventMask |= 1L << event.index;
+                  }
+                  return eventMask;
+                }
+              « ELSE »
+                public static final int EVENT_MASK_WORDS = « eventMaskWords »;
+
+                public static long[] eventMask(InputEvent... events) {
+                  final long[] eventMask = new long[EVENT_MASK_WORDS];
+                  for (InputEvent event : events) {
+                    eventMask[event.index >>> 6] |= 1L << event.index;
+                  }
+                  return eventMask;
+                }
+              « ENDIF »
+
+              private static String describeEvents(Collection<InputEvent> events, « eventMaskType » eventMask) {
+                if (events != null && « isEmptyEventMask("eventMask") ») {
+                  return String.valueOf(events);
+                }
+                final StringJoiner joiner = new StringJoiner(", ", "[", "]");
+                if (events != null) {
+                  for (InputEvent event : events) {
+                    joiner.add(event.name());
+                  }
+                }
+                for (InputEvent event : InputEvent.values()) {
+                  if ((eventMask« IF eventMaskWords > 1 »[event.index >>> 6]« ENDIF » & 1L << event.index) != 0
+                      && (events == null || !events.contains(event))) {
+                    joiner.add(event.name());
+                  }
+                }
+                return joiner.toString();
               }
 
             «ENDIF»
@@ -249,7 +414,6 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
     }
 
     private def generateRootRuntimeStructure() {
-        val rootRegions = rootState.regions.filter(ControlflowRegion)
         return '''
             private TickData rootContext;
             « IF generateContextInterface »
@@ -265,17 +429,47 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
               TERMINATED, RUNNING, READY, PAUSING;
             }
 
+            « IF isCompactLayoutEnabled »
+              « generateCompactTickData() »
+            « ELSE »
+              « generateTickData() »
+            « ENDIF »
+
+            @de.scheidtbachmann.statemachine.runtime.Generated(message = "de.scheidtbachmann.statemachine.compiler")
+            private static final class CurrentStateCache {
+              private final String[] activeStates;
+              private final String joined;
+
+              private CurrentStateCache(String[] activeStates, String joined) {
+                this.activeStates = activeStates;
+                this.joined = joined;
+              }
+            }
+
+        '''            
+    }
+
+    private def generateTickData() {
+        val rootRegions = rootState.regions.filter(ControlflowRegion)
+        return '''
             /**
              * Runtime data for the root level program
              */
             @de.scheidtbachmann.statemachine.runtime.Generated(message = "de.scheidtbachmann.statemachine.compiler")
             public static class TickData« IF isStringContainerEnabled » implements StateMachineRootContext« ENDIF » {
               ThreadStatus threadStatus;
+              « IF isFlatDispatchEnabled »
+                /** The active simple state in the flat dispatch, -1 if the hierarchy has to be descended. */
+                int flatConfiguration = -1;
+              « ENDIF »
 
               « FOR r : rootRegions »
                 « r.uniqueContextMemberName » « r.uniqueName » = new « r.uniqueContextMemberName »();
               « ENDFOR »
 
+              /** Joined active states of the last configuration asked for, replaced as soon as it changes. */
+              private volatile CurrentStateCache currentStateCache;
+
               public Stream<String> getCurrentState() {
                 return Stream.of(
                   « FOR r : rootRegions SEPARATOR ',' »
@@ -283,9 +477,320 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
                   « ENDFOR »
                 ).flatMap(i -> i);
               }
+
+              int fillActiveStates(String[] target, int offset) {
+                « FOR r : rootRegions »
+                  offset = « r.uniqueName ».fillActiveStates(target, offset);
+                « ENDFOR »
+                return offset;
+              }
+
+              public String getCurrentStateString() {
+                final CurrentStateCache cache = currentStateCache;
+                if (cache != null && matchActiveStates(cache.activeStates) == cache.activeStates.length) {
+                  return cache.joined;
+                }
+                final String[] activeStates = new String[MAX_ACTIVE_STATES];
+                final String[] trimmedActiveStates = java.util.Arrays.copyOf(activeStates, fillActiveStates(activeStates, 0));
+                final String joined = Stream.of(trimmedActiveStates).distinct().collect(java.util.stream.Collectors.joining(","));
+                currentStateCache = new CurrentStateCache(trimmedActiveStates, joined);
+                return joined;
+              }
+
+              private int matchActiveStates(String[] expected) {
+                int offset = 0;
+                « FOR r : rootRegions »
+                  offset = « r.uniqueName ».matchActiveStates(expected, offset);
+                « ENDFOR »
+                return offset;
+              }
+              « IF isStatePersistenceEnabled »
+
+                void writeState(ByteBuffer buffer) {
+                  buffer.put(threadStatus == null ? 0 : (byte) (threadStatus.ordinal() + 1));
+                  « IF isFlatDispatchEnabled »
+                    buffer.putInt(flatConfiguration);
+                  « ENDIF »
+                  « FOR r : rootRegions »
+                    « r.uniqueName ».writeState(buffer);
+                  « ENDFOR »
+                }
+
+                void readState(ByteBuffer buffer) {
+                  final int status = buffer.get();
+                  threadStatus = status == 0 ? null : THREAD_STATUSES[status - 1];
+                  « IF isFlatDispatchEnabled »
+                    flatConfiguration = buffer.getInt();
+                  « ENDIF »
+                  « FOR r : rootRegions »
+                    « r.uniqueName ».readState(buffer);
+                  « ENDFOR »
+                }
+              « ENDIF »
+              « IF isConfigurationIdEnabled »
+
+                long getConfigurationId() {
+                  long configurationId = 0L;
+                  « FOR r : rootRegions »
+                    configurationId = « r.uniqueName ».addConfigurationId(configurationId);
+                  « ENDFOR »
+                  return configurationId;
+                }
+
+                static java.util.List<String> decodeConfiguration(long configurationId) {
+                  final java.util.List<String> activeStates = new java.util.ArrayList<>(MAX_ACTIVE_STATES);
+                  « FOR r : rootRegions »
+                    « r.uniqueContextMemberName ».decodeConfiguration(configurationId, activeStates);
+                  « ENDFOR »
+                  return activeStates;
+                }
+              « ENDIF »
             }
+        '''
+    }
 
-        '''            
+    /**
+     * Generates the runtime data of the compact layout, which keeps the thread status, active state and delayed flag
+     * of every region in primitive fields of the root context instead of an object per region. The thread statuses
+     * and active states are encoded as the ordinal of their enumeration constant + 1, so 0 encodes a region that is
+     * not active, like {@code null} in the default layout and in the persisted state.
+     */
+    private def generateCompactTickData() {
+        val rootRegions = rootState.regions.filter(ControlflowRegion)
+        val regions = scopes.filter(ControlflowRegion)
+        // CHECKSTYLEOFF LineLength - This is template code that cannot be arbitrarily formatted
+        return '''
+            private static final byte TERMINATED = 1;
+            private static final byte RUNNING = 2;
+            private static final byte READY = 3;
+            « FOR r : regions »
+              « FOR c : r.compactStateConstants.indexed »
+                private static final int « c.value » = « c.key + 1 »;
+              « ENDFOR »
+            « ENDFOR »
+
+            /**
+             * Runtime data for the root level program and all regions
+             */
+            @de.scheidtbachmann.statemachine.runtime.Generated(message = "de.scheidtbachmann.statemachine.compiler")
+            public static class TickData« IF isStringContainerEnabled » implements StateMachineRootContext« ENDIF » {
+              « FOR r : regions »
+                private static final « r.uniqueName »States[] « r.uniqueName »_STATES = « r.uniqueName »States.values();
+              « ENDFOR »
+
+              byte threadStatus;
+              « IF isFlatDispatchEnabled »
+                /** The active simple state in the flat dispatch, -1 if the hierarchy has to be descended. */
+                int flatConfiguration = -1;
+              « ENDIF »
+              « FOR r : regions »
+                byte « r.uniqueName »_threadStatus;
+                « r.compactStateType » « r.uniqueName »_activeState;
+                « IF r.needsDelayedEnabled »
+                  boolean « r.uniqueName »_delayedEnabled;
+                « ENDIF »
+              « ENDFOR »
+
+              /** Joined active states of the last configuration asked for, replaced as soon as it changes. */
+              private volatile CurrentStateCache currentStateCache;
+
+              public Stream<String> getCurrentState() {
+                return Stream.of(
+                  « FOR r : rootRegions SEPARATOR ',' »
+                    « r.uniqueName »_getCurrentState()
+                  « ENDFOR »
+                ).flatMap(i -> i);
+              }
+
+              int fillActiveStates(String[] target, int offset) {
+                « FOR r : rootRegions »
+                  offset = « r.uniqueName »_fillActiveStates(target, offset);
+                « ENDFOR »
+                return offset;
+              }
+
+              public String getCurrentStateString() {
+                final CurrentStateCache cache = currentStateCache;
+                if (cache != null && matchActiveStates(cache.activeStates) == cache.activeStates.length) {
+                  return cache.joined;
+                }
+                final String[] activeStates = new String[MAX_ACTIVE_STATES];
+                final String[] trimmedActiveStates = java.util.Arrays.copyOf(activeStates, fillActiveStates(activeStates, 0));
+                final String joined = Stream.of(trimmedActiveStates).distinct().collect(java.util.stream.Collectors.joining(","));
+                currentStateCache = new CurrentStateCache(trimmedActiveStates, joined);
+                return joined;
+              }
+
+              private int matchActiveStates(String[] expected) {
+                int offset = 0;
+                « FOR r : rootRegions »
+                  offset = « r.uniqueName »_matchActiveStates(expected, offset);
+                « ENDFOR »
+                return offset;
+              }
+              « IF isStatePersistenceEnabled »
+
+                void writeState(ByteBuffer buffer) {
+                  buffer.put(threadStatus);
+                  « IF isFlatDispatchEnabled »
+                    buffer.putInt(flatConfiguration);
+                  « ENDIF »
+                  « FOR r : rootRegions.map[withNestedRegions].flatten »
+                    buffer.put(« r.uniqueName »_threadStatus);
+                    « IF r.hasShortStateEncoding »
+                      buffer.putShort((short) « r.uniqueName »_activeState);
+                    « ELSE »
+                      buffer.put((byte) « r.uniqueName »_activeState);
+                    « ENDIF »
+                    « IF r.needsDelayedEnabled »
+                      buffer.put(« r.uniqueName »_delayedEnabled ? (byte) 1 : (byte) 0);
+                    « ENDIF »
+                  « ENDFOR »
+                }
+
+                void readState(ByteBuffer buffer) {
+                  threadStatus = buffer.get();
+                  « IF isFlatDispatchEnabled »
+                    flatConfiguration = buffer.getInt();
+                  « ENDIF »
+                  « FOR r : rootRegions.map[withNestedRegions].flatten »
+                    « r.uniqueName »_threadStatus = buffer.get();
+                    « r.uniqueName »_activeState = (« r.compactStateType ») (buffer.« IF r.hasShortStateEncoding »getShort() & 0xFFFF« ELSE »get() & 0xFF« ENDIF »);
+                    « IF r.needsDelayedEnabled »
+                      « r.uniqueName »_delayedEnabled = buffer.get() != 0;
+                    « ENDIF »
+                  « ENDFOR »
+                }
+              « ENDIF »
+              « IF isConfigurationIdEnabled »
+
+                long getConfigurationId() {
+                  long configurationId = 0L;
+                  « FOR r : rootRegions »
+                    configurationId = « r.uniqueName »_addConfigurationId(configurationId);
+                  « ENDFOR »
+                  return configurationId;
+                }
+
+                static java.util.List<String> decodeConfiguration(long configurationId) {
+                  final java.util.List<String> activeStates = new java.util.ArrayList<>(MAX_ACTIVE_STATES);
+                  « FOR r : rootRegions »
+                    « r.uniqueName »_decodeConfiguration(configurationId, activeStates);
+                  « ENDFOR »
+                  return activeStates;
+                }
+              « ENDIF »
+              « FOR r : regions »
+
+                « generateCompactRegionQueries(r) »
+              « ENDFOR »
+            }
+        '''
+        // CHECKSTYLEON LineLength
+    }
+
+    /**
+     * Generates the methods of the compact root context that query the active states of a region, which are those of
+     * the region context classes in the default layout.
+     */
+    private def generateCompactRegionQueries(ControlflowRegion r) {
+        val name = r.uniqueName
+        val superstates = r.states.filter[isHierarchical]
+        // CHECKSTYLEOFF LineLength - This is template code that cannot be arbitrarily formatted
+        return '''
+            private Stream<String> « name »_getCurrentState() {
+              switch (« name »_activeState) {
+                case 0:
+                  return Stream.empty();
+                « FOR s : superstates »
+                  case « s.compactStateConstant(false) »:
+                  case « s.compactStateConstant(true) »:
+                    return Stream.of(
+                      « FOR subr : s.regions.filter(ControlflowRegion) SEPARATOR ',' »
+                        « subr.uniqueName »_getCurrentState()
+                      « ENDFOR »
+                    ).flatMap(i -> i);
+                « ENDFOR »
+                default:
+                  return Stream.of(« name »_STATES[« name »_activeState - 1].getDisplayName());
+              }
+            }
+
+            private int « name »_fillActiveStates(String[] target, int offset) {
+              switch (« name »_activeState) {
+                case 0:
+                  return offset;
+                « FOR s : superstates »
+                  case « s.compactStateConstant(false) »:
+                  case « s.compactStateConstant(true) »:
+                    « FOR subr : s.regions.filter(ControlflowRegion) »
+                      offset = « subr.uniqueName »_fillActiveStates(target, offset);
+                    « ENDFOR »
+                    return offset;
+                « ENDFOR »
+                default:
+                  target[offset] = « name »_STATES[« name »_activeState - 1].getDisplayName();
+                  return offset + 1;
+              }
+            }
+
+            private int « name »_matchActiveStates(String[] expected, int offset) {
+              if (offset < 0) {
+                return offset;
+              }
+              switch (« name »_activeState) {
+                case 0:
+                  return offset;
+                « FOR s : superstates »
+                  case « s.compactStateConstant(false) »:
+                  case « s.compactStateConstant(true) »:
+                    « FOR subr : s.regions.filter(ControlflowRegion) »
+                      offset = « subr.uniqueName »_matchActiveStates(expected, offset);
+                    « ENDFOR »
+                    return offset;
+                « ENDFOR »
+                default:
+                  return offset < expected.length && expected[offset] == « name »_STATES[« name »_activeState - 1].getDisplayName() ? offset + 1 : -1;
+              }
+            }
+            « IF isConfigurationIdEnabled »
+
+              private long « name »_addConfigurationId(long configurationId) {
+                configurationId += « name »_activeState * « r.configurationWeight »L;
+                switch (« name »_activeState) {
+                  « FOR s : superstates »
+                    case « s.compactStateConstant(false) »:
+                    case « s.compactStateConstant(true) »:
+                      « FOR subr : s.regions.filter(ControlflowRegion) »
+                        configurationId = « subr.uniqueName »_addConfigurationId(configurationId);
+                      « ENDFOR »
+                      return configurationId;
+                  « ENDFOR »
+                  default:
+                    return configurationId;
+                }
+              }
+
+              private static void « name »_decodeConfiguration(long configurationId, java.util.List<String> activeStates) {
+                final int digit = (int) (configurationId / « r.configurationWeight »L % « r.configurationRadix »);
+                switch (digit) {
+                  case 0:
+                    return;
+                  « FOR s : superstates »
+                    case « s.compactStateConstant(false) »:
+                    case « s.compactStateConstant(true) »:
+                      « FOR subr : s.regions.filter(ControlflowRegion) »
+                        « subr.uniqueName »_decodeConfiguration(configurationId, activeStates);
+                      « ENDFOR »
+                      return;
+                  « ENDFOR »
+                  default:
+                    activeStates.add(« name »_STATES[digit - 1].getDisplayName());
+                }
+              }
+            « ENDIF »
+        '''
+        // CHECKSTYLEON LineLength
     }
 
     private def generateScopeRuntimeStructures() {
@@ -297,22 +802,32 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
               @de.scheidtbachmann.statemachine.runtime.Generated(message = "de.scheidtbachmann.statemachine.compiler")
               public enum « r.uniqueName »States {
                 « FOR s : r.states SEPARATOR ', ' »
-                  « s.uniqueEnumName »("« getSourceState(s) »")«IF s.isHierarchical », 
-                  « s.uniqueEnumName»RUNNING("« getSourceState(s) »")« ENDIF »
+                  « s.uniqueEnumName »("« getSourceState(s) »", "« getSourceState(s).displayName »")«IF s.isHierarchical », 
+                  « s.uniqueEnumName»RUNNING("« getSourceState(s) »", "« getSourceState(s).displayName »")« ENDIF »
                 « ENDFOR »
                 ;
 
-                private String origin;
+                private final String origin;
+                private final String displayName;
 
-                « r.uniqueName »States(String origin) {
+                « r.uniqueName »States(String origin, String displayName) {
                   this.origin = origin;
+                  this.displayName = displayName;
                 }
 
                 public String getOrigin() {
                   return origin;
                 }
+
+                /**
+                 * @return the name of the state as reported by {@code getCurrentState()}, resolved at compile time.
+                 */
+                public String getDisplayName() {
+                  return displayName;
+                }
               }
 
+              « IF !isCompactLayoutEnabled »
               /**
                * The runtime thread data of region « r.name »
                */
@@ -340,19 +855,136 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
                           ).flatMap(i -> i);
                       « ENDFOR »
                       default:
-                        return Stream.of(activeState.getOrigin().replaceAll("^State (.+) \\(-?[0-9]+\\)$", "$1"));
+                        return Stream.of(activeState.getDisplayName());
                     }
                   } else {
                     return Stream.empty();
                   }
                 }
+
+                int fillActiveStates(String[] target, int offset) {
+                  if (activeState == null) {
+                    return offset;
+                  }
+                  switch (activeState) {
+                    « FOR s : r.states.filter[isHierarchical] »
+                      case « s.uniqueEnumName »:
+                      case « s.uniqueEnumName »RUNNING:
+                        « FOR subr : s.regions.filter(ControlflowRegion) »
+                          offset = « subr.uniqueContextName ».fillActiveStates(target, offset);
+                        « ENDFOR »
+                        return offset;
+                    « ENDFOR »
+                    default:
+                      target[offset] = activeState.getDisplayName();
+                      return offset + 1;
+                  }
+                }
+
+                /**
+                 * Compares the active states against the expected names, starting at the given offset.
+                 * Display names are compile time constants, so comparing the references is sufficient.
+                 *
+                 * @return the offset after the active states of this region, or -1 on the first mismatch.
+                 */
+                int matchActiveStates(String[] expected, int offset) {
+                  if (activeState == null || offset < 0) {
+                    return offset;
+                  }
+                  switch (activeState) {
+                    « FOR s : r.states.filter[isHierarchical] »
+                      case « s.uniqueEnumName »:
+                      case « s.uniqueEnumName »RUNNING:
+                        « FOR subr : s.regions.filter(ControlflowRegion) »
+                          offset = « subr.uniqueContextName ».matchActiveStates(expected, offset);
+                        « ENDFOR »
+                        return offset;
+                    « ENDFOR »
+                    default:
+                      return offset < expected.length && expected[offset] == activeState.getDisplayName() ? offset + 1 : -1;
+                  }
+                }
+                « IF isStatePersistenceEnabled »
+
+                  private static final « r.uniqueName »States[] STATES = « r.uniqueName »States.values();
+
+                  void writeState(ByteBuffer buffer) {
+                    buffer.put(threadStatus == null ? 0 : (byte) (threadStatus.ordinal() + 1));
+                    « IF r.hasShortStateEncoding »
+                      buffer.putShort(activeState == null ? 0 : (short) (activeState.ordinal() + 1));
+                    « ELSE »
+                      buffer.put(activeState == null ? 0 : (byte) (activeState.ordinal() + 1));
+                    « ENDIF »
+                    « IF r.needsDelayedEnabled »
+                      buffer.put(delayedEnabled ? (byte) 1 : (byte) 0);
+                    « ENDIF »
+                    « FOR c : r.states.map[ regions ].flatten.filter(ControlflowRegion) »
+                      « c.uniqueContextName ».writeState(buffer);
+                    « ENDFOR »
+                  }
+
+                  void readState(ByteBuffer buffer) {
+                    final int status = buffer.get();
+                    threadStatus = status == 0 ? null : THREAD_STATUSES[status - 1];
+                    final int state = buffer.« IF r.hasShortStateEncoding »getShort() & 0xFFFF« ELSE »get() & 0xFF« ENDIF »;
+                    activeState = state == 0 ? null : STATES[state - 1];
+                    « IF r.needsDelayedEnabled »
+                      delayedEnabled = buffer.get() != 0;
+                    « ENDIF »
+                    « FOR c : r.states.map[ regions ].flatten.filter(ControlflowRegion) »
+                      « c.uniqueContextName ».readState(buffer);
+                    « ENDFOR »
+                  }
+                « ENDIF »
+                « IF isConfigurationIdEnabled »
+
+                  long addConfigurationId(long configurationId) {
+                    if (activeState == null) {
+                      return configurationId;
+                    }
+                    configurationId += (activeState.ordinal() + 1) * « r.configurationWeight »L;
+                    switch (activeState) {
+                      « FOR s : r.states.filter[isHierarchical] »
+                        case « s.uniqueEnumName »:
+                        case « s.uniqueEnumName »RUNNING:
+                          « FOR subr : s.regions.filter(ControlflowRegion) »
+                            configurationId = « subr.uniqueContextName ».addConfigurationId(configurationId);
+                          « ENDFOR »
+                          return configurationId;
+                      « ENDFOR »
+                      default:
+                        return configurationId;
+                    }
+                  }
+
+                  static void decodeConfiguration(long configurationId, java.util.List<String> activeStates) {
+                    final int digit = (int) (configurationId / « r.configurationWeight »L % « r.configurationRadix »);
+                    if (digit == 0) {
+                      return;
+                    }
+                    final « r.uniqueName »States state = « r.uniqueName »States.values()[digit - 1];
+                    switch (state) {
+                      « FOR s : r.states.filter[isHierarchical] »
+                        case « s.uniqueEnumName »:
+                        case « s.uniqueEnumName »RUNNING:
+                          « FOR subr : s.regions.filter(ControlflowRegion) »
+                            « subr.uniqueContextMemberName ».decodeConfiguration(configurationId, activeStates);
+                          « ENDFOR »
+                          return;
+                      « ENDFOR »
+                      default:
+                        activeStates.add(state.getDisplayName());
+                    }
+                  }
+                « ENDIF »
               }
+              « ENDIF »
 
             « ENDFOR »
         '''
     }
 
-    private def generateBehaviour() {
+    protected def generateBehaviour() {
         return '''
             «FOR s : scopes»
               « IF (s instanceof State) »
@@ -370,32 +1002,77 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
         // CHECKSTYLEOFF LineLength - This is template code that cannot be arbitrarily formatted
         return '''
             « IF eventDeclarations.size > 0 »
-              private void writeEventsToIfaceInputs(Collection<InputEvent> events) {
-                Collection<InputEvent> nullSafeEvents = events != null ? events : Collections.emptyList();
-              « FOR decl : eventDeclarations »
-                « FOR vo: decl.valuedObjects »
-                  iface.«vo.name» = nullSafeEvents.contains(InputEvent.«vo.name»);
-                « ENDFOR »
-              « ENDFOR »
-              }
+              /** Combined event mask of the current tick, tested by the guards. Only accessed by the executor. */
+              « IF eventMaskWords == 1 »
+                private long tickEventMask;
+              « ELSE »
+                private final long[] tickEventMask = new long[EVENT_MASK_WORDS];
+              « ENDIF »
 
-            « ENDIF »
-            private void reset() {
-              « FOR r : rootState.regions.filter(ControlflowRegion) »
-                rootContext.« r.uniqueContextName ».activeState = « r.uniqueName »States.« r.states.filter[ initial ].head.uniqueEnumName »;
-                rootContext.« r.uniqueContextName ».threadStatus = ThreadStatus.READY;
+
+              private « IF isFlightRecorderEnabled »long« ELSE »void« ENDIF » writeEventsToIfaceInputs(Collection<InputEvent> events, « eventMaskType » eventMask) {
+                « IF eventMaskWords == 1 »
+                  long mask = eventMask;
+                  if (events != null) {
+                    for (InputEvent event : events) {
+                      mask |= 1L << event.index;
+                    }
+                  }
+                « ELSE »
+                  final long[] mask = tickEventMask;
+                  if (eventMask != null) {
+                    System.arraycopy(eventMask, 0, mask, 0, EVENT_MASK_WORDS);
+                  } else {
+                    Arrays.fill(mask, 0L);
+                  }
+                  if (events != null) {
+                    for (InputEvent event : events) {
+                      mask[event.index >>> 6] |= 1L << event.index;
+                    }
+                  }
+                « ENDIF »
+                « IF eventMaskWords == 1 »
+                  tickEventMask = mask;
+                « ENDIF »
+                « FOR vo : eventValuedObjects »
+                  iface.«vo.name» = « eventBitTest("mask", eventValuedObjects.indexOf(vo)) »;
+                « ENDFOR »
+                « IF isFlightRecorderEnabled »
+                  return mask« IF eventMaskWords > 1 »[0]« ENDIF »;
+                « ENDIF »
+              }
+
+            « ENDIF »
+            private void reset() {
+              « FOR r : rootState.regions.filter(ControlflowRegion) »
+                « childRegionField("rootContext", r, "activeState") » = « r.states.filter[ initial ].head.stateValue(false) »;
+                « childRegionField("rootContext", r, "threadStatus") » = « threadStatus("READY") »;
               « ENDFOR »
 
-              rootContext.threadStatus = ThreadStatus.READY;
+              rootContext.threadStatus = « threadStatus("READY") »;
+              « IF isFlatDispatchEnabled »
+                rootContext.flatConfiguration = « rootState.regions.filter(ControlflowRegion).head.states.filter[initial].head.initialFlatConfiguration »;
+              « ENDIF »
             }
 
             private void tick() {
               « generateTraceLogging('"Performing tick on StateMachine"') »
-              if (rootContext.threadStatus == ThreadStatus.TERMINATED) return;
+              if (rootContext.threadStatus == « threadStatus("TERMINATED") ») return;
             
-              « rootState.uniqueName »_root(rootContext);
+              « IF isFlatDispatchEnabled »
+                flatTick();
+              « ELSE »
+                « rootState.uniqueName »_root(rootContext);
+              « ENDIF »
+              « IF isStateSnapshotEnabled »
+                publishSnapshot();
+              « ENDIF »
             }
 
+            « IF isFlatDispatchEnabled »
+              « generateFlatDispatch »
+
+            « ENDIF »
             « IF isExecutorEnabled »
               « generateExecutorInteractions »
             « ELSE »
@@ -405,6 +1082,66 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
         '''
         // CHECKSTYLEON LineLength
     }
+
+    /**
+     * Generates a tick that dispatches once on the active simple state instead of descending the hierarchy. For every
+     * simple state, the regions and superstates above it are unrolled in the order of the hierarchical tick: the
+     * regions are started from the outside in, the state is run, and then every level runs the rest of its region
+     * and the transitions of its superstate from the inside out.
+     */
+    private def generateFlatDispatch() {
+        val flatStates = scopes.filter(State).filter[!isHierarchical].toList
+        val code = '''
+            private void flatTick() {
+              switch (rootContext.flatConfiguration) {
+                « FOR s : flatStates »
+                  case « s.flatConfiguration »:
+                    flat_« s.uniqueName »();
+                    break;
+                « ENDFOR »
+                default:
+                  « rootState.uniqueName »_root(rootContext);
+              }
+            }
+        '''
+        checkMethodSize("flatTick", code)
+        return '''
+            « code »
+            « FOR s : flatStates »
+
+              « generateFlatState(s) »
+            « ENDFOR »
+        '''
+    }
+
+    private def generateFlatState(State state) {
+        // The regions from the root to the state
+        val regions = <ControlflowRegion>newLinkedList
+        var region = state.parentRegion as ControlflowRegion
+        while (region !== null) {
+            regions.addFirst(region)
+            region = if (region.parentState == rootState) null else region.parentState.parentRegion as ControlflowRegion
+        }
+        //CHECKSTYLEOFF LineLength This is template code that can't be arbitrarily formatted
+        return '''
+            private void flat_« state.uniqueName »() {
+              « FOR r : regions.indexed »
+                « IF !isCompactLayoutEnabled »
+                  « "  ".repeat(r.key) »final « r.value.uniqueContextMemberName » context« r.key » = « flatContext(r.key - 1) ».« r.value.uniqueContextName »;
+                « ENDIF »
+                « "  ".repeat(r.key) »if (« regionField(flatContext(r.key), r.value, "threadStatus") » != « threadStatus("TERMINATED") ») {
+                « "  ".repeat(r.key) »  « regionField(flatContext(r.key), r.value, "threadStatus") » = « threadStatus("RUNNING") »;
+              « ENDFOR »
+              « "  ".repeat(regions.size) »« state.uniqueName »(« flatContext(regions.size - 1) »);
+              « FOR r : regions.indexed.toList.reverseView »
+                « "  ".repeat(r.key + 1) »« r.value.uniqueName »(« flatContext(r.key) »);
+                « "  ".repeat(r.key) »}
+                « "  ".repeat(r.key) »« r.value.parentState.uniqueName »_react(« flatContext(r.key - 1) »);
+              « ENDFOR »
+            }
+        '''
+        //CHECKSTYLEON LineLength
+    }
     
     private def generateExecutorInteractions() {
         // CHECKSTYLEOFF LineLength - This is template code that cannot be arbitrarily formatted
@@ -422,7 +1159,7 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
                   « generateTraceLogging('"Initializing StateMachine"') »
                   reset();
                   « IF eventDeclarations.size > 0 »
-                    writeEventsToIfaceInputs(Collections.emptyList());
+                    writeEventsToIfaceInputs(null, « emptyEventMask »);
                   « ENDIF »
                   tick();
                   if (postInitTask != null) {
@@ -443,7 +1180,7 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
             }
 
             public void apply(Runnable preExecutionTask, InputEvent event) {
-              apply(preExecutionTask, List.of(event), null);
+              apply(preExecutionTask, « singleEventList("event") », null);
             }
 
             public void apply(Runnable preExecutionTask, Collection<InputEvent> events) {
@@ -451,7 +1188,7 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
             }
 
             public void apply(InputEvent event, Runnable postExecutionTask) {
-              apply(null, List.of(event), postExecutionTask);
+              apply(null, « singleEventList("event") », postExecutionTask);
             }
 
             public void apply(Collection<InputEvent> events, Runnable postExecutionTask) {
@@ -459,44 +1196,29 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
             }
 
             public void apply(Runnable preExecutionTask, InputEvent event, Runnable postExecutionTask) {
-              apply(preExecutionTask, List.of(event), postExecutionTask);
+              apply(preExecutionTask, « singleEventList("event") », postExecutionTask);
             }
 
             public void apply(Runnable preExecutionTask, Collection<InputEvent> events, Runnable postExecutionTask) {
-              executor.execute(() -> {
-                « IF isHistoryEnabled »
-                  final StateMachineHistoryEntry historyEntry = new StateMachineHistoryEntry();
-                  addHistoryEntry(historyEntry);
-                « ENDIF »
-                try {
-                  if (preExecutionTask != null) {
-                    preExecutionTask.run();
-                  }
-                  « generateDebugLogging('"Performing action on input events {} while in state {}", events, getCurrentState()') »
-                  « IF isHistoryEnabled »
-                    historyEntry.setStartState(getCurrentState().toString());
-                    historyEntry.setEvents(events.toString());
-                  « ENDIF »
-                  « IF eventDeclarations.size > 0 »
-                    writeEventsToIfaceInputs(events);
-                  « ENDIF»
-                  tick();
-                  if (postExecutionTask != null) {
-                    postExecutionTask.run();
-                  }
-                  « generateDebugLogging('"Action done, finished in state {}", getCurrentState()') »
-                  « IF isHistoryEnabled »
-                    historyEntry.setEndState(getCurrentState().toString());
-                  « ENDIF »
-                } catch (final Throwable t) {
-                  « generateErrorLogging('"Exception in statemachine application", t') »
-                  « IF isHistoryEnabled »
-                    historyEntry.setThrowable(t);
-                  « ENDIF »
-                }
-              });
+              enqueueApply(preExecutionTask, events, null, « emptyEventMask », postExecutionTask);
             }
 
+            « IF eventDeclarations.size > 0 »
+              public void apply(« eventMaskType » eventMask) {
+                apply(null, eventMask, null);
+              }
+
+              /**
+               * Applies the events of the given mask, see {@link #eventMask(InputEvent...)} and {@link InputEvent#index()}.
+               « IF eventMaskWords > 1 »
+               * The mask array must not be modified afterwards, as it is read in the executor.
+               « ENDIF »
+               */
+              public void apply(Runnable preExecutionTask, « eventMaskType » eventMask, Runnable postExecutionTask) {
+                enqueueApply(preExecutionTask, null, null, eventMask, postExecutionTask);
+              }
+
+            « ENDIF »
             public void apply(SingleEventSupplier<InputEvent> eventSupplier) {
               apply(eventSupplier, null);
             }
@@ -513,36 +1235,138 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
             }
 
             public void apply(MultiEventSupplier<InputEvent> eventsSupplier, Runnable postExecutionTask) {
-              executor.execute(() -> {
-                « IF isHistoryEnabled »
-                  final StateMachineHistoryEntry historyEntry = new StateMachineHistoryEntry();
-                  addHistoryEntry(historyEntry);
-                « ENDIF »
+              enqueueApply(null, null, eventsSupplier, « emptyEventMask », postExecutionTask);
+            }
+
+            « generateBatchInteractions »
+            « IF isMailboxEnabled »
+              « generateMailboxInteractions »
+            « ENDIF »
+            « IF isPendingApplyNeeded »
+              « generatePendingApply »
+            « ENDIF »
+            « IF isRingBufferMailboxEnabled »
+              « generateApplySlot »
+            « ENDIF »
+            private boolean enqueueApply(Runnable preExecutionTask, Collection<InputEvent> events,
+                MultiEventSupplier<InputEvent> eventsSupplier, « eventMaskType » eventMask, Runnable postExecutionTask) {
+              return enqueue(preExecutionTask, events, eventsSupplier, eventMask, postExecutionTask, null, null, null);
+            }
+
+            /**
+             * Queues an application, or a batch of applications that is performed instead, if given.
+             * The failure task is passed the exception if the application fails, including a failing pre execution task
+             * of an application it has been merged with.
+             « IF isBoundedMailboxEnabled && mailboxPolicy == StatebasedLeanJavaMailboxPolicy.DROP_OLDEST »
+             * The drop task is run if the application is dropped from the full mailbox later on.
+             « ENDIF »
+             */
+            private boolean enqueue(Runnable preExecutionTask, Collection<InputEvent> events,
+                MultiEventSupplier<InputEvent> eventsSupplier, « eventMaskType » eventMask, Runnable postExecutionTask,
+                Consumer<Throwable> failureTask, Runnable dropTask, Runnable batch) {
+              « IF isPendingApplyNeeded »
+                final MultiEventSupplier<InputEvent> pendingEventsSupplier = eventsSupplier != null || batch != null ? eventsSupplier : () -> events;
+              « ENDIF »
+              « IF isBoundedMailboxEnabled »
                 try {
-                  Collection<InputEvent> events = eventsSupplier.getEvents();
-                  « generateDebugLogging('"Performing action on input events {} while in state {}", events, getCurrentState()') »
+                  final boolean accepted = mailbox.offer(new PendingApply(preExecutionTask, pendingEventsSupplier, eventMask, postExecutionTask, failureTask, dropTask, batch));
+                  if (!accepted) {
+                    « generateWarnLogging('"Mailbox is full, application has been rejected"') »
+                  }
+                  return accepted;
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return false;
+                }
+              « ELSEIF isTickCoalescingEnabled »
+                tickCoalescer.offer(new PendingApply(preExecutionTask, pendingEventsSupplier, eventMask, postExecutionTask, failureTask, dropTask, batch));
+                return true;
+              « ELSEIF isRingBufferMailboxEnabled »
+                try {
+                  final long sequence = mailbox.claim();
+                  if (sequence == StateMachineRingBufferMailbox.REJECTED) {
+                    « generateWarnLogging('"Mailbox is full, application has been rejected"') »
+                    return false;
+                  }
+                  final ApplySlot slot = mailbox.slot(sequence);
+                  slot.preExecutionTask = preExecutionTask;
+                  slot.events = events;
+                  slot.eventsSupplier = eventsSupplier;
+                  slot.eventMask = eventMask;
+                  slot.postExecutionTask = postExecutionTask;
+                  slot.failureTask = failureTask;
+                  slot.batch = batch;
+                  mailbox.publish(sequence);
+                  return true;
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return false;
+                }
+              « ELSE »
+                executor.execute(batch != null ? batch : () -> performApply(preExecutionTask, events, eventsSupplier, eventMask, postExecutionTask, failureTask));
+                return true;
+              « ENDIF »
+            }
+
+            private void performApply(Runnable preExecutionTask, Collection<InputEvent> appliedEvents,
+                MultiEventSupplier<InputEvent> eventsSupplier, « eventMaskType » eventMask, Runnable postExecutionTask,
+                Consumer<Throwable> failureTask« IF isTickCoalescingEnabled », int mergedApplications« ENDIF ») {
+              « IF isHistoryEnabled »
+                final StateMachineActivityHistory.Slot historyEntry = activityHistory.begin();
+                « IF isTickCoalescingEnabled »
+                  historyEntry.setMergedApplications(mergedApplications);
+                « ENDIF »
+              « ENDIF »
+              try {
+                if (preExecutionTask != null) {
+                  preExecutionTask.run();
+                }
+                Collection<InputEvent> events = eventsSupplier != null ? eventsSupplier.getEvents() : appliedEvents;
+                « IF eventDeclarations.size > 0 »
+                  « generateDebugLogging('"Performing action on input events {} while in state {}", ' + isEmptyEventMask("eventMask") + ' ? events : describeEvents(events, eventMask), getCurrentState()') »
                   « IF isHistoryEnabled »
-                    historyEntry.setStartState(getCurrentState().toString());
-                    historyEntry.setEvents(events.toString());
+                    « generateHistoryState("Start") »
+                  « ENDIF »
+                  « IF isFlightRecorderEnabled »
+                    final long recordedEventMask = writeEventsToIfaceInputs(events, eventMask);
+                  « ELSE »
+                    writeEventsToIfaceInputs(events, eventMask);
                   « ENDIF »
-                  « IF eventDeclarations.size > 0 »
-                    writeEventsToIfaceInputs(events);
-                  « ENDIF»
-                  tick();
-                  if (postExecutionTask != null) {
-                    postExecutionTask.run();
-                  }
-                  « generateDebugLogging('"Action done, finished in state {}", getCurrentState()') »
                   « IF isHistoryEnabled »
-                    historyEntry.setEndState(getCurrentState().toString());
+                    historyEntry.setEventMask(tickEventMask);
                   « ENDIF »
-                } catch (final Throwable t) {
-                  « generateErrorLogging('"Exception in statemachine application", t') »
+                  « IF isFlightRecorderEnabled »
+                    recordedTick(recordedEventMask);
+                  « ELSE »
+                    tick();
+                  « ENDIF »
+                « ELSE »
+                  « generateDebugLogging('"Performing action on input events {} while in state {}", events, getCurrentState()') »
                   « IF isHistoryEnabled »
-                    historyEntry.setThrowable(t);
+                    « generateHistoryState("Start") »
                   « ENDIF »
+                  « IF isFlightRecorderEnabled »
+                    recordedTick(0L);
+                  « ELSE »
+                    tick();
+                  « ENDIF »
+                « ENDIF»
+                if (postExecutionTask != null) {
+                  postExecutionTask.run();
                 }
-              });
+                « generateDebugLogging('"Action done, finished in state {}", getCurrentState()') »
+                « IF isHistoryEnabled »
+                  « generateHistoryState("End") »
+                « ENDIF »
+              } catch (final Throwable t) {
+                « generateErrorLogging('"Exception in statemachine application", t') »
+                « IF isHistoryEnabled »
+                  historyEntry.setThrowable(t);
+                « ENDIF »
+                if (failureTask != null) {
+                  failureTask.accept(t);
+                }
+              }
             }
 
             public <T> T query(Callable<T> dataRequest) {
@@ -553,21 +1377,339 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
                   return executor.submit(dataRequest).get();
                 }
               } catch (Exception e) {
-                LOG.error(loggingPrefix + " - " + "Exception in statemachine application", e);
+                « generateErrorLogging('"Exception in statemachine application", e') »
                 return null;
               }
             }
+
+            « generateAsyncInteractions »
         '''
         // CHECKSTYLEON LineLength
     }
     
+    private def generateAsyncInteractions() {
+        // CHECKSTYLEOFF LineLength - This is template code that cannot be arbitrarily formatted
+        return '''
+            public CompletableFuture<« currentStateType »> applyAsync(InputEvent... events) {
+              return applyAsync(null, Arrays.asList(events));
+            }
+
+            public CompletableFuture<« currentStateType »> applyAsync(Collection<InputEvent> events) {
+              return applyAsync(null, events);
+            }
+
+            /**
+             * Applies the given events without waiting for the tick.
+             *
+             * @return A future that is completed with the state after the tick, or completed exceptionally if the
+             *         application has been rejected, dropped or failed.
+             */
+            public CompletableFuture<« currentStateType »> applyAsync(Runnable preExecutionTask, Collection<InputEvent> events) {
+              final CompletableFuture<« currentStateType »> result = new CompletableFuture<>();
+              try {
+                final boolean accepted = enqueue(preExecutionTask, events, null, « emptyEventMask »,
+                    () -> result.complete(captureCurrentState()), result::completeExceptionally,
+                    () -> result.completeExceptionally(new RejectedExecutionException("Application has been dropped from the full mailbox")),
+                    null);
+                if (!accepted) {
+                  result.completeExceptionally(new RejectedExecutionException("Application has not been accepted"));
+                }
+              } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+              }
+              return result;
+            }
+
+            /**
+             * Provides the current state, which does not change with later ticks.
+             */
+            private « currentStateType » captureCurrentState() {
+              « IF isStringContainerEnabled && !isConfigurationIdEnabled »
+                return new StateMachineStateContainer(rootContext.getCurrentStateString());
+              « ELSE »
+                return getCurrentState();
+              « ENDIF »
+            }
+
+            /**
+             * Performs the given data request in the executor without blocking the caller.
+             *
+             * @return A future that is completed with the result of the request, or completed exceptionally if the
+             *         request failed.
+             */
+            public <T> CompletableFuture<T> queryAsync(Callable<T> dataRequest) {
+              final CompletableFuture<T> result = new CompletableFuture<>();
+              final Runnable request = () -> {
+                try {
+                  result.complete(dataRequest.call());
+                } catch (Throwable t) {
+                  result.completeExceptionally(t);
+                }
+              };
+              if (executionFactory.isRunningInExecutor()) {
+                request.run();
+              } else {
+                try {
+                  executor.execute(request);
+                } catch (RejectedExecutionException e) {
+                  result.completeExceptionally(e);
+                }
+              }
+              return result;
+            }
+
+            public <T> CompletableFuture<T> queryAsync(Callable<T> dataRequest, long timeout, TimeUnit timeUnit) {
+              return queryAsync(dataRequest).orTimeout(timeout, timeUnit);
+            }
+
+        '''
+        // CHECKSTYLEON LineLength
+    }
+
+    private def String currentStateType() {
+        return if (isStringContainerEnabled) "StateMachineStateContainer" else "String"
+    }
+
+    private def generateBatchInteractions() {
+        // CHECKSTYLEOFF LineLength - This is template code that cannot be arbitrarily formatted
+        return '''
+            public void applyAll(Iterable<? extends Collection<InputEvent>> eventSets) {
+              applyAll(eventSets, null, null);
+            }
+
+            public void applyAll(Iterable<? extends Collection<InputEvent>> eventSets, Consumer<Collection<InputEvent>> postTickTask,
+                Runnable postBatchTask) {
+              applyAll(eventSets.iterator(), postTickTask, postBatchTask);
+            }
+
+            /**
+             * Performs one tick per element of the given event sets, all within a single task of the executor.
+             * The event sets are iterated in the executor.
+             « IF isMailboxEnabled || isTickCoalescingEnabled »
+             * The batch is queued like a single application, so it is performed in order with the other applications.
+             « ENDIF »
+             */
+            public void applyAll(Iterator<? extends Collection<InputEvent>> eventSets, Consumer<Collection<InputEvent>> postTickTask,
+                Runnable postBatchTask) {
+              enqueue(null, null, null, « emptyEventMask », null, null, null, () -> {
+                « generateDebugLogging('"Performing batch of applications while in state {}", getCurrentState()') »
+                try {
+                  while (eventSets.hasNext()) {
+                    final Collection<InputEvent> events = eventSets.next();
+                    performApply(null, events, null, « emptyEventMask », postTickTask != null ? () -> postTickTask.accept(events) : null, null« IF isTickCoalescingEnabled », 1« ENDIF »);
+                  }
+                  if (postBatchTask != null) {
+                    postBatchTask.run();
+                  }
+                } catch (final Throwable t) {
+                  « generateErrorLogging('"Exception in statemachine batch application", t') »
+                }
+              });
+            }
+
+        '''
+        // CHECKSTYLEON LineLength
+    }
+
+    private def generateMailboxInteractions() {
+        // CHECKSTYLEOFF LineLength - This is template code that cannot be arbitrarily formatted
+        return '''
+            public boolean tryApply(InputEvent... events) {
+              return tryApply(null, Arrays.asList(events), null);
+            }
+
+            public boolean tryApply(Collection<InputEvent> events) {
+              return tryApply(null, events, null);
+            }
+
+            public boolean tryApply(Runnable preExecutionTask, Collection<InputEvent> events, Runnable postExecutionTask) {
+              return enqueueApply(preExecutionTask, events, null, « emptyEventMask », postExecutionTask);
+            }
+
+            public boolean tryApply(MultiEventSupplier<InputEvent> eventsSupplier, Runnable postExecutionTask) {
+              return enqueueApply(null, null, eventsSupplier, « emptyEventMask », postExecutionTask);
+            }
+
+            « IF eventDeclarations.size > 0 »
+              public boolean tryApply(Runnable preExecutionTask, « eventMaskType » eventMask, Runnable postExecutionTask) {
+                return enqueueApply(preExecutionTask, null, null, eventMask, postExecutionTask);
+              }
+            « ENDIF »
+
+            public StateMachineMailboxMetrics getMailboxMetrics() {
+              return mailbox;
+            }
+
+        '''
+        // CHECKSTYLEON LineLength
+    }
+
+    private def generatePendingApply() {
+        // CHECKSTYLEOFF LineLength - This is template code that cannot be arbitrarily formatted
+        return '''
+            private static final class PendingApply {
+              private final Runnable preExecutionTask;
+              private final MultiEventSupplier<InputEvent> eventsSupplier;
+              private final « eventMaskType » eventMask;
+              private final Runnable postExecutionTask;
+              /** Notifies the producers if the application fails. */
+              private final Consumer<Throwable> failureTask;
+              /** Notifies the producers if the application is dropped from the full mailbox. */
+              private final Runnable dropTask;
+              /** A batch of applications, performed instead of a single application if set. */
+              private final Runnable batch;
+
+              private PendingApply(Runnable preExecutionTask, MultiEventSupplier<InputEvent> eventsSupplier,
+                  « eventMaskType » eventMask, Runnable postExecutionTask, Consumer<Throwable> failureTask, Runnable dropTask,
+                  Runnable batch) {
+                this.preExecutionTask = preExecutionTask;
+                this.eventsSupplier = eventsSupplier;
+                this.eventMask = eventMask;
+                this.postExecutionTask = postExecutionTask;
+                this.failureTask = failureTask;
+                this.dropTask = dropTask;
+                this.batch = batch;
+              }
+
+              private void dropped() {
+                if (dropTask != null) {
+                  dropTask.run();
+                }
+              }
+
+              private PendingApply merge(PendingApply later) {
+                return new PendingApply(chain(preExecutionTask, later.preExecutionTask), () -> {
+                  final Set<InputEvent> mergedEvents = new LinkedHashSet<>();
+                  addAllNullSafe(mergedEvents, eventsSupplier.getEvents());
+                  addAllNullSafe(mergedEvents, later.eventsSupplier.getEvents());
+                  return mergedEvents;
+                }, mergeEventMasks(eventMask, later.eventMask), chain(postExecutionTask, later.postExecutionTask),
+                    chainFailures(failureTask, later.failureTask), chain(dropTask, later.dropTask), null);
+              }
+
+              private static « eventMaskType » mergeEventMasks(« eventMaskType » first, « eventMaskType » second) {
+                « IF eventMaskWords == 1 »
+                  return first | second;
+                « ELSE »
+                  if (first == null) {
+                    return second;
+                  } else if (second == null) {
+                    return first;
+                  }
+                  final long[] merged = new long[first.length];
+                  for (int i = 0; i < merged.length; i++) {
+                    merged[i] = first[i] | second[i];
+                  }
+                  return merged;
+                « ENDIF »
+              }
+
+              private static Runnable chain(Runnable first, Runnable second) {
+                if (first == null) {
+                  return second;
+                } else if (second == null) {
+                  return first;
+                }
+                // The second task is run even if the first one throws, e.g. to notify all merged producers
+                return () -> {
+                  try {
+                    first.run();
+                  } finally {
+                    second.run();
+                  }
+                };
+              }
+
+              private static Consumer<Throwable> chainFailures(Consumer<Throwable> first, Consumer<Throwable> second) {
+                if (first == null) {
+                  return second;
+                } else if (second == null) {
+                  return first;
+                }
+                return t -> {
+                  try {
+                    first.accept(t);
+                  } finally {
+                    second.accept(t);
+                  }
+                };
+              }
+
+              private static void addAllNullSafe(Set<InputEvent> target, Collection<InputEvent> events) {
+                if (events != null) {
+                  target.addAll(events);
+                }
+              }
+            }
+
+            private void processPendingApply(PendingApply pendingApply, int mergedApplications) {
+              if (pendingApply.batch != null) {
+                pendingApply.batch.run();
+              } else {
+                performApply(pendingApply.preExecutionTask, null, pendingApply.eventsSupplier, pendingApply.eventMask,
+                    pendingApply.postExecutionTask, pendingApply.failureTask« IF isTickCoalescingEnabled », mergedApplications« ENDIF »);
+              }
+            }
+
+            private PendingApply mergePendingApplies(PendingApply first, PendingApply later) {
+              if (first.batch == null && later.batch == null) {
+                return first.merge(later);
+              }
+              // A batch is not merged into a single tick, both are performed one after the other
+              return new PendingApply(null, null, « emptyEventMask », null, null, PendingApply.chain(first.dropTask, later.dropTask), () -> {
+                processPendingApply(first, 1);
+                processPendingApply(later, 1);
+              });
+            }
+
+        '''
+        // CHECKSTYLEON LineLength
+    }
+
+    private def generateApplySlot() {
+        return '''
+            private static final class ApplySlot {
+              private Runnable preExecutionTask;
+              private Collection<InputEvent> events;
+              private MultiEventSupplier<InputEvent> eventsSupplier;
+              private « eventMaskType » eventMask;
+              private Runnable postExecutionTask;
+              private Consumer<Throwable> failureTask;
+              private Runnable batch;
+            }
+
+            private void processApplySlot(ApplySlot slot) {
+              final Runnable preExecutionTask = slot.preExecutionTask;
+              final Collection<InputEvent> events = slot.events;
+              final MultiEventSupplier<InputEvent> eventsSupplier = slot.eventsSupplier;
+              final « eventMaskType » eventMask = slot.eventMask;
+              final Runnable postExecutionTask = slot.postExecutionTask;
+              final Consumer<Throwable> failureTask = slot.failureTask;
+              final Runnable batch = slot.batch;
+              slot.preExecutionTask = null;
+              slot.events = null;
+              slot.eventsSupplier = null;
+              slot.eventMask = « emptyEventMask »;
+              slot.postExecutionTask = null;
+              slot.failureTask = null;
+              slot.batch = null;
+              if (batch != null) {
+                batch.run();
+              } else {
+                performApply(preExecutionTask, events, eventsSupplier, eventMask, postExecutionTask, failureTask);
+              }
+            }
+
+        '''
+    }
+
     private def generateSimpleInteractions() {
         return '''
             public void init() {
               « generateTraceLogging('"Initializing StateMachine"') »
               reset();
               « IF eventDeclarations.size > 0 »
-                writeEventsToIfaceInputs(Collections.emptyList());
+                writeEventsToIfaceInputs(null, « emptyEventMask »);
               « ENDIF »
               tick();
             }
@@ -578,23 +1720,303 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
 
             public void apply(Collection<InputEvent> events) {
               « generateTraceLogging('"Performing action on input events {}", events') »
-              « IF eventDeclarations.size > 0 »
-                writeEventsToIfaceInputs(events);
-              « ENDIF»
-              tick();
+              « IF isFlightRecorderEnabled »
+                recordedTick(« IF eventDeclarations.size > 0 »writeEventsToIfaceInputs(events, « emptyEventMask »)« ELSE »0L« ENDIF »);
+              « ELSE »
+                « IF eventDeclarations.size > 0 »
+                  writeEventsToIfaceInputs(events, « emptyEventMask »);
+                « ENDIF»
+                tick();
+              « ENDIF »
             }
+            « IF eventDeclarations.size > 0 »
+
+              public void apply(« eventMaskType » eventMask) {
+                « generateTraceLogging('"Performing action on input events {}", describeEvents(null, eventMask)') »
+                « IF isFlightRecorderEnabled »
+                  recordedTick(writeEventsToIfaceInputs(null, eventMask));
+                « ELSE »
+                  writeEventsToIfaceInputs(null, eventMask);
+                  tick();
+                « ENDIF »
+              }
+            « ENDIF »
         '''
     }
     
+    private def generateStateSnapshot() {
+        // CHECKSTYLEOFF LineLength - This is template code that cannot be arbitrarily formatted
+        val outputs = rootState.declarations.filter(VariableDeclaration).filter[!hasAnnotation("InputEvent")]
+            .map[it.valuedObjects].flatten.filter[isOutput].toList
+        return '''
+            /**
+             * Immutable snapshot of the state machine, published at the end of each tick.
+             */
+            @de.scheidtbachmann.statemachine.runtime.Generated(message = "de.scheidtbachmann.statemachine.compiler")
+            public static final class Snapshot {
+              private final long tickCount;
+              private final boolean terminated;
+              private final List<String> activeStates;
+              /** The active states as filled in by the state machine, used to detect an unchanged configuration. */
+              private final String[] filledActiveStates;
+              « FOR vo : outputs »
+                private final « vo.declarationType »« IF vo.isArray »« FOR cardinal : vo.cardinalities »[]« ENDFOR »« ENDIF » « vo.name »;
+              « ENDFOR »
+
+              private Snapshot(« rootState.uniqueName » stateMachine, long tickCount, Snapshot previous) {
+                this.tickCount = tickCount;
+                this.terminated = stateMachine.rootContext.threadStatus == « threadStatus("TERMINATED") »;
+                if (previous != null && stateMachine.rootContext.matchActiveStates(previous.filledActiveStates) == previous.filledActiveStates.length) {
+                  // Unchanged configuration, the immutable list of the previous snapshot is shared
+                  this.filledActiveStates = previous.filledActiveStates;
+                  this.activeStates = previous.activeStates;
+                } else {
+                  final String[] activeStates = new String[MAX_ACTIVE_STATES];
+                  this.filledActiveStates = Arrays.copyOf(activeStates, stateMachine.rootContext.fillActiveStates(activeStates, 0));
+                  this.activeStates = Collections.unmodifiableList(Arrays.asList(Arrays.stream(filledActiveStates).distinct().toArray(String[]::new)));
+                }
+                « FOR vo : outputs »
+                  this.« vo.name » = stateMachine.iface.« vo.name »« IF vo.isArray ».clone()« ENDIF »;
+                « ENDFOR »
+              }
+
+              /**
+               * @return the number of ticks performed before this snapshot has been taken.
+               */
+              public long getTickCount() {
+                return tickCount;
+              }
+
+              public boolean isTerminated() {
+                return terminated;
+              }
+
+              public List<String> getActiveStates() {
+                return activeStates;
+              }
+
+              public String getCurrentState() {
+                return String.join(",", activeStates);
+              }
+              « FOR vo : outputs »
+
+                public « vo.declarationType »« IF vo.isArray »« FOR cardinal : vo.cardinalities »[]« ENDFOR »« ENDIF » « IF vo.isBool && !vo.isArray »is« ELSE »get« ENDIF »« vo.name.toFirstUpper »() {
+                  return « vo.name »« IF vo.isArray ».clone()« ENDIF »;
+                }
+              « ENDFOR »
+
+              @Override
+              public String toString() {
+                return "Snapshot [tickCount=" + tickCount + ", activeStates=" + activeStates« FOR vo : outputs » + ", « vo.name »=" + « IF vo.isArray »Arrays.toString(« vo.name »)« ELSE »« vo.name »« ENDIF »« ENDFOR » + "]";
+              }
+            }
+
+            private volatile Snapshot snapshot;
+            private long tickCount;
+
+            private void publishSnapshot() {
+              tickCount++;
+              snapshot = new Snapshot(this, tickCount, snapshot);
+            }
+
+            /**
+             * Provides the snapshot published at the end of the last tick.
+             * The snapshot can be read from any thread without blocking and without access checks.
+             *
+             * @return the latest snapshot, or {@code null} if the state machine has not been initialized yet.
+             */
+            public Snapshot snapshot() {
+              return snapshot;
+            }
+
+        '''
+        // CHECKSTYLEON LineLength
+    }
+
+    private def generateStatePersistence() {
+        // CHECKSTYLEOFF LineLength - This is template code that cannot be arbitrarily formatted
+        val variables = persistedVariables
+        return '''
+            /** Hash of the regions, states and variables of the chart, the state can only be restored by the same chart. */
+            public static final long SCHEMA_HASH = « schemaHash »L;
+            /** Number of bytes written by {@link #writeState(ByteBuffer)}. */
+            public static final int STATE_SIZE = « stateSize »;
+            « IF !isCompactLayoutEnabled »
+              private static final ThreadStatus[] THREAD_STATUSES = ThreadStatus.values();
+            « ENDIF »
+
+            @Override
+            public long getSchemaHash() {
+              return SCHEMA_HASH;
+            }
+
+            @Override
+            public int getStateSize() {
+              return STATE_SIZE;
+            }
+
+            /**
+             * Writes the thread statuses, active states and variables of all regions, including inactive ones.
+             « IF isExecutorEnabled »
+             * The state is written by the executor, the caller waits for it.
+             « ENDIF »
+             « IF isMailboxEnabled || isTickCoalescingEnabled »
+             * Applications still pending in the mailbox are performed before, as they would be by the executor queue
+             * without a mailbox, unless the state is written from within the executor.
+             « ENDIF »
+             */
+            @Override
+            public void writeState(ByteBuffer buffer) {
+              « IF isMailboxEnabled || isTickCoalescingEnabled »
+                final boolean flushPendingApplications = !executionFactory.isRunningInExecutor();
+                runInExecutorAndWait(() -> {
+                  if (flushPendingApplications) {
+                    « IF isMailboxEnabled »
+                      mailbox.flush();
+                    « ENDIF »
+                    « IF isTickCoalescingEnabled »
+                      tickCoalescer.flush();
+                    « ENDIF »
+                  }
+                  writeStateInternal(buffer);
+                });
+              « ELSEIF isExecutorEnabled »
+                runInExecutorAndWait(() -> writeStateInternal(buffer));
+              « ELSE »
+                writeStateInternal(buffer);
+              « ENDIF »
+            }
+
+            /**
+             * Restores a state written by {@link #writeState(ByteBuffer)}, replacing the current state.
+             « IF isExecutorEnabled »
+             * The state is restored by the executor, the caller waits for it.
+             « ENDIF »
+             */
+            @Override
+            public void readState(ByteBuffer buffer) {
+              « IF isExecutorEnabled »
+                runInExecutorAndWait(() -> readStateInternal(buffer));
+              « ELSE »
+                readStateInternal(buffer);
+              « ENDIF »
+            }
+
+            private void writeStateInternal(ByteBuffer buffer) {
+              buffer.putLong(SCHEMA_HASH);
+              rootContext.writeState(buffer);
+              « FOR vo : variables »
+                « IF vo.declarationType.toString == "boolean" »
+                  buffer.put(iface.« vo.name » ? (byte) 1 : (byte) 0);
+                « ELSE »
+                  buffer.« vo.bufferAccessor("put") »(iface.« vo.name »);
+                « ENDIF »
+              « ENDFOR »
+            }
+
+            private void readStateInternal(ByteBuffer buffer) {
+              if (buffer.remaining() < STATE_SIZE) {
+                throw new IllegalArgumentException("The state needs " + STATE_SIZE + " bytes, only " + buffer.remaining() + " remaining");
+              }
+              final long schemaHash = buffer.getLong();
+              if (schemaHash != SCHEMA_HASH) {
+                throw new IllegalArgumentException("The state has been written by a different chart, schema hash " + Long.toHexString(schemaHash));
+              }
+              rootContext.readState(buffer);
+              « FOR vo : variables »
+                « IF vo.declarationType.toString == "boolean" »
+                  iface.« vo.name » = buffer.get() != 0;
+                « ELSE »
+                  iface.« vo.name » = buffer.« vo.bufferAccessor("get") »();
+                « ENDIF »
+              « ENDFOR »
+              « IF isStateSnapshotEnabled »
+                snapshot = new Snapshot(this, tickCount, snapshot);
+              « ENDIF »
+            }
+            « IF isExecutorEnabled »
+
+              private void runInExecutorAndWait(Runnable task) {
+                if (executionFactory.isRunningInExecutor()) {
+                  task.run();
+                  return;
+                }
+                try {
+                  executor.submit(task).get();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  throw new IllegalStateException("Interrupted while waiting for the executor", e);
+                } catch (ExecutionException e) {
+                  if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                  }
+                  throw new IllegalStateException(e.getCause());
+                }
+              }
+            « ENDIF »
+
+        '''
+        // CHECKSTYLEON LineLength
+    }
+
     private def generateCurrentStateOutput() {
         return '''
+            /** Upper bound of simultaneously active (leaf) states. */
+            public static final int MAX_ACTIVE_STATES = « rootState.regions.filter(ControlflowRegion).fold(0)[sum, r | sum + r.maxActiveStates] »;
+
             « IF isStringContainerEnabled »
               public StateMachineStateContainer getCurrentState() {
-                return new StateMachineStateContainer(rootContext);
+                « IF isConfigurationIdEnabled »
+                  return new StateMachineStateContainer(rootContext.getConfigurationId(), « rootState.uniqueName »::configurationToString);
+                « ELSE »
+                  return new StateMachineStateContainer(rootContext);
+                « ENDIF »
               }
             « ELSE »
               public String getCurrentState() {
-                return rootContext.getCurrentState().distinct().collect(Collectors.joining(","));
+                return rootContext.getCurrentStateString();
+              }
+            « ENDIF »
+
+            /**
+             * Writes the names of the active states into the given array without allocating.
+             * Unlike {@link #getCurrentState()}, names of states active in several regions are not filtered.
+             *
+             * @param target
+             *            the array to fill, with a length of at least {@link #MAX_ACTIVE_STATES}.
+             * @return the number of names written.
+             */
+            public int fillActiveStates(String[] target) {
+              return rootContext.fillActiveStates(target, 0);
+            }
+            « IF isConfigurationIdEnabled »
+
+              /**
+               * Provides a compact identity of the active states. Each region contributes a digit of a mixed radix
+               * number, which is zero if the region is not active.
+               *
+               * @return the configuration id of the active states, decodable with {@link #decodeConfiguration(long)}.
+               */
+              public long getConfigurationId() {
+                return rootContext.getConfigurationId();
+              }
+
+              /**
+               * @param configurationId
+               *            the id as returned by {@link #getConfigurationId()}.
+               * @return the names of the active states of the configuration, in the order of {@link #fillActiveStates(String[])}.
+               */
+              public static java.util.List<String> decodeConfiguration(long configurationId) {
+                return TickData.decodeConfiguration(configurationId);
+              }
+
+              /**
+               * @param configurationId
+               *            the id as returned by {@link #getConfigurationId()}.
+               * @return the same representation as {@link #getCurrentState()} for the given configuration.
+               */
+              public static String configurationToString(long configurationId) {
+                return String.join(",", new java.util.LinkedHashSet<>(decodeConfiguration(configurationId)));
               }
             « ENDIF »
 
@@ -625,11 +2047,28 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
                 « ELSE »
                   this.executor = executionFactory.createExecutor("« rootState.uniqueName »");
                 « ENDIF »
+                « IF isBoundedMailboxEnabled »
+                  this.mailbox = new StateMachineBoundedMailbox<>(executor, « mailboxCapacity »,
+                      StateMachineOverflowPolicy.« mailboxPolicy.name », pendingApply -> processPendingApply(pendingApply, 1),
+                      this::mergePendingApplies, PendingApply::dropped, executionFactory::isRunningInExecutor);
+                « ENDIF »
+                « IF isTickCoalescingEnabled »
+                  this.tickCoalescer = new StateMachineTickCoalescer<>(executor, « coalesceMaxBatch », « coalesceWindowMillis »L,
+                      TimeUnit.MILLISECONDS, this::mergePendingApplies, this::processPendingApply);
+                « ENDIF »
+                « IF isRingBufferMailboxEnabled »
+                  this.mailbox = new StateMachineRingBufferMailbox<>(executor, « mailboxCapacity »,
+                      StateMachineOverflowPolicy.« mailboxPolicy.name », ApplySlot::new, this::processApplySlot,
+                      executionFactory::isRunningInExecutor);
+                « ENDIF »
               « ENDIF »
               « IF isIfaceNeeded »
               this.iface = new Iface();
               « ENDIF »
               this.rootContext = new TickData();
+              « IF isFlightRecorderEnabled »
+                this.flightRecorderId = flightRecorder.register("« rootState.uniqueName »"« IF isLoggingEnabled » + loggingPrefix« ENDIF »);
+              « ENDIF »
             }
 
         '''
@@ -643,6 +2082,12 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
                   executionFactory.releaseExecutor(this.executor);
                 }
               « ENDIF »
+              « IF isFlightRecorderEnabled »
+                if (this.flightRecorderId >= 0) {
+                  flightRecorder.unregister(this.flightRecorderId);
+                  this.flightRecorderId = -1;
+                }
+              « ENDIF »
             }
         '''
     }
@@ -667,74 +2112,113 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
         '''
     }    
     
+    private def generateFlightRecording() {
+        val configuration = if (isConfigurationIdEnabled) "rootContext.getConfigurationId()" else "-1L"
+        return '''
+            « IF isFlightRecorderEnabled »
+
+              /**
+               * Performs a tick and records it in the flight recorder, the first 64 events of the event mask are recorded.
+               */
+              private void recordedTick(long eventMask) {
+                final long startConfigurationId = « configuration »;
+                try {
+                  tick();
+                } catch (RuntimeException | Error e) {
+                  flightRecorder.record(flightRecorderId, startConfigurationId, « configuration », eventMask, true);
+                  throw e;
+                }
+                flightRecorder.record(flightRecorderId, startConfigurationId, « configuration », eventMask, false);
+              }
+            « ENDIF »
+        '''
+    }
+
     private def generateActivityHistory() {
         return '''
             « IF isHistoryEnabled »
 
-              private final static int MAX_HISTORY_ENTRIES = 10;
+              private final static int MAX_HISTORY_ENTRIES = « historyCapacity »;
 
-              private final List<StateMachineHistoryEntry> activityHistory = new LinkedList<>();
+              private final StateMachineActivityHistory activityHistory = new StateMachineActivityHistory(
+                  MAX_HISTORY_ENTRIES, « eventMaskWords », « IF isConfigurationIdEnabled »« rootState.uniqueName »::configurationToString« ELSE »null« ENDIF »,
+                  « IF eventDeclarations.size > 0 »eventMask -> describeEvents(null, eventMask« IF eventMaskWords == 1 »[0]« ENDIF »)« ELSE »eventMask -> "[]"« ENDIF »);
 
+              /**
+               * Renders the latest activations, the oldest one first. The activations are recorded as raw values and
+               * only formatted by this method, which should be called from the executor of the state machine.
+               */
               public List<StateMachineHistoryEntry> getActivityHistory() {
-                return Collections.unmodifiableList(activityHistory);
-              }
-
-              private void addHistoryEntry(StateMachineHistoryEntry historyEntry) {
-                activityHistory.add(historyEntry);
-                while (activityHistory.size() > 10) {
-                  activityHistory.remove(0);
-                }
+                return activityHistory.getEntries();
               }
             « ENDIF »
         '''
     }
     
-    private def CharSequence createCodeState(State state) {
+    protected def CharSequence createCodeState(State state) {
         val originalName = state.getAnnotation("OriginalState")?.asStringAnnotation?.values?.head
         val originalNameHashAnnotation = state.getAnnotation("OriginalNameHash")?.asIntAnnotation 
         val originalStateHashCode = if (originalNameHashAnnotation === null) 0 else originalNameHashAnnotation.value
 
+        outlinedMethods.clear
         //CHECKSTYLEOFF LineLength This is template code that can't be arbitrarily formatted
-        return '''
+        val code = '''
             « generateJavaDocFromCommentAnnotations(state) »
             « IF originalName !== null »@SCChartsDebug(originalName = "« originalName »", originalStateHash = « originalStateHashCode »)«ENDIF»
-            private void « state.uniqueName »« IF (state == rootState) »_root« ENDIF »(« state.uniqueContextMemberName » context) {
+            private void « state.uniqueName »« IF (state == rootState) »_root« ENDIF »(« state.contextType » context) {
               « generateTraceLogging('''"Activating state « state.getStringAnnotationValue("SourceState") »"''') »
             « IF state.isHierarchical »
             « IF state !== rootState »
               « FOR r : state.regions.filter(ControlflowRegion) »
-                context.« r.uniqueContextName ».activeState = « r.uniqueName »States.« r.states.filter[ initial ].head.uniqueEnumName »;
+                « childRegionField("context", r, "activeState") » = « r.states.filter[ initial ].head.stateValue(false) »;
                 « IF r.needsDelayedEnabled »
-                context.« r.uniqueContextName ».delayedEnabled = false;
+                « childRegionField("context", r, "delayedEnabled") » = false;
                 « ENDIF »
-                context.« r.uniqueContextName ».threadStatus = ThreadStatus.READY;
+                « childRegionField("context", r, "threadStatus") » = « threadStatus("READY") »;
               « ENDFOR »
 
-              context.activeState = « state.parentRegion.uniqueName »States.« state.uniqueEnumName »RUNNING;
+              « regionField("context", state.parentRegion, "activeState") » = « state.stateValue(true) »;
+              « IF isFlatDispatchEnabled »
+                rootContext.flatConfiguration = « state.regions.filter(ControlflowRegion).head.states.filter[initial].head.initialFlatConfiguration »;
+              « ENDIF »
             }
 
             « state.generateJavaDocFromCommentAnnotations »
             « IF originalName !== null »@SCChartsDebug(originalName = "« originalName »", originalStateHash = « originalStateHashCode »)«ENDIF»
-            private void « state.uniqueName »_running(« state.uniqueContextMemberName » context) {
+            private void « state.uniqueName »_running(« state.contextType » context) {
               « IF isLoggingEnabled »LOG.trace("Activating state « state.getStringAnnotationValue("SourceState") »");« ENDIF »
             « ENDIF »
               « createCodeSuperstate(state) »
+            « IF isFlatDispatchEnabled »
+              « state.uniqueName »_react(context);
+            }
+
+            private void « state.uniqueName »_react(« state.contextType » context) {
+            « ENDIF »
             « ENDIF »
               « addSimpleStateCode(state) »
             }
         '''
         //CHECKSTYLEON LineLength
+        checkMethodSize(state.uniqueName + if (state.isHierarchical && state !== rootState) "_running" else "", code)
+        return '''
+            « code »
+            « FOR m : outlinedMethods »
+
+              « m »
+            « ENDFOR »
+        '''
     }
 
     protected def CharSequence createCodeSuperstate(State state) {
         return '''
             « FOR r : state.regions.filter(ControlflowRegion) »
-                if (context.« r.uniqueName ».threadStatus != ThreadStatus.TERMINATED) {
-                  context.« r.uniqueName ».threadStatus = ThreadStatus.RUNNING;
+                if (« childRegionField("context", r, "threadStatus") » != « threadStatus("TERMINATED") ») {
+                  « childRegionField("context", r, "threadStatus") » = « threadStatus("RUNNING") »;
                 }
             « ENDFOR »
             « FOR r : state.regions.filter(ControlflowRegion) »        
-                « r.uniqueName »(context.« r.uniqueContextName »);
+                « r.uniqueName »(« childRegionContext("context", r) »);
             « ENDFOR »        
         '''
     }
@@ -747,7 +2231,7 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
         //CHECKSTYLEOFF LineLength This is template code that can't be arbitrarily formatted
         return '''
           « IF state.isFinal »
-            context.threadStatus = ThreadStatus.TERMINATED;
+            « state.statusField » = « threadStatus("TERMINATED") »;
           « ELSE »
             « IF state.outgoingTransitions.size == 1 && 
                  state.outgoingTransitions.head.delay == DelayType.IMMEDIATE && 
@@ -755,76 +2239,160 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
                  state.outgoingTransitions.head.preemption != PreemptionType.TERMINATION »
               « addTransitionEffectCode(state.outgoingTransitions.head) » « addTransitionComment(state.outgoingTransitions.head) »
             «ELSE»
-              « FOR t : state.outgoingTransitions.indexed »
-                « addTransitionConditionCode(t.key, state.outgoingTransitions.size, t.value, hasDefaultTransition) »
+              « addTransitionChainCode(state, hasDefaultTransition) »
+            « ENDIF »
+          « ENDIF »
+        '''
+        //CHECKSTYLEON LineLength
+    }
+
+    /**
+     * Generates the prioritized transitions of a state. Effects that are too large to be inlined by the JIT are
+     * outlined into helper methods. If the transitions are still too large for a single method, they are split into
+     * helper methods that return whether they took a transition.
+     */
+    protected def CharSequence addTransitionChainCode(State state, boolean hasDefaultTransition) {
+        val transitions = state.outgoingTransitions
+        val conditions = transitions.map[transitionCondition].toList
+        val effects = transitions.indexed.map[outlineTransitionEffectCode(state, key, addTransitionEffectCode(value))]
+            .toList
+        val sizes = (0 ..< transitions.size).map[estimate(conditions.get(it)) + estimate(effects.get(it))].toList
+
+        //CHECKSTYLEOFF LineLength This is template code that can't be arbitrarily formatted
+        if (sizes.fold(0)[a, b | a + b] <= METHOD_SPLIT_SIZE) {
+            return '''
+              « FOR t : transitions.indexed »
+                « addTransitionConditionCode(t.key, transitions.size, t.value, conditions.get(t.key), effects.get(t.key), hasDefaultTransition) »
               « ENDFOR »
               « IF !hasDefaultTransition »
-                « IF state.outgoingTransitions.size == 0 »
+                « IF transitions.size == 0 »
                   « IF (state.isHierarchical) »
                     « addDelayedEnabledCode(state) »
                   « ENDIF »
-                  context.threadStatus = ThreadStatus.READY;
+                  « state.statusField » = « threadStatus("READY") »;
                 « ELSE »
                   } else {
                     « IF (state.isHierarchical) »
                       « addDelayedEnabledCode(state) »
                     « ENDIF »
-                    context.threadStatus = ThreadStatus.READY;
+                    « state.statusField » = « threadStatus("READY") »;
                   }
                 « ENDIF »
               « ENDIF »
-            « ENDIF »
+            '''
+        }
+
+        val chunks = splitBySize(sizes)
+        val chunkNames = (0 ..< chunks.size).map[state.uniqueName + "_transitions" + it].toList
+        for (chunk : chunks.indexed) {
+            val method = '''
+                private boolean « chunkNames.get(chunk.key) »(« state.contextType » context) {
+                  « FOR i : chunk.value »
+                    if (« conditions.get(i) ») { « addTransitionComment(transitions.get(i)) »
+                      « effects.get(i) »
+                      return true;
+                    }
+                  « ENDFOR »
+                  return false;
+                }
+            '''
+            checkMethodSize(chunkNames.get(chunk.key), method)
+            outlinedMethods += method
+        }
+        val testedChunks = if (hasDefaultTransition) chunkNames.take(chunkNames.size - 1).toList else chunkNames
+        return '''
+          « IF testedChunks.empty »
+            « chunkNames.last »(context);
+          « ELSE »
+            if (« FOR c : testedChunks SEPARATOR ' && ' »!« c »(context)« ENDFOR ») {
+              « IF hasDefaultTransition »
+                « chunkNames.last »(context);
+              « ELSE »
+                « IF (state.isHierarchical) »
+                  « addDelayedEnabledCode(state) »
+                « ENDIF »
+                « state.statusField » = « threadStatus("READY") »;
+              « ENDIF »
+            }
           « ENDIF »
         '''
-        //CHECKSTYLEON LineLength
+        //CHECKSTYLEON LineLength
+    }
+
+    /**
+     * Moves the effect code of a transition into a helper method if it is too large to be inlined by the JIT.
+     */
+    protected def CharSequence outlineTransitionEffectCode(State state, int index, CharSequence effect) {
+        if (estimate(effect) <= FREQ_INLINE_SIZE) {
+            return effect
+        }
+        val name = state.uniqueName + "_transition" + index
+        val method = '''
+            private void « name »(« state.contextType » context) {
+              « effect »
+            }
+        '''
+        checkMethodSize(name, method)
+        outlinedMethods += method
+        return '''« name »(context);'''
     }
 
     protected def CharSequence addDelayedEnabledCode(State state) {
         return '''
           « FOR r : state.regions.filter(ControlflowRegion) »
             « IF r.needsDelayedEnabled »
-            context.« r.uniqueName ».delayedEnabled = true;
+            « childRegionField("context", r, "delayedEnabled") » = true;
             « ENDIF »
           « ENDFOR » 
         '''
     }
 
-    protected def CharSequence addTransitionConditionCode(int index, int count, Transition transition, 
-        boolean hasDefaultTransition) {
-        valuedObjectPrefix = "iface."
+    protected def CharSequence addTransitionConditionCode(int index, int count, Transition transition,
+        CharSequence condition, CharSequence effect, boolean hasDefaultTransition) {
         val defaultTransition = transition.trigger === null && transition.delay == DelayType.IMMEDIATE;
+
+        return '''
+          « IF index == 0 »
+            if (« condition ») { « addTransitionComment(transition) »
+          « ELSE »
+            } else « IF !(defaultTransition) »if (« condition ») « ENDIF »{« addTransitionComment(transition) »
+          « ENDIF » 
+            « effect »
+          « IF index == count-1 && hasDefaultTransition »
+            }
+          « ENDIF »
+        '''
+    }
+
+    /**
+     * Serializes the condition of the given transition as Java expression.
+     */
+    protected def CharSequence transitionCondition(Transition transition) {
+        valuedObjectPrefix = "iface."
+        valuedObjectReplacements = getEventBitTests
         var CharSequence condition = ""
         if (transition.preemption == PreemptionType.TERMINATION) {
             val termRegions = transition.sourceState.regions.filter(ControlflowRegion).indexed
             for (r : termRegions) {
-                condition = condition + "context." + r.value.uniqueContextName +
-                    ".threadStatus == ThreadStatus.TERMINATED"
+                condition = condition + childRegionField("context", r.value, "threadStatus") + " == " +
+                    threadStatus("TERMINATED")
                 if(r.key != termRegions.size - 1) condition = condition + " && \n    "
             }
         } else {
             if (transition.immediate) {
                 if(transition.trigger !== null) condition = transition.trigger.serializeHR else condition = "true"
             } else {
+                val delayedEnabled = regionField("context", transition.sourceState.parentRegion, "delayedEnabled")
                 if (transition.trigger === null)
-                    condition = "context.delayedEnabled"
+                    condition = delayedEnabled
                 else
-                    condition = "context.delayedEnabled && (" + transition.trigger.serializeHR + ")"
+                    condition = delayedEnabled + " && (" + transition.trigger.serializeHR + ")"
             }
         }
 
         valuedObjectPrefix = ""
-
-        return '''
-          « IF index == 0 »
-            if (« condition ») { « addTransitionComment(transition) »
-          « ELSE »
-            } else « IF !(defaultTransition) »if (« condition ») « ENDIF »{« addTransitionComment(transition) »
-          « ENDIF » 
-            « addTransitionEffectCode(transition) »
-          « IF index == count-1 && hasDefaultTransition »
-            }
-          « ENDIF »
-        '''
+        valuedObjectReplacements = emptyMap
+        return condition
     }
 
     protected def CharSequence addTransitionEffectCode(Transition transition) {
@@ -835,10 +2403,13 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
             « e.serializeHR »;
           « ENDFOR »
           « IF transition.sourceState.parentRegion.needsDelayedEnabled »
-          context.delayedEnabled = false;
+          « regionField("context", transition.sourceState.parentRegion, "delayedEnabled") » = false;
           « ENDIF »
           « IF transition.sourceState != transition.targetState || transition.targetState.isHierarchical »
-            context.activeState = « transition.targetState.parentRegion.uniqueName »States.« transition.targetState.uniqueEnumName »;
+            « regionField("context", transition.targetState.parentRegion, "activeState") » = « transition.targetState.stateValue(false) »;
+            « IF isFlatDispatchEnabled && !transition.targetState.isHierarchical »
+              rootContext.flatConfiguration = « transition.targetState.flatConfiguration »;
+            « ENDIF »
           « ENDIF »
         '''
         //CHECKSTYLEON LineLength        
@@ -846,30 +2417,142 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
         return code
     }
 
+    /**
+     * Serializes the trigger of the given transition as Java expression on the interface.
+     */
+    protected def CharSequence serializeTrigger(Transition transition) {
+        valuedObjectPrefix = "iface."
+        valuedObjectReplacements = getEventBitTests
+        val code = transition.trigger.serializeHR
+        valuedObjectPrefix = ""
+        valuedObjectReplacements = emptyMap
+        return code
+    }
+
+    /**
+     * Serializes the effects of the given transition as Java statements on the interface.
+     */
+    protected def CharSequence serializeEffects(Transition transition) {
+        valuedObjectPrefix = "iface."
+        val code = '''
+          « FOR e : transition.effects »
+            « e.serializeHR »;
+          « ENDFOR »
+        '''
+        valuedObjectPrefix = ""
+        return code
+    }
+
+    /**
+     * Generates the dispatch loop of a region. If the switch over all states is too large, it is split into helper
+     * methods for consecutive ranges of states, which are selected by the ordinal of the active state.
+     */
     protected def CharSequence createSourceControlflowRegion(ControlflowRegion region) {
-        return '''
-          private void « region.uniqueName »(« region.uniqueContextMemberName » context) {
-            while (context.threadStatus == ThreadStatus.RUNNING) {
-              switch (context.activeState) {
-                « FOR s : region.states »
-                  case « s.uniqueEnumName »:
-                    « s.uniqueName »(context);
-                    « IF s.isHierarchical »
-                      « s.uniqueName »_running(context);
-                    « ENDIF »
-                    break;
-                  « IF  s.isHierarchical »
-                    case « s.uniqueEnumName »RUNNING:
+        // The cases in the order of the enum constants of the region
+        val cases = <CharSequence>newArrayList
+        for (s : region.states) {
+            cases += '''
+                case « s.stateCase(false) »:
+                  « s.uniqueName »(context);
+                  « IF s.isHierarchical »
+                    « s.uniqueName »_running(context);
+                  « ENDIF »
+                  break;
+            '''
+            if (s.isHierarchical) {
+                cases += '''
+                    case « s.stateCase(true) »:
                       « s.uniqueName »_running(context);
                       break;
-                  « ENDIF »
-              «ENDFOR»
+                '''
+            }
+        }
+        val sizes = cases.map[estimate(it)].toList
+        if (sizes.fold(0)[a, b | a + b] <= METHOD_SPLIT_SIZE) {
+            return '''
+              private void « region.uniqueName »(« region.contextType » context) {
+                while (« regionField("context", region, "threadStatus") » == « threadStatus("RUNNING") ») {
+                  switch (« regionField("context", region, "activeState") ») {
+                    « FOR c : cases »
+                      « c »
+                    « ENDFOR »
+                  }
+                }
+              }
+            '''
+        }
+
+        val chunks = splitBySize(sizes)
+        val methods = chunks.indexed.map[chunk | '''
+            private void « region.uniqueName »_dispatch« chunk.key »(« region.contextType » context) {
+              switch (« regionField("context", region, "activeState") ») {
+                « FOR i : chunk.value »
+                  « cases.get(i) »
+                « ENDFOR »
+              }
+            }
+        '''].toList
+        methods.indexed.forEach[checkMethodSize(region.uniqueName + "_dispatch" + key, value)]
+        return '''
+          private void « region.uniqueName »(« region.contextType » context) {
+            while (« regionField("context", region, "threadStatus") » == « threadStatus("RUNNING") ») {
+              final int ordinal = « IF isCompactLayoutEnabled »« regionField("context", region, "activeState") » - 1« ELSE »context.activeState.ordinal()« ENDIF »;
+              « FOR chunk : chunks.indexed »
+                « IF chunk.key == 0 »
+                  if (ordinal <= « chunk.value.last ») {
+                « ELSEIF chunk.key < chunks.size - 1 »
+                  } else if (ordinal <= « chunk.value.last ») {
+                « ELSE »
+                  } else {
+                « ENDIF »
+                  « region.uniqueName »_dispatch« chunk.key »(context);
+              « ENDFOR »
               }
             }
           }
+          « FOR m : methods »
+
+            « m »
+          « ENDFOR »
         '''
     }
 
+    /**
+     * Splits consecutive items into chunks whose estimated size does not exceed the split size, unless a single item
+     * is larger.
+     *
+     * @return the indices of the items of every chunk.
+     */
+    private def List<List<Integer>> splitBySize(List<Integer> sizes) {
+        val List<List<Integer>> chunks = newArrayList
+        var List<Integer> chunk = newArrayList
+        var chunkSize = 0
+        for (i : 0 ..< sizes.size) {
+            if (!chunk.empty && chunkSize + sizes.get(i) > METHOD_SPLIT_SIZE) {
+                chunks += chunk
+                chunk = newArrayList
+                chunkSize = 0
+            }
+            chunk += i
+            chunkSize += sizes.get(i)
+        }
+        if (!chunk.empty) {
+            chunks += chunk
+        }
+        return chunks
+    }
+
+    /**
+     * Records generated methods that HotSpot will not compile, see
+     * {@link StatebasedLeanJavaBytecodeEstimator#HUGE_METHOD_LIMIT}.
+     */
+    private def void checkMethodSize(String name, CharSequence code) {
+        val size = estimate(code)
+        if (size > HUGE_METHOD_LIMIT) {
+            oversizedMethods += name + " (about " + size + " bytes)"
+        }
+    }
+
     protected def CharSequence createDeclarations(State state) {
         val declarations = rootState.declarations.filter(VariableDeclaration).map[it.valuedObjects].flatten.toList
 
@@ -883,13 +2566,17 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
         '''
     }
 
-    protected def CharSequence createDeclaration(ValuedObject vo) {
-        //CHECKSTYLEOFF LineLength This is template code that can't be arbitrarily formatted
-        val voType = if (vo.type != ValueType.HOST || vo.variableDeclaration.hostType.nullOrEmpty) {
+    protected def CharSequence declarationType(ValuedObject vo) {
+        return if (vo.type != ValueType.HOST || vo.variableDeclaration.hostType.nullOrEmpty) {
                 vo.variableDeclaration.type.serializeHR
             } else {
                 vo.variableDeclaration.hostType
             }
+    }
+
+    protected def CharSequence createDeclaration(ValuedObject vo) {
+        //CHECKSTYLEOFF LineLength This is template code that can't be arbitrarily formatted
+        val voType = vo.declarationType
         val voCardinals = if (vo.isArray) {
                 '''[«FOR cardinal : vo.cardinalities SEPARATOR ']['»« cardinal.serializeHR »«ENDFOR»]'''
             } else {
@@ -1070,6 +2757,14 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
         '''
     }    
 
+    private def CharSequence generateWarnLogging(String log) {
+        return '''
+            « IF isLoggingEnabled »
+              LOG.warn(loggingPrefix + " - " + « log »);
+            « ENDIF »
+        '''
+    }
+
     private def CharSequence generateErrorLogging(String log) {
         return '''
             « IF isLoggingEnabled »
@@ -1098,6 +2793,240 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
         return !featureOverrides.contains(StatebasedLeanJavaFeatureOverrides.NO_HISTORY)
     }
     
+    private def boolean isBoundedMailboxEnabled() {
+        return isExecutorEnabled && featureOverrides.contains(StatebasedLeanJavaFeatureOverrides.BOUNDED_MAILBOX)
+    }
+
+    private def boolean isTickCoalescingEnabled() {
+        return isExecutorEnabled && featureOverrides.contains(StatebasedLeanJavaFeatureOverrides.COALESCE_TICKS)
+    }
+
+    private def boolean isRingBufferMailboxEnabled() {
+        return isExecutorEnabled && featureOverrides.contains(StatebasedLeanJavaFeatureOverrides.RING_BUFFER_MAILBOX)
+    }
+
+    private def boolean isMailboxEnabled() {
+        return isBoundedMailboxEnabled || isRingBufferMailboxEnabled
+    }
+
+    private def String singleEventList(String event) {
+        return if (isRingBufferMailboxEnabled) event + ".singletonList" else "List.of(" + event + ")"
+    }
+
+    private def boolean isPendingApplyNeeded() {
+        return isBoundedMailboxEnabled || isTickCoalescingEnabled
+    }
+
+    private def boolean isFlightRecorderEnabled() {
+        return featureOverrides.contains(StatebasedLeanJavaFeatureOverrides.FLIGHT_RECORDER)
+    }
+
+    /**
+     * Whether the flight recorder drops input events, it only records the first 64 input events of a tick.
+     * Only valid after {@link #create(State)}.
+     */
+    def boolean isFlightRecorderTruncatingEvents() {
+        return isFlightRecorderEnabled && eventMaskWords > 1
+    }
+
+    private def boolean isStateSnapshotEnabled() {
+        return featureOverrides.contains(StatebasedLeanJavaFeatureOverrides.STATE_SNAPSHOT)
+    }
+
+    /**
+     * The flat dispatch is only supported if no state has concurrent regions, so every simple state identifies the
+     * complete configuration.
+     */
+    def boolean isFlatDispatchEnabled() {
+        if (flatDispatchEnabled === null) {
+            flatDispatchEnabled = featureOverrides.contains(StatebasedLeanJavaFeatureOverrides.FLAT_DISPATCH)
+                && (#[rootState] + scopes.filter(State)).filter[isHierarchical].forall[
+                    regions.size == 1 && regions.head instanceof ControlflowRegion
+                ]
+        }
+        return flatDispatchEnabled
+    }
+
+    /**
+     * The compact layout keeps the runtime data of all regions in primitive fields of the root context.
+     */
+    def boolean isCompactLayoutEnabled() {
+        return featureOverrides.contains(StatebasedLeanJavaFeatureOverrides.COMPACT_LAYOUT)
+    }
+
+    /**
+     * @return the type of the context passed to the methods of the state.
+     */
+    private def String contextType(State state) {
+        return if (isCompactLayoutEnabled) "TickData" else state.uniqueContextMemberName
+    }
+
+    /**
+     * @return the type of the context passed to the methods of the region.
+     */
+    private def String contextType(ControlflowRegion region) {
+        return if (isCompactLayoutEnabled) "TickData" else region.uniqueContextMemberName
+    }
+
+    /**
+     * @return the field of the runtime data of the region, accessed through the context of the region.
+     */
+    private def String regionField(String context, ControlflowRegion region, String field) {
+        return if (isCompactLayoutEnabled) context + "." + region.uniqueName + "_" + field else context + "." + field
+    }
+
+    /**
+     * @return the field of the runtime data of the region, accessed through the context of its parent state.
+     */
+    private def String childRegionField(String context, ControlflowRegion region, String field) {
+        return if (isCompactLayoutEnabled) {
+            context + "." + region.uniqueName + "_" + field
+        } else {
+            context + "." + region.uniqueContextName + "." + field
+        }
+    }
+
+    /**
+     * @return the context of the region, accessed through the context of its parent state.
+     */
+    private def String childRegionContext(String context, ControlflowRegion region) {
+        return if (isCompactLayoutEnabled) context else context + "." + region.uniqueContextName
+    }
+
+    /**
+     * @return the thread status of the context the state is running in.
+     */
+    private def String statusField(State state) {
+        return if (state === rootState) {
+            "context.threadStatus"
+        } else {
+            regionField("context", state.parentRegion, "threadStatus")
+        }
+    }
+
+    private def String threadStatus(String status) {
+        return if (isCompactLayoutEnabled) status else "ThreadStatus." + status
+    }
+
+    /**
+     * @return the active state of the region of the given state, or of the given superstate once it is running.
+     */
+    private def String stateValue(State state, boolean running) {
+        return if (isCompactLayoutEnabled) {
+            state.compactStateConstant(running)
+        } else {
+            state.parentRegion.uniqueName + "States." + state.stateCase(running)
+        }
+    }
+
+    private def String stateCase(State state, boolean running) {
+        return if (isCompactLayoutEnabled) {
+            state.compactStateConstant(running)
+        } else {
+            state.uniqueEnumName + (if (running) "RUNNING" else "")
+        }
+    }
+
+    private def String compactStateConstant(State state, boolean running) {
+        return state.parentRegion.uniqueName + "_" + state.uniqueEnumName + (if (running) "_RUNNING" else "")
+    }
+
+    /**
+     * @return the names of the state constants of the region, in the order of the constants of its enumeration.
+     */
+    private def List<String> compactStateConstants(ControlflowRegion region) {
+        return region.states.map[s |
+            if (s.isHierarchical) #[s.compactStateConstant(false), s.compactStateConstant(true)]
+            else #[s.compactStateConstant(false)]
+        ].flatten.toList
+    }
+
+    private def String compactStateType(ControlflowRegion region) {
+        val count = region.compactStateConstants.size
+        return if (count <= Byte.MAX_VALUE) "byte" else if (count <= Short.MAX_VALUE) "short" else "int"
+    }
+
+    /**
+     * @return the region and all regions nested in its states, in the order of the persisted state.
+     */
+    private def List<ControlflowRegion> withNestedRegions(ControlflowRegion region) {
+        val regions = <ControlflowRegion>newArrayList(region)
+        for (s : region.states) {
+            for (r : s.regions.filter(ControlflowRegion)) {
+                regions += r.withNestedRegions
+            }
+        }
+        return regions
+    }
+
+    /**
+     * @return the context of the region at the given level of a flat state, starting with the root regions at 0.
+     */
+    private def String flatContext(int level) {
+        return if (isCompactLayoutEnabled || level < 0) "rootContext" else "context" + level
+    }
+
+    private def int getFlatConfiguration(State state) {
+        if (flatConfigurations.empty) {
+            for (s : scopes.filter(State).filter[!isHierarchical]) {
+                flatConfigurations.put(s, flatConfigurations.size)
+            }
+        }
+        return flatConfigurations.get(state)
+    }
+
+    /**
+     * @return the flat configuration of the given initial state if it is simple, or -1 if it is a superstate, which
+     *         sets the flat configuration once it has been entered.
+     */
+    private def int getInitialFlatConfiguration(State state) {
+        return if (state.isHierarchical) -1 else state.flatConfiguration
+    }
+
+    private def List<ValuedObject> getEventValuedObjects() {
+        return eventDeclarations.map[valuedObjects].flatten.toList
+    }
+
+    /**
+     * Guards test the bits of the tick event mask instead of the interface flags. Events that are written by an
+     * action keep reading the flag, as the mask only holds the applied events.
+     */
+    private def Map<ValuedObject, String> getEventBitTests() {
+        if (eventBitTests === null) {
+            val assigned = rootState.eAllContents.filter(Assignment).map[reference?.valuedObject].toSet
+            eventBitTests = newHashMap
+            for (vo : eventValuedObjects.filter[!assigned.contains(it)]) {
+                eventBitTests.put(vo, eventBitTest("tickEventMask", eventValuedObjects.indexOf(vo)))
+            }
+        }
+        return eventBitTests
+    }
+
+    private def int getEventMaskWords() {
+        return Math.max(1, (eventValuedObjects.size + 63) / 64)
+    }
+
+    private def String eventMaskType() {
+        return if (eventMaskWords == 1) "long" else "long[]"
+    }
+
+    private def String emptyEventMask() {
+        return if (eventMaskWords == 1) "0L" else "null"
+    }
+
+    private def String isEmptyEventMask(String eventMask) {
+        return if (eventMaskWords == 1) eventMask + " == 0L" else eventMask + " == null"
+    }
+
+    private def String eventBitTest(String eventMask, int index) {
+        val bit = "0x" + Long.toHexString(Long.rotateLeft(1L, index % 64)) + "L"
+        return if (eventMaskWords == 1) {
+            "(" + eventMask + " & " + bit + ") != 0"
+        } else {
+            "(" + eventMask + "[" + (index / 64) + "] & " + bit + ") != 0"
+        }
+    }
+
     private def boolean isIfaceNeeded() {
         return rootState.declarations.filter(VariableDeclaration).map[it.valuedObjects].flatten.size > 0
     }
@@ -1108,11 +3037,108 @@ class StatebasedLeanJavaTemplate extends AbstractStatebasedLeanTemplate {
         ]
     }
     
-    private def String getSourceState(State s) {
+    protected def String getSourceState(State s) {
         return (s.getAnnotations("SourceState").last as StringAnnotation).values.head 
     }
 
-    private def boolean needsDelayedEnabled(ControlflowRegion r) {
+    private def generateHistoryState(String kind) {
+        return if (isConfigurationIdEnabled) {
+            '''historyEntry.set« kind »ConfigurationId(rootContext.getConfigurationId());'''
+        } else {
+            '''historyEntry.set« kind »State(getCurrentState().toString());'''
+        }
+    }
+
+    private def int getConfigurationRadix(ControlflowRegion r) {
+        return r.states.size + r.states.filter[isHierarchical].size + 1
+    }
+
+    private def BigInteger getConfigurationWeight(ControlflowRegion r) {
+        var weight = BigInteger.ONE
+        for (other : scopes.filter(ControlflowRegion)) {
+            if (other === r) {
+                return weight
+            }
+            weight = weight.multiply(BigInteger.valueOf(other.configurationRadix))
+        }
+        return weight
+    }
+
+    /**
+     * The configuration id is only generated if the mixed radix number of all regions fits into a positive long.
+     */
+    private def boolean isConfigurationIdEnabled() {
+        return scopes.filter(ControlflowRegion).fold(BigInteger.ONE)[product, r |
+            product.multiply(BigInteger.valueOf(r.configurationRadix))
+        ].bitLength < 64
+    }
+
+    protected def String getDisplayName(String sourceState) {
+        return sourceState.replaceAll("^State (.+) \\(-?[0-9]+\\)$", "$1")
+    }
+
+    private def int getMaxActiveStates(ControlflowRegion r) {
+        return r.states.fold(0)[max, s | Math.max(max, if (s.isHierarchical) {
+            s.regions.filter(ControlflowRegion).fold(0)[sum, subr | sum + subr.maxActiveStates]
+        } else {
+            1
+        })]
+    }
+
+    private def boolean isStatePersistenceEnabled() {
+        return featureOverrides.contains(StatebasedLeanJavaFeatureOverrides.STATE_PERSISTENCE)
+    }
+
+    /**
+     * @return the variables written by the state persistence, which supports primitive variables only.
+     */
+    private def List<ValuedObject> getPersistedVariables() {
+        val variables = rootState.declarations.filter(VariableDeclaration).map[valuedObjects].flatten.toList
+        val unsupported = variables.filter[isArray || !PERSISTED_TYPE_SIZES.containsKey(declarationType.toString)]
+        if (!unsupported.empty) {
+            throw new IllegalArgumentException("The STATE_PERSISTENCE feature supports primitive variables only: "
+                + unsupported.map[name].join(", "))
+        }
+        return variables
+    }
+
+    private def String bufferAccessor(ValuedObject vo, String operation) {
+        val type = vo.declarationType.toString
+        return if (type == "byte") operation else operation + type.toFirstUpper
+    }
+
+    /**
+     * Region states are written as ordinal + 1, so 0 encodes an inactive region.
+     */
+    private def boolean hasShortStateEncoding(ControlflowRegion r) {
+        return r.states.size + r.states.filter[isHierarchical].size >= 255
+    }
+
+    private def int getStateSize() {
+        val regionSize = scopes.filter(ControlflowRegion).fold(0)[sum, r |
+            sum + 1 + (if (r.hasShortStateEncoding) 2 else 1) + (if (r.needsDelayedEnabled) 1 else 0)
+        ]
+        val variableSize = persistedVariables.fold(0)[sum, vo | sum + PERSISTED_TYPE_SIZES.get(vo.declarationType.toString)]
+        return Long.BYTES + 1 + (if (isFlatDispatchEnabled) Integer.BYTES else 0) + regionSize + variableSize
+    }
+
+    /**
+     * Hashes everything that determines the layout and meaning of the persisted state.
+     */
+    private def long getSchemaHash() {
+        val schema = new StringBuilder(rootState.uniqueName)
+        for (r : scopes.filter(ControlflowRegion)) {
+            schema.append(";").append(r.uniqueName).append(if (r.needsDelayedEnabled) "~" else "").append(":")
+            schema.append(r.states.map[uniqueEnumName + (if (isHierarchical) "*" else "")].join(","))
+        }
+        schema.append(if (isFlatDispatchEnabled) ";flat" else "")
+        for (vo : persistedVariables) {
+            schema.append(";").append(vo.name).append(":").append(vo.declarationType)
+        }
+        return UUID.nameUUIDFromBytes(schema.toString.getBytes(StandardCharsets.UTF_8)).mostSignificantBits
+    }
+
+    protected def boolean needsDelayedEnabled(ControlflowRegion r) {
         return r.states.exists[s | s.outgoingTransitions.exists[t | !t.isImmediate && !t.isImplicitlyImmediate ]]
     }
 
@@ -22,8 +22,10 @@ class CodegeneratorProcessorProvider implements IProcessorProvider {
         #[
             de.scheidtbachmann.statemachine.transformators.ModelSelect,
             de.scheidtbachmann.statemachine.transformators.StateOriginMarker,            
+            de.scheidtbachmann.statemachine.codegen.fleet.java.StatebasedFleetJavaCodeGenerator,
             de.scheidtbachmann.statemachine.codegen.lean.cpp.StatebasedLeanCppCodeGenerator,
-            de.scheidtbachmann.statemachine.codegen.lean.java.StatebasedLeanJavaCodeGenerator
+            de.scheidtbachmann.statemachine.codegen.lean.java.StatebasedLeanJavaCodeGenerator,
+            de.scheidtbachmann.statemachine.codegen.table.java.StatebasedTableJavaCodeGenerator
         ]
     }
 }
@@ -24,9 +24,11 @@ class CodegeneratorSystemProvider implements ISystemProvider {
 
     override getSystems() {
         #[
+            "system/de.scheidtbachmann.codegen.statebased.fleet.java.template.kico",
             "system/de.scheidtbachmann.codegen.statebased.lean.cpp.template.kico",
             "system/de.scheidtbachmann.codegen.statebased.lean.java.template.kico",
-            "system/de.scheidtbachmann.codegen.statebased.lean.java.template.selective.kico"
+            "system/de.scheidtbachmann.codegen.statebased.lean.java.template.selective.kico",
+            "system/de.scheidtbachmann.codegen.statebased.table.java.template.kico"
         ]
     }
 }
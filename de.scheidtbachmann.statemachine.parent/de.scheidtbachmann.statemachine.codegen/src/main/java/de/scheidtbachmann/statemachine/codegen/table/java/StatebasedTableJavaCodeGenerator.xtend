@@ -0,0 +1,32 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+package de.scheidtbachmann.statemachine.codegen.table.java
+
+import de.scheidtbachmann.statemachine.codegen.lean.java.StatebasedLeanJavaCodeGenerator
+
+/**
+ * Java Code Generator for the Statebased code generation with transition tables, intended for very large charts.
+ * The generated class offers the same interface as the one of the lean code generator.
+ */
+class StatebasedTableJavaCodeGenerator extends StatebasedLeanJavaCodeGenerator {
+
+    override getId() {
+        "de.scheidtbachmann.statemachine.codegen.statebased.table.java"
+    }
+
+    override getName() {
+        "State-based Java Code (Table)"
+    }
+
+    override protected createTemplate() {
+        return injector.getInstance(StatebasedTableJavaTemplate)
+    }
+}
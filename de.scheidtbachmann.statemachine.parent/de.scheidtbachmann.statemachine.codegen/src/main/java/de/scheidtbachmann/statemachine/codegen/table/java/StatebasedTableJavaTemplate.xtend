@@ -0,0 +1,302 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.codegen.table.java
+
+import com.google.inject.Inject
+import de.cau.cs.kieler.sccharts.ControlflowRegion
+import de.cau.cs.kieler.sccharts.PreemptionType
+import de.cau.cs.kieler.sccharts.State
+import de.cau.cs.kieler.sccharts.Transition
+import de.cau.cs.kieler.sccharts.extensions.SCChartsStateExtensions
+import de.cau.cs.kieler.sccharts.extensions.SCChartsTransitionExtensions
+import de.scheidtbachmann.statemachine.codegen.lean.java.StatebasedLeanJavaTemplate
+import java.util.LinkedHashMap
+import java.util.List
+import java.util.Map
+
+/**
+ * Variant of the {@link StatebasedLeanJavaTemplate} for very large charts.
+ *
+ * Instead of one method per state, the transitions of the simple states of every region are stored in a
+ * {@code StateMachineTransitionTable} and executed by a generic dispatch loop. Guards and effects are deduplicated
+ * and generated into switch methods of bounded size. Superstates keep the code of the lean template, as they have
+ * to enter and run their regions.
+ */
+class StatebasedTableJavaTemplate extends StatebasedLeanJavaTemplate {
+
+    @Inject extension SCChartsStateExtensions
+    @Inject extension SCChartsTransitionExtensions
+
+    static val TABLE_CLASS = "de.scheidtbachmann.statemachine.runtime.table.StateMachineTransitionTable"
+    static val CASES_PER_METHOD = 256
+    static val VALUES_PER_CHUNK = 16384
+    static val MAX_ENCODED_VALUE = Character.MAX_VALUE - 1
+
+    // Deduplicated guard expressions and effect statements, by their ids
+    val Map<String, Integer> guardIds = new LinkedHashMap
+    val Map<String, Integer> effectIds = new LinkedHashMap
+
+    override protected generateBehaviour() {
+        guardIds.clear
+        effectIds.clear
+        // The tables have to be created first to collect the guards and effects
+        val tables = '''
+            « FOR r : scopes.filter(ControlflowRegion) »
+              « createTable(r) »
+            « ENDFOR »
+        '''
+
+        return '''
+            « FOR s : scopes »
+              « IF s instanceof State && (s as State).isHierarchical »
+                « createCodeState(s as State) »
+              « ENDIF »
+              « IF s instanceof ControlflowRegion »
+                « createSourceControlflowRegion(s as ControlflowRegion) »
+              « ENDIF »
+
+            « ENDFOR »
+            private final « TABLE_CLASS ».Guards guards = this::evaluateGuard;
+
+            « tables »
+            « generateGuards »
+            « generateEffects »
+        '''
+    }
+
+    /**
+     * The simple states are executed by the tables, so there are no state methods to dispatch to.
+     */
+    override isFlatDispatchEnabled() {
+        return false
+    }
+
+    /**
+     * The tables select the transitions by the enumeration constants of the active states.
+     */
+    override isCompactLayoutEnabled() {
+        return false
+    }
+
+    override protected createSourceControlflowRegion(ControlflowRegion region) {
+        return '''
+          private void « region.uniqueName »(« region.uniqueContextMemberName » context) {
+            while (context.threadStatus == ThreadStatus.RUNNING) {
+              switch (context.activeState) {
+                « FOR s : region.states.filter[isHierarchical] »
+                  case « s.uniqueEnumName »:
+                    « s.uniqueName »(context);
+                    « s.uniqueName »_running(context);
+                    break;
+                  case « s.uniqueEnumName »RUNNING:
+                    « s.uniqueName »_running(context);
+                    break;
+                « ENDFOR »
+                default:
+                  final int transition = « region.tableName ».select(context.activeState.ordinal(), « IF region.needsDelayedEnabled »context.delayedEnabled« ELSE »true« ENDIF », guards);
+                  if (transition == « TABLE_CLASS ».FINAL) {
+                    context.threadStatus = ThreadStatus.TERMINATED;
+                  } else if (transition == « TABLE_CLASS ».NONE) {
+                    context.threadStatus = ThreadStatus.READY;
+                  } else {
+                    performEffect(« region.tableName ».getEffect(transition));
+                    « IF region.needsDelayedEnabled »
+                      context.delayedEnabled = false;
+                    « ENDIF »
+                    context.activeState = « region.tableName »_STATES[« region.tableName ».getTarget(transition)];
+                  }
+              }
+            }
+          }
+        '''
+    }
+
+    private def createTable(ControlflowRegion region) {
+        val values = <Integer>newArrayList
+        val ordinals = region.stateOrdinals
+        val rows = region.states.map[s | if (s.isHierarchical) #[s, null] else #[s]].flatten.toList
+        val List<List<Transition>> simpleTransitions = rows.map[s |
+            if (s === null || s.isHierarchical) <Transition>emptyList else s.outgoingTransitions.toList
+        ].toList
+        values += rows.size
+        values += simpleTransitions.map[size].fold(0)[a, b | a + b]
+        var first = 0
+        for (transitions : simpleTransitions) {
+            values += first
+            first += transitions.size
+        }
+        values += first
+        for (s : rows) {
+            values += if (s !== null && !s.isHierarchical && s.isFinal) 1 else 0
+        }
+        for (t : simpleTransitions.flatten) {
+            if (t.preemption == PreemptionType.TERMINATION) {
+                throw new IllegalArgumentException("Termination transitions of simple states are not supported: "
+                    + t.sourceState.name)
+            }
+            values += ordinals.get(t.targetState)
+            values += if (t.trigger === null) -1 else guardId(serializeTrigger(t).toString)
+            values += effectId(serializeEffects(t).toString.trim)
+            values += if (t.isDelayed) 1 else 0
+        }
+
+        return '''
+            private static final « TABLE_CLASS » « region.tableName » = « TABLE_CLASS ».decode(
+              « FOR chunk : values.encode SEPARATOR ',' »
+                "« chunk »"
+              « ENDFOR »
+            );
+            private static final « region.uniqueName »States[] « region.tableName »_STATES = « region.uniqueName »States.values();
+
+        '''
+    }
+
+    private def generateGuards() {
+        val guards = guardIds.keySet.toList
+        return '''
+            private boolean evaluateGuard(int guardId) {
+              switch (guardId / « CASES_PER_METHOD ») {
+                « FOR chunk : 0 ..< chunkCount(guards.size) »
+                  case « chunk »:
+                    return evaluateGuard« chunk »(guardId);
+                « ENDFOR »
+                default:
+                  throw new IllegalArgumentException("Unknown guard " + guardId);
+              }
+            }
+            « FOR chunk : 0 ..< chunkCount(guards.size) »
+
+              private boolean evaluateGuard« chunk »(int guardId) {
+                switch (guardId) {
+                  « FOR id : chunk * CASES_PER_METHOD ..< Math.min(guards.size, (chunk + 1) * CASES_PER_METHOD) »
+                    case « id »:
+                      return « guards.get(id) »;
+                  « ENDFOR »
+                  default:
+                    throw new IllegalArgumentException("Unknown guard " + guardId);
+                }
+              }
+            « ENDFOR »
+
+        '''
+    }
+
+    private def generateEffects() {
+        val effects = effectIds.keySet.toList
+        return '''
+            private void performEffect(int effectId) {
+              switch (effectId / « CASES_PER_METHOD ») {
+                « FOR chunk : 0 ..< chunkCount(effects.size) »
+                  case « chunk »:
+                    performEffect« chunk »(effectId);
+                    break;
+                « ENDFOR »
+                default:
+                  if (effectId >= 0) {
+                    throw new IllegalArgumentException("Unknown effect " + effectId);
+                  }
+              }
+            }
+            « FOR chunk : 0 ..< chunkCount(effects.size) »
+
+              private void performEffect« chunk »(int effectId) {
+                switch (effectId) {
+                  « FOR id : chunk * CASES_PER_METHOD ..< Math.min(effects.size, (chunk + 1) * CASES_PER_METHOD) »
+                    case « id »:
+                      « effects.get(id) »
+                      break;
+                  « ENDFOR »
+                  default:
+                    throw new IllegalArgumentException("Unknown effect " + effectId);
+                }
+              }
+            « ENDFOR »
+
+        '''
+    }
+
+    private def int guardId(String guard) {
+        return guardIds.computeIfAbsent(guard)[guardIds.size]
+    }
+
+    private def int effectId(String effect) {
+        if (effect.empty) {
+            return -1
+        }
+        return effectIds.computeIfAbsent(effect)[effectIds.size]
+    }
+
+    private def int chunkCount(int cases) {
+        return (cases + CASES_PER_METHOD - 1) / CASES_PER_METHOD
+    }
+
+    /**
+     * Delayed transitions are only enabled if the state has not been entered in the same tick, as in the lean
+     * template.
+     */
+    private def boolean isDelayed(Transition t) {
+        return !t.immediate
+    }
+
+    /**
+     * Maps every state to the ordinal of its constant in the generated enumeration of the region.
+     */
+    private def Map<State, Integer> getStateOrdinals(ControlflowRegion region) {
+        val ordinals = <State, Integer>newHashMap
+        var ordinal = 0
+        for (s : region.states) {
+            ordinals.put(s, ordinal)
+            ordinal += if (s.isHierarchical) 2 else 1
+        }
+        return ordinals
+    }
+
+    private def String getTableName(ControlflowRegion region) {
+        return region.uniqueName.toUpperCase + "_TABLE"
+    }
+
+    private def String escape(int character) {
+        // Unicode escapes are translated before the string literal is parsed, so these need the character escapes
+        return switch (character) {
+            case 0x0A: "\\n"
+            case 0x0D: "\\r"
+            case 0x22: "\\\""
+            case 0x5C: "\\\\"
+            default: String.format("\\u%04x", character)
+        }
+    }
+
+    /**
+     * Encodes the values in the format of {@code StateMachineTransitionTable.decode}, as Java string literals.
+     */
+    private def List<String> encode(List<Integer> values) {
+        val chunks = <String>newArrayList
+        var chunk = new StringBuilder
+        var count = 0
+        for (value : values) {
+            if (value < -1 || value > MAX_ENCODED_VALUE) {
+                throw new IllegalArgumentException("Region too large for the table mode, cannot encode " + value)
+            }
+            chunk.append(escape(value + 1))
+            count++
+            if (count == VALUES_PER_CHUNK) {
+                chunks += chunk.toString
+                chunk = new StringBuilder
+                count = 0
+            }
+        }
+        if (count > 0) {
+            chunks += chunk.toString
+        }
+        return chunks
+    }
+}
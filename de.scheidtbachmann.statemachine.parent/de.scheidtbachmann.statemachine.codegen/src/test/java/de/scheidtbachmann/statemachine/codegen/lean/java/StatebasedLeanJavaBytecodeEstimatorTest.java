@@ -0,0 +1,119 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.codegen.lean.java;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class StatebasedLeanJavaBytecodeEstimatorTest {
+
+    private static final String STATE_METHOD = String.join("\n", //
+        "private void Idle() {", //
+        "  if (iface.a) {", //
+        "    iface.counter = iface.counter + 1;", //
+        "    activeState = IdleStates.Outer;", //
+        "  } else {", //
+        "    running = false;", //
+        "  }", //
+        "}");
+
+    private int result;
+
+    @Nested
+    class Tokens {
+
+        @Test
+        void testEstimate_EmptyCodeShouldBeZero() {
+            whenEstimating("");
+            then(result).isZero();
+        }
+
+        @Test
+        void testEstimate_DeclarationKeywordsShouldBeFree() {
+            whenEstimating("private static final void int long boolean");
+            then(result).isZero();
+        }
+
+        @Test
+        void testEstimate_LocalAssignmentShouldCountVariableOperatorAndLiteral() {
+            whenEstimating("x = 1;");
+            then(result).isEqualTo(2 + 3 + 2);
+        }
+
+        @Test
+        void testEstimate_MemberAccessShouldCostMoreThanLocalAccess() {
+            whenEstimating("this.counter");
+            then(result).isEqualTo(1 + 3);
+        }
+
+        @Test
+        void testEstimate_SwitchCaseShouldCountCaseAndLabel() {
+            whenEstimating("switch (state) { case Idle: break; }");
+            then(result).isEqualTo(2 + 8 + 2 + 3);
+        }
+
+        @Test
+        void testEstimate_StringLiteralShouldCountOnce() {
+            whenEstimating("\"a = b + \\\"c\\\" // d\"");
+            then(result).isEqualTo(2);
+        }
+
+        @Test
+        void testEstimate_NumberLiteralShouldCountOnce() {
+            whenEstimating("1.5e3 0x1FL");
+            then(result).isEqualTo(2 + 2);
+        }
+
+        @Test
+        void testEstimate_CommentsShouldBeIgnored() {
+            whenEstimating("// counter = counter + 1\n/* if (a) { b = c; } */");
+            then(result).isZero();
+        }
+
+        @Test
+        void testEstimate_UnterminatedCommentShouldBeIgnored() {
+            whenEstimating("/* counter = counter + 1");
+            then(result).isZero();
+        }
+    }
+
+    @Nested
+    class Methods {
+
+        @Test
+        void testEstimate_GeneratedStateMethodShouldBeWithinInlineSize() {
+            whenEstimating(STATE_METHOD);
+            then(result).isPositive().isLessThan(StatebasedLeanJavaBytecodeEstimator.FREQ_INLINE_SIZE);
+        }
+
+        @Test
+        void testEstimate_RepeatedCodeShouldAddUp() {
+            final int single = StatebasedLeanJavaBytecodeEstimator.estimate(STATE_METHOD);
+            whenEstimating(STATE_METHOD + "\n" + STATE_METHOD);
+            then(result).isEqualTo(2 * single);
+        }
+
+        @Test
+        void testEstimate_ManyStateMethodsShouldExceedHugeMethodLimit() {
+            final int single = StatebasedLeanJavaBytecodeEstimator.estimate(STATE_METHOD);
+            final int count = StatebasedLeanJavaBytecodeEstimator.HUGE_METHOD_LIMIT / single + 1;
+            whenEstimating(STATE_METHOD.repeat(count));
+            then(result).isGreaterThan(StatebasedLeanJavaBytecodeEstimator.HUGE_METHOD_LIMIT);
+        }
+    }
+
+    private void whenEstimating(final String code) {
+        result = StatebasedLeanJavaBytecodeEstimator.estimate(code);
+    }
+}
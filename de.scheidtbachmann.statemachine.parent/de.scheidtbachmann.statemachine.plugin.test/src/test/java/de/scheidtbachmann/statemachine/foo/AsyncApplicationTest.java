@@ -0,0 +1,112 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.foo.AsyncChart.InputEvent;
+import de.scheidtbachmann.statemachine.runtime.StateMachineStateContainer;
+import de.scheidtbachmann.statemachine.testing.execution.StateMachineTestExecutionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks the futures of the asynchronous interactions of a chart generated with a DROP_OLDEST mailbox.
+ */
+class AsyncApplicationTest {
+
+    private final StateMachineTestExecutionFactory executionFactory = new StateMachineTestExecutionFactory();
+    private final AsyncChart testee = new AsyncChart(executionFactory, "Async");
+    private final CountDownLatch blocker = new CountDownLatch(1);
+
+    @BeforeEach
+    void initTestee() {
+        testee.init();
+        executionFactory.waitForAllTasksDone();
+    }
+
+    @AfterEach
+    void disposeTestee() {
+        blocker.countDown();
+        testee.dispose();
+    }
+
+    @Test
+    void testApplyAsync_ShouldCompleteWithStateAfterTick() throws Exception {
+        final CompletableFuture<StateMachineStateContainer> result = testee.applyAsync(InputEvent.start);
+        then(result.get(1, TimeUnit.SECONDS).toString()).isEqualTo("Running");
+        testee.apply(InputEvent.stop);
+        executionFactory.waitForAllTasksDone();
+        then(testee.getCurrentState().toString()).isEqualTo("Idle");
+        then(result.get().toString()).as("State captured at completion").isEqualTo("Running");
+    }
+
+    @Test
+    void testApplyAsync_FailingApplicationShouldCompleteExceptionally() {
+        final CompletableFuture<StateMachineStateContainer> result = testee.applyAsync(() -> {
+            throw new IllegalStateException("Failed");
+        }, List.of(InputEvent.start));
+        thenFutureFailsWith(result, IllegalStateException.class);
+    }
+
+    @Test
+    void testApplyAsync_DroppedApplicationShouldCompleteExceptionally() throws Exception {
+        givenExecutorIsBlockedInApplication(InputEvent.start);
+        final CompletableFuture<StateMachineStateContainer> dropped = testee.applyAsync(InputEvent.stop);
+        final CompletableFuture<StateMachineStateContainer> accepted = testee.applyAsync(InputEvent.stop);
+        thenFutureFailsWith(dropped, RejectedExecutionException.class);
+        blocker.countDown();
+        then(accepted.get(1, TimeUnit.SECONDS).toString()).isEqualTo("Idle");
+    }
+
+    @Test
+    void testQueryAsync_BlockedExecutorShouldTimeOut() {
+        givenExecutorIsBlockedInApplication(InputEvent.start);
+        final CompletableFuture<String> result = testee.queryAsync(() -> testee.getCurrentState().toString(), 10,
+            TimeUnit.MILLISECONDS);
+        thenFutureFailsWith(result, TimeoutException.class);
+    }
+
+    private void givenExecutorIsBlockedInApplication(final InputEvent event) {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        testee.apply(() -> {
+            blocked.countDown();
+            awaitUninterruptibly(blocker);
+        }, event);
+        awaitUninterruptibly(blocked);
+    }
+
+    private static void thenFutureFailsWith(final CompletableFuture<?> future,
+        final Class<? extends Throwable> expectedCause) {
+        final Throwable thrown = catchThrowable(() -> future.get(1, TimeUnit.SECONDS));
+        then(thrown).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(expectedCause);
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.foo.BatchChart.InputEvent;
+import de.scheidtbachmann.statemachine.testing.execution.StateMachineTestExecutionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies batches of event sets to a chart generated with the BOUNDED_MAILBOX feature.
+ */
+class BatchApplicationTest {
+
+    private final StateMachineTestExecutionFactory executionFactory = new StateMachineTestExecutionFactory();
+    private final BatchChart testee = new BatchChart(executionFactory, "Batch");
+    private final CountDownLatch blocker = new CountDownLatch(1);
+
+    @BeforeEach
+    void initTestee() {
+        testee.init();
+        executionFactory.waitForAllTasksDone();
+    }
+
+    @AfterEach
+    void disposeTestee() {
+        blocker.countDown();
+        testee.dispose();
+    }
+
+    @Test
+    void testApplyAll_ShouldPerformOneTickPerEventSet() {
+        // Only accessed in the executor
+        final List<Integer> traces = new ArrayList<>();
+        final AtomicBoolean batchDone = new AtomicBoolean(false);
+        testee.applyAll(List.of(List.of(InputEvent.a), List.of(InputEvent.b), List.of(InputEvent.c)),
+            events -> traces.add(testee.iface.getTrace()), () -> batchDone.set(true));
+        executionFactory.waitForAllTasksDone();
+        then(testee.query(() -> List.copyOf(traces))).containsExactly(1, 12, 123);
+        then(batchDone).isTrue();
+    }
+
+    @Test
+    void testApplyAll_ShouldKeepOrderWithPendingApplications() {
+        givenExecutorIsBlockedInApplication(InputEvent.a);
+        testee.apply(InputEvent.b);
+        testee.applyAll(List.of(List.of(InputEvent.c), List.of(InputEvent.a)), null, null);
+        testee.apply(InputEvent.b);
+        blocker.countDown();
+        executionFactory.waitForAllTasksDone();
+        then(testee.query(() -> testee.iface.getTrace())).isEqualTo(12312);
+    }
+
+    private void givenExecutorIsBlockedInApplication(final InputEvent event) {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        testee.apply(() -> {
+            blocked.countDown();
+            awaitUninterruptibly(blocker);
+        }, event);
+        awaitUninterruptibly(blocked);
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
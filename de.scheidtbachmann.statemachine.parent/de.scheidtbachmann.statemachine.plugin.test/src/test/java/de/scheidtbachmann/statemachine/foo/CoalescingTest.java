@@ -0,0 +1,132 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.foo.CoalescingChart.InputEvent;
+import de.scheidtbachmann.statemachine.runtime.StateMachineHistoryEntry;
+import de.scheidtbachmann.statemachine.testing.execution.StateMachineTestExecutionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues applications while the executor of a chart generated with the COALESCE_TICKS feature is blocked. The drain
+ * of the coalescer is delayed by its window, which the test executor does not track, so the tests wait for the
+ * future of the last application instead.
+ */
+class CoalescingTest {
+
+    private static final int MAX_BATCH = 8;
+
+    private final StateMachineTestExecutionFactory executionFactory = new StateMachineTestExecutionFactory();
+    private final CoalescingChart testee = new CoalescingChart(executionFactory, "Coalescing");
+    private final CountDownLatch blocker = new CountDownLatch(1);
+
+    @BeforeEach
+    void initTestee() {
+        testee.init();
+        executionFactory.waitForAllTasksDone();
+    }
+
+    @AfterEach
+    void disposeTestee() {
+        blocker.countDown();
+        testee.dispose();
+    }
+
+    @Test
+    void testApply_PendingApplicationsShouldBeMergedIntoOneTick() throws Exception {
+        givenExecutorIsBlockedInApplication(InputEvent.a);
+        testee.apply(InputEvent.a);
+        whenReleasingExecutorAfter(InputEvent.b);
+        then(testee.query(() -> testee.iface.getTrace())).isEqualTo(14);
+        final List<StateMachineHistoryEntry> history = testee.query(testee::getActivityHistory);
+        then(history).extracting(StateMachineHistoryEntry::getMergedApplications).containsExactly(1, 2);
+        then(history.get(1).getEvents()).isEqualTo("[a, b]");
+    }
+
+    @Test
+    void testApply_ShouldMergeAtMostMaxBatchApplications() throws Exception {
+        givenExecutorIsBlockedInApplication(InputEvent.a);
+        for (int i = 0; i < MAX_BATCH + 2; i++) {
+            testee.apply(InputEvent.c);
+        }
+        whenReleasingExecutorAfter(InputEvent.c);
+        then(testee.query(() -> testee.iface.getTrace())).isEqualTo(133);
+        then(testee.query(testee::getActivityHistory)).extracting(StateMachineHistoryEntry::getMergedApplications)
+            .containsExactly(1, MAX_BATCH, 3);
+    }
+
+    @Test
+    void testApplyAll_ShouldNotBeMergedWithPendingApplications() throws Exception {
+        givenExecutorIsBlockedInApplication(InputEvent.a);
+        testee.apply(InputEvent.b);
+        testee.applyAll(List.of(List.of(InputEvent.c), List.of(InputEvent.a)), null, null);
+        whenReleasingExecutorAfter(InputEvent.b);
+        then(testee.query(() -> testee.iface.getTrace())).isEqualTo(12312);
+    }
+
+    @Test
+    void testApplyAsync_FailingPreExecutionTaskShouldFailMergedApplications() {
+        givenExecutorIsBlockedInApplication(InputEvent.a);
+        final CompletableFuture<?> failing = testee.applyAsync(() -> {
+            throw new IllegalStateException("Failed");
+        }, List.of(InputEvent.a));
+        final CompletableFuture<?> merged = testee.applyAsync(InputEvent.b);
+        blocker.countDown();
+        thenFutureFailsWith(failing, IllegalStateException.class);
+        thenFutureFailsWith(merged, IllegalStateException.class);
+        then(testee.query(() -> testee.iface.getTrace())).isEqualTo(1);
+    }
+
+    private void givenExecutorIsBlockedInApplication(final InputEvent event) {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        testee.apply(() -> {
+            blocked.countDown();
+            awaitUninterruptibly(blocker);
+        }, event);
+        awaitUninterruptibly(blocked);
+    }
+
+    /**
+     * Queues a last application of the given event, releases the executor and waits for the last application.
+     */
+    private void whenReleasingExecutorAfter(final InputEvent event) throws Exception {
+        final CompletableFuture<?> lastApplication = testee.applyAsync(event);
+        blocker.countDown();
+        lastApplication.get(1, TimeUnit.SECONDS);
+    }
+
+    private static void thenFutureFailsWith(final CompletableFuture<?> future,
+        final Class<? extends Throwable> expectedCause) {
+        final Throwable thrown = catchThrowable(() -> future.get(1, TimeUnit.SECONDS));
+        then(thrown).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(expectedCause);
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
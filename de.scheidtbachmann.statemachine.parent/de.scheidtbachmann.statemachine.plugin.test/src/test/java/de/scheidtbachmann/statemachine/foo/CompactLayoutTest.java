@@ -0,0 +1,88 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the chart generated with the COMPACT_LAYOUT feature against the same chart generated without it.
+ */
+class CompactLayoutTest {
+
+    private static final int TICKS = 2000;
+
+    private final CompactLayoutChart compactChart = new CompactLayoutChart("Compact");
+    private final FlatDispatchReferenceChart referenceChart = new FlatDispatchReferenceChart("Reference");
+
+    @Test
+    void testRandomEvents_ShouldMatchReference() {
+        givenChartsHaveBeenInitialized();
+        final Random random = new Random(42);
+        for (int tick = 0; tick < TICKS; tick++) {
+            whenApplying(random.nextInt(8));
+            then(compactChart.getCurrentState().toString()).as("State after tick %d", tick)
+                .isEqualTo(referenceChart.getCurrentState().toString());
+            then(compactChart.getConfigurationId()).as("Configuration after tick %d", tick)
+                .isEqualTo(referenceChart.getConfigurationId());
+            then(compactChart.iface.getCounter()).as("Counter after tick %d", tick)
+                .isEqualTo(referenceChart.iface.getCounter());
+        }
+    }
+
+    @Test
+    void testFootprint_ShouldBeSmallerThanReference() {
+        givenChartsHaveBeenInitialized();
+        // Enter the nested superstates, so both charts hold the same configuration and variables
+        for (final int events : new int[] { 1, 2, 1 }) {
+            whenApplying(events);
+        }
+        final long compactSize = GraphLayout.parseInstance(compactChart).totalSize();
+        final long referenceSize = GraphLayout.parseInstance(referenceChart).totalSize();
+        then(compactSize).as("Retained bytes per instance: %d with the compact layout, %d without", compactSize,
+            referenceSize).isLessThan(referenceSize);
+    }
+
+    private void givenChartsHaveBeenInitialized() {
+        compactChart.init();
+        referenceChart.init();
+    }
+
+    /**
+     * @param events
+     *            Bit mask of the events a (1), b (2) and c (4).
+     */
+    private void whenApplying(final int events) {
+        final List<CompactLayoutChart.InputEvent> compactEvents = new ArrayList<>();
+        final List<FlatDispatchReferenceChart.InputEvent> referenceEvents = new ArrayList<>();
+        if ((events & 1) != 0) {
+            compactEvents.add(CompactLayoutChart.InputEvent.a);
+            referenceEvents.add(FlatDispatchReferenceChart.InputEvent.a);
+        }
+        if ((events & 2) != 0) {
+            compactEvents.add(CompactLayoutChart.InputEvent.b);
+            referenceEvents.add(FlatDispatchReferenceChart.InputEvent.b);
+        }
+        if ((events & 4) != 0) {
+            compactEvents.add(CompactLayoutChart.InputEvent.c);
+            referenceEvents.add(FlatDispatchReferenceChart.InputEvent.c);
+        }
+        compactChart.apply(compactEvents);
+        referenceChart.apply(referenceEvents);
+    }
+}
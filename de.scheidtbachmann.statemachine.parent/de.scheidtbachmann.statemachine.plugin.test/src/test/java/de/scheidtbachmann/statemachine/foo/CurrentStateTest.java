@@ -0,0 +1,149 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongFunction;
+
+/**
+ * Compares the cached current state and the configuration ids with the active states of the hierarchical chart,
+ * generated with the regular and with the compact layout.
+ */
+class CurrentStateTest {
+
+    private static final int TICKS = 2000;
+
+    private final CurrentStateChart cachedChart = new CurrentStateChart("Cached");
+    private final FlatDispatchReferenceChart containerChart = new FlatDispatchReferenceChart("Container");
+    private final CompactLayoutChart compactChart = new CompactLayoutChart("Compact");
+
+    @Test
+    void testRandomEvents_CachedStateShouldMatchActiveStates() {
+        givenChartsHaveBeenInitialized();
+        final Random random = new Random(42);
+        for (int tick = 0; tick < TICKS; tick++) {
+            final String previousState = cachedChart.getCurrentState();
+            final List<String> previousActiveStates = activeStatesOf(cachedChart);
+            whenApplying(random.nextInt(8));
+
+            final List<String> activeStates = activeStatesOf(cachedChart);
+            final String currentState = cachedChart.getCurrentState();
+            then(currentState).as("State after tick %d", tick).isEqualTo(joinDistinct(activeStates));
+            if (activeStates.equals(previousActiveStates)) {
+                then(currentState).as("Cached state after tick %d", tick).isSameAs(previousState);
+            }
+            then(cachedChart.getCurrentState()).as("Repeated state after tick %d", tick).isSameAs(currentState);
+        }
+    }
+
+    @Test
+    void testRandomEvents_ConfigurationIdsShouldMatchActiveStates() {
+        givenChartsHaveBeenInitialized();
+        final Random random = new Random(4711);
+        for (int tick = 0; tick < TICKS; tick++) {
+            whenApplying(random.nextInt(8));
+
+            thenConfigurationMatches("Cached", tick, activeStatesOf(cachedChart), cachedChart.getConfigurationId(),
+                CurrentStateChart::decodeConfiguration, CurrentStateChart::configurationToString);
+            thenConfigurationMatches("Container", tick, activeStatesOf(containerChart),
+                containerChart.getConfigurationId(), FlatDispatchReferenceChart::decodeConfiguration,
+                FlatDispatchReferenceChart::configurationToString);
+            thenConfigurationMatches("Compact", tick, activeStatesOf(compactChart), compactChart.getConfigurationId(),
+                CompactLayoutChart::decodeConfiguration, CompactLayoutChart::configurationToString);
+
+            then(containerChart.getCurrentState().getConfigurationId()).as("Container id after tick %d", tick)
+                .isEqualTo(containerChart.getConfigurationId());
+            then(containerChart.getCurrentState().toString()).as("Container after tick %d", tick)
+                .isEqualTo(cachedChart.getCurrentState());
+            then(compactChart.getConfigurationId()).as("Compact id after tick %d", tick)
+                .isEqualTo(containerChart.getConfigurationId());
+        }
+    }
+
+    @Test
+    void testConfigurationIds_ShouldBeDistinctPerConfiguration() {
+        givenChartsHaveBeenInitialized();
+        final Random random = new Random(7);
+        final List<Long> ids = new ArrayList<>();
+        final List<List<String>> configurations = new ArrayList<>();
+        for (int tick = 0; tick < TICKS; tick++) {
+            whenApplying(random.nextInt(8));
+            final List<String> activeStates = activeStatesOf(cachedChart);
+            final int known = configurations.indexOf(activeStates);
+            if (known < 0) {
+                then(ids).as("New configuration %s", activeStates).doesNotContain(cachedChart.getConfigurationId());
+                configurations.add(activeStates);
+                ids.add(cachedChart.getConfigurationId());
+            } else {
+                then(cachedChart.getConfigurationId()).as("Known configuration %s", activeStates)
+                    .isEqualTo(ids.get(known));
+            }
+        }
+        then(configurations).as("Visited configurations").hasSizeGreaterThan(3);
+    }
+
+    private void givenChartsHaveBeenInitialized() {
+        cachedChart.init();
+        containerChart.init();
+        compactChart.init();
+    }
+
+    /**
+     * @param events
+     *            Bit mask of the events a (1), b (2) and c (4).
+     */
+    private void whenApplying(final int events) {
+        cachedChart.apply(events);
+        containerChart.apply(events);
+        compactChart.apply(events);
+    }
+
+    private void thenConfigurationMatches(final String chart, final int tick, final List<String> activeStates,
+        final long configurationId, final LongFunction<List<String>> decoder,
+        final LongFunction<String> stringDecoder) {
+        then(decoder.apply(configurationId)).as("%s decoded after tick %d", chart, tick)
+            .isEqualTo(activeStates);
+        then(stringDecoder.apply(configurationId)).as("%s string after tick %d", chart, tick)
+            .isEqualTo(joinDistinct(activeStates));
+    }
+
+    private static List<String> activeStatesOf(final CurrentStateChart chart) {
+        final String[] target = new String[CurrentStateChart.MAX_ACTIVE_STATES];
+        return activeStates(target, chart.fillActiveStates(target));
+    }
+
+    private static List<String> activeStatesOf(final FlatDispatchReferenceChart chart) {
+        final String[] target = new String[FlatDispatchReferenceChart.MAX_ACTIVE_STATES];
+        return activeStates(target, chart.fillActiveStates(target));
+    }
+
+    private static List<String> activeStatesOf(final CompactLayoutChart chart) {
+        final String[] target = new String[CompactLayoutChart.MAX_ACTIVE_STATES];
+        return activeStates(target, chart.fillActiveStates(target));
+    }
+
+    private static List<String> activeStates(final String[] target, final int count) {
+        return Arrays.asList(Arrays.copyOf(target, count));
+    }
+
+    private static String joinDistinct(final List<String> activeStates) {
+        return String.join(",", new LinkedHashSet<>(activeStates));
+    }
+}
@@ -0,0 +1,104 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.testing.execution.StateMachineTestExecutionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Applies events as bit masks, with a single mask word and with several mask words.
+ */
+class EventMaskTest {
+
+    private final StateMachineTestExecutionFactory executionFactory = new StateMachineTestExecutionFactory();
+
+    @Nested
+    class SingleWord {
+
+        private final BatchChart testee = new BatchChart(executionFactory, "SingleWord");
+
+        @AfterEach
+        void disposeTestee() {
+            testee.dispose();
+        }
+
+        @Test
+        void testApplyMask_ShouldTriggerTransitionOfEvent() {
+            testee.init();
+            testee.apply(BatchChart.eventMask(BatchChart.InputEvent.b));
+            testee.apply(BatchChart.InputEvent.c.mask());
+            executionFactory.waitForAllTasksDone();
+            then(testee.query(() -> testee.iface.getTrace())).isEqualTo(23);
+        }
+
+        @Test
+        void testApplyMask_SeveralEventsShouldTakeFirstEnabledTransition() {
+            testee.init();
+            testee.apply(BatchChart.eventMask(BatchChart.InputEvent.c, BatchChart.InputEvent.b));
+            executionFactory.waitForAllTasksDone();
+            then(testee.query(() -> testee.iface.getTrace())).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    class MultipleWords {
+
+        private final ManyEventsChart testee = new ManyEventsChart(executionFactory, "MultipleWords");
+
+        @AfterEach
+        void disposeTestee() {
+            testee.dispose();
+        }
+
+        @Test
+        void testEventMask_ShouldSpanSeveralWords() {
+            then(ManyEventsChart.EVENT_MASK_WORDS).isEqualTo(2);
+            final long[] mask = ManyEventsChart.eventMask(ManyEventsChart.InputEvent.e1,
+                ManyEventsChart.InputEvent.e69);
+            then(mask).containsExactly(1L << 1, 1L << (69 - 64));
+        }
+
+        @Test
+        void testApplyMask_ShouldTestEventsOfAllWords() {
+            testee.init();
+            testee.apply(ManyEventsChart.eventMask(ManyEventsChart.InputEvent.e0));
+            testee.apply(ManyEventsChart.eventMask(ManyEventsChart.InputEvent.e64));
+            executionFactory.waitForAllTasksDone();
+            then(testee.getCurrentState().toString()).isEqualTo("Second");
+
+            // Both events of the guard are needed, from different words of the mask
+            testee.apply(List.of(ManyEventsChart.InputEvent.e69));
+            executionFactory.waitForAllTasksDone();
+            then(testee.getCurrentState().toString()).isEqualTo("Second");
+            testee.apply(ManyEventsChart.eventMask(ManyEventsChart.InputEvent.e1, ManyEventsChart.InputEvent.e69));
+            executionFactory.waitForAllTasksDone();
+            then(testee.getCurrentState().toString()).isEqualTo("Idle");
+            then(testee.query(() -> testee.iface.getSteps())).isEqualTo(3);
+        }
+
+        @Test
+        void testApplyMask_EventsOfPreviousTickShouldNotBeKept() {
+            testee.init();
+            testee.apply(ManyEventsChart.eventMask(ManyEventsChart.InputEvent.e0, ManyEventsChart.InputEvent.e64));
+            testee.apply(ManyEventsChart.eventMask());
+            executionFactory.waitForAllTasksDone();
+            then(testee.getCurrentState().toString()).as("e64 is not pending in the next tick").isEqualTo("First");
+        }
+    }
+}
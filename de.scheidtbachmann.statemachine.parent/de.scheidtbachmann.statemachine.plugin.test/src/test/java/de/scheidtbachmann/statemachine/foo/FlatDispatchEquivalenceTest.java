@@ -0,0 +1,84 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the chart generated with the FLAT_DISPATCH feature against the same chart generated without it.
+ */
+class FlatDispatchEquivalenceTest {
+
+    private static final int TICKS = 2000;
+
+    private final FlatDispatchChart flatChart = new FlatDispatchChart("Flat");
+    private final FlatDispatchReferenceChart referenceChart = new FlatDispatchReferenceChart("Reference");
+
+    @Test
+    void testRandomEvents_ShouldMatchReference() {
+        givenChartsHaveBeenInitialized();
+        final Random random = new Random(42);
+        for (int tick = 0; tick < TICKS; tick++) {
+            final int events = random.nextInt(8);
+            whenApplying(events);
+            then(flatChart.getCurrentState().toString()).as("State after tick %d", tick)
+                .isEqualTo(referenceChart.getCurrentState().toString());
+            then(flatChart.iface.getCounter()).as("Counter after tick %d", tick)
+                .isEqualTo(referenceChart.iface.getCounter());
+        }
+    }
+
+    @Test
+    void testDeepTransitions_ShouldMatchReference() {
+        givenChartsHaveBeenInitialized();
+        // Enter Outer, then Middle, then Second, then terminate Middle, then return to Left and leave Outer
+        for (final int events : new int[] { 1, 2, 1, 2, 1, 4 }) {
+            whenApplying(events);
+            then(flatChart.getCurrentState().toString()).isEqualTo(referenceChart.getCurrentState().toString());
+        }
+        then(flatChart.iface.getCounter()).isEqualTo(referenceChart.iface.getCounter());
+    }
+
+    private void givenChartsHaveBeenInitialized() {
+        flatChart.init();
+        referenceChart.init();
+    }
+
+    /**
+     * @param events
+     *            Bit mask of the events a (1), b (2) and c (4).
+     */
+    private void whenApplying(final int events) {
+        final List<FlatDispatchChart.InputEvent> flatEvents = new ArrayList<>();
+        final List<FlatDispatchReferenceChart.InputEvent> referenceEvents = new ArrayList<>();
+        if ((events & 1) != 0) {
+            flatEvents.add(FlatDispatchChart.InputEvent.a);
+            referenceEvents.add(FlatDispatchReferenceChart.InputEvent.a);
+        }
+        if ((events & 2) != 0) {
+            flatEvents.add(FlatDispatchChart.InputEvent.b);
+            referenceEvents.add(FlatDispatchReferenceChart.InputEvent.b);
+        }
+        if ((events & 4) != 0) {
+            flatEvents.add(FlatDispatchChart.InputEvent.c);
+            referenceEvents.add(FlatDispatchReferenceChart.InputEvent.c);
+        }
+        flatChart.apply(flatEvents);
+        referenceChart.apply(referenceEvents);
+    }
+}
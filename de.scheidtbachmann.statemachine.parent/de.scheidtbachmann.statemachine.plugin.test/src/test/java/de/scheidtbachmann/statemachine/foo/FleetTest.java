@@ -0,0 +1,141 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the fleet generated from 01-Fleet.sctx against instances of the same chart generated with the lean
+ * template.
+ */
+class FleetTest {
+
+    private static final int CAPACITY = 16;
+    private static final int ROUNDS = 500;
+    private static final int FOOTPRINT_CAPACITY = 1000;
+
+    private final FlatDispatchReferenceChartFleet fleet = new FlatDispatchReferenceChartFleet(CAPACITY);
+    private final FlatDispatchReferenceChart[] charts = new FlatDispatchReferenceChart[CAPACITY];
+
+    @Test
+    void testTickAll_ShouldMatchLeanInstances() {
+        givenFleetAndChartsHaveBeenInitialized();
+        thenFleetMatchesCharts("after init");
+        final Random random = new Random(42);
+        final long[] eventMasks = new long[CAPACITY];
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int instance = 0; instance < CAPACITY; instance++) {
+                final int events = random.nextInt(8);
+                eventMasks[instance] = fleetEventMask(events);
+                charts[instance].apply(leanEvents(events));
+            }
+            fleet.tickAll(eventMasks);
+            thenFleetMatchesCharts("after round " + round);
+        }
+    }
+
+    @Test
+    void testApply_ShouldOnlyTickTheGivenInstance() {
+        givenFleetAndChartsHaveBeenInitialized();
+        fleet.apply(3, FlatDispatchReferenceChartFleet.InputEvent.a);
+        charts[3].apply(FlatDispatchReferenceChart.InputEvent.a);
+        thenFleetMatchesCharts("after applying a to instance 3");
+        then(fleet.getCurrentState(3)).isNotEqualTo(fleet.getCurrentState(2));
+    }
+
+    @Test
+    void testTickAll_WrongNumberOfMasksShouldThrow() {
+        givenFleetAndChartsHaveBeenInitialized();
+        final Throwable thrown = catchThrowable(() -> fleet.tickAll(new long[CAPACITY - 1]));
+        then(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testFootprint_ShouldBeSmallerThanLeanInstances() {
+        final FlatDispatchReferenceChartFleet largeFleet = new FlatDispatchReferenceChartFleet(FOOTPRINT_CAPACITY);
+        largeFleet.initAll();
+        final FlatDispatchReferenceChart[] largeCharts = new FlatDispatchReferenceChart[FOOTPRINT_CAPACITY];
+        for (int instance = 0; instance < FOOTPRINT_CAPACITY; instance++) {
+            largeCharts[instance] = new FlatDispatchReferenceChart("Reference" + instance);
+            largeCharts[instance].init();
+        }
+        final long fleetSize = GraphLayout.parseInstance(largeFleet).totalSize();
+        final long chartsSize = GraphLayout.parseInstance((Object[]) largeCharts).totalSize();
+        then(fleetSize).as("Retained bytes for %d instances: %d as fleet, %d as lean instances", FOOTPRINT_CAPACITY,
+            fleetSize, chartsSize).isLessThan(chartsSize);
+        // Array headers and padding are a fixed overhead, independent of the number of instances
+        then(fleetSize - (long) FlatDispatchReferenceChartFleet.BYTES_PER_INSTANCE * FOOTPRINT_CAPACITY)
+            .as("Fixed overhead of the fleet with %d retained bytes for %d instances", fleetSize, FOOTPRINT_CAPACITY)
+            .isLessThan(1024);
+    }
+
+    private void givenFleetAndChartsHaveBeenInitialized() {
+        fleet.initAll();
+        for (int instance = 0; instance < CAPACITY; instance++) {
+            charts[instance] = new FlatDispatchReferenceChart("Reference" + instance);
+            charts[instance].init();
+        }
+    }
+
+    private void thenFleetMatchesCharts(final String description) {
+        for (int instance = 0; instance < CAPACITY; instance++) {
+            then(fleet.getCurrentState(instance)).as("State of instance %d %s", instance, description)
+                .isEqualTo(charts[instance].getCurrentState().toString());
+            then(fleet.getCounter(instance)).as("Counter of instance %d %s", instance, description)
+                .isEqualTo(charts[instance].iface.getCounter());
+        }
+    }
+
+    /**
+     * @param events
+     *            Bit mask of the events a (1), b (2) and c (4).
+     */
+    private static long fleetEventMask(final int events) {
+        long eventMask = 0L;
+        if ((events & 1) != 0) {
+            eventMask |= FlatDispatchReferenceChartFleet.InputEvent.a.mask();
+        }
+        if ((events & 2) != 0) {
+            eventMask |= FlatDispatchReferenceChartFleet.InputEvent.b.mask();
+        }
+        if ((events & 4) != 0) {
+            eventMask |= FlatDispatchReferenceChartFleet.InputEvent.c.mask();
+        }
+        return eventMask;
+    }
+
+    /**
+     * @param events
+     *            Bit mask of the events a (1), b (2) and c (4).
+     */
+    private static List<FlatDispatchReferenceChart.InputEvent> leanEvents(final int events) {
+        final List<FlatDispatchReferenceChart.InputEvent> result = new ArrayList<>();
+        if ((events & 1) != 0) {
+            result.add(FlatDispatchReferenceChart.InputEvent.a);
+        }
+        if ((events & 2) != 0) {
+            result.add(FlatDispatchReferenceChart.InputEvent.b);
+        }
+        if ((events & 4) != 0) {
+            result.add(FlatDispatchReferenceChart.InputEvent.c);
+        }
+        return result;
+    }
+}
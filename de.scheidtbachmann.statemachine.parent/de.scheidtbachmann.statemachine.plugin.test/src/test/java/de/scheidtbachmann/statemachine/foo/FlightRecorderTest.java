@@ -0,0 +1,82 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.runtime.StateMachineFlightRecorder;
+import de.scheidtbachmann.statemachine.runtime.StateMachineFlightRecording;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Records the ticks of a chart generated with the FLIGHT_RECORDER feature.
+ */
+class FlightRecorderTest {
+
+    @TempDir
+    Path directory;
+
+    private StateMachineFlightRecorder recorder;
+    private FlightRecorderChart testee;
+
+    @BeforeEach
+    void createTestee() {
+        recorder = new StateMachineFlightRecorder(16, directory);
+        StateMachineFlightRecorder.setDefault(recorder);
+        testee = new FlightRecorderChart("Recorded");
+        testee.init();
+    }
+
+    @AfterEach
+    void resetDefault() {
+        StateMachineFlightRecorder.setDefault(null);
+    }
+
+    @Test
+    void testApply_ShouldRecordConfigurationsAndEvents() {
+        final long idle = testee.getConfigurationId();
+        testee.apply(FlightRecorderChart.InputEvent.start);
+        final long running = testee.getConfigurationId();
+        final List<StateMachineFlightRecording.Record> records = recorder.snapshot().getRecords();
+        then(records).hasSize(1);
+        then(records.get(0).getStartConfigurationId()).isEqualTo(idle);
+        then(records.get(0).getEndConfigurationId()).isEqualTo(running).isNotEqualTo(idle);
+        then(records.get(0).getEventMask()).isEqualTo(0x1L);
+        then(records.get(0).isException()).isFalse();
+    }
+
+    @Test
+    void testDump_ShouldContainMachineName() throws IOException {
+        testee.apply(FlightRecorderChart.InputEvent.start);
+        testee.apply(FlightRecorderChart.InputEvent.stop);
+        final StateMachineFlightRecording recording = StateMachineFlightRecording.read(recorder.dump());
+        then(recording.getMachineNames()).containsExactly("FlightRecorderChartRecorded");
+        then(recording.getRecords()).extracting(StateMachineFlightRecording.Record::getEventMask)
+            .containsExactly(0x1L, 0x2L);
+    }
+
+    @Test
+    void testDispose_ShouldReleaseMachineName() {
+        testee.dispose();
+        final FlightRecorderChart next = new FlightRecorderChart("Next");
+        next.init();
+        then(recorder.snapshot().getMachineNames()).containsExactly("FlightRecorderChartNext");
+    }
+}
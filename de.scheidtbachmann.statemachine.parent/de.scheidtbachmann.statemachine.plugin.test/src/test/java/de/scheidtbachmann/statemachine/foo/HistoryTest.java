@@ -0,0 +1,104 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.foo.HistoryChart.InputEvent;
+import de.scheidtbachmann.statemachine.runtime.StateMachineHistoryEntry;
+import de.scheidtbachmann.statemachine.testing.execution.StateMachineTestExecutionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Checks the activity history of a chart generated with a history capacity of two applications.
+ */
+class HistoryTest {
+
+    private final StateMachineTestExecutionFactory executionFactory = new StateMachineTestExecutionFactory();
+    private final HistoryChart testee = new HistoryChart(executionFactory, "History");
+
+    @BeforeEach
+    void initTestee() {
+        testee.init();
+        executionFactory.waitForAllTasksDone();
+    }
+
+    @AfterEach
+    void disposeTestee() {
+        testee.dispose();
+    }
+
+    @Test
+    void testInit_ShouldNotBeRecorded() {
+        then(whenReadingHistory()).isEmpty();
+    }
+
+    @Test
+    void testApply_ShouldRecordStatesAndEvents() {
+        whenApplying(InputEvent.go);
+        final List<StateMachineHistoryEntry> history = whenReadingHistory();
+        then(history).hasSize(1);
+        thenEntryIs(history.get(0), "Idle", "[go]", "Running");
+        then(history.get(0).getThrowable()).isNull();
+    }
+
+    @Test
+    void testApply_UnhandledEventShouldKeepState() {
+        whenApplying(InputEvent.stop);
+        thenEntryIs(whenReadingHistory().get(0), "Idle", "[stop]", "Idle");
+    }
+
+    @Test
+    void testApply_FailingPreExecutionTaskShouldRecordThrowable() {
+        final IllegalStateException failure = new IllegalStateException("Failed");
+        testee.apply(() -> {
+            throw failure;
+        }, InputEvent.go);
+        executionFactory.waitForAllTasksDone();
+        final List<StateMachineHistoryEntry> history = whenReadingHistory();
+        then(history).hasSize(1);
+        then(history.get(0).getThrowable()).isSameAs(failure);
+        then(testee.query(() -> testee.getCurrentState().toString())).isEqualTo("Idle");
+    }
+
+    @Test
+    void testApply_FullHistoryShouldDropOldestEntries() {
+        whenApplying(InputEvent.go);
+        whenApplying(InputEvent.stop);
+        whenApplying(InputEvent.go);
+        final List<StateMachineHistoryEntry> history = whenReadingHistory();
+        then(history).hasSize(2);
+        thenEntryIs(history.get(0), "Running", "[stop]", "Idle");
+        thenEntryIs(history.get(1), "Idle", "[go]", "Running");
+    }
+
+    private void whenApplying(final InputEvent event) {
+        testee.apply(event);
+        executionFactory.waitForAllTasksDone();
+    }
+
+    private List<StateMachineHistoryEntry> whenReadingHistory() {
+        return testee.query(testee::getActivityHistory);
+    }
+
+    private static void thenEntryIs(final StateMachineHistoryEntry entry, final String startState,
+        final String events, final String endState) {
+        then(entry.getStartState()).isEqualTo(startState);
+        then(entry.getEvents()).isEqualTo(events);
+        then(entry.getEndState()).isEqualTo(endState);
+    }
+}
@@ -0,0 +1,77 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the generated code of a chart whose methods have to be split to stay within the limits of the JIT.
+ */
+class LargeMethodsTest {
+
+    private static final int STATES = 150;
+
+    private final LargeMethodsChart testee = new LargeMethodsChart("LargeMethods");
+
+    @BeforeEach
+    void initChart() {
+        testee.init();
+    }
+
+    @Test
+    void testGeneratedCode_ShouldContainSplitMethods() {
+        final List<String> methodNames = Arrays.stream(LargeMethodsChart.class.getNestMembers())
+            .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+            .map(Method::getName)
+            .collect(Collectors.toList());
+        then(methodNames).anyMatch(name -> name.matches(".*_dispatch1"));
+        then(methodNames).anyMatch(name -> name.matches(".*Hub_transitions1"));
+        then(methodNames).anyMatch(name -> name.matches(".*Hub_transition0"));
+    }
+
+    @Test
+    void testNext_ShouldVisitAllStatesOfTheSplitDispatch() {
+        for (int state = 0; state < STATES; state++) {
+            testee.apply(LargeMethodsChart.InputEvent.next);
+            then(testee.getCurrentState().toString()).isEqualTo("S" + state);
+            then(testee.iface.getCounter()).isEqualTo(state + 1);
+            testee.apply(LargeMethodsChart.InputEvent.next);
+            then(testee.getCurrentState().toString()).isEqualTo("Hub");
+            then(testee.iface.getSelector()).isEqualTo((state + 1) % STATES);
+        }
+    }
+
+    @Test
+    void testReset_ShouldPerformOutlinedEffect() {
+        testee.apply(LargeMethodsChart.InputEvent.next);
+        testee.apply(LargeMethodsChart.InputEvent.next);
+        testee.apply(LargeMethodsChart.InputEvent.reset);
+        then(testee.getCurrentState().toString()).isEqualTo("Hub");
+        then(testee.iface.getCounter()).isEqualTo(40 * 41 / 2);
+        then(testee.iface.getSelector()).isEqualTo(1);
+    }
+
+    @Test
+    void testResetAndNext_ResetShouldTakePriority() {
+        testee.apply(LargeMethodsChart.InputEvent.reset, LargeMethodsChart.InputEvent.next);
+        then(testee.getCurrentState().toString()).isEqualTo("Hub");
+        then(testee.iface.getCounter()).isEqualTo(40 * 41 / 2);
+    }
+}
@@ -0,0 +1,114 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.foo.MailboxChart.InputEvent;
+import de.scheidtbachmann.statemachine.runtime.passivation.StateMachineDirectoryStore;
+import de.scheidtbachmann.statemachine.runtime.passivation.StateMachineRegistry;
+import de.scheidtbachmann.statemachine.testing.execution.StateMachineTestExecutionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Passivates a chart generated with the BOUNDED_MAILBOX feature while applications are pending in its mailbox.
+ */
+class MailboxPassivationTest {
+
+    private static final String KEY = "Mailbox";
+
+    @TempDir
+    Path directory;
+
+    private final StateMachineTestExecutionFactory executionFactory = new StateMachineTestExecutionFactory();
+    private final CountDownLatch blocker = new CountDownLatch(1);
+    private StateMachineRegistry<String, MailboxChart> testee;
+
+    @BeforeEach
+    void createTestee() throws IOException {
+        testee = new StateMachineRegistry<>(new StateMachineDirectoryStore<>(directory, Function.identity()),
+            new MailboxLifecycle(), 1, 1, TimeUnit.HOURS);
+    }
+
+    @AfterEach
+    void passivateTestee() {
+        blocker.countDown();
+        testee.passivateAll();
+    }
+
+    @Test
+    void testPassivateAll_PendingApplicationsShouldBeStored() throws Exception {
+        givenExecutorIsBlockedInApplication(InputEvent.a);
+        testee.apply(KEY, chart -> {
+            chart.apply(InputEvent.c);
+            chart.apply(InputEvent.a);
+            chart.apply(InputEvent.b);
+        });
+        final CompletableFuture<Void> passivation = CompletableFuture.runAsync(testee::passivateAll);
+        blocker.countDown();
+        passivation.get(1, TimeUnit.SECONDS);
+        then(testee.isResident(KEY)).isFalse();
+        then(testee.query(KEY, chart -> chart.query(() -> chart.iface.getTrace()))).isEqualTo(134);
+        then(testee.getMissCount()).as("Rehydrated from the stored state").isEqualTo(1);
+    }
+
+    /**
+     * Blocks the executor of the state machine of the key in the pre execution task of an application of the given
+     * event, until the blocker is released.
+     */
+    private void givenExecutorIsBlockedInApplication(final InputEvent event) {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        testee.apply(KEY, chart -> chart.apply(() -> {
+            blocked.countDown();
+            awaitUninterruptibly(blocker);
+        }, event));
+        awaitUninterruptibly(blocked);
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class MailboxLifecycle implements StateMachineRegistry.Lifecycle<String, MailboxChart> {
+
+        @Override
+        public MailboxChart create(final String key) {
+            return new MailboxChart(executionFactory, key);
+        }
+
+        @Override
+        public void init(final MailboxChart stateMachine) {
+            stateMachine.init();
+            executionFactory.waitForAllTasksDone();
+        }
+
+        @Override
+        public void dispose(final MailboxChart stateMachine) {
+            stateMachine.dispose();
+        }
+    }
+}
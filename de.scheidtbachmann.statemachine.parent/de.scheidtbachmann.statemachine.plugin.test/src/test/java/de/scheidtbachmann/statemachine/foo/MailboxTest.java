@@ -0,0 +1,150 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.foo.MailboxChart.InputEvent;
+import de.scheidtbachmann.statemachine.runtime.StateMachineHistoryEntry;
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineMailboxMetrics;
+import de.scheidtbachmann.statemachine.testing.execution.StateMachineTestExecutionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fills the mailbox of a chart generated with the BOUNDED_MAILBOX feature and the COALESCE policy.
+ */
+class MailboxTest {
+
+    private final StateMachineTestExecutionFactory executionFactory = new StateMachineTestExecutionFactory();
+    private final MailboxChart testee = new MailboxChart(executionFactory, "Mailbox");
+    private final CountDownLatch blocker = new CountDownLatch(1);
+
+    @BeforeEach
+    void initTestee() {
+        testee.init();
+        executionFactory.waitForAllTasksDone();
+    }
+
+    @AfterEach
+    void disposeTestee() {
+        blocker.countDown();
+        testee.dispose();
+    }
+
+    @Test
+    void testTryApply_FullMailboxShouldMergeIntoNewestApplication() {
+        givenExecutorIsBlockedInApplication(InputEvent.a, null);
+        then(testee.tryApply(InputEvent.c)).isTrue();
+        then(testee.tryApply(InputEvent.a)).isTrue();
+        then(testee.tryApply(InputEvent.b)).as("Merged into the pending application of a").isTrue();
+        then(testee.getMailboxMetrics().getQueueDepth()).isEqualTo(2);
+        blocker.countDown();
+        executionFactory.waitForAllTasksDone();
+        then(testee.query(() -> testee.iface.getTrace())).isEqualTo(134);
+        final List<StateMachineHistoryEntry> history = testee.query(testee::getActivityHistory);
+        then(history).hasSize(3);
+        then(history.get(2).getEvents()).isEqualTo("[a, b]");
+        thenMetricsAre(2, 0L, 1L);
+    }
+
+    @Test
+    void testApplyAll_FullMailboxShouldPerformBatchBeforeLaterApplication() {
+        givenExecutorIsBlockedInApplication(InputEvent.a, null);
+        testee.apply(InputEvent.b);
+        testee.applyAll(List.of(List.of(InputEvent.c), List.of(InputEvent.a)), null, null);
+        then(testee.tryApply(InputEvent.b)).as("Queued behind the pending batch").isTrue();
+        blocker.countDown();
+        executionFactory.waitForAllTasksDone();
+        then(testee.query(() -> testee.iface.getTrace())).isEqualTo(12312);
+        thenMetricsAre(2, 0L, 1L);
+    }
+
+    @Test
+    void testTryApply_FromExecutorShouldExceedCapacity() {
+        final AtomicBoolean acceptedInExecutor = new AtomicBoolean(false);
+        givenExecutorIsBlockedInApplication(InputEvent.a, () -> acceptedInExecutor.set(testee.tryApply(InputEvent.c)));
+        then(testee.tryApply(InputEvent.b)).isTrue();
+        then(testee.tryApply(InputEvent.b)).isTrue();
+        blocker.countDown();
+        executionFactory.waitForAllTasksDone();
+        then(acceptedInExecutor).isTrue();
+        then(testee.query(() -> testee.iface.getTrace())).as("Neither merged nor dropped").isEqualTo(1223);
+        thenMetricsAre(3, 0L, 0L);
+    }
+
+    @Test
+    void testApplyAsync_FailingPreExecutionTaskShouldFailMergedApplications() {
+        givenExecutorIsBlockedInApplication(InputEvent.a, null);
+        testee.apply(InputEvent.c);
+        final CompletableFuture<?> failing = testee.applyAsync(() -> {
+            throw new IllegalStateException("Failed");
+        }, List.of(InputEvent.a));
+        final CompletableFuture<?> merged = testee.applyAsync(InputEvent.b);
+        blocker.countDown();
+        thenFutureFailsWith(failing, IllegalStateException.class);
+        thenFutureFailsWith(merged, IllegalStateException.class);
+        executionFactory.waitForAllTasksDone();
+        then(testee.query(() -> testee.iface.getTrace())).isEqualTo(13);
+        thenMetricsAre(2, 0L, 1L);
+    }
+
+    /**
+     * Blocks the executor in the pre execution task of an application of the given event, until the blocker is
+     * released. The given task is run in the executor after the release, before the tick.
+     */
+    private void givenExecutorIsBlockedInApplication(final InputEvent event, final Runnable afterRelease) {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        testee.apply(() -> {
+            blocked.countDown();
+            awaitUninterruptibly(blocker);
+            if (afterRelease != null) {
+                afterRelease.run();
+            }
+        }, event);
+        awaitUninterruptibly(blocked);
+    }
+
+    private void thenMetricsAre(final int highWaterMark, final long rejectedCount, final long coalescedCount) {
+        final StateMachineMailboxMetrics metrics = testee.getMailboxMetrics();
+        then(metrics.getCapacity()).isEqualTo(2);
+        then(metrics.getQueueDepth()).isZero();
+        then(metrics.getHighWaterMark()).isEqualTo(highWaterMark);
+        then(metrics.getRejectedCount()).isEqualTo(rejectedCount);
+        then(metrics.getDroppedCount()).isZero();
+        then(metrics.getCoalescedCount()).isEqualTo(coalescedCount);
+    }
+
+    private static void thenFutureFailsWith(final CompletableFuture<?> future,
+        final Class<? extends Throwable> expectedCause) {
+        final Throwable thrown = catchThrowable(() -> future.get(1, TimeUnit.SECONDS));
+        then(thrown).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(expectedCause);
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.foo.RingBufferChart.InputEvent;
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineMailboxMetrics;
+import de.scheidtbachmann.statemachine.testing.execution.StateMachineTestExecutionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the mailbox of a chart generated with the RING_BUFFER_MAILBOX feature and the REJECT policy. The slot of the
+ * application that blocks the executor is only released after the application, so three further applications fill
+ * the mailbox.
+ */
+class RingBufferTest {
+
+    private static final int CAPACITY = 4;
+
+    private final StateMachineTestExecutionFactory executionFactory = new StateMachineTestExecutionFactory();
+    private final RingBufferChart testee = new RingBufferChart(executionFactory, "RingBuffer");
+    private final CountDownLatch blocker = new CountDownLatch(1);
+
+    @BeforeEach
+    void initTestee() {
+        testee.init();
+        executionFactory.waitForAllTasksDone();
+    }
+
+    @AfterEach
+    void disposeTestee() {
+        blocker.countDown();
+        testee.dispose();
+    }
+
+    @Test
+    void testTryApply_FullMailboxShouldReject() {
+        givenExecutorIsBlockedInApplication(InputEvent.a, null);
+        givenMailboxHasBeenFilledWith(InputEvent.b);
+        then(testee.tryApply(InputEvent.c)).isFalse();
+        then(testee.getMailboxMetrics().getQueueDepth()).isEqualTo(CAPACITY);
+        blocker.countDown();
+        executionFactory.waitForAllTasksDone();
+        then(testee.query(() -> testee.iface.getTrace())).isEqualTo(1222);
+        final StateMachineMailboxMetrics metrics = testee.getMailboxMetrics();
+        then(metrics.getCapacity()).isEqualTo(CAPACITY);
+        then(metrics.getQueueDepth()).isZero();
+        then(metrics.getRejectedCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void testTryApply_FromExecutorShouldOverflowBehindClaimedSlots() {
+        final AtomicBoolean acceptedInExecutor = new AtomicBoolean(false);
+        final AtomicInteger queueDepthInExecutor = new AtomicInteger();
+        givenExecutorIsBlockedInApplication(InputEvent.a, () -> {
+            acceptedInExecutor.set(testee.tryApply(InputEvent.c));
+            queueDepthInExecutor.set(testee.getMailboxMetrics().getQueueDepth());
+        });
+        givenMailboxHasBeenFilledWith(InputEvent.b);
+        blocker.countDown();
+        executionFactory.waitForAllTasksDone();
+        then(acceptedInExecutor).isTrue();
+        then(queueDepthInExecutor).hasValue(CAPACITY + 1);
+        then(testee.query(() -> testee.iface.getTrace())).isEqualTo(12223);
+        then(testee.getMailboxMetrics().getRejectedCount()).isZero();
+    }
+
+    @Test
+    void testApplyAll_ShouldKeepOrderWithPendingApplications() {
+        givenExecutorIsBlockedInApplication(InputEvent.a, null);
+        then(testee.tryApply(InputEvent.b)).isTrue();
+        testee.applyAll(List.of(List.of(InputEvent.c), List.of(InputEvent.a)), null, null);
+        then(testee.tryApply(InputEvent.b)).isTrue();
+        blocker.countDown();
+        executionFactory.waitForAllTasksDone();
+        then(testee.query(() -> testee.iface.getTrace())).isEqualTo(12312);
+    }
+
+    /**
+     * Blocks the executor in the pre execution task of an application of the given event, until the blocker is
+     * released. The given task is run in the executor after the release, before the tick.
+     */
+    private void givenExecutorIsBlockedInApplication(final InputEvent event, final Runnable afterRelease) {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        testee.apply(() -> {
+            blocked.countDown();
+            awaitUninterruptibly(blocker);
+            if (afterRelease != null) {
+                afterRelease.run();
+            }
+        }, event);
+        awaitUninterruptibly(blocked);
+    }
+
+    private void givenMailboxHasBeenFilledWith(final InputEvent event) {
+        for (int i = 1; i < CAPACITY; i++) {
+            then(testee.tryApply(event)).isTrue();
+        }
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
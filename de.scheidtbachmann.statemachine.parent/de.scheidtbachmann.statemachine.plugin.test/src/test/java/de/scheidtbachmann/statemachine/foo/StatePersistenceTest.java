@@ -0,0 +1,114 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes the state of a chart generated with the STATE_PERSISTENCE feature and restores it into a new instance.
+ */
+class StatePersistenceTest {
+
+    private static final int TICKS = 500;
+
+    private final PersistenceChart original = new PersistenceChart("Original");
+    private final PersistenceChart restored = new PersistenceChart("Restored");
+    private final Random random = new Random(7);
+
+    private ByteBuffer buffer;
+
+    @Test
+    void testWriteState_ShouldWriteStateSize() {
+        givenOriginalHasBeenTicked(10);
+        whenWritingState();
+        then(buffer.remaining()).isEqualTo(PersistenceChart.STATE_SIZE);
+    }
+
+    @Test
+    void testReadState_ShouldContinueLikeOriginal() {
+        for (int restart = 0; restart < 20; restart++) {
+            givenOriginalHasBeenTicked(restart);
+            whenWritingState();
+            restored.readState(buffer);
+            then(restored.getCurrentState().toString()).isEqualTo(original.getCurrentState().toString());
+            for (int tick = 0; tick < TICKS; tick++) {
+                whenApplyingToBoth(random.nextInt(8));
+                then(restored.getCurrentState().toString()).as("State after tick %d", tick)
+                    .isEqualTo(original.getCurrentState().toString());
+                then(restored.iface.getCounter()).isEqualTo(original.iface.getCounter());
+                then(restored.iface.isReachedDone()).isEqualTo(original.iface.isReachedDone());
+            }
+        }
+    }
+
+    @Test
+    void testReadState_DifferentSchemaShouldThrow() {
+        givenOriginalHasBeenTicked(3);
+        whenWritingState();
+        buffer.put(0, (byte) (buffer.get(0) + 1));
+        final Throwable thrown = catchThrowable(() -> restored.readState(buffer));
+        then(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testReadState_TruncatedStateShouldThrow() {
+        givenOriginalHasBeenTicked(3);
+        whenWritingState();
+        buffer.limit(buffer.limit() - 1);
+        final Throwable thrown = catchThrowable(() -> restored.readState(buffer));
+        then(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void givenOriginalHasBeenTicked(final int ticks) {
+        original.init();
+        for (int tick = 0; tick < ticks; tick++) {
+            original.apply(events(random.nextInt(8)));
+        }
+    }
+
+    private void whenWritingState() {
+        buffer = ByteBuffer.allocate(original.getStateSize());
+        original.writeState(buffer);
+        buffer.flip();
+    }
+
+    private void whenApplyingToBoth(final int events) {
+        original.apply(events(events));
+        restored.apply(events(events));
+    }
+
+    /**
+     * @param events
+     *            Bit mask of the events a (1), b (2) and c (4).
+     */
+    private static List<PersistenceChart.InputEvent> events(final int events) {
+        final List<PersistenceChart.InputEvent> result = new ArrayList<>();
+        if ((events & 1) != 0) {
+            result.add(PersistenceChart.InputEvent.a);
+        }
+        if ((events & 2) != 0) {
+            result.add(PersistenceChart.InputEvent.b);
+        }
+        if ((events & 4) != 0) {
+            result.add(PersistenceChart.InputEvent.c);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.foo.SnapshotTest.InputEvent;
+import de.scheidtbachmann.statemachine.foo.SnapshotTest.Snapshot;
+import de.scheidtbachmann.statemachine.testing.execution.StateMachineTestExecutionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the snapshots published by a chart generated with the STATE_SNAPSHOT feature.
+ */
+class StateSnapshotTest {
+
+    private final StateMachineTestExecutionFactory executionFactory = new StateMachineTestExecutionFactory();
+    private final SnapshotTest testee = new SnapshotTest(executionFactory, "Snapshot");
+
+    @AfterEach
+    void disposeTestee() {
+        testee.dispose();
+    }
+
+    @Test
+    void testSnapshot_ShouldBeNullBeforeInit() {
+        then(testee.snapshot()).isNull();
+    }
+
+    @Test
+    void testSnapshot_ShouldBePublishedPerTick() {
+        givenTesteeHasBeenInitialized();
+        final Snapshot initial = testee.snapshot();
+        then(initial.getTickCount()).isEqualTo(1);
+        then(initial.getCurrentState()).isEqualTo("S1");
+        then(initial.getCounter()).isZero();
+        then(initial.isDone()).isFalse();
+
+        whenApplying(InputEvent.go);
+        final Snapshot changed = testee.snapshot();
+        then(changed.getTickCount()).isEqualTo(2);
+        then(changed.getActiveStates()).containsExactly("S2");
+        then(changed.getCounter()).isEqualTo(1);
+        then(changed.isDone()).isTrue();
+        then(initial.getCurrentState()).as("Earlier snapshot is immutable").isEqualTo("S1");
+    }
+
+    @Test
+    void testSnapshot_UnchangedConfigurationShouldShareActiveStates() {
+        givenTesteeHasBeenInitialized();
+        final Snapshot initial = testee.snapshot();
+        whenApplying();
+        final Snapshot unchanged = testee.snapshot();
+        then(unchanged.getTickCount()).isEqualTo(2);
+        then(unchanged.getActiveStates()).isSameAs(initial.getActiveStates());
+
+        whenApplying(InputEvent.go);
+        then(testee.snapshot().getActiveStates()).isNotSameAs(initial.getActiveStates());
+    }
+
+    private void givenTesteeHasBeenInitialized() {
+        testee.init();
+        executionFactory.waitForAllTasksDone();
+    }
+
+    private void whenApplying(final InputEvent... events) {
+        testee.apply(events);
+        executionFactory.waitForAllTasksDone();
+    }
+}
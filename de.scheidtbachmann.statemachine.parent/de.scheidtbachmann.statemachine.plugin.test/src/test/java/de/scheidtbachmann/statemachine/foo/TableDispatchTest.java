@@ -0,0 +1,85 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.foo;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.runtime.table.StateMachineTransitionTable;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the chart generated with the table-driven template against the same chart generated with the lean template.
+ */
+class TableDispatchTest {
+
+    private static final int TICKS = 2000;
+
+    private final TableDispatchChart tableChart = new TableDispatchChart("Table");
+    private final FlatDispatchReferenceChart referenceChart = new FlatDispatchReferenceChart("Reference");
+
+    @Test
+    void testGeneratedCode_ShouldUseTransitionTable() {
+        then(Arrays.stream(TableDispatchChart.class.getDeclaredFields())
+            .filter(field -> Modifier.isStatic(field.getModifiers()))
+            .map(Field::getType))
+            .contains(StateMachineTransitionTable.class);
+    }
+
+    @Test
+    void testRandomEvents_ShouldMatchReference() {
+        givenChartsHaveBeenInitialized();
+        final Random random = new Random(42);
+        for (int tick = 0; tick < TICKS; tick++) {
+            whenApplying(random.nextInt(8));
+            then(tableChart.getCurrentState().toString()).as("State after tick %d", tick)
+                .isEqualTo(referenceChart.getCurrentState().toString());
+            then(tableChart.iface.getCounter()).as("Counter after tick %d", tick)
+                .isEqualTo(referenceChart.iface.getCounter());
+        }
+    }
+
+    private void givenChartsHaveBeenInitialized() {
+        tableChart.init();
+        referenceChart.init();
+    }
+
+    /**
+     * @param events
+     *            Bit mask of the events a (1), b (2) and c (4).
+     */
+    private void whenApplying(final int events) {
+        final List<TableDispatchChart.InputEvent> tableEvents = new ArrayList<>();
+        final List<FlatDispatchReferenceChart.InputEvent> referenceEvents = new ArrayList<>();
+        if ((events & 1) != 0) {
+            tableEvents.add(TableDispatchChart.InputEvent.a);
+            referenceEvents.add(FlatDispatchReferenceChart.InputEvent.a);
+        }
+        if ((events & 2) != 0) {
+            tableEvents.add(TableDispatchChart.InputEvent.b);
+            referenceEvents.add(FlatDispatchReferenceChart.InputEvent.b);
+        }
+        if ((events & 4) != 0) {
+            tableEvents.add(TableDispatchChart.InputEvent.c);
+            referenceEvents.add(FlatDispatchReferenceChart.InputEvent.c);
+        }
+        tableChart.apply(tableEvents);
+        referenceChart.apply(referenceEvents);
+    }
+}
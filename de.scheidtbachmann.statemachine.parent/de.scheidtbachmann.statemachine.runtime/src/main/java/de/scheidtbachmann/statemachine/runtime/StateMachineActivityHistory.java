@@ -0,0 +1,203 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Ring buffer of the latest state machine activations with preallocated slots.
+ *
+ * Recording an activation only stores raw values (configuration ids and event masks) into a reused slot. No
+ * reference to the applied events is kept. The slots are rendered into {@link StateMachineHistoryEntry} objects only when the history is read
+ * with {@link #getEntries()}. The history is not thread-safe, it is meant to be written and read by the executor of
+ * the state machine.
+ */
+public class StateMachineActivityHistory {
+
+    /**
+     * Renders the recorded events of an activation.
+     */
+    @FunctionalInterface
+    public interface EventsRenderer {
+
+        /**
+         * @param eventMask
+         *            The recorded event mask words, not to be retained.
+         * @return the string representation of the events.
+         */
+        String render(long[] eventMask);
+    }
+
+    private final Slot[] slots;
+    private final LongFunction<String> configurationDecoder;
+    private final EventsRenderer eventsRenderer;
+    private long recordedCount;
+
+    /**
+     * Creates the history and preallocates all slots.
+     *
+     * @param capacity
+     *            The maximum number of activations kept, the oldest activation is overwritten first.
+     * @param eventMaskWords
+     *            The number of {@code long} words of the event masks.
+     * @param configurationDecoder
+     *            The function to decode configuration ids into state names, might be {@code null} if only state names
+     *            are recorded.
+     * @param eventsRenderer
+     *            The renderer of the recorded events.
+     */
+    public StateMachineActivityHistory(final int capacity, final int eventMaskWords,
+        final LongFunction<String> configurationDecoder, final EventsRenderer eventsRenderer) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (eventMaskWords < 1) {
+            throw new IllegalArgumentException("Number of event mask words must be positive: " + eventMaskWords);
+        }
+        slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(eventMaskWords);
+        }
+        this.configurationDecoder = configurationDecoder;
+        this.eventsRenderer = eventsRenderer;
+    }
+
+    /**
+     * Claims the slot for the next activation, overwriting the oldest activation if the history is full.
+     *
+     * @return the cleared slot to record the activation into.
+     */
+    public Slot begin() {
+        final Slot slot = slots[(int) (recordedCount % slots.length)];
+        recordedCount++;
+        slot.clear();
+        return slot;
+    }
+
+    /**
+     * @return the maximum number of activations kept.
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * @return the number of activations currently kept.
+     */
+    public int size() {
+        return (int) Math.min(recordedCount, slots.length);
+    }
+
+    /**
+     * Renders the kept activations.
+     *
+     * @return the activations, the oldest one first.
+     */
+    public List<StateMachineHistoryEntry> getEntries() {
+        final int size = size();
+        final List<StateMachineHistoryEntry> entries = new ArrayList<>(size);
+        for (long i = recordedCount - size; i < recordedCount; i++) {
+            entries.add(render(slots[(int) (i % slots.length)]));
+        }
+        return entries;
+    }
+
+    private StateMachineHistoryEntry render(final Slot slot) {
+        final StateMachineHistoryEntry entry = new StateMachineHistoryEntry();
+        if (slot.startConfigurationId >= 0) {
+            entry.setStartConfiguration(slot.startConfigurationId, configurationDecoder);
+        } else {
+            entry.setStartState(slot.startState);
+        }
+        entry.setEvents(eventsRenderer.render(slot.eventMask));
+        if (slot.endConfigurationId >= 0) {
+            entry.setEndConfiguration(slot.endConfigurationId, configurationDecoder);
+        } else {
+            entry.setEndState(slot.endState);
+        }
+        entry.setThrowable(slot.throwable);
+        entry.setMergedApplications(slot.mergedApplications);
+        return entry;
+    }
+
+    /**
+     * Reused record of a single activation.
+     */
+    public static final class Slot {
+
+        private final long[] eventMask;
+        private long startConfigurationId;
+        private String startState;
+        private long endConfigurationId;
+        private String endState;
+        private Throwable throwable;
+        private int mergedApplications;
+
+        private Slot(final int eventMaskWords) {
+            eventMask = new long[eventMaskWords];
+            clear();
+        }
+
+        private void clear() {
+            startConfigurationId = -1;
+            startState = null;
+            Arrays.fill(eventMask, 0L);
+            endConfigurationId = -1;
+            endState = null;
+            throwable = null;
+            mergedApplications = 1;
+        }
+
+        public void setStartConfigurationId(final long configurationId) {
+            startConfigurationId = configurationId;
+        }
+
+        public void setStartState(final String startState) {
+            this.startState = startState;
+        }
+
+        public void setEventMask(final long eventMask) {
+            this.eventMask[0] = eventMask;
+        }
+
+        /**
+         * Copies the given event mask words.
+         *
+         * @param eventMask
+         *            The applied event mask words, {@code null} if no event mask has been applied.
+         */
+        public void setEventMask(final long[] eventMask) {
+            if (eventMask != null) {
+                System.arraycopy(eventMask, 0, this.eventMask, 0, Math.min(eventMask.length, this.eventMask.length));
+            }
+        }
+
+        public void setEndConfigurationId(final long configurationId) {
+            endConfigurationId = configurationId;
+        }
+
+        public void setEndState(final String endState) {
+            this.endState = endState;
+        }
+
+        public void setThrowable(final Throwable throwable) {
+            this.throwable = throwable;
+        }
+
+        public void setMergedApplications(final int mergedApplications) {
+            this.mergedApplications = mergedApplications;
+        }
+    }
+}
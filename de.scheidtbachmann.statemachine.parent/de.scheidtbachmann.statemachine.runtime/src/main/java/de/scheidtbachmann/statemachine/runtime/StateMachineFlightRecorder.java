@@ -0,0 +1,274 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flight recorder of the ticks of all state machines in a fixed-size ring of binary records outside of the heap.
+ *
+ * Recording a tick claims the next record with a single atomic increment and writes its raw values, the oldest
+ * records are overwritten. The records are only decoded when the ring is dumped to a file, on demand with
+ * {@link #dump()} and automatically when a tick threw, at most once per second. The dumps are read with
+ * {@link StateMachineFlightRecording#read(Path)} or the {@code flight} command of the command line interface.
+ *
+ * The ids of unregistered state machines are reused, so the names only grow with the number of state machines that
+ * are registered at the same time. A dump attributes the records of an unregistered state machine to the state
+ * machine that has reused its id, if any.
+ *
+ * The recorder is thread-safe. A record that is being overwritten while the ring is dumped is left out of the dump.
+ * The records are written without locks, so a writer that stalls while the whole ring is overwritten by others may
+ * leave a mixed record behind; the capacity should cover far more ticks than happen during a stall.
+ */
+public class StateMachineFlightRecorder {
+
+    /** Default number of records. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    /** System property to override the number of records of the default recorder. */
+    public static final String CAPACITY_PROPERTY = "statemachine.flightRecorder.capacity";
+    /** System property to override the dump directory of the default recorder, which is the temporary directory. */
+    public static final String DIRECTORY_PROPERTY = "statemachine.flightRecorder.directory";
+    /** File name suffix of the dumps. */
+    public static final String DUMP_SUFFIX = ".sfr";
+
+    static final int RECORD_SIZE = 48;
+
+    private static final Logger LOG = LoggerFactory.getLogger(StateMachineFlightRecorder.class);
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final long MIN_AUTOMATIC_DUMP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int TIMESTAMP_OFFSET = 8;
+    private static final int START_CONFIGURATION_OFFSET = 16;
+    private static final int END_CONFIGURATION_OFFSET = 24;
+    private static final int EVENT_MASK_OFFSET = 32;
+    private static final int MACHINE_ID_OFFSET = 40;
+    private static final int FLAGS_OFFSET = 44;
+    private static final int EXCEPTION_FLAG = 1;
+
+    private static volatile StateMachineFlightRecorder defaultRecorder;
+
+    private final ByteBuffer ring;
+    private final int indexMask;
+    private final Path dumpDirectory;
+    private final long epochNanosOffset;
+    private final AtomicLong claimedCount = new AtomicLong();
+    private final AtomicLong lastAutomaticDump = new AtomicLong();
+    private final AtomicLong dumpCount = new AtomicLong();
+    // Guarded by the names
+    private final List<String> machineNames = new ArrayList<>();
+    private final BitSet unregisteredIds = new BitSet();
+
+    /**
+     * Creates the recorder and allocates the ring.
+     *
+     * @param capacity
+     *            The number of records, rounded up to the next power of two.
+     * @param dumpDirectory
+     *            The directory of the dumps.
+     */
+    public StateMachineFlightRecorder(final int capacity, final Path dumpDirectory) {
+        if (capacity < 1 || capacity > (1 << 30) / RECORD_SIZE) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        final int records = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        indexMask = records - 1;
+        // Aligned for the atomic access of the sequence numbers
+        ring = ByteBuffer.allocateDirect(records * RECORD_SIZE + Long.BYTES).alignedSlice(Long.BYTES)
+            .order(ByteOrder.nativeOrder());
+        this.dumpDirectory = dumpDirectory;
+        final Instant now = Instant.now();
+        epochNanosOffset = now.getEpochSecond() * 1_000_000_000L + now.getNano() - System.nanoTime();
+        lastAutomaticDump.set(System.nanoTime() - MIN_AUTOMATIC_DUMP_INTERVAL_NANOS);
+    }
+
+    /**
+     * Provides the recorder shared by the generated state machines, which is created on first use with the
+     * capacity and dump directory of the system properties {@value #CAPACITY_PROPERTY} and
+     * {@value #DIRECTORY_PROPERTY}.
+     *
+     * @return the default recorder.
+     */
+    public static StateMachineFlightRecorder getDefault() {
+        StateMachineFlightRecorder recorder = defaultRecorder;
+        if (recorder == null) {
+            synchronized (StateMachineFlightRecorder.class) {
+                recorder = defaultRecorder;
+                if (recorder == null) {
+                    recorder = new StateMachineFlightRecorder(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY),
+                        Paths.get(System.getProperty(DIRECTORY_PROPERTY, System.getProperty("java.io.tmpdir"))));
+                    defaultRecorder = recorder;
+                }
+            }
+        }
+        return recorder;
+    }
+
+    /**
+     * Replaces the default recorder, for the state machines created afterwards.
+     *
+     * @param recorder
+     *            The new default recorder.
+     */
+    public static void setDefault(final StateMachineFlightRecorder recorder) {
+        synchronized (StateMachineFlightRecorder.class) {
+            defaultRecorder = recorder;
+        }
+    }
+
+    /**
+     * @return the number of records kept.
+     */
+    public int getCapacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * Registers a state machine, reusing the id of an unregistered one.
+     *
+     * @param machineName
+     *            The name of the state machine in the dumps.
+     * @return the id of the state machine for {@link #record(int, long, long, long, boolean)}.
+     */
+    public int register(final String machineName) {
+        synchronized (machineNames) {
+            final int id = unregisteredIds.nextSetBit(0);
+            if (id < 0) {
+                machineNames.add(machineName);
+                return machineNames.size() - 1;
+            }
+            unregisteredIds.clear(id);
+            machineNames.set(id, machineName);
+            return id;
+        }
+    }
+
+    /**
+     * Unregisters a state machine, e.g. when it is disposed. Its name is kept for the dumps until the id is reused.
+     *
+     * @param machineId
+     *            The id of the state machine.
+     */
+    public void unregister(final int machineId) {
+        synchronized (machineNames) {
+            if (machineId < 0 || machineId >= machineNames.size() || unregisteredIds.get(machineId)) {
+                throw new IllegalArgumentException("Unknown state machine id: " + machineId);
+            }
+            unregisteredIds.set(machineId);
+        }
+    }
+
+    /**
+     * Records a tick. A tick that threw triggers an automatic dump, unless the last one was less than a second ago.
+     *
+     * @param machineId
+     *            The id of the state machine.
+     * @param startConfigurationId
+     *            The configuration id before the tick, -1 if unknown.
+     * @param endConfigurationId
+     *            The configuration id after the tick, -1 if unknown.
+     * @param eventMask
+     *            The event mask of the tick.
+     * @param exception
+     *            Whether the tick threw.
+     */
+    public void record(final int machineId, final long startConfigurationId, final long endConfigurationId,
+        final long eventMask, final boolean exception) {
+        final long sequence = claimedCount.incrementAndGet();
+        final int offset = (int) ((sequence - 1) & indexMask) * RECORD_SIZE;
+        // Invalidate the record while it is written
+        LONGS.setOpaque(ring, offset + SEQUENCE_OFFSET, 0L);
+        VarHandle.storeStoreFence();
+        ring.putLong(offset + TIMESTAMP_OFFSET, epochNanosOffset + System.nanoTime());
+        ring.putLong(offset + START_CONFIGURATION_OFFSET, startConfigurationId);
+        ring.putLong(offset + END_CONFIGURATION_OFFSET, endConfigurationId);
+        ring.putLong(offset + EVENT_MASK_OFFSET, eventMask);
+        ring.putInt(offset + MACHINE_ID_OFFSET, machineId);
+        ring.putInt(offset + FLAGS_OFFSET, exception ? EXCEPTION_FLAG : 0);
+        LONGS.setRelease(ring, offset + SEQUENCE_OFFSET, sequence);
+        if (exception) {
+            dumpAfterException();
+        }
+    }
+
+    /**
+     * Decodes the records currently kept.
+     *
+     * @return the recording, the oldest record first.
+     */
+    public StateMachineFlightRecording snapshot() {
+        final long end = claimedCount.get();
+        final List<StateMachineFlightRecording.Record> records = new ArrayList<>();
+        for (long sequence = Math.max(1, end - indexMask); sequence <= end; sequence++) {
+            final int offset = (int) ((sequence - 1) & indexMask) * RECORD_SIZE;
+            if ((long) LONGS.getAcquire(ring, offset + SEQUENCE_OFFSET) != sequence) {
+                // Not written yet or already overwritten
+                continue;
+            }
+            final StateMachineFlightRecording.Record record = new StateMachineFlightRecording.Record(
+                ring.getLong(offset + TIMESTAMP_OFFSET), ring.getInt(offset + MACHINE_ID_OFFSET),
+                ring.getLong(offset + START_CONFIGURATION_OFFSET), ring.getLong(offset + END_CONFIGURATION_OFFSET),
+                ring.getLong(offset + EVENT_MASK_OFFSET),
+                (ring.getInt(offset + FLAGS_OFFSET) & EXCEPTION_FLAG) != 0);
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getOpaque(ring, offset + SEQUENCE_OFFSET) == sequence) {
+                records.add(record);
+            }
+        }
+        synchronized (machineNames) {
+            return new StateMachineFlightRecording(machineNames, records);
+        }
+    }
+
+    /**
+     * Dumps the records currently kept to a new file in the dump directory.
+     *
+     * @return the dump file.
+     * @throws IOException
+     *             if the dump cannot be written.
+     */
+    public Path dump() throws IOException {
+        Files.createDirectories(dumpDirectory);
+        final Path file = dumpDirectory.resolve(String.format("statemachine-flight-%d-%d%s", System.currentTimeMillis(),
+            dumpCount.incrementAndGet(), DUMP_SUFFIX));
+        snapshot().write(file);
+        return file;
+    }
+
+    private void dumpAfterException() {
+        final long now = System.nanoTime();
+        final long last = lastAutomaticDump.get();
+        if (now - last < MIN_AUTOMATIC_DUMP_INTERVAL_NANOS || !lastAutomaticDump.compareAndSet(last, now)) {
+            return;
+        }
+        try {
+            LOG.warn("State machine tick threw, flight recording dumped to {}", dump());
+        } catch (final IOException | RuntimeException e) {
+            LOG.error("Cannot dump the flight recording", e);
+        }
+    }
+}
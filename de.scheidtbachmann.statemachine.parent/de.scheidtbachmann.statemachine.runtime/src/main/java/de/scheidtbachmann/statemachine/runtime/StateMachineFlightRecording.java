@@ -0,0 +1,215 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ticks recorded by a {@link StateMachineFlightRecorder}, as dumped to a file.
+ */
+public class StateMachineFlightRecording {
+
+    private static final int MAGIC = 0x534d4652;
+    private static final int VERSION = 1;
+
+    private final List<String> machineNames;
+    private final List<Record> records;
+
+    /**
+     * Creates the recording.
+     *
+     * @param machineNames
+     *            The names of the state machines, by their ids.
+     * @param records
+     *            The recorded ticks, the oldest one first.
+     */
+    public StateMachineFlightRecording(final List<String> machineNames, final List<Record> records) {
+        this.machineNames = Collections.unmodifiableList(new ArrayList<>(machineNames));
+        this.records = Collections.unmodifiableList(new ArrayList<>(records));
+    }
+
+    /**
+     * Reads a dumped recording.
+     *
+     * @param file
+     *            The dump file.
+     * @return the recording.
+     * @throws IOException
+     *             if the file cannot be read or is not a flight recording.
+     */
+    public static StateMachineFlightRecording read(final Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a flight recording: " + file);
+            }
+            final int nameCount = in.readInt();
+            final List<String> machineNames = new ArrayList<>();
+            for (int i = 0; i < nameCount; i++) {
+                machineNames.add(in.readUTF());
+            }
+            final int recordCount = in.readInt();
+            final List<Record> records = new ArrayList<>();
+            for (int i = 0; i < recordCount; i++) {
+                records.add(new Record(in.readLong(), in.readInt(), in.readLong(), in.readLong(), in.readLong(),
+                    in.readBoolean()));
+            }
+            return new StateMachineFlightRecording(machineNames, records);
+        } catch (final EOFException e) {
+            throw new IOException("Truncated flight recording: " + file, e);
+        }
+    }
+
+    /**
+     * Writes the recording to a dump file.
+     *
+     * @param file
+     *            The dump file, which is replaced if it exists.
+     * @throws IOException
+     *             if the file cannot be written.
+     */
+    public void write(final Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(machineNames.size());
+            for (final String machineName : machineNames) {
+                out.writeUTF(machineName);
+            }
+            out.writeInt(records.size());
+            for (final Record record : records) {
+                out.writeLong(record.timestampNanos);
+                out.writeInt(record.machineId);
+                out.writeLong(record.startConfigurationId);
+                out.writeLong(record.endConfigurationId);
+                out.writeLong(record.eventMask);
+                out.writeBoolean(record.exception);
+            }
+        }
+    }
+
+    /**
+     * @return the names of the state machines, by their ids.
+     */
+    public List<String> getMachineNames() {
+        return machineNames;
+    }
+
+    /**
+     * @return the recorded ticks, the oldest one first.
+     */
+    public List<Record> getRecords() {
+        return records;
+    }
+
+    /**
+     * @param machineId
+     *            The id of a state machine.
+     * @return the name the state machine has been registered with, or its id if it is unknown.
+     */
+    public String getMachineName(final int machineId) {
+        return machineId >= 0 && machineId < machineNames.size() ? machineNames.get(machineId)
+            : String.valueOf(machineId);
+    }
+
+    /**
+     * Formats a record as a single line, with the configuration ids of the generated state machines, which can be
+     * decoded with their {@code configurationToString}.
+     *
+     * @param record
+     *            The record.
+     * @return the formatted record.
+     */
+    public String format(final Record record) {
+        final Instant timestamp = Instant.ofEpochSecond(0, record.timestampNanos);
+        return String.format("%s %s#%d %s -> %s events=0x%x%s", timestamp, getMachineName(record.machineId),
+            record.machineId, formatConfiguration(record.startConfigurationId),
+            formatConfiguration(record.endConfigurationId), record.eventMask, record.exception ? " EXCEPTION" : "");
+    }
+
+    private static String formatConfiguration(final long configurationId) {
+        return configurationId < 0 ? "?" : String.valueOf(configurationId);
+    }
+
+    /**
+     * A single recorded tick.
+     */
+    public static final class Record {
+
+        private final long timestampNanos;
+        private final int machineId;
+        private final long startConfigurationId;
+        private final long endConfigurationId;
+        private final long eventMask;
+        private final boolean exception;
+
+        /**
+         * Creates the record.
+         *
+         * @param timestampNanos
+         *            The end of the tick in nanoseconds since the epoch.
+         * @param machineId
+         *            The id of the state machine.
+         * @param startConfigurationId
+         *            The configuration id before the tick, -1 if unknown.
+         * @param endConfigurationId
+         *            The configuration id after the tick, -1 if unknown.
+         * @param eventMask
+         *            The event mask of the tick.
+         * @param exception
+         *            Whether the tick threw.
+         */
+        public Record(final long timestampNanos, final int machineId, final long startConfigurationId,
+            final long endConfigurationId, final long eventMask, final boolean exception) {
+            this.timestampNanos = timestampNanos;
+            this.machineId = machineId;
+            this.startConfigurationId = startConfigurationId;
+            this.endConfigurationId = endConfigurationId;
+            this.eventMask = eventMask;
+            this.exception = exception;
+        }
+
+        public long getTimestampNanos() {
+            return timestampNanos;
+        }
+
+        public int getMachineId() {
+            return machineId;
+        }
+
+        public long getStartConfigurationId() {
+            return startConfigurationId;
+        }
+
+        public long getEndConfigurationId() {
+            return endConfigurationId;
+        }
+
+        public long getEventMask() {
+            return eventMask;
+        }
+
+        public boolean isException() {
+            return exception;
+        }
+    }
+}
@@ -12,6 +12,7 @@
 package de.scheidtbachmann.statemachine.runtime;
 
 import java.util.Objects;
+import java.util.function.LongFunction;
 
 /**
  * Small wrapper to store the history of state machine actions.
@@ -22,6 +23,10 @@ public class StateMachineHistoryEntry {
     private String events;
     private String endState;
     private Throwable throwable;
+    private int mergedApplications = 1;
+    private long startConfigurationId = -1;
+    private long endConfigurationId = -1;
+    private LongFunction<String> configurationDecoder;
 
     /**
      * Returns the name of the state (or multiple comma-separated states) the state machine was in,
@@ -30,6 +35,9 @@ public class StateMachineHistoryEntry {
      * @return the state at the start of the activation.
      */
     public String getStartState() {
+        if (startState == null && startConfigurationId >= 0 && configurationDecoder != null) {
+            startState = configurationDecoder.apply(startConfigurationId);
+        }
         return startState;
     }
 
@@ -43,6 +51,30 @@ public class StateMachineHistoryEntry {
         this.startState = startState;
     }
 
+    /**
+     * Stores the configuration id of the state machine before activation. The name of the state is only decoded
+     * when it is read via {@link #getStartState()}.
+     *
+     * @param configurationId
+     *            The configuration id before activation.
+     * @param decoder
+     *            The function to decode the configuration id into the name of the state.
+     */
+    public void setStartConfiguration(final long configurationId, final LongFunction<String> decoder) {
+        startConfigurationId = configurationId;
+        configurationDecoder = decoder;
+        startState = null;
+    }
+
+    /**
+     * Returns the configuration id of the state machine at the start of the activation.
+     *
+     * @return the configuration id, or {@code -1} if the start state has not been stored as configuration id.
+     */
+    public long getStartConfigurationId() {
+        return startConfigurationId;
+    }
+
     /**
      * Returns the (comma-seperated) events, active in the state machine activation.
      *
@@ -69,6 +101,9 @@ public class StateMachineHistoryEntry {
      * @return the state at the end of the activation.
      */
     public String getEndState() {
+        if (endState == null && endConfigurationId >= 0 && configurationDecoder != null) {
+            endState = configurationDecoder.apply(endConfigurationId);
+        }
         return endState;
     }
 
@@ -82,6 +117,30 @@ public class StateMachineHistoryEntry {
         this.endState = endState;
     }
 
+    /**
+     * Stores the configuration id of the state machine after activation. The name of the state is only decoded
+     * when it is read via {@link #getEndState()}.
+     *
+     * @param configurationId
+     *            The configuration id after activation.
+     * @param decoder
+     *            The function to decode the configuration id into the name of the state.
+     */
+    public void setEndConfiguration(final long configurationId, final LongFunction<String> decoder) {
+        endConfigurationId = configurationId;
+        configurationDecoder = decoder;
+        endState = null;
+    }
+
+    /**
+     * Returns the configuration id of the state machine at the end of the activation.
+     *
+     * @return the configuration id, or {@code -1} if the end state has not been stored as configuration id.
+     */
+    public long getEndConfigurationId() {
+        return endConfigurationId;
+    }
+
     /**
      * Returns the {@link Throwable} that might have been thrown during the state machine activation.
      *
@@ -101,9 +160,38 @@ public class StateMachineHistoryEntry {
         this.throwable = throwable;
     }
 
+    /**
+     * Returns the number of applications that have been handled by this activation.
+     * This is more than one, if pending applications have been merged into a single tick.
+     *
+     * @return the number of merged applications, {@code 1} if the activation has not been merged.
+     */
+    public int getMergedApplications() {
+        return mergedApplications;
+    }
+
+    /**
+     * Stores the number of applications that have been handled by this activation.
+     *
+     * @param mergedApplications
+     *            The number of merged applications.
+     */
+    public void setMergedApplications(final int mergedApplications) {
+        this.mergedApplications = mergedApplications;
+    }
+
+    /**
+     * Returns whether multiple pending applications have been merged into this activation.
+     *
+     * @return {@code true} if more than one application has been handled by this activation.
+     */
+    public boolean isMerged() {
+        return mergedApplications > 1;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(endState, events, startState, throwable);
+        return Objects.hash(getEndState(), events, getStartState(), throwable, mergedApplications);
     }
 
     @Override
@@ -118,18 +206,20 @@ public class StateMachineHistoryEntry {
             return false;
         }
         final StateMachineHistoryEntry other = (StateMachineHistoryEntry) obj;
-        return Objects.equals(endState, other.endState) && Objects.equals(events, other.events)
-            && Objects.equals(startState, other.startState) && Objects.equals(throwable, other.throwable);
+        return Objects.equals(getEndState(), other.getEndState()) && Objects.equals(events, other.events)
+            && Objects.equals(getStartState(), other.getStartState()) && Objects.equals(throwable, other.throwable)
+            && mergedApplications == other.mergedApplications;
     }
 
     @Override
     public String toString() {
         final StringBuilder builder = new StringBuilder();
         builder.append("StateMachineHistoryEntry [");
-        builder.append("startState=").append(startState);
+        builder.append("startState=").append(getStartState());
         builder.append(", events=").append(events);
-        builder.append(", endState=").append(endState);
+        builder.append(", endState=").append(getEndState());
         builder.append(", throwable=").append(throwable);
+        builder.append(", mergedApplications=").append(mergedApplications);
         builder.append("]");
         return builder.toString();
     }
@@ -0,0 +1,54 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface of generated state machines whose state can be written to and restored from a binary representation.
+ *
+ * The representation contains the active states, thread statuses and variables of the state machine. It starts with
+ * the {@link #getSchemaHash() schema hash} of the chart, so a state can only be restored into a state machine
+ * generated from the same chart. Both operations are performed by the executor of the state machine, if it has one,
+ * and wait for it to complete. Applications submitted before a state is written are performed first, even if they are
+ * still pending in the mailbox of the state machine, unless the state is written from within the executor.
+ */
+public interface StateMachinePersistable {
+
+    /**
+     * @return the hash of the structure of the chart the state machine has been generated from.
+     */
+    long getSchemaHash();
+
+    /**
+     * @return the number of bytes written by {@link #writeState(ByteBuffer)}.
+     */
+    int getStateSize();
+
+    /**
+     * Writes the state at the position of the buffer and advances the position.
+     *
+     * @param buffer
+     *            The buffer with at least {@link #getStateSize()} bytes remaining.
+     */
+    void writeState(ByteBuffer buffer);
+
+    /**
+     * Restores the state from the position of the buffer and advances the position.
+     *
+     * @param buffer
+     *            The buffer containing a state as written by {@link #writeState(ByteBuffer)}.
+     * @throws IllegalArgumentException
+     *             if the state has been written by a state machine of a different chart.
+     */
+    void readState(ByteBuffer buffer);
+}
@@ -11,6 +11,7 @@
 
 package de.scheidtbachmann.statemachine.runtime;
 
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -25,4 +26,14 @@ public interface StateMachineRootContext {
      */
     Stream<String> getCurrentState();
 
+    /**
+     * Retrieve the comma separated names of the states that are currently active, without duplicates.
+     * Generated root contexts override this to return a cached string as long as the active states do not change.
+     *
+     * @return The names of active states joined by commas.
+     */
+    default String getCurrentStateString() {
+        return getCurrentState().distinct().collect(Collectors.joining(","));
+    }
+
 }
@@ -11,22 +11,59 @@
 
 package de.scheidtbachmann.statemachine.runtime;
 
-import java.util.stream.Collectors;
+import java.util.function.LongFunction;
 
 /**
  * Simple container for the current state of the state machine to implement the
  * proper toString method.
+ *
+ * If the container is created from a configuration id, the state is captured at creation and the names are only
+ * decoded when {@link #toString()} is called. If it is created from a string, that string is kept as is.
  */
 public class StateMachineStateContainer {
 
     private final StateMachineRootContext rootContext;
+    private final long configurationId;
+    private final LongFunction<String> configurationDecoder;
+    private final String state;
 
     public StateMachineStateContainer(final StateMachineRootContext context) {
         rootContext = context;
+        configurationId = -1;
+        configurationDecoder = null;
+        state = null;
+    }
+
+    public StateMachineStateContainer(final String state) {
+        rootContext = null;
+        configurationId = -1;
+        configurationDecoder = null;
+        this.state = state;
+    }
+
+    public StateMachineStateContainer(final long configurationId, final LongFunction<String> decoder) {
+        rootContext = null;
+        this.configurationId = configurationId;
+        configurationDecoder = decoder;
+        state = null;
+    }
+
+    /**
+     * @return the configuration id of the state, or {@code -1} if the container has been created from a context or
+     *         a string.
+     */
+    public long getConfigurationId() {
+        return configurationId;
     }
 
     @Override
     public String toString() {
-        return rootContext.getCurrentState().distinct().collect(Collectors.joining(","));
+        if (configurationDecoder != null) {
+            return configurationDecoder.apply(configurationId);
+        }
+        if (state != null) {
+            return state;
+        }
+        return rootContext.getCurrentStateString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes the states of a set of {@link StateMachinePersistable state machines} into a single file and restores them.
+ *
+ * The file consists of a header with a magic number, the format version and the number of state machines, followed
+ * by the length prefixed state of every state machine. The states are written into a single buffer that is allocated
+ * once per file, the file is replaced atomically.
+ */
+public final class StateMachineStateFile {
+
+    private static final int MAGIC = 0x534d5354;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    private StateMachineStateFile() {
+        // Utility class
+    }
+
+    /**
+     * Writes the states of the state machines, in the order of the list.
+     *
+     * @param file
+     *            The file to write, an existing file is replaced.
+     * @param stateMachines
+     *            The state machines to write.
+     * @throws IOException
+     *             if the file cannot be written.
+     */
+    public static void write(final Path file, final List<? extends StateMachinePersistable> stateMachines)
+        throws IOException {
+        long size = HEADER_SIZE;
+        for (final StateMachinePersistable stateMachine : stateMachines) {
+            size += Integer.BYTES + stateMachine.getStateSize();
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The states of " + stateMachines.size() + " state machines need "
+                + size + " bytes, which exceeds the maximum file size");
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(stateMachines.size());
+        for (final StateMachinePersistable stateMachine : stateMachines) {
+            final int lengthPosition = buffer.position();
+            buffer.position(lengthPosition + Integer.BYTES);
+            stateMachine.writeState(buffer);
+            buffer.putInt(lengthPosition, buffer.position() - lengthPosition - Integer.BYTES);
+        }
+        buffer.flip();
+
+        final Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores the states of the state machines, in the order of the list.
+     *
+     * @param file
+     *            The file written by {@link #write(Path, List)}.
+     * @param stateMachines
+     *            The state machines to restore, of the same charts and in the same order as they have been written.
+     * @throws IOException
+     *             if the file cannot be read or is not a state file.
+     * @throws IllegalArgumentException
+     *             if the number of state machines or their charts do not match the file.
+     */
+    public static void read(final Path file, final List<? extends StateMachinePersistable> stateMachines)
+        throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a state file: " + file);
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of state file: " + file);
+                }
+            }
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a state file: " + file);
+        }
+        final int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of state file: " + file);
+        }
+        final int count = buffer.getInt();
+        if (count != stateMachines.size()) {
+            throw new IllegalArgumentException("The state file contains " + count + " state machines, but "
+                + stateMachines.size() + " are to be restored");
+        }
+        for (final StateMachinePersistable stateMachine : stateMachines) {
+            if (buffer.remaining() < Integer.BYTES) {
+                throw new IOException("Unexpected end of state file: " + file);
+            }
+            final int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Unexpected end of state file: " + file);
+            }
+            final int end = buffer.position() + length;
+            final ByteBuffer state = buffer.duplicate();
+            state.limit(end);
+            stateMachine.readState(state);
+            buffer.position(end);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Bounded mailbox in front of the executor of a state machine.
+ *
+ * Offered items are kept in the mailbox and handed to the consumer in the executor, one item per executor task. At
+ * most one of these tasks is pending in the executor at any time, so the executor queue does not grow with the
+ * number of pending items and other tasks of the state machine, like timeouts, are still executed in between.
+ * When the mailbox is full, the {@link StateMachineOverflowPolicy} decides what happens with a new item.
+ *
+ * Items offered from within the executor, e.g. by an action, a timeout or a query of the state machine itself, are
+ * always accepted, even beyond the capacity. Waiting for the executor would never succeed there.
+ *
+ * Items discarded by {@link StateMachineOverflowPolicy#DROP_OLDEST} are handed to the optional drop listener, so
+ * their producers can be notified.
+ *
+ * @param <T>
+ *            The type of the items.
+ */
+public class StateMachineBoundedMailbox<T> implements StateMachineMailboxMetrics {
+
+    private final Executor executor;
+    private final int capacity;
+    private final StateMachineOverflowPolicy overflowPolicy;
+    private final Consumer<T> consumer;
+    private final BinaryOperator<T> coalescer;
+    private final Consumer<T> dropListener;
+    private final BooleanSupplier inExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Deque<T> pendingItems = new ArrayDeque<>();
+    private final Runnable drainTask = this::processNextItem;
+
+    // Guarded by the lock
+    private boolean drainScheduled;
+    private int highWaterMark;
+    private long rejectedCount;
+    private long droppedCount;
+    private long coalescedCount;
+
+    /**
+     * Creates a new mailbox.
+     *
+     * @param executor
+     *            The executor of the state machine, which processes the items.
+     * @param capacity
+     *            The maximum number of pending items.
+     * @param overflowPolicy
+     *            The behavior when an item is offered to the full mailbox.
+     * @param consumer
+     *            The consumer that processes the items in the executor.
+     * @param coalescer
+     *            Merges a new item into the newest pending item, the result replaces the pending item. Only used by
+     *            {@link StateMachineOverflowPolicy#COALESCE}, new items are rejected if no coalescer is given.
+     * @param inExecutor
+     *            Checks whether the caller is running in the executor, usually
+     *            {@link StateMachineExecutionFactory#isRunningInExecutor()}.
+     */
+    public StateMachineBoundedMailbox(final Executor executor, final int capacity,
+        final StateMachineOverflowPolicy overflowPolicy, final Consumer<T> consumer, final BinaryOperator<T> coalescer,
+        final BooleanSupplier inExecutor) {
+        this(executor, capacity, overflowPolicy, consumer, coalescer, null, inExecutor);
+    }
+
+    /**
+     * Creates a new mailbox that reports dropped items.
+     *
+     * @param executor
+     *            The executor of the state machine, which processes the items.
+     * @param capacity
+     *            The maximum number of pending items.
+     * @param overflowPolicy
+     *            The behavior when an item is offered to the full mailbox.
+     * @param consumer
+     *            The consumer that processes the items in the executor.
+     * @param coalescer
+     *            Merges a new item into the newest pending item, the result replaces the pending item. Only used by
+     *            {@link StateMachineOverflowPolicy#COALESCE}, new items are rejected if no coalescer is given.
+     * @param dropListener
+     *            Receives the items discarded by {@link StateMachineOverflowPolicy#DROP_OLDEST}, called by the
+     *            offering thread outside of the mailbox lock. May be {@code null}.
+     * @param inExecutor
+     *            Checks whether the caller is running in the executor, usually
+     *            {@link StateMachineExecutionFactory#isRunningInExecutor()}.
+     */
+    public StateMachineBoundedMailbox(final Executor executor, final int capacity,
+        final StateMachineOverflowPolicy overflowPolicy, final Consumer<T> consumer, final BinaryOperator<T> coalescer,
+        final Consumer<T> dropListener, final BooleanSupplier inExecutor) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, but was " + capacity);
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.capacity = capacity;
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+        this.consumer = Objects.requireNonNull(consumer);
+        this.coalescer = coalescer;
+        this.dropListener = dropListener;
+        this.inExecutor = Objects.requireNonNull(inExecutor);
+    }
+
+    /**
+     * Offers a new item to the mailbox.
+     *
+     * @param item
+     *            The item to process.
+     * @return {@code true} if the item has been accepted (which includes merging it into a pending item),
+     *         {@code false} if it has been rejected.
+     * @throws InterruptedException
+     *             if the caller is interrupted while waiting for space in the mailbox.
+     */
+    public boolean offer(final T item) throws InterruptedException {
+        Objects.requireNonNull(item);
+        final boolean limited = !inExecutor.getAsBoolean();
+        T droppedItem = null;
+        lock.lockInterruptibly();
+        try {
+            if (limited && pendingItems.size() >= capacity) {
+                switch (overflowPolicy) {
+                    case BLOCK:
+                        while (pendingItems.size() >= capacity) {
+                            notFull.await();
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        droppedItem = pendingItems.pollFirst();
+                        droppedCount++;
+                        break;
+                    case COALESCE:
+                        if (coalescer == null) {
+                            rejectedCount++;
+                            return false;
+                        }
+                        pendingItems.addLast(coalescer.apply(pendingItems.pollLast(), item));
+                        coalescedCount++;
+                        return true;
+                    case REJECT:
+                    default:
+                        rejectedCount++;
+                        return false;
+                }
+            }
+            // Scheduled first, so the item is not kept if the executor rejects the drain task
+            scheduleDrain();
+            pendingItems.addLast(item);
+            highWaterMark = Math.max(highWaterMark, pendingItems.size());
+            return true;
+        } finally {
+            lock.unlock();
+            if (droppedItem != null && dropListener != null) {
+                dropListener.accept(droppedItem);
+            }
+        }
+    }
+
+    /**
+     * Processes all pending items in the calling thread, which has to be the executor of the state machine. Items
+     * offered by the consumer meanwhile are processed as well.
+     *
+     * Used to perform the pending items before the state of the state machine is written, as they would be by the
+     * executor queue without a mailbox.
+     */
+    public void flush() {
+        while (true) {
+            final T item;
+            lock.lock();
+            try {
+                item = pendingItems.pollFirst();
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+            if (item == null) {
+                return;
+            }
+            consumer.accept(item);
+        }
+    }
+
+    private void scheduleDrain() {
+        if (!drainScheduled) {
+            drainScheduled = true;
+            try {
+                executor.execute(drainTask);
+            } catch (final RuntimeException e) {
+                drainScheduled = false;
+                throw e;
+            }
+        }
+    }
+
+    private void processNextItem() {
+        final T item;
+        lock.lock();
+        try {
+            item = pendingItems.pollFirst();
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            if (item != null) {
+                consumer.accept(item);
+            }
+        } finally {
+            lock.lock();
+            try {
+                drainScheduled = false;
+                if (!pendingItems.isEmpty()) {
+                    scheduleDrain();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return pendingItems.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getHighWaterMark() {
+        lock.lock();
+        try {
+            return highWaterMark;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void resetHighWaterMark() {
+        lock.lock();
+        try {
+            highWaterMark = pendingItems.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getRejectedCount() {
+        lock.lock();
+        try {
+            return rejectedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getCoalescedCount() {
+        lock.lock();
+        try {
+            return coalescedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
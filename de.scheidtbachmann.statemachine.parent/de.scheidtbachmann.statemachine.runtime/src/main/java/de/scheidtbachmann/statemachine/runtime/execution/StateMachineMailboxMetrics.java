@@ -0,0 +1,65 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution;
+
+/**
+ * Metrics of the mailbox that holds the pending requests of a state machine.
+ */
+public interface StateMachineMailboxMetrics {
+
+    /**
+     * Provides the maximum number of pending items.
+     *
+     * @return The capacity of the mailbox.
+     */
+    int getCapacity();
+
+    /**
+     * Provides the number of currently pending items.
+     *
+     * @return The current depth of the mailbox.
+     */
+    int getQueueDepth();
+
+    /**
+     * Provides the highest number of pending items observed since creation or the last reset.
+     *
+     * @return The high-water mark of the mailbox depth.
+     */
+    int getHighWaterMark();
+
+    /**
+     * Resets the high-water mark to the current depth of the mailbox.
+     */
+    void resetHighWaterMark();
+
+    /**
+     * Provides the number of items that have not been accepted, because the mailbox was full.
+     *
+     * @return The number of rejected items.
+     */
+    long getRejectedCount();
+
+    /**
+     * Provides the number of pending items that have been discarded in favor of newer items.
+     *
+     * @return The number of dropped items.
+     */
+    long getDroppedCount();
+
+    /**
+     * Provides the number of items that have been merged into a pending item.
+     *
+     * @return The number of coalesced items.
+     */
+    long getCoalescedCount();
+}
@@ -0,0 +1,30 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution;
+
+/**
+ * Behavior of a bounded state machine mailbox when a new item is offered while the mailbox is full.
+ */
+public enum StateMachineOverflowPolicy {
+
+    /** The caller waits until there is space in the mailbox. */
+    BLOCK,
+
+    /** The new item is not accepted. */
+    REJECT,
+
+    /** The oldest pending item is discarded in favor of the new item. */
+    DROP_OLDEST,
+
+    /** The new item is merged into the newest pending item. */
+    COALESCE
+}
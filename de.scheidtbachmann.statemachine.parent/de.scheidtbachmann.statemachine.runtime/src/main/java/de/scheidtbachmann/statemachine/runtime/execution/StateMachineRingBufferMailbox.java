@@ -0,0 +1,330 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free mailbox for many producers and the executor of a single state machine as consumer.
+ *
+ * The mailbox is a ring buffer of preallocated slots. A producer claims a slot with {@link #claim()}, fills it via
+ * {@link #slot(long)} and hands it over with {@link #publish(long)}. Claiming is a single compare-and-set on the
+ * producer sequence, so neither the slots nor the handover allocate memory and producers never take a lock. Each slot
+ * carries its own sequence number, which tells whether the slot is free for the producers or ready for the consumer
+ * (see D. Vyukov, "Bounded MPMC queue").
+ *
+ * The published slots are handed to the consumer by a drain task in the executor. Only one drain task is pending in
+ * the executor at any time, it processes up to {@value #MAX_SLOTS_PER_DRAIN} slots and is then resubmitted, so other
+ * tasks of the state machine, like timeouts, are still executed in between. The consumer has to reset the content of
+ * a slot, the slot is reused as soon as the consumer returns.
+ *
+ * Only {@link StateMachineOverflowPolicy#BLOCK} and {@link StateMachineOverflowPolicy#REJECT} are supported, as the
+ * producers cannot modify slots that have already been published. Slots claimed from within the executor while the
+ * mailbox is full are neither blocked nor rejected, because waiting would never succeed there. They are taken from an
+ * unbounded overflow queue instead and handed to the consumer after all slots that had been claimed before.
+ *
+ * @param <T>
+ *            The type of the slots.
+ */
+public class StateMachineRingBufferMailbox<T> implements StateMachineMailboxMetrics {
+
+    /** Upper bound of slots processed by one drain task, to keep the executor fair for other tasks. */
+    private static final int MAX_SLOTS_PER_DRAIN = 64;
+
+    /** Spins before a blocked producer starts to park. */
+    private static final int MAX_SPINS = 100;
+    private static final long PARK_NANOS = 10_000L;
+
+    /** Returned by {@link #claim()} if the mailbox is full and the overflow policy rejects new slots. */
+    public static final long REJECTED = -1L;
+
+    /** Returned by {@link #claim()} if the mailbox is full and the caller runs in the executor. */
+    public static final long OVERFLOW = -2L;
+
+    private final Executor executor;
+    private final StateMachineOverflowPolicy overflowPolicy;
+    private final Consumer<T> consumer;
+    private final Supplier<T> slotFactory;
+    private final BooleanSupplier inExecutor;
+    private final int mask;
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerSequence = new AtomicLong();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final Runnable drainTask = this::drain;
+    private final Queue<OverflowSlot<T>> overflowSlots = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<T> claimedOverflowSlot = new ThreadLocal<>();
+
+    /** Written by the consumer only. */
+    private volatile long consumerSequence;
+    private volatile int highWaterMark;
+
+    /**
+     * Creates a new mailbox.
+     *
+     * @param executor
+     *            The executor of the state machine, which processes the slots.
+     * @param capacity
+     *            The number of slots, rounded up to the next power of two, but at least two. A single slot could not
+     *            distinguish a published slot from a free one.
+     * @param overflowPolicy
+     *            The behavior when a slot is claimed from the full mailbox, either
+     *            {@link StateMachineOverflowPolicy#BLOCK} or {@link StateMachineOverflowPolicy#REJECT}.
+     * @param slotFactory
+     *            Creates the preallocated slots.
+     * @param consumer
+     *            The consumer that processes the published slots in the executor.
+     * @param inExecutor
+     *            Checks whether the caller is running in the executor, usually
+     *            {@link StateMachineExecutionFactory#isRunningInExecutor()}.
+     */
+    public StateMachineRingBufferMailbox(final Executor executor, final int capacity,
+        final StateMachineOverflowPolicy overflowPolicy, final Supplier<T> slotFactory, final Consumer<T> consumer,
+        final BooleanSupplier inExecutor) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30, but was " + capacity);
+        }
+        if (overflowPolicy != StateMachineOverflowPolicy.BLOCK && overflowPolicy != StateMachineOverflowPolicy.REJECT) {
+            throw new IllegalArgumentException("Overflow policy " + overflowPolicy + " is not supported");
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.overflowPolicy = overflowPolicy;
+        this.consumer = Objects.requireNonNull(consumer);
+        this.slotFactory = Objects.requireNonNull(slotFactory);
+        this.inExecutor = Objects.requireNonNull(inExecutor);
+
+        final int size = Math.max(2, Integer.highestOneBit(capacity) == capacity ? capacity
+            : Integer.highestOneBit(capacity) << 1);
+        mask = size - 1;
+        slots = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = Objects.requireNonNull(slotFactory.get());
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Claims the next free slot.
+     *
+     * @return The sequence of the claimed slot, which has to be passed to {@link #slot(long)} and
+     *         {@link #publish(long)}, {@link #OVERFLOW} for a slot of the overflow queue, which is passed on the same
+     *         way, or {@link #REJECTED} if the mailbox is full and no slot could be claimed.
+     * @throws InterruptedException
+     *             if the caller is interrupted while waiting for a free slot.
+     */
+    public long claim() throws InterruptedException {
+        int spins = 0;
+        while (true) {
+            final long sequence = producerSequence.get();
+            final long difference = sequences.get((int) sequence & mask) - sequence;
+            if (difference == 0) {
+                if (producerSequence.compareAndSet(sequence, sequence + 1)) {
+                    return sequence;
+                }
+            } else if (difference < 0) {
+                if (inExecutor.getAsBoolean()) {
+                    claimedOverflowSlot.set(slotFactory.get());
+                    return OVERFLOW;
+                }
+                if (overflowPolicy == StateMachineOverflowPolicy.REJECT) {
+                    rejectedCount.incrementAndGet();
+                    return REJECTED;
+                }
+                if (++spins < MAX_SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Provides the slot for a claimed sequence.
+     *
+     * @param sequence
+     *            The sequence returned by {@link #claim()}.
+     * @return The slot to fill before it is published.
+     */
+    @SuppressWarnings("unchecked")
+    public T slot(final long sequence) {
+        if (sequence == OVERFLOW) {
+            return claimedOverflowSlot.get();
+        }
+        return (T) slots[(int) sequence & mask];
+    }
+
+    /**
+     * Hands a filled slot over to the consumer.
+     *
+     * @param sequence
+     *            The sequence returned by {@link #claim()}.
+     */
+    public void publish(final long sequence) {
+        if (sequence == OVERFLOW) {
+            overflowSlots.offer(new OverflowSlot<>(claimedOverflowSlot.get(), producerSequence.get()));
+            claimedOverflowSlot.remove();
+        } else {
+            sequences.lazySet((int) sequence & mask, sequence + 1);
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            executor.execute(drainTask);
+        }
+    }
+
+    /**
+     * Processes all published slots in the calling thread, which has to be the executor of the state machine. Slots
+     * published by the consumer meanwhile are processed as well.
+     *
+     * Used to perform the pending slots before the state of the state machine is written, as they would be by the
+     * executor queue without a mailbox.
+     */
+    public void flush() {
+        boolean consumed = true;
+        while (consumed) {
+            consumed = consumeNext();
+        }
+    }
+
+    private void drain() {
+        highWaterMark = Math.max(highWaterMark, getQueueDepth());
+        try {
+            for (int i = 0; i < MAX_SLOTS_PER_DRAIN; i++) {
+                if (!consumeNext()) {
+                    break;
+                }
+            }
+        } finally {
+            final long sequence = consumerSequence;
+            if (isReady(sequence)) {
+                executor.execute(drainTask);
+            } else {
+                drainScheduled.set(false);
+                // A producer may have published after the check, but before the flag has been reset
+                if (isReady(sequence) && drainScheduled.compareAndSet(false, true)) {
+                    executor.execute(drainTask);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands the next due slot to the consumer and releases it afterwards, called by the consumer only.
+     *
+     * @return whether a slot has been due.
+     */
+    private boolean consumeNext() {
+        final long sequence = consumerSequence;
+        if (isOverflowDue(sequence)) {
+            consumer.accept(overflowSlots.poll().slot);
+        } else if (isPublished(sequence)) {
+            try {
+                consumer.accept(slot(sequence));
+            } finally {
+                consumerSequence = sequence + 1;
+                sequences.lazySet((int) sequence & mask, sequence + 1 + mask);
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isReady(final long sequence) {
+        return isOverflowDue(sequence) || isPublished(sequence);
+    }
+
+    private boolean isPublished(final long sequence) {
+        return sequences.get((int) sequence & mask) == sequence + 1;
+    }
+
+    /**
+     * An overflow slot is due once all slots of the ring that had been claimed before it have been consumed.
+     */
+    private boolean isOverflowDue(final long sequence) {
+        final OverflowSlot<T> nextOverflowSlot = overflowSlots.peek();
+        return nextOverflowSlot != null && nextOverflowSlot.precedingSequence <= sequence;
+    }
+
+    @Override
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return (int) Math.max(0, producerSequence.get() - consumerSequence) + overflowSlots.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The high-water mark is sampled whenever a drain task starts, so short peaks in between may be missed.
+     */
+    @Override
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    @Override
+    public void resetHighWaterMark() {
+        highWaterMark = getQueueDepth();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return 0;
+    }
+
+    @Override
+    public long getCoalescedCount() {
+        return 0;
+    }
+
+    /**
+     * Slot of the overflow queue.
+     *
+     * @param <T>
+     *            The type of the slots.
+     */
+    private static final class OverflowSlot<T> {
+
+        private final T slot;
+        /** The producer sequence when the slot has been published. */
+        private final long precedingSequence;
+
+        OverflowSlot(final T slot, final long precedingSequence) {
+            this.slot = slot;
+            this.precedingSequence = precedingSequence;
+        }
+    }
+}
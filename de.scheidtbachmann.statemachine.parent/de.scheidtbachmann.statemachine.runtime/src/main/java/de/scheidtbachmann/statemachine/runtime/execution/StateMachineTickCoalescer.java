@@ -0,0 +1,193 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+
+/**
+ * Collects the pending applications of a state machine and merges them, so that one tick handles all of them.
+ *
+ * When the first item arrives, a drain task is scheduled in the executor of the state machine, optionally delayed
+ * by a collection window. The drain task takes up to {@code maxBatchSize} pending items, merges them in arrival
+ * order and hands the merged item to the consumer together with the number of merged items. Items that exceed the
+ * batch size are handled by a further drain task, which is scheduled without delay.
+ *
+ * @param <T>
+ *            The type of the items.
+ */
+public class StateMachineTickCoalescer<T> {
+
+    /**
+     * Consumer of merged items.
+     *
+     * @param <T>
+     *            The type of the items.
+     */
+    @FunctionalInterface
+    public interface MergedItemConsumer<T> {
+
+        /**
+         * Processes a merged item.
+         *
+         * @param item
+         *            The merged item.
+         * @param mergedItems
+         *            The number of items that have been merged into the given item, {@code 1} if not merged at all.
+         */
+        void accept(T item, int mergedItems);
+    }
+
+    private final ScheduledExecutorService executor;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final BinaryOperator<T> merger;
+    private final MergedItemConsumer<T> consumer;
+
+    private final Queue<T> pendingItems = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final Runnable drainTask = this::processBatch;
+    private final AtomicLong offeredCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    /**
+     * Creates a new coalescer.
+     *
+     * @param executor
+     *            The executor of the state machine, which processes the merged items.
+     * @param maxBatchSize
+     *            The maximum number of items that are merged into one.
+     * @param window
+     *            The time to wait for further items after the first item of a batch has arrived, {@code 0} to merge
+     *            only the items that are pending anyway.
+     * @param unit
+     *            The unit of the window.
+     * @param merger
+     *            Merges a later item into an earlier one.
+     * @param consumer
+     *            The consumer that processes the merged items in the executor.
+     */
+    public StateMachineTickCoalescer(final ScheduledExecutorService executor, final int maxBatchSize,
+        final long window, final TimeUnit unit, final BinaryOperator<T> merger, final MergedItemConsumer<T> consumer) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Maximum batch size must be at least 1, but was " + maxBatchSize);
+        }
+        if (window < 0) {
+            throw new IllegalArgumentException("Window must not be negative, but was " + window);
+        }
+        this.executor = Objects.requireNonNull(executor);
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = unit.toNanos(window);
+        this.merger = Objects.requireNonNull(merger);
+        this.consumer = Objects.requireNonNull(consumer);
+    }
+
+    /**
+     * Adds a new item to the pending items.
+     *
+     * @param item
+     *            The item to process.
+     */
+    public void offer(final T item) {
+        pendingItems.offer(Objects.requireNonNull(item));
+        offeredCount.incrementAndGet();
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                if (windowNanos > 0) {
+                    executor.schedule(drainTask, windowNanos, TimeUnit.NANOSECONDS);
+                } else {
+                    executor.execute(drainTask);
+                }
+            } catch (final RuntimeException e) {
+                drainScheduled.set(false);
+                pendingItems.remove(item);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Provides the number of items offered so far.
+     *
+     * @return The number of offered items.
+     */
+    public long getOfferedCount() {
+        return offeredCount.get();
+    }
+
+    /**
+     * Provides the number of merged items handed to the consumer so far, i.e. the number of ticks.
+     *
+     * @return The number of processed batches.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Processes all pending items in the calling thread, which has to be the executor of the state machine, without
+     * waiting for the window. The items are merged into batches as by the drain task.
+     *
+     * Used to perform the pending items before the state of the state machine is written, as they would be by the
+     * executor queue without a coalescer.
+     */
+    public void flush() {
+        while (true) {
+            T mergedItem = null;
+            int mergedItems = 0;
+            while (mergedItems < maxBatchSize) {
+                final T item = pendingItems.poll();
+                if (item == null) {
+                    break;
+                }
+                mergedItem = mergedItems == 0 ? item : merger.apply(mergedItem, item);
+                mergedItems++;
+            }
+            if (mergedItems == 0) {
+                return;
+            }
+            batchCount.incrementAndGet();
+            consumer.accept(mergedItem, mergedItems);
+        }
+    }
+
+    private void processBatch() {
+        T mergedItem = null;
+        int mergedItems = 0;
+        try {
+            while (mergedItems < maxBatchSize) {
+                final T item = pendingItems.poll();
+                if (item == null) {
+                    break;
+                }
+                mergedItem = mergedItems == 0 ? item : merger.apply(mergedItem, item);
+                mergedItems++;
+            }
+        } finally {
+            drainScheduled.set(false);
+            // Remaining items have already been waiting, so they are processed without a further window
+            if (!pendingItems.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+                executor.execute(drainTask);
+            }
+        }
+        if (mergedItems > 0) {
+            batchCount.incrementAndGet();
+            consumer.accept(mergedItem, mergedItems);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutManager;
+
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for {@link StateMachineExecutionFactory} decorators, which forwards all calls to a delegate factory.
+ * Subclasses override the methods whose behavior they want to change, e.g. the creation of timeouts.
+ */
+public abstract class ForwardingStateMachineExecutionFactory implements StateMachineExecutionFactory {
+
+    private final StateMachineExecutionFactory delegate;
+
+    /**
+     * Creates a new forwarding factory.
+     *
+     * @param delegate
+     *            The factory to forward the calls to.
+     */
+    protected ForwardingStateMachineExecutionFactory(final StateMachineExecutionFactory delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    /**
+     * Provides the factory the calls are forwarded to.
+     *
+     * @return The delegate factory.
+     */
+    protected StateMachineExecutionFactory getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ScheduledExecutorService createExecutor(final String nameFragment) {
+        return delegate.createExecutor(nameFragment);
+    }
+
+    @Override
+    public void releaseExecutor(final ScheduledExecutorService executor) {
+        delegate.releaseExecutor(executor);
+    }
+
+    @Override
+    public StateMachineTimeoutManager createTimeout(final ScheduledExecutorService executor, final String timeoutId,
+        final long delay, final TimeUnit timeUnit, final Runnable timeoutAction, final boolean autoStart) {
+        return delegate.createTimeout(executor, timeoutId, delay, timeUnit, timeoutAction, autoStart);
+    }
+
+    @Override
+    public boolean isRunningInExecutor() {
+        return delegate.isRunningInExecutor();
+    }
+}
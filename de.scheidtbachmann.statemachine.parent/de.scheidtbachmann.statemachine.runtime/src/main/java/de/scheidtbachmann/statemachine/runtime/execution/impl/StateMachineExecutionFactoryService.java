@@ -16,11 +16,6 @@ import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutMana
 
 import org.osgi.service.component.annotations.Component;
 
-import java.lang.Thread.State;
-import java.lang.ref.WeakReference;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -35,8 +30,8 @@ import java.util.concurrent.TimeUnit;
     service = { StateMachineExecutionFactory.class })
 public class StateMachineExecutionFactoryService implements StateMachineExecutionFactory {
 
-    private final List<WeakReference<Thread>> executorThreadReferences =
-        Collections.synchronizedList(new LinkedList<>());
+    // Marks the threads created by this factory, so the check for executor threads is a constant-time lookup
+    private final ThreadLocal<Boolean> executorThreadMarker = new ThreadLocal<>();
 
     @Override
     public ScheduledExecutorService createExecutor(final String nameFragment) {
@@ -61,26 +56,27 @@ public class StateMachineExecutionFactoryService implements StateMachineExecutio
 
     @Override
     public boolean isRunningInExecutor() {
-        final Thread currentThread = Thread.currentThread();
-        synchronized (executorThreadReferences) {
-            return executorThreadReferences.stream().anyMatch(threadRef -> threadRef.get() == currentThread);
-        }
+        return executorThreadMarker.get() != null;
     }
 
     protected Thread newThreadForExecutor(final String nameFragment, final Runnable runnable) {
-        purgeTerminatedThreadRefs();
         final String threadName = String.format("StateMachine-%s-%s", nameFragment, UUID.randomUUID().toString());
-        final Thread createdThread = new Thread(runnable, threadName);
-        executorThreadReferences.add(new WeakReference<>(createdThread));
-        return createdThread;
-    }
-
-    private void purgeTerminatedThreadRefs() {
-        executorThreadReferences.removeIf(this::isThreadTerminated);
+        return createThread(threadName, () -> {
+            executorThreadMarker.set(Boolean.TRUE);
+            runnable.run();
+        });
     }
 
-    private boolean isThreadTerminated(final WeakReference<Thread> threadRef) {
-        final Thread thread = threadRef.get();
-        return thread == null || thread.getState() == State.TERMINATED;
+    /**
+     * Creates the (unstarted) thread that backs the executor of a single state machine.
+     *
+     * @param threadName
+     *            The name of the thread.
+     * @param runnable
+     *            The runnable to be executed by the thread.
+     * @return The created thread.
+     */
+    protected Thread createThread(final String threadName, final Runnable runnable) {
+        return new Thread(runnable, threadName);
     }
 }
@@ -0,0 +1,127 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decorator for a {@link StateMachineExecutionFactory} that periodically flushes a durable store of the states, like
+ * a {@code StateMachineSlotStore}, the state machines commit to after their ticks.
+ *
+ * The state machines only write to the store, the flush syncs all commits of the period at once, so a crash loses at
+ * most the commits of one period. Releasing an executor schedules an additional flush, so the last commits of a
+ * disposed state machine are durable without waiting for the period. The release does not wait for that flush, and
+ * releases while a flush is pending share it.
+ *
+ * The flushes are run by a daemon thread. Call {@link #shutdown()} once the factory is no longer used, which flushes
+ * the store a last time.
+ */
+public class StateMachineFlushingExecutionFactory extends ForwardingStateMachineExecutionFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StateMachineFlushingExecutionFactory.class);
+
+    private final Flushable store;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+
+    /**
+     * Creates a new factory.
+     *
+     * @param delegate
+     *            The factory that creates the executors.
+     * @param store
+     *            The store to flush.
+     * @param period
+     *            The period between two flushes, which is the maximum time a commit is not durable.
+     * @param timeUnit
+     *            The {@link TimeUnit} of the period.
+     */
+    public StateMachineFlushingExecutionFactory(final StateMachineExecutionFactory delegate, final Flushable store,
+        final long period, final TimeUnit timeUnit) {
+        super(delegate);
+        if (period <= 0) {
+            throw new IllegalArgumentException("Flush period must be positive: " + period);
+        }
+        this.store = Objects.requireNonNull(store);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "StateMachine-Flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, period, period, timeUnit);
+    }
+
+    @Override
+    public void releaseExecutor(final ScheduledExecutorService executor) {
+        super.releaseExecutor(executor);
+        if (flushPending.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    // Reset before flushing, releases during the flush schedule the next one
+                    flushPending.set(false);
+                    flushQuietly();
+                });
+            } catch (final RejectedExecutionException e) {
+                // Shut down, flush in the caller as there is no flusher anymore
+                flushPending.set(false);
+                flushQuietly();
+            }
+        }
+    }
+
+    /**
+     * Flushes the store immediately, e.g. after a commit that must not be lost.
+     *
+     * @throws IOException
+     *             if the store cannot be flushed.
+     */
+    public void flush() throws IOException {
+        store.flush();
+    }
+
+    /**
+     * Stops the periodic flushes and flushes the store a last time.
+     *
+     * @throws IOException
+     *             if the store cannot be flushed.
+     */
+    public void shutdown() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        store.flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            store.flush();
+        } catch (final IOException | RuntimeException e) {
+            // Keep flushing, the next flush syncs the commits again
+            LOG.error("Cannot flush the state store", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutManager;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorator for a {@link StateMachineExecutionFactory} that creates {@link StateMachineLazyTimeoutManagerImpl}s,
+ * whose restart only moves the deadline of the timeout instead of rescheduling it in the executor.
+ */
+public class StateMachineLazyTimeoutExecutionFactory extends ForwardingStateMachineExecutionFactory {
+
+    /**
+     * Creates a new factory.
+     *
+     * @param delegate
+     *            The factory that creates the executors.
+     */
+    public StateMachineLazyTimeoutExecutionFactory(final StateMachineExecutionFactory delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public StateMachineTimeoutManager createTimeout(final ScheduledExecutorService executor, final String timeoutId,
+        final long delay, final TimeUnit timeUnit, final Runnable timeoutAction, final boolean autoStart) {
+        return new StateMachineLazyTimeoutManagerImpl(executor, delay, timeUnit, timeoutAction, autoStart);
+    }
+}
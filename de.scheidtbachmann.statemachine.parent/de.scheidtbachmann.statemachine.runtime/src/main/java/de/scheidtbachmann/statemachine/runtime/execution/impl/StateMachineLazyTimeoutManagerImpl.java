@@ -0,0 +1,150 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timeout manager for frequently restarted timeouts, e.g. inactivity timeouts that are restarted on every event.
+ * After the time has elapsed the given action is executed in the execution context of the state machine.
+ *
+ * In contrast to {@link StateMachineTimeoutManagerImpl}, restarting the timeout does not cancel and reschedule a task
+ * but only moves the deadline. At most one wake-up task is scheduled in the executor at any time. When it wakes up
+ * before the current deadline, it schedules itself again for the remaining time. Restarting a running timeout is
+ * therefore lock-free and does not allocate. Cancelling only marks the timeout as stopped, the wake-up task is
+ * discarded once it is due.
+ */
+public class StateMachineLazyTimeoutManagerImpl implements StateMachineTimeoutManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StateMachineLazyTimeoutManagerImpl.class);
+
+    private static final int STOPPED = 0;
+    private static final int RUNNING = 1;
+
+    private final ScheduledExecutorService executor;
+    private final Runnable timeoutAction;
+    private final long delayNanos;
+    private final Runnable wakeUpTask = this::wakeUp;
+
+    private final AtomicInteger state = new AtomicInteger(STOPPED);
+    private final AtomicBoolean wakeUpScheduled = new AtomicBoolean(false);
+    private volatile long deadline;
+
+    /**
+     * Creates a new StateMachineLazyTimeoutManagerImpl.
+     *
+     * @param executor
+     *            the executor to use for timeouts
+     * @param delay
+     *            the delay for this timeout
+     * @param timeUnit
+     *            the time unit for the delay of this timeout
+     * @param timeoutAction
+     *            the action to perform on timeout
+     * @param autoStart
+     *            Flag to control whether the timeout should be immediately started
+     */
+    public StateMachineLazyTimeoutManagerImpl(final ScheduledExecutorService executor, final long delay,
+        final TimeUnit timeUnit, final Runnable timeoutAction, final boolean autoStart) {
+        this.executor = executor;
+        this.timeoutAction = timeoutAction;
+        this.delayNanos = timeUnit.toNanos(delay);
+        if (autoStart) {
+            start();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return state.get() == RUNNING;
+    }
+
+    @Override
+    public void start() {
+        if (state.get() == STOPPED) {
+            deadline = System.nanoTime() + delayNanos;
+            if (state.compareAndSet(STOPPED, RUNNING)) {
+                ensureWakeUpScheduled();
+            }
+        }
+    }
+
+    @Override
+    public void restart() {
+        deadline = System.nanoTime() + delayNanos;
+        state.set(RUNNING);
+        ensureWakeUpScheduled();
+    }
+
+    @Override
+    public void cancel() {
+        state.set(STOPPED);
+    }
+
+    private void ensureWakeUpScheduled() {
+        if (wakeUpScheduled.compareAndSet(false, true)) {
+            scheduleWakeUp(deadline - System.nanoTime());
+        }
+    }
+
+    private void scheduleWakeUp(final long remainingNanos) {
+        try {
+            executor.schedule(wakeUpTask, Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch (final RejectedExecutionException e) {
+            LOG.debug("Executor rejected timeout, timeout is stopped", e);
+            state.set(STOPPED);
+            wakeUpScheduled.set(false);
+        }
+    }
+
+    private void wakeUp() {
+        if (state.get() == RUNNING) {
+            final long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos > 0) {
+                // Restarted in the meantime, sleep again until the current deadline
+                scheduleWakeUp(remainingNanos);
+                return;
+            }
+            if (state.compareAndSet(RUNNING, STOPPED)) {
+                releaseWakeUp();
+                execute();
+                return;
+            }
+        }
+        releaseWakeUp();
+    }
+
+    private void releaseWakeUp() {
+        wakeUpScheduled.set(false);
+        // The timeout might have been started concurrently and relies on this wake-up task
+        if (state.get() == RUNNING) {
+            ensureWakeUpScheduled();
+        }
+    }
+
+    private void execute() {
+        try {
+            timeoutAction.run();
+        } catch (final Throwable t) {
+            LOG.error("Exception in scheduled code", t);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of the {@link StateMachineExecutionFactory} that multiplexes many state machines onto a small,
+ * shared pool of carrier threads.
+ *
+ * Each call to {@link #createExecutor(String)} returns a lightweight strand: an ordered mailbox that is drained by
+ * at most one carrier thread at a time. Tasks of one state machine are therefore still executed one after another
+ * and in submission order, but an idle state machine does not hold on to a parked platform thread.
+ * Delayed tasks are kept by a single shared timer thread and handed over to the owning strand when they are due.
+ *
+ * The carrier and timer threads are daemon threads. Call {@link #shutdown()} once the factory is no longer used.
+ * The carrier threads are kept until every strand has executed its queued tasks.
+ */
+public class StateMachineStrandExecutionFactory implements StateMachineExecutionFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StateMachineStrandExecutionFactory.class);
+
+    private final ExecutorService carrierPool;
+    private final ScheduledThreadPoolExecutor timer;
+    private final ThreadLocal<StateMachineStrandExecutor> currentStrand = new ThreadLocal<>();
+    private final Set<StateMachineStrandExecutor> strands = ConcurrentHashMap.newKeySet();
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a new factory with one carrier thread per available processor.
+     */
+    public StateMachineStrandExecutionFactory() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new factory with the given number of carrier threads.
+     *
+     * @param parallelism
+     *            The number of carrier threads shared by all strands created by this factory.
+     */
+    public StateMachineStrandExecutionFactory(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+        }
+        carrierPool = Executors.newFixedThreadPool(parallelism, newDaemonThreadFactory("StateMachine-Carrier-%d"));
+        timer = new ScheduledThreadPoolExecutor(1, newDaemonThreadFactory("StateMachine-Timer-%d"));
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public ScheduledExecutorService createExecutor(final String nameFragment) {
+        final StateMachineStrandExecutor strand =
+            new StateMachineStrandExecutor(nameFragment, carrierPool, timer, currentStrand, this::strandTerminated);
+        strands.add(strand);
+        if (shutdown) {
+            strands.remove(strand);
+            throw new RejectedExecutionException("Strand execution factory has been shut down");
+        }
+        return strand;
+    }
+
+    @Override
+    public void releaseExecutor(final ScheduledExecutorService executor) {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public StateMachineTimeoutManager createTimeout(final ScheduledExecutorService executor, final String timeoutId,
+        final long delay, final TimeUnit timeUnit, final Runnable timeoutAction, final boolean autoStart) {
+        return new StateMachineTimeoutManagerImpl(executor, delay, timeUnit, timeoutAction, autoStart);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * For this factory the check succeeds only while the caller is executing a task of one of the strands created by
+     * this factory.
+     */
+    @Override
+    public boolean isRunningInExecutor() {
+        return currentStrand.get() != null;
+    }
+
+    /**
+     * Shuts down all strands created by this factory as well as the shared carrier and timer threads.
+     * Tasks that are already queued in a strand are still executed, delayed tasks are dropped and new tasks are
+     * rejected. The carrier threads are stopped as soon as the last strand has drained its mailbox.
+     */
+    public void shutdown() {
+        shutdown = true;
+        timer.shutdownNow();
+        for (final StateMachineStrandExecutor strand : strands) {
+            strand.shutdown();
+        }
+        if (strands.isEmpty()) {
+            carrierPool.shutdown();
+        }
+    }
+
+    private void strandTerminated(final StateMachineStrandExecutor strand) {
+        strands.remove(strand);
+        if (shutdown && strands.isEmpty()) {
+            carrierPool.shutdown();
+        }
+    }
+
+    private static ThreadFactory newDaemonThreadFactory(final String nameFormat) {
+        final AtomicInteger threadCounter = new AtomicInteger();
+        return runnable -> {
+            final Thread createdThread =
+                new Thread(runnable, String.format(nameFormat, threadCounter.incrementAndGet()));
+            createdThread.setDaemon(true);
+            createdThread.setUncaughtExceptionHandler((thread, throwable) -> LOG
+                .error(String.format("Uncaught exception in Thread (%s)", thread), throwable));
+            return createdThread;
+        };
+    }
+}
@@ -0,0 +1,301 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Serial executor ("strand") for a single state machine that borrows its thread from a shared carrier pool.
+ *
+ * Tasks are collected in an ordered mailbox. Whenever the mailbox becomes non-empty, the strand schedules itself
+ * once on the carrier pool and then drains a bounded number of tasks before handing the carrier back. This
+ * guarantees that at most one task of the strand is executed at any time, in submission order.
+ * The carrier pool must not be shut down before the strand has terminated, as a strand with queued tasks relies on
+ * being able to reschedule itself.
+ */
+class StateMachineStrandExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StateMachineStrandExecutor.class);
+
+    /** Upper bound of tasks processed in one turn, to keep the carrier threads fair between strands. */
+    private static final int MAX_TASKS_PER_TURN = 64;
+
+    private static final int IDLE = 0;
+    private static final int SCHEDULED = 1;
+    private static final int TERMINATED = 2;
+
+    private final String name;
+    private final Executor carrier;
+    private final ScheduledExecutorService timer;
+    private final ThreadLocal<StateMachineStrandExecutor> currentStrand;
+    private final Consumer<StateMachineStrandExecutor> terminationListener;
+
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private final Runnable turn = this::runTurn;
+    private final CountDownLatch termination = new CountDownLatch(1);
+    private volatile boolean shutdown;
+
+    StateMachineStrandExecutor(final String name, final Executor carrier, final ScheduledExecutorService timer,
+        final ThreadLocal<StateMachineStrandExecutor> currentStrand,
+        final Consumer<StateMachineStrandExecutor> terminationListener) {
+        this.name = name;
+        this.carrier = carrier;
+        this.timer = timer;
+        this.currentStrand = currentStrand;
+        this.terminationListener = terminationListener;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        Objects.requireNonNull(command);
+        if (shutdown) {
+            throw new RejectedExecutionException(String.format("Strand %s has been shut down", name));
+        }
+        mailbox.offer(command);
+        if (shutdown && mailbox.remove(command)) {
+            throw new RejectedExecutionException(String.format("Strand %s has been shut down", name));
+        }
+        try {
+            scheduleTurn();
+        } catch (final RejectedExecutionException e) {
+            mailbox.remove(command);
+            throw e;
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+        Objects.requireNonNull(command);
+        return arm(new DelayedTask<>(Executors.callable(command, null), 0), unit.toNanos(delay));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(final Callable<V> callable, final long delay, final TimeUnit unit) {
+        Objects.requireNonNull(callable);
+        return arm(new DelayedTask<>(callable, 0), unit.toNanos(delay));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable command, final long initialDelay, final long period,
+        final TimeUnit unit) {
+        Objects.requireNonNull(command);
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        return arm(new DelayedTask<>(Executors.callable(command, null), unit.toNanos(period)),
+            unit.toNanos(initialDelay));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable command, final long initialDelay, final long delay,
+        final TimeUnit unit) {
+        Objects.requireNonNull(command);
+        if (delay <= 0) {
+            throw new IllegalArgumentException("Delay must be positive");
+        }
+        return arm(new DelayedTask<>(Executors.callable(command, null), -unit.toNanos(delay)),
+            unit.toNanos(initialDelay));
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        tryTerminate();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * A task that is currently executed is not interrupted, as the executing carrier thread is shared with other
+     * strands.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        final List<Runnable> pendingTasks = new ArrayList<>();
+        Runnable task;
+        while ((task = mailbox.poll()) != null) {
+            pendingTasks.add(task);
+        }
+        tryTerminate();
+        return pendingTasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return state.get() == TERMINATED;
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return termination.await(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StateMachineStrand-%s", name);
+    }
+
+    private <V> DelayedTask<V> arm(final DelayedTask<V> task, final long delayNanos) {
+        if (shutdown) {
+            throw new RejectedExecutionException(String.format("Strand %s has been shut down", name));
+        }
+        task.arm(delayNanos);
+        return task;
+    }
+
+    private void scheduleTurn() {
+        if (state.compareAndSet(IDLE, SCHEDULED)) {
+            try {
+                carrier.execute(turn);
+            } catch (final RejectedExecutionException e) {
+                state.set(IDLE);
+                throw e;
+            }
+        }
+    }
+
+    private void runTurn() {
+        currentStrand.set(this);
+        try {
+            for (int i = 0; i < MAX_TASKS_PER_TURN; i++) {
+                final Runnable task = mailbox.poll();
+                if (task == null) {
+                    break;
+                }
+                runTask(task);
+            }
+        } finally {
+            currentStrand.set(null);
+            state.set(IDLE);
+            if (mailbox.isEmpty()) {
+                tryTerminate();
+            } else {
+                scheduleTurn();
+            }
+        }
+    }
+
+    private void runTask(final Runnable task) {
+        try {
+            task.run();
+        } catch (final Throwable t) {
+            LOG.error(String.format("Uncaught exception in strand (%s)", name), t);
+        }
+    }
+
+    private void tryTerminate() {
+        if (shutdown && mailbox.isEmpty() && state.compareAndSet(IDLE, TERMINATED)) {
+            termination.countDown();
+            terminationListener.accept(this);
+        }
+    }
+
+    /**
+     * Task that is kept by the shared timer until it is due and then executed on the owning strand.
+     *
+     * @param <V>
+     *            The result type of the task.
+     */
+    private class DelayedTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+
+        /** Positive for fixed rate, negative for fixed delay, zero for one-shot tasks (in nanoseconds). */
+        private final long period;
+        private final Runnable handOver = this::handOver;
+        private volatile long triggerTime;
+        private volatile ScheduledFuture<?> timerFuture;
+
+        DelayedTask(final Callable<V> callable, final long period) {
+            super(callable);
+            this.period = period;
+        }
+
+        void arm(final long delayNanos) {
+            triggerTime = System.nanoTime() + delayNanos;
+            timerFuture = timer.schedule(handOver, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void handOver() {
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                execute(this);
+            } catch (final RejectedExecutionException e) {
+                super.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (period == 0) {
+                super.run();
+            } else if (runAndReset() && !shutdown) {
+                final long nextDelay = period > 0 ? triggerTime + period - System.nanoTime() : -period;
+                try {
+                    arm(Math.max(0, nextDelay));
+                } catch (final RejectedExecutionException e) {
+                    super.cancel(false);
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            final ScheduledFuture<?> pendingTimerFuture = timerFuture;
+            if (pendingTimerFuture != null) {
+                pendingTimerFuture.cancel(false);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(triggerTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
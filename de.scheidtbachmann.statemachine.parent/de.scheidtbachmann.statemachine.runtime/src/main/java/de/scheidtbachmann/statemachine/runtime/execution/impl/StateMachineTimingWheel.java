@@ -0,0 +1,198 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical timing wheel that keeps track of the deadlines of {@link StateMachineTimingWheelTimeoutManager}s.
+ *
+ * The wheel consists of {@value #LEVELS} levels with {@value #SLOTS} slots each. A slot of the lowest level spans one
+ * tick, a slot of each higher level spans all slots of the level below. Timeouts are kept in the slot matching their
+ * expiration tick and are moved down one level whenever the lower level wraps around, until they expire in the lowest
+ * level.
+ *
+ * The wheel is driven by a single daemon thread, which is the only thread accessing the slots. Timeout managers hand
+ * themselves over through a lock-free pending stack that is drained at every tick, so arming a timeout is a constant
+ * time operation for the caller and does not allocate. Timeouts are never removed from the slots eagerly: cancelled
+ * and restarted timeouts are dropped or re-inserted once their slot is reached.
+ */
+class StateMachineTimingWheel {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StateMachineTimingWheel.class);
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+
+    private final long tickNanos;
+    private final long startTime;
+    private final StateMachineTimingWheelTimeoutManager[][] slots =
+        new StateMachineTimingWheelTimeoutManager[LEVELS][SLOTS];
+    private final AtomicReference<StateMachineTimingWheelTimeoutManager> pending = new AtomicReference<>();
+    private final Thread ticker;
+    private volatile boolean stopped;
+
+    // Only accessed by the ticker thread
+    private long currentTick;
+
+    /**
+     * Creates a new timing wheel and starts its ticker thread.
+     *
+     * @param tickDuration
+     *            The duration of one tick, which is the resolution of the wheel.
+     * @param timeUnit
+     *            The {@link TimeUnit} of the tick duration.
+     * @param threadName
+     *            The name of the ticker thread.
+     */
+    StateMachineTimingWheel(final long tickDuration, final TimeUnit timeUnit, final String threadName) {
+        tickNanos = timeUnit.toNanos(tickDuration);
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        startTime = System.nanoTime();
+        ticker = new Thread(this::run, threadName);
+        ticker.setDaemon(true);
+        ticker.setUncaughtExceptionHandler(
+            (thread, throwable) -> LOG.error(String.format("Uncaught exception in Thread (%s)", thread), throwable));
+        ticker.start();
+    }
+
+    /**
+     * Hands over a timeout manager to the wheel. Must only be called by a manager that is not yet scheduled.
+     *
+     * @param manager
+     *            The timeout manager to schedule according to its current deadline.
+     */
+    void schedule(final StateMachineTimingWheelTimeoutManager manager) {
+        StateMachineTimingWheelTimeoutManager head;
+        do {
+            head = pending.get();
+            manager.nextPending = head;
+        } while (!pending.compareAndSet(head, manager));
+    }
+
+    /**
+     * Stops the ticker thread. Scheduled timeouts will no longer expire.
+     */
+    void stop() {
+        stopped = true;
+        LockSupport.unpark(ticker);
+    }
+
+    private void run() {
+        while (!stopped) {
+            drainPending();
+            final long now = System.nanoTime();
+            final long nowTick = (now - startTime) / tickNanos;
+            while (currentTick < nowTick) {
+                currentTick++;
+                advance(now);
+            }
+            LockSupport.parkNanos(this, startTime + (currentTick + 1) * tickNanos - System.nanoTime());
+        }
+    }
+
+    private void drainPending() {
+        StateMachineTimingWheelTimeoutManager manager = pending.getAndSet(null);
+        while (manager != null) {
+            final StateMachineTimingWheelTimeoutManager next = manager.nextPending;
+            manager.nextPending = null;
+            reinsertOrDrop(manager);
+            manager = next;
+        }
+    }
+
+    private void advance(final long now) {
+        // Cascade the higher levels whose lower levels just wrapped around, from top to bottom
+        int wrappedLevels = 0;
+        while (wrappedLevels < LEVELS - 1 && (currentTick & ((1L << (SLOT_BITS * (wrappedLevels + 1))) - 1)) == 0) {
+            wrappedLevels++;
+        }
+        for (int level = wrappedLevels; level > 0; level--) {
+            final int slot = (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+            StateMachineTimingWheelTimeoutManager manager = takeSlot(level, slot);
+            while (manager != null) {
+                final StateMachineTimingWheelTimeoutManager next = manager.nextInSlot;
+                manager.nextInSlot = null;
+                // Timeouts expiring in this very tick go to the lowest level slot that is processed next
+                insert(manager, currentTick);
+                manager = next;
+            }
+        }
+
+        StateMachineTimingWheelTimeoutManager manager = takeSlot(0, (int) currentTick & SLOT_MASK);
+        while (manager != null) {
+            final StateMachineTimingWheelTimeoutManager next = manager.nextInSlot;
+            manager.nextInSlot = null;
+            if (manager.isArmed() && manager.getDeadline() - now <= 0) {
+                manager.expire();
+                unschedule(manager);
+            } else {
+                reinsertOrDrop(manager);
+            }
+            manager = next;
+        }
+    }
+
+    private StateMachineTimingWheelTimeoutManager takeSlot(final int level, final int slot) {
+        final StateMachineTimingWheelTimeoutManager head = slots[level][slot];
+        slots[level][slot] = null;
+        return head;
+    }
+
+    private void reinsertOrDrop(final StateMachineTimingWheelTimeoutManager manager) {
+        if (manager.isArmed()) {
+            insert(manager, currentTick + 1);
+        } else {
+            unschedule(manager);
+        }
+    }
+
+    private void unschedule(final StateMachineTimingWheelTimeoutManager manager) {
+        // The manager might have been armed again concurrently and relies on the wheel to keep it scheduled
+        if (!manager.releaseFromWheel()) {
+            insert(manager, currentTick + 1);
+        }
+    }
+
+    private void insert(final StateMachineTimingWheelTimeoutManager manager, final long earliestTick) {
+        // Round up, so a timeout never expires before its deadline
+        final long deadlineOffset = manager.getDeadline() - startTime;
+        long expirationTick = deadlineOffset <= 0 ? 0 : (deadlineOffset + tickNanos - 1) / tickNanos;
+        if (expirationTick < earliestTick) {
+            expirationTick = earliestTick;
+        }
+        final long ticksToGo = expirationTick - currentTick;
+
+        int level = 0;
+        while (level < LEVELS - 1 && ticksToGo >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        final int slot;
+        if (ticksToGo >= 1L << (SLOT_BITS * LEVELS)) {
+            // Beyond the range of the wheel: park in the last slot visited of the top level and re-insert from there
+            slot = (int) ((currentTick >>> (SLOT_BITS * level)) - 1) & SLOT_MASK;
+        } else {
+            slot = (int) (expirationTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+        }
+        manager.nextInSlot = slots[level][slot];
+        slots[level][slot] = manager;
+    }
+}
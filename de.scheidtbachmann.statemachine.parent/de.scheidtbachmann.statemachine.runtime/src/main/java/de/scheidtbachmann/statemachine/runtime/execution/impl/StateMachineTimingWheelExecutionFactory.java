@@ -0,0 +1,76 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutManager;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorator for a {@link StateMachineExecutionFactory} that tracks all timeouts in one shared hierarchical timing
+ * wheel instead of scheduling a task per timeout in the executor of the state machine.
+ *
+ * Starting, restarting and cancelling such a timeout is a constant time operation, which pays off for large numbers
+ * of armed timeouts, e.g. watchdogs that are restarted on every tick. The resolution of the timeouts is the tick
+ * duration of the wheel; a timeout never expires early, but may expire up to one tick late. The timeout actions are
+ * still executed in the executor of the state machine.
+ *
+ * The wheel is driven by a daemon thread. Call {@link #shutdown()} once the factory is no longer used.
+ */
+public class StateMachineTimingWheelExecutionFactory extends ForwardingStateMachineExecutionFactory {
+
+    /** Default resolution of the timeouts in milliseconds. */
+    public static final long DEFAULT_TICK_MILLIS = 10;
+
+    private final StateMachineTimingWheel wheel;
+
+    /**
+     * Creates a new factory with the default tick duration of {@value #DEFAULT_TICK_MILLIS} ms.
+     *
+     * @param delegate
+     *            The factory that creates the executors.
+     */
+    public StateMachineTimingWheelExecutionFactory(final StateMachineExecutionFactory delegate) {
+        this(delegate, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a new factory.
+     *
+     * @param delegate
+     *            The factory that creates the executors.
+     * @param tickDuration
+     *            The duration of one tick of the wheel, which is the resolution of the timeouts.
+     * @param timeUnit
+     *            The {@link TimeUnit} of the tick duration.
+     */
+    public StateMachineTimingWheelExecutionFactory(final StateMachineExecutionFactory delegate,
+        final long tickDuration, final TimeUnit timeUnit) {
+        super(delegate);
+        wheel = new StateMachineTimingWheel(tickDuration, timeUnit, "StateMachine-TimingWheel");
+    }
+
+    @Override
+    public StateMachineTimeoutManager createTimeout(final ScheduledExecutorService executor, final String timeoutId,
+        final long delay, final TimeUnit timeUnit, final Runnable timeoutAction, final boolean autoStart) {
+        return new StateMachineTimingWheelTimeoutManager(wheel, executor, delay, timeUnit, timeoutAction, autoStart);
+    }
+
+    /**
+     * Stops the timing wheel. Running timeouts will no longer expire.
+     */
+    public void shutdown() {
+        wheel.stop();
+    }
+}
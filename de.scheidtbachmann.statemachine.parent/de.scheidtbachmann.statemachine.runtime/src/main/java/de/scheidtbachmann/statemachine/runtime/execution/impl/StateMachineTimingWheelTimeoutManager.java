@@ -0,0 +1,159 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timeout manager whose deadline is tracked by a shared {@link StateMachineTimingWheel}.
+ * After the time has elapsed the given action is executed in the execution context of the state machine.
+ *
+ * Starting, restarting and cancelling the timeout only update the state of the manager and never search or modify
+ * any queue, so all of them are constant time operations. Each manager is scheduled in the wheel at most once, so
+ * frequently restarted or cancelled timeouts do not leave any garbage behind.
+ */
+public class StateMachineTimingWheelTimeoutManager implements StateMachineTimeoutManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StateMachineTimingWheelTimeoutManager.class);
+
+    private static final int STOPPED = 0;
+    private static final int RUNNING = 1;
+    private static final int FIRING = 2;
+
+    private final StateMachineTimingWheel wheel;
+    private final Executor executor;
+    private final Runnable timeoutAction;
+    private final long delayNanos;
+    private final Runnable fireTask = this::fire;
+
+    private final AtomicInteger state = new AtomicInteger(STOPPED);
+    private final AtomicBoolean scheduledInWheel = new AtomicBoolean(false);
+    private volatile long deadline;
+
+    // Links used by the wheel, only accessed by its ticker thread after the hand over
+    StateMachineTimingWheelTimeoutManager nextPending;
+    StateMachineTimingWheelTimeoutManager nextInSlot;
+
+    /**
+     * Creates a new StateMachineTimingWheelTimeoutManager.
+     *
+     * @param wheel
+     *            the timing wheel tracking the deadline
+     * @param executor
+     *            the executor to run the timeout action in
+     * @param delay
+     *            the delay for this timeout
+     * @param timeUnit
+     *            the time unit for the delay of this timeout
+     * @param timeoutAction
+     *            the action to perform on timeout
+     * @param autoStart
+     *            Flag to control whether the timeout should be immediately started
+     */
+    StateMachineTimingWheelTimeoutManager(final StateMachineTimingWheel wheel, final Executor executor,
+        final long delay, final TimeUnit timeUnit, final Runnable timeoutAction, final boolean autoStart) {
+        this.wheel = wheel;
+        this.executor = executor;
+        this.timeoutAction = timeoutAction;
+        this.delayNanos = timeUnit.toNanos(delay);
+        if (autoStart) {
+            start();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return state.get() != STOPPED;
+    }
+
+    @Override
+    public void start() {
+        if (state.get() == STOPPED) {
+            deadline = System.nanoTime() + delayNanos;
+            if (state.compareAndSet(STOPPED, RUNNING)) {
+                ensureScheduledInWheel();
+            }
+        }
+    }
+
+    @Override
+    public void restart() {
+        deadline = System.nanoTime() + delayNanos;
+        // Also supersedes an expiry that has been dispatched to the executor, but not yet been executed
+        state.set(RUNNING);
+        ensureScheduledInWheel();
+    }
+
+    @Override
+    public void cancel() {
+        state.set(STOPPED);
+    }
+
+    boolean isArmed() {
+        return state.get() == RUNNING;
+    }
+
+    long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Called by the wheel when the deadline has been reached, dispatches the timeout action to the executor.
+     */
+    void expire() {
+        if (state.compareAndSet(RUNNING, FIRING)) {
+            try {
+                executor.execute(fireTask);
+            } catch (final RejectedExecutionException e) {
+                LOG.debug("Executor rejected timeout action, timeout is stopped", e);
+                state.compareAndSet(FIRING, STOPPED);
+            }
+        }
+    }
+
+    /**
+     * Called by the wheel when it drops the manager from its slots.
+     *
+     * @return {@code true} if the manager is no longer scheduled in the wheel, {@code false} if it has been armed
+     *         again in the meantime and must stay in the wheel.
+     */
+    boolean releaseFromWheel() {
+        scheduledInWheel.set(false);
+        return !(isArmed() && scheduledInWheel.compareAndSet(false, true));
+    }
+
+    private void ensureScheduledInWheel() {
+        if (scheduledInWheel.compareAndSet(false, true)) {
+            wheel.schedule(this);
+        }
+    }
+
+    private void fire() {
+        // The timeout might have been cancelled or restarted after the expiry has been dispatched
+        if (state.compareAndSet(FIRING, STOPPED)) {
+            try {
+                timeoutAction.run();
+            } catch (final Throwable t) {
+                LOG.error("Exception in scheduled code", t);
+            }
+        }
+    }
+}
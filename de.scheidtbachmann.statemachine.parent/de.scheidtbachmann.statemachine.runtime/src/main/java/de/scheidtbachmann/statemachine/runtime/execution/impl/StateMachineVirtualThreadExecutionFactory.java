@@ -0,0 +1,56 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineExecutionFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of the {@link StateMachineExecutionFactory} that backs the executor of each state machine with a
+ * virtual thread instead of a platform thread.
+ *
+ * The executors behave like the ones of {@link StateMachineExecutionFactoryService}: Tasks of one state machine are
+ * executed one after another and scheduled timeouts are supported. Context calls that block inside a tick, e.g. on
+ * I/O, unmount the virtual thread and therefore do not occupy a platform thread while waiting.
+ *
+ * Virtual threads require Java 21 or newer. On older runtimes this factory logs a warning and falls back to platform
+ * threads.
+ */
+public class StateMachineVirtualThreadExecutionFactory extends StateMachineExecutionFactoryService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StateMachineVirtualThreadExecutionFactory.class);
+
+    /**
+     * Creates a new factory.
+     */
+    public StateMachineVirtualThreadExecutionFactory() {
+        if (!isUsingVirtualThreads()) {
+            LOG.warn("Virtual threads are not supported by this runtime, falling back to platform threads");
+        }
+    }
+
+    /**
+     * Checks whether the executors created by this factory are actually backed by virtual threads.
+     *
+     * @return {@code true} if virtual threads are used, {@code false} if the factory falls back to platform threads.
+     */
+    public boolean isUsingVirtualThreads() {
+        return VirtualThreadSupport.isSupported();
+    }
+
+    @Override
+    protected Thread createThread(final String threadName, final Runnable runnable) {
+        return VirtualThreadSupport.newThread(threadName, runnable);
+    }
+}
@@ -0,0 +1,47 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+/**
+ * Access to virtual threads for runtimes that do not support them.
+ *
+ * This is the Java 11 variant, which always falls back to platform threads. On Java 21 and newer the class is
+ * replaced by the variant in {@code META-INF/versions/21} of the multi-release jar.
+ */
+final class VirtualThreadSupport {
+
+    private VirtualThreadSupport() {
+        // Utility class
+    }
+
+    /**
+     * Checks whether virtual threads are available in the running JVM.
+     *
+     * @return Always {@code false} for this variant.
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Creates an unstarted thread.
+     *
+     * @param threadName
+     *            The name of the thread.
+     * @param runnable
+     *            The runnable to be executed by the thread.
+     * @return A new platform thread.
+     */
+    static Thread newThread(final String threadName, final Runnable runnable) {
+        return new Thread(runnable, threadName);
+    }
+}
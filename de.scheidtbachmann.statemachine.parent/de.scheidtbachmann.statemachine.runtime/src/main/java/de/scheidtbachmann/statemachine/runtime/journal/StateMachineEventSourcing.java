@@ -0,0 +1,238 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.journal;
+
+import de.scheidtbachmann.statemachine.runtime.StateMachinePersistable;
+import de.scheidtbachmann.statemachine.runtime.passivation.StateMachineStore;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Event sourcing for state machines with ids from 0 to the machine count, built of a {@link StateMachineJournal} of
+ * the applied event masks and snapshots of the states in a {@link StateMachineStore}.
+ *
+ * The executor of each state machine records the event mask before every tick with
+ * {@link #record(int, long)} and calls {@link #afterTick(int, StateMachinePersistable)} after the tick, which takes a
+ * snapshot every snapshot interval ticks, e.g.
+ *
+ * <pre>
+ * machine.apply(() -&gt; eventSourcing.record(id, mask), mask, () -&gt; eventSourcing.afterTick(id, machine));
+ * </pre>
+ *
+ * Each snapshot holds the sequence number of the last record it covers. {@link #recover(IntFunction, ObjLongConsumer)}
+ * restores the snapshots and replays the records after them, {@link #truncate()} deletes the journal segments that
+ * are covered by the snapshots of all state machines. The records are made durable by syncing the journal, e.g.
+ * periodically as group commit with a {@code StateMachineFlushingExecutionFactory}.
+ *
+ * @param <M>
+ *            The type of the state machines.
+ */
+public class StateMachineEventSourcing<M extends StateMachinePersistable> {
+
+    // Last sequence number of a state machine whose record is being appended, see record
+    private static final long RECORDING = Long.MAX_VALUE;
+
+    private final StateMachineJournal journal;
+    private final StateMachineStore<Integer> snapshots;
+    private final int machineCount;
+    private final int snapshotInterval;
+
+    // Written by the executor of each state machine, read for the truncation
+    private final AtomicLongArray lastSequences;
+    private final AtomicLongArray snapshotSequences;
+    // Only accessed by the executor of each state machine
+    private final int[] ticksSinceSnapshot;
+
+    /**
+     * Creates the event sourcing.
+     *
+     * @param journal
+     *            The journal of the event masks.
+     * @param snapshots
+     *            The store of the snapshots, by the ids of the state machines.
+     * @param machineCount
+     *            The number of state machines.
+     * @param snapshotInterval
+     *            The number of ticks of a state machine after which {@link #afterTick(int, StateMachinePersistable)}
+     *            takes a snapshot.
+     */
+    public StateMachineEventSourcing(final StateMachineJournal journal, final StateMachineStore<Integer> snapshots,
+        final int machineCount, final int snapshotInterval) {
+        if (machineCount < 0) {
+            throw new IllegalArgumentException("Machine count must not be negative: " + machineCount);
+        }
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive: " + snapshotInterval);
+        }
+        this.journal = journal;
+        this.snapshots = snapshots;
+        this.machineCount = machineCount;
+        this.snapshotInterval = snapshotInterval;
+        lastSequences = new AtomicLongArray(machineCount);
+        snapshotSequences = new AtomicLongArray(machineCount);
+        ticksSinceSnapshot = new int[machineCount];
+    }
+
+    /**
+     * Records the event mask of the next tick of the state machine. Has to be called by the executor of the state
+     * machine before the tick, e.g. as pre execution task.
+     *
+     * @param machineId
+     *            The id of the state machine.
+     * @param eventMask
+     *            The event mask applied in the tick.
+     * @throws UncheckedIOException
+     *             if the journal cannot be extended.
+     */
+    public void record(final int machineId, final long eventMask) {
+        checkMachineId(machineId);
+        final long lastSequence = lastSequences.get(machineId);
+        // Marked before appending, so a concurrent truncation keeps the records after the snapshot until the
+        // sequence number is known
+        lastSequences.set(machineId, RECORDING);
+        try {
+            lastSequences.lazySet(machineId, journal.append(machineId, eventMask));
+        } catch (final IOException e) {
+            lastSequences.set(machineId, lastSequence);
+            throw new UncheckedIOException("Cannot journal the events of state machine " + machineId, e);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the state machine every snapshot interval ticks. Has to be called by the executor of the
+     * state machine after the tick, e.g. as post execution task.
+     *
+     * @param machineId
+     *            The id of the state machine.
+     * @param stateMachine
+     *            The state machine.
+     * @throws UncheckedIOException
+     *             if the snapshot cannot be stored.
+     */
+    public void afterTick(final int machineId, final M stateMachine) {
+        checkMachineId(machineId);
+        if (++ticksSinceSnapshot[machineId] >= snapshotInterval) {
+            snapshot(machineId, stateMachine);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the state machine. Has to be called by the executor of the state machine.
+     *
+     * @param machineId
+     *            The id of the state machine.
+     * @param stateMachine
+     *            The state machine.
+     * @throws UncheckedIOException
+     *             if the snapshot cannot be stored.
+     */
+    public void snapshot(final int machineId, final M stateMachine) {
+        checkMachineId(machineId);
+        final long sequence = lastSequences.get(machineId);
+        final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + stateMachine.getStateSize());
+        buffer.putLong(sequence);
+        stateMachine.writeState(buffer);
+        buffer.flip();
+        try {
+            snapshots.save(machineId, buffer);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot store the snapshot of state machine " + machineId, e);
+        }
+        snapshotSequences.set(machineId, sequence);
+        ticksSinceSnapshot[machineId] = 0;
+    }
+
+    /**
+     * Rebuilds the state machines from their latest snapshots and the journal records after them. Has to be called
+     * before any events are recorded.
+     *
+     * @param stateMachines
+     *            Provides the initialized state machines by their ids.
+     * @param replay
+     *            Applies a recorded event mask to a state machine, typically {@code (machine, mask) ->
+     *            machine.apply(mask)}.
+     * @return the number of replayed records.
+     * @throws IOException
+     *             if a snapshot cannot be loaded.
+     */
+    public long recover(final IntFunction<? extends M> stateMachines, final ObjLongConsumer<? super M> replay)
+        throws IOException {
+        final Object[] recovered = new Object[machineCount];
+        long afterSequence = Long.MAX_VALUE;
+        for (int machineId = 0; machineId < machineCount; machineId++) {
+            final M stateMachine = stateMachines.apply(machineId);
+            recovered[machineId] = stateMachine;
+            final ByteBuffer snapshot = snapshots.load(machineId);
+            long sequence = 0;
+            if (snapshot != null) {
+                sequence = snapshot.getLong();
+                stateMachine.readState(snapshot);
+            }
+            lastSequences.set(machineId, sequence);
+            snapshotSequences.set(machineId, sequence);
+            ticksSinceSnapshot[machineId] = 0;
+            afterSequence = Math.min(afterSequence, sequence);
+        }
+
+        final long[] replayed = new long[1];
+        journal.replay(afterSequence == Long.MAX_VALUE ? 0 : afterSequence, (sequence, machineId, eventMask) -> {
+            checkMachineId(machineId);
+            if (sequence > lastSequences.get(machineId)) {
+                @SuppressWarnings("unchecked")
+                final M stateMachine = (M) recovered[machineId];
+                replay.accept(stateMachine, eventMask);
+                lastSequences.set(machineId, sequence);
+                ticksSinceSnapshot[machineId]++;
+                replayed[0]++;
+            }
+        });
+        return replayed[0];
+    }
+
+    /**
+     * Deletes the journal segments whose records are covered by the snapshots of all state machines. A store of
+     * snapshots that is {@link Flushable} is flushed before, so no records are deleted whose snapshots are not
+     * durable yet.
+     *
+     * @return the number of deleted segments.
+     * @throws IOException
+     *             if the snapshots cannot be flushed or a segment cannot be deleted.
+     */
+    public int truncate() throws IOException {
+        // Read before the state machines: a record appended afterwards is either beyond it or marked as recording
+        long sequence = journal.getLastSequence();
+        for (int machineId = 0; machineId < machineCount; machineId++) {
+            final long snapshotSequence = snapshotSequences.get(machineId);
+            // State machines without records after their snapshot need no records at all
+            if (lastSequences.get(machineId) > snapshotSequence) {
+                sequence = Math.min(sequence, snapshotSequence);
+            }
+        }
+        // Flushed after determining the covered records, later snapshots only cover more records
+        if (snapshots instanceof Flushable) {
+            ((Flushable) snapshots).flush();
+        }
+        return journal.truncate(sequence);
+    }
+
+    private void checkMachineId(final int machineId) {
+        if (machineId < 0 || machineId >= machineCount) {
+            throw new IllegalArgumentException("Unknown state machine id: " + machineId);
+        }
+    }
+}
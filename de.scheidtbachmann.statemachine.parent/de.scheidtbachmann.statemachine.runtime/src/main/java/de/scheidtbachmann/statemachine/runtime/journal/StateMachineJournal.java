@@ -0,0 +1,401 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.journal;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the event sets applied to state machines, in segments of memory-mapped files.
+ *
+ * Every record holds a journal-wide sequence number, the id of the state machine and the event mask of one tick, see
+ * the generated {@code apply(long)}. Appending a record is a memory write into the current segment, a full segment is
+ * followed by a new one. The records are made durable by {@link #sync(long)}, which syncs all records appended so far
+ * at once, so concurrent callers share a single sync (group commit). Segments that are covered by snapshots are
+ * deleted by {@link #truncate(long)}.
+ *
+ * The journal is thread-safe. When it is opened, a record torn by a crash ends the journal and is overwritten by the
+ * next record.
+ */
+public class StateMachineJournal implements Flushable, Closeable {
+
+    /**
+     * Receives the records during a {@link StateMachineJournal#replay(long, RecordHandler) replay}.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+
+        /**
+         * @param sequence
+         *            The sequence number of the record.
+         * @param machineId
+         *            The id of the state machine.
+         * @param eventMask
+         *            The event mask applied in the tick.
+         */
+        void onRecord(long sequence, int machineId, long eventMask);
+    }
+
+    /** Default size of a segment in bytes. */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 2 * Long.BYTES + 2 * Integer.BYTES;
+
+    private static final int MAGIC = 0x534d4a4c;
+    private static final int VERSION = 1;
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int EVENT_MASK_OFFSET = Long.BYTES;
+    private static final int MACHINE_ID_OFFSET = 2 * Long.BYTES;
+    private static final int CHECKSUM_OFFSET = 2 * Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Object syncLock = new Object();
+    // Reused for the checksums, guarded by this
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer checksumBuffer = ByteBuffer.allocate(CHECKSUM_OFFSET).order(ByteOrder.LITTLE_ENDIAN);
+
+    // Retained segments in the order of their sequence numbers, guarded by this
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment tail;
+    private long lastSequence;
+    private volatile long durableSequence;
+
+    /**
+     * Opens the journal with segments of {@value #DEFAULT_SEGMENT_SIZE} bytes.
+     *
+     * @param directory
+     *            The directory of the segments, which is created if it does not exist.
+     * @throws IOException
+     *             if the segments cannot be opened.
+     */
+    public StateMachineJournal(final Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the journal.
+     *
+     * @param directory
+     *            The directory of the segments, which is created if it does not exist.
+     * @param segmentSize
+     *            The size of new segments in bytes.
+     * @throws IOException
+     *             if the segments cannot be opened.
+     */
+    public StateMachineJournal(final Path directory, final int segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_SIZE) {
+            throw new IllegalArgumentException("Segment size is too small: " + segmentSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = HEADER_SIZE + (segmentSize - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+        try {
+            openSegments();
+        } catch (final IOException | RuntimeException e) {
+            closeSegments();
+            throw e;
+        }
+        durableSequence = lastSequence;
+    }
+
+    /**
+     * Appends the event set of a tick.
+     *
+     * @param machineId
+     *            The id of the state machine.
+     * @param eventMask
+     *            The event mask applied in the tick.
+     * @return the sequence number of the record.
+     * @throws IOException
+     *             if a new segment cannot be created.
+     */
+    public synchronized long append(final int machineId, final long eventMask) throws IOException {
+        if (tail == null || tail.count == tail.capacity) {
+            tail = createSegment(lastSequence + 1);
+            segments.add(tail);
+        }
+        final long sequence = ++lastSequence;
+        final int offset = HEADER_SIZE + tail.count * RECORD_SIZE;
+        final ByteBuffer buffer = tail.buffer;
+        buffer.putLong(offset + EVENT_MASK_OFFSET, eventMask);
+        buffer.putInt(offset + MACHINE_ID_OFFSET, machineId);
+        buffer.putInt(offset + CHECKSUM_OFFSET, checksum(sequence, machineId, eventMask));
+        // The sequence is written last, it completes the record
+        buffer.putLong(offset + SEQUENCE_OFFSET, sequence);
+        tail.count++;
+        return sequence;
+    }
+
+    /**
+     * Makes the record with the sequence number and all records before durable. Callers that arrive while a sync is
+     * running wait for it, a single sync then covers all records appended in the meantime.
+     *
+     * @param sequence
+     *            The sequence number of the record.
+     * @throws IOException
+     *             if the segments cannot be synced.
+     */
+    public void sync(final long sequence) throws IOException {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durableSequence >= sequence) {
+                // Synced by the previous caller
+                return;
+            }
+            final long target;
+            final List<Segment> unsynced = new ArrayList<>();
+            synchronized (this) {
+                target = lastSequence;
+                for (final Segment segment : segments) {
+                    if (segment.firstSequence + segment.count > durableSequence + 1) {
+                        unsynced.add(segment);
+                    }
+                }
+            }
+            for (final Segment segment : unsynced) {
+                segment.buffer.force();
+            }
+            durableSequence = target;
+        }
+    }
+
+    /**
+     * Makes all records appended so far durable, see {@link #sync(long)}.
+     */
+    @Override
+    public void flush() throws IOException {
+        sync(getLastSequence());
+    }
+
+    /**
+     * @return the sequence number of the last appended record, 0 if the journal is empty.
+     */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * @return the sequence number up to which the records are durable.
+     */
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    /**
+     * @return the number of retained segments.
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Passes the retained records after the sequence number to the handler, in the order of their sequence numbers.
+     * Records appended during the replay may be skipped.
+     *
+     * @param afterSequence
+     *            The sequence number after which the records are replayed, 0 for all records.
+     * @param handler
+     *            The handler of the records.
+     */
+    public void replay(final long afterSequence, final RecordHandler handler) {
+        final List<Segment> retained;
+        final int tailCount;
+        synchronized (this) {
+            retained = new ArrayList<>(segments);
+            tailCount = tail == null ? 0 : tail.count;
+        }
+        for (final Segment segment : retained) {
+            final int count = segment == retained.get(retained.size() - 1) ? tailCount : segment.count;
+            final ByteBuffer buffer = segment.buffer;
+            final long skipped = Math.max(0, afterSequence + 1 - segment.firstSequence);
+            int offset = HEADER_SIZE + (int) Math.min(count, skipped) * RECORD_SIZE;
+            final int end = HEADER_SIZE + count * RECORD_SIZE;
+            while (offset < end) {
+                handler.onRecord(buffer.getLong(offset + SEQUENCE_OFFSET), buffer.getInt(offset + MACHINE_ID_OFFSET),
+                    buffer.getLong(offset + EVENT_MASK_OFFSET));
+                offset += RECORD_SIZE;
+            }
+        }
+    }
+
+    /**
+     * Deletes the segments whose records all have a sequence number up to the given one. The current segment is
+     * retained.
+     *
+     * @param sequence
+     *            The sequence number up to which the records are no longer needed, e.g. as they are covered by
+     *            snapshots.
+     * @return the number of deleted segments.
+     * @throws IOException
+     *             if a segment cannot be deleted.
+     */
+    public synchronized int truncate(final long sequence) throws IOException {
+        int count = 0;
+        while (segments.size() > 1 && segments.get(1).firstSequence <= sequence + 1) {
+            final Segment segment = segments.remove(0);
+            segment.channel.close();
+            Files.delete(segment.file);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Closes the segments without syncing them, call {@link #flush()} before if required.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closeSegments();
+    }
+
+    private void openSegments() throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        // The zero-padded sequence numbers sort the names in the order of the segments
+        files.sort(null);
+        for (final Path file : files) {
+            if (file == files.get(files.size() - 1) && isUnfinished(file)) {
+                // Created right before a crash, before its header has been written
+                Files.delete(file);
+                break;
+            }
+            final Segment segment = openSegment(file);
+            if (!segments.isEmpty() && segment.firstSequence != lastSequence + 1) {
+                throw new IOException("Journal segment " + file + " does not continue at sequence " + (lastSequence
+                    + 1));
+            }
+            segments.add(segment);
+            tail = segment;
+            lastSequence = segment.firstSequence + segment.count - 1;
+        }
+    }
+
+    private Segment openSegment(final Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a journal segment: " + file);
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Not a journal segment: " + file);
+            }
+            final Segment segment = new Segment(file, channel, buffer, buffer.getLong(2 * Integer.BYTES));
+            final int capacity = segment.capacity;
+            while (segment.count < capacity && isValid(buffer, HEADER_SIZE + segment.count * RECORD_SIZE,
+                segment.firstSequence + segment.count)) {
+                segment.count++;
+            }
+            // Clear torn records after the end, so they cannot reappear behind the next records
+            final int end = HEADER_SIZE + capacity * RECORD_SIZE;
+            for (int offset = HEADER_SIZE + segment.count * RECORD_SIZE; offset < end; offset += Long.BYTES) {
+                if (buffer.getLong(offset) != 0L) {
+                    buffer.putLong(offset, 0L);
+                }
+            }
+            return segment;
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean isUnfinished(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read the complete header
+            }
+            header.flip();
+            while (header.hasRemaining()) {
+                if (header.get() != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private Segment createSegment(final long firstSequence) throws IOException {
+        final Path file = directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            buffer.putInt(0, MAGIC).putInt(Integer.BYTES, VERSION).putLong(2 * Integer.BYTES, firstSequence);
+            return new Segment(file, channel, buffer, firstSequence);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void closeSegments() throws IOException {
+        for (final Segment segment : segments) {
+            segment.channel.close();
+        }
+        segments.clear();
+        tail = null;
+    }
+
+    private boolean isValid(final ByteBuffer buffer, final int offset, final long sequence) {
+        return buffer.getLong(offset + SEQUENCE_OFFSET) == sequence
+            && buffer.getInt(offset + CHECKSUM_OFFSET) == checksum(sequence, buffer.getInt(offset + MACHINE_ID_OFFSET),
+                buffer.getLong(offset + EVENT_MASK_OFFSET));
+    }
+
+    private int checksum(final long sequence, final int machineId, final long eventMask) {
+        checksumBuffer.clear();
+        checksumBuffer.putLong(sequence).putLong(eventMask).putInt(machineId).flip();
+        crc.reset();
+        crc.update(checksumBuffer);
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final long firstSequence;
+        private final int capacity;
+        // Number of records, guarded by the journal
+        private int count;
+
+        private Segment(final Path file, final FileChannel channel, final MappedByteBuffer buffer,
+            final long firstSequence) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.firstSequence = firstSequence;
+            capacity = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        }
+    }
+}
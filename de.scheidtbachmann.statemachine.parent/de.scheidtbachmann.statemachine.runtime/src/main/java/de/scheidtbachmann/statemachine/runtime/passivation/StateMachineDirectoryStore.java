@@ -0,0 +1,86 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.passivation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+
+/**
+ * {@link StateMachineStore} with one file per state machine in a directory.
+ *
+ * The files are replaced atomically, so a crash leaves either the old or the new state. The store is meant for
+ * moderate numbers of passivated state machines, as every state machine occupies at least one file system block.
+ *
+ * @param <K>
+ *            The type of the keys of the state machines.
+ */
+public class StateMachineDirectoryStore<K> implements StateMachineStore<K> {
+
+    private static final String SUFFIX = ".state";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final Function<K, String> fileNames;
+
+    /**
+     * Creates the store, the directory is created if it does not exist.
+     *
+     * @param directory
+     *            The directory of the state files.
+     * @param fileNames
+     *            Provides unique file names for the keys, without directories.
+     * @throws IOException
+     *             if the directory cannot be created.
+     */
+    public StateMachineDirectoryStore(final Path directory, final Function<K, String> fileNames) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fileNames = fileNames;
+    }
+
+    @Override
+    public void save(final K key, final ByteBuffer state) throws IOException {
+        final Path file = file(key);
+        final Path temporaryFile = file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (state.hasRemaining()) {
+                channel.write(state);
+            }
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public ByteBuffer load(final K key) throws IOException {
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(file(key)));
+        } catch (final NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void remove(final K key) throws IOException {
+        Files.deleteIfExists(file(key));
+    }
+
+    private Path file(final K key) {
+        return directory.resolve(fileNames.apply(key) + SUFFIX);
+    }
+}
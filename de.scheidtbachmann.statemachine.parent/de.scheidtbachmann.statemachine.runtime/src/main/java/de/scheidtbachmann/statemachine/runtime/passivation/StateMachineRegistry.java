@@ -0,0 +1,458 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.passivation;
+
+import de.scheidtbachmann.statemachine.runtime.StateMachinePersistable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of state machines by key that keeps only recently used state machines on the heap.
+ *
+ * State machines that have not been accessed for the idle time, and the least recently used state machines beyond
+ * the maximum resident count, are passivated: their state is written to the {@link StateMachineStore} and they are
+ * disposed. The next access to the key rehydrates a new instance from the stored state. Keys without a stored state
+ * get a new, initialized state machine.
+ *
+ * Operations on the same key are serialized by a lock per key, operations on different keys run concurrently. Loading
+ * and storing states, the {@link Lifecycle} and the actions only hold the lock of their key, the registry itself is
+ * only locked to update the order of access and the metrics. Actions passed to {@link #apply(Object, Consumer)} are
+ * run while the state machine cannot be passivated, so they should only hand over work, like applying events to a
+ * state machine with an executor. They may access other keys of the registry, but must not wait for another thread
+ * that accesses their own key.
+ *
+ * The state machine performs the applications that are still pending in its executor or mailbox before its state is
+ * written (see {@link StateMachinePersistable#writeState(ByteBuffer)}), so passivation does not lose them. Applications
+ * submitted after the state has been written are lost when the state machine is disposed, so they should only be
+ * submitted from actions of the registry.
+ *
+ * @param <K>
+ *            The type of the keys of the state machines.
+ * @param <M>
+ *            The type of the state machines.
+ */
+public class StateMachineRegistry<K, M extends StateMachinePersistable> implements StateMachineRegistryMetrics {
+
+    /**
+     * Creates and disposes the state machines of a registry.
+     *
+     * @param <K>
+     *            The type of the keys of the state machines.
+     * @param <M>
+     *            The type of the state machines.
+     */
+    public interface Lifecycle<K, M> {
+
+        /**
+         * @param key
+         *            The key of the state machine.
+         * @return a new state machine that has not been initialized yet.
+         */
+        M create(K key);
+
+        /**
+         * Initializes a new state machine, for keys without a stored state.
+         *
+         * @param stateMachine
+         *            The state machine to initialize.
+         */
+        void init(M stateMachine);
+
+        /**
+         * Releases the resources of a state machine after it has been passivated, like its executor.
+         *
+         * @param stateMachine
+         *            The passivated state machine.
+         */
+        void dispose(M stateMachine);
+    }
+
+    private final StateMachineStore<K> store;
+    private final Lifecycle<K, M> lifecycle;
+    private final int maxResidentCount;
+    private final long idleNanos;
+    private final LongSupplier nanoClock;
+
+    // Resident state machines in the order of their last access, guarded by this
+    private final LinkedHashMap<K, Resident<M>> residents = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Metrics, guarded by this
+    private long hitCount;
+    private long missCount;
+    private long createdCount;
+    private long passivatedCount;
+    private long rehydrationNanos;
+    private long maxRehydrationNanos;
+
+    /**
+     * Creates the registry.
+     *
+     * @param store
+     *            The store of the passivated states.
+     * @param lifecycle
+     *            Creates and disposes the state machines.
+     * @param maxResidentCount
+     *            The maximum number of state machines kept on the heap.
+     * @param idleTime
+     *            The time after the last access after which a state machine is passivated by
+     *            {@link #passivateIdle()}.
+     * @param unit
+     *            The unit of the idle time.
+     */
+    public StateMachineRegistry(final StateMachineStore<K> store, final Lifecycle<K, M> lifecycle,
+        final int maxResidentCount, final long idleTime, final TimeUnit unit) {
+        this(store, lifecycle, maxResidentCount, idleTime, unit, System::nanoTime);
+    }
+
+    StateMachineRegistry(final StateMachineStore<K> store, final Lifecycle<K, M> lifecycle,
+        final int maxResidentCount, final long idleTime, final TimeUnit unit, final LongSupplier nanoClock) {
+        if (maxResidentCount < 1) {
+            throw new IllegalArgumentException("Maximum resident count must be positive: " + maxResidentCount);
+        }
+        if (idleTime < 0) {
+            throw new IllegalArgumentException("Idle time must not be negative: " + idleTime);
+        }
+        this.store = store;
+        this.lifecycle = lifecycle;
+        this.maxResidentCount = maxResidentCount;
+        this.idleNanos = unit.toNanos(idleTime);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Runs an action on the state machine of the key, which is rehydrated or created if it is not on the heap.
+     *
+     * @param key
+     *            The key of the state machine.
+     * @param action
+     *            The action to run, typically applying events.
+     * @throws UncheckedIOException
+     *             if the state cannot be loaded, or the state of a least recently used state machine cannot be
+     *             stored.
+     */
+    public void apply(final K key, final Consumer<? super M> action) {
+        query(key, stateMachine -> {
+            action.accept(stateMachine);
+            return null;
+        });
+    }
+
+    /**
+     * Queries the state machine of the key, which is rehydrated or created if it is not on the heap.
+     *
+     * @param <T>
+     *            The type of the result.
+     * @param key
+     *            The key of the state machine.
+     * @param query
+     *            The query to run.
+     * @return the result of the query.
+     * @throws UncheckedIOException
+     *             if the state cannot be loaded, or the state of a least recently used state machine cannot be
+     *             stored.
+     */
+    public <T> T query(final K key, final Function<? super M, T> query) {
+        final T result;
+        while (true) {
+            final Resident<M> resident = access(key);
+            synchronized (resident) {
+                if (resident.passivated) {
+                    // Passivated after the access, the state has been stored now
+                    forget(key, resident);
+                    continue;
+                }
+                if (resident.stateMachine == null) {
+                    load(key, resident);
+                } else {
+                    countHit();
+                }
+                result = query.apply(resident.stateMachine);
+            }
+            break;
+        }
+        evictLeastRecentlyUsed();
+        return result;
+    }
+
+    /**
+     * @param key
+     *            The key of the state machine.
+     * @return whether the state machine of the key is on the heap.
+     */
+    public synchronized boolean isResident(final K key) {
+        return residents.containsKey(key);
+    }
+
+    /**
+     * Passivates the state machines that have not been accessed for the idle time.
+     *
+     * @return the number of passivated state machines.
+     * @throws UncheckedIOException
+     *             if a state cannot be stored, the state machine stays on the heap.
+     */
+    public int passivateIdle() {
+        final long now = nanoClock.getAsLong();
+        final List<Map.Entry<K, Resident<M>>> idle = new ArrayList<>();
+        synchronized (this) {
+            for (final Map.Entry<K, Resident<M>> entry : residents.entrySet()) {
+                if (now - entry.getValue().lastAccess < idleNanos) {
+                    // The remaining state machines have been accessed later
+                    break;
+                }
+                idle.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        int count = 0;
+        for (final Map.Entry<K, Resident<M>> entry : idle) {
+            if (passivateIfIdle(entry.getKey(), entry.getValue(), now)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Passivates all state machines, for example before a shutdown.
+     *
+     * @throws UncheckedIOException
+     *             if a state cannot be stored, the state machine stays on the heap.
+     */
+    public void passivateAll() {
+        final List<Map.Entry<K, Resident<M>>> all = new ArrayList<>();
+        synchronized (this) {
+            residents.forEach((key, resident) -> all.add(Map.entry(key, resident)));
+        }
+        for (final Map.Entry<K, Resident<M>> entry : all) {
+            passivate(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Removes the state machine of the key from the heap and the store, without writing its state.
+     *
+     * @param key
+     *            The key of the state machine.
+     * @throws UncheckedIOException
+     *             if the stored state cannot be removed.
+     */
+    public void remove(final K key) {
+        final Resident<M> resident = access(key);
+        synchronized (resident) {
+            if (!resident.passivated && resident.stateMachine != null) {
+                lifecycle.dispose(resident.stateMachine);
+            }
+            resident.stateMachine = null;
+            resident.passivated = true;
+            forget(key, resident);
+            try {
+                store.remove(key);
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Cannot remove the state of " + key, e);
+            }
+        }
+    }
+
+    /**
+     * Runs {@link #passivateIdle()} periodically.
+     *
+     * @param scheduler
+     *            The scheduler to run the passivation.
+     * @param period
+     *            The period between two runs.
+     * @param unit
+     *            The unit of the period.
+     * @return the future to cancel the periodic passivation.
+     */
+    public ScheduledFuture<?> schedulePassivation(final ScheduledExecutorService scheduler, final long period,
+        final TimeUnit unit) {
+        return scheduler.scheduleWithFixedDelay(this::passivateIdle, period, period, unit);
+    }
+
+    @Override
+    public synchronized int getResidentCount() {
+        return residents.size();
+    }
+
+    @Override
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    @Override
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    @Override
+    public synchronized long getCreatedCount() {
+        return createdCount;
+    }
+
+    @Override
+    public synchronized long getPassivatedCount() {
+        return passivatedCount;
+    }
+
+    @Override
+    public synchronized long getRehydrationNanos() {
+        return rehydrationNanos;
+    }
+
+    @Override
+    public synchronized long getMaxRehydrationNanos() {
+        return maxRehydrationNanos;
+    }
+
+    /**
+     * @return the resident entry of the key, which is added without a state machine if the key is not on the heap.
+     */
+    private synchronized Resident<M> access(final K key) {
+        final long now = nanoClock.getAsLong();
+        Resident<M> resident = residents.get(key);
+        if (resident == null) {
+            resident = new Resident<>();
+            residents.put(key, resident);
+        }
+        resident.lastAccess = now;
+        return resident;
+    }
+
+    private synchronized void countHit() {
+        hitCount++;
+    }
+
+    /**
+     * Removes the entry of the key, unless it has already been replaced by a new entry.
+     */
+    private synchronized void forget(final K key, final Resident<M> resident) {
+        residents.remove(key, resident);
+    }
+
+    /**
+     * Creates the state machine of an entry and restores its state, called with the lock of the entry.
+     */
+    private void load(final K key, final Resident<M> resident) {
+        final long start = nanoClock.getAsLong();
+        final M stateMachine = lifecycle.create(key);
+        try {
+            final ByteBuffer state = store.load(key);
+            if (state == null) {
+                lifecycle.init(stateMachine);
+                synchronized (this) {
+                    createdCount++;
+                }
+            } else {
+                stateMachine.readState(state);
+                final long duration = nanoClock.getAsLong() - start;
+                synchronized (this) {
+                    missCount++;
+                    rehydrationNanos += duration;
+                    maxRehydrationNanos = Math.max(maxRehydrationNanos, duration);
+                }
+            }
+        } catch (final IOException | RuntimeException e) {
+            lifecycle.dispose(stateMachine);
+            resident.passivated = true;
+            forget(key, resident);
+            if (e instanceof IOException) {
+                throw new UncheckedIOException("Cannot load the state of " + key, (IOException) e);
+            }
+            throw (RuntimeException) e;
+        }
+        resident.stateMachine = stateMachine;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        final List<Map.Entry<K, Resident<M>>> leastRecentlyUsed = new ArrayList<>();
+        synchronized (this) {
+            final Iterator<Map.Entry<K, Resident<M>>> iterator = residents.entrySet().iterator();
+            for (int i = residents.size(); i > maxResidentCount; i--) {
+                final Map.Entry<K, Resident<M>> entry = iterator.next();
+                leastRecentlyUsed.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        for (final Map.Entry<K, Resident<M>> entry : leastRecentlyUsed) {
+            passivate(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Passivates the entry unless it has been accessed again since it has been found idle.
+     *
+     * @return whether the state of the entry has been stored.
+     */
+    private boolean passivateIfIdle(final K key, final Resident<M> resident, final long now) {
+        synchronized (resident) {
+            return now - resident.lastAccess >= idleNanos && passivate(key, resident);
+        }
+    }
+
+    /**
+     * Stores the state of the entry and disposes its state machine. An entry that is still being loaded by another
+     * thread is passivated without a state, so that thread loads it again.
+     *
+     * @return whether the state of the entry has been stored.
+     */
+    private boolean passivate(final K key, final Resident<M> resident) {
+        synchronized (resident) {
+            if (resident.passivated) {
+                return false;
+            }
+            final M stateMachine = resident.stateMachine;
+            if (stateMachine != null) {
+                final ByteBuffer buffer = ByteBuffer.allocate(stateMachine.getStateSize());
+                stateMachine.writeState(buffer);
+                buffer.flip();
+                try {
+                    store.save(key, buffer);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException("Cannot store the state of " + key, e);
+                }
+                lifecycle.dispose(stateMachine);
+                resident.stateMachine = null;
+            }
+            resident.passivated = true;
+            forget(key, resident);
+            if (stateMachine == null) {
+                return false;
+            }
+        }
+        synchronized (this) {
+            passivatedCount++;
+        }
+        return true;
+    }
+
+    /**
+     * Entry of a key, its lock serializes the operations on the key.
+     */
+    private static final class Resident<M> {
+        // Guarded by the lock of the entry
+        private M stateMachine;
+        private boolean passivated;
+        // Written with the lock of the registry, read with the lock of the entry for the idle check
+        private volatile long lastAccess;
+    }
+}
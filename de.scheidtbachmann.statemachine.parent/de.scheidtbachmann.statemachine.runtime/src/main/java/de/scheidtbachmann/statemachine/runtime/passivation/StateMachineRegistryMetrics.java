@@ -0,0 +1,53 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.passivation;
+
+/**
+ * Metrics of a {@link StateMachineRegistry}.
+ */
+public interface StateMachineRegistryMetrics {
+
+    /**
+     * @return the number of state machines currently kept on the heap.
+     */
+    int getResidentCount();
+
+    /**
+     * @return the number of accesses to state machines that have been on the heap.
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of accesses that have rehydrated a passivated state machine.
+     */
+    long getMissCount();
+
+    /**
+     * @return the number of state machines that have been created and initialized, as they have not been stored.
+     */
+    long getCreatedCount();
+
+    /**
+     * @return the number of state machines that have been passivated, because they were idle or least recently used.
+     */
+    long getPassivatedCount();
+
+    /**
+     * @return the total time spent rehydrating state machines, in nanoseconds.
+     */
+    long getRehydrationNanos();
+
+    /**
+     * @return the longest time spent rehydrating a single state machine, in nanoseconds.
+     */
+    long getMaxRehydrationNanos();
+}
@@ -0,0 +1,410 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.passivation;
+
+import de.scheidtbachmann.statemachine.runtime.StateMachinePersistable;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * {@link StateMachineStore} in a memory-mapped file with a fixed slot per state machine, addressed by an index.
+ *
+ * Committing a state writes it directly into the mapped slot with
+ * {@link StateMachinePersistable#writeState(ByteBuffer)}, so it is a plain memory write without copying. Every slot
+ * holds two copies of the state, each with a sequence number and a checksum. A commit overwrites the older copy and
+ * writes the sequence number last, so a commit torn by a crash leaves the previous copy intact. The mapped pages are
+ * written to the disk by the operating system, {@link #flush()} forces them to the disk and is meant to be called
+ * periodically, e.g. by a {@code StateMachineFlushingExecutionFactory}, to batch the syncs of many commits. A flush
+ * only forces the mapped segments that have been written since the previous flush.
+ *
+ * Commits to different slots can be performed concurrently, commits to the same slot have to be serialized by the
+ * caller, which is the case if they are performed by the executor of the state machine.
+ */
+public class StateMachineSlotStore implements StateMachineStore<Integer>, Flushable, Closeable {
+
+    static final int HEADER_SIZE = 64;
+    static final int COPY_HEADER_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+    private static final int MAGIC = 0x534d534c;
+    private static final int VERSION = 1;
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int LENGTH_OFFSET = Long.BYTES;
+    private static final int CHECKSUM_OFFSET = Long.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private final int slotCount;
+    private final int stateCapacity;
+    private final int copySize;
+    private final int slotsPerSegment;
+    private final MappedByteBuffer[] segments;
+    // Whether the segment has been written since the last flush, 1 if dirty
+    private final AtomicIntegerArray dirtySegments;
+    // Per thread, as commits to different slots run concurrently
+    private final ThreadLocal<Checksum> checksums;
+    // Whether any segment is dirty, to skip the flush without scanning the segments
+    private volatile boolean dirty;
+
+    /**
+     * Opens the store, the file is created if it does not exist. The slots of an existing file are checked and torn
+     * copies of interrupted commits are discarded.
+     *
+     * @param file
+     *            The file of the store.
+     * @param slotCount
+     *            The number of slots.
+     * @param stateCapacity
+     *            The maximum size of a state, at least {@link StateMachinePersistable#getStateSize()} of the stored
+     *            state machines.
+     * @throws IOException
+     *             if the file cannot be opened or has been created with a different number of slots or capacity.
+     */
+    public StateMachineSlotStore(final Path file, final int slotCount, final int stateCapacity) throws IOException {
+        this(file, slotCount, stateCapacity, Integer.MAX_VALUE);
+    }
+
+    StateMachineSlotStore(final Path file, final int slotCount, final int stateCapacity,
+        final int maxSlotsPerSegment) throws IOException {
+        if (slotCount < 1) {
+            throw new IllegalArgumentException("Slot count must be positive: " + slotCount);
+        }
+        if (stateCapacity < 1) {
+            throw new IllegalArgumentException("State capacity must be positive: " + stateCapacity);
+        }
+        this.slotCount = slotCount;
+        this.stateCapacity = stateCapacity;
+        // Keep the sequence numbers aligned
+        copySize = (COPY_HEADER_SIZE + stateCapacity + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+        slotsPerSegment = Math.min(Math.min(slotCount, maxSlotsPerSegment), Integer.MAX_VALUE / (2 * copySize));
+        if (slotsPerSegment < 1) {
+            throw new IllegalArgumentException("State capacity is too large: " + stateCapacity);
+        }
+        segments = new MappedByteBuffer[(slotCount + slotsPerSegment - 1) / slotsPerSegment];
+        dirtySegments = new AtomicIntegerArray(segments.length);
+        checksums = ThreadLocal.withInitial(() -> new Checksum(stateCapacity));
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            final boolean created = channel.size() == 0;
+            if (created) {
+                writeHeader();
+            } else {
+                checkHeader(file);
+            }
+            for (int i = 0; i < segments.length; i++) {
+                final long position = HEADER_SIZE + (long) i * slotsPerSegment * 2 * copySize;
+                final int slots = Math.min(slotsPerSegment, slotCount - i * slotsPerSegment);
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) slots * 2 * copySize);
+            }
+            if (!created) {
+                discardTornCopies();
+            }
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of slots.
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * @return the maximum size of a state.
+     */
+    public int getStateCapacity() {
+        return stateCapacity;
+    }
+
+    /**
+     * Commits the current state of a state machine into its slot. Has to be called by the executor of the state
+     * machine, e.g. as post execution task, so the state is written without switching threads.
+     *
+     * @param slot
+     *            The slot of the state machine.
+     * @param stateMachine
+     *            The state machine.
+     */
+    public void commit(final int slot, final StateMachinePersistable stateMachine) {
+        if (stateMachine.getStateSize() > stateCapacity) {
+            throw new IllegalArgumentException("State of " + stateMachine.getStateSize()
+                + " bytes exceeds the capacity of " + stateCapacity);
+        }
+        write(slot, stateMachine::writeState);
+    }
+
+    /**
+     * Restores the state machine from the latest complete state in its slot.
+     *
+     * @param slot
+     *            The slot of the state machine.
+     * @param stateMachine
+     *            The state machine.
+     * @return whether a state has been restored, {@code false} if the slot is empty.
+     */
+    public boolean restore(final int slot, final StateMachinePersistable stateMachine) {
+        final ByteBuffer state = load(slot);
+        if (state == null) {
+            return false;
+        }
+        stateMachine.readState(state);
+        return true;
+    }
+
+    @Override
+    public void save(final Integer slot, final ByteBuffer state) {
+        if (state.remaining() > stateCapacity) {
+            throw new IllegalArgumentException(
+                "State of " + state.remaining() + " bytes exceeds the capacity of " + stateCapacity);
+        }
+        write(slot, buffer -> buffer.put(state));
+    }
+
+    /**
+     * @return a read-only view of the latest complete state in the slot, which is only valid until the next commit to
+     *         the slot, or {@code null} if the slot is empty.
+     */
+    @Override
+    public ByteBuffer load(final Integer slot) {
+        final ByteBuffer segment = segment(slot);
+        final int first = copyOffset(slot, 0);
+        final int second = copyOffset(slot, 1);
+        final boolean firstValid = isValid(segment, first);
+        final boolean secondValid = isValid(segment, second);
+        final int latest;
+        if (firstValid && secondValid) {
+            latest = segment.getLong(first + SEQUENCE_OFFSET) >= segment.getLong(second + SEQUENCE_OFFSET) ? first
+                : second;
+        } else if (firstValid || secondValid) {
+            latest = firstValid ? first : second;
+        } else {
+            return null;
+        }
+        final int length = segment.getInt(latest + LENGTH_OFFSET);
+        if (length == 0) {
+            return null;
+        }
+        final ByteBuffer state = segment.asReadOnlyBuffer();
+        state.limit(latest + COPY_HEADER_SIZE + length).position(latest + COPY_HEADER_SIZE);
+        return state.slice();
+    }
+
+    /**
+     * Empties the slot by committing an empty state.
+     */
+    @Override
+    public void remove(final Integer slot) {
+        write(slot, buffer -> {
+            // Empty state
+        });
+    }
+
+    /**
+     * Forces the commits since the last flush to the disk.
+     *
+     * @throws IOException
+     *             if the mapped file cannot be synced.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        // Reset before syncing, commits during the sync are synced by the next flush
+        dirty = false;
+        for (int i = 0; i < segments.length; i++) {
+            if (dirtySegments.getAndSet(i, 0) != 0) {
+                try {
+                    segments[i].force();
+                } catch (final RuntimeException e) {
+                    markDirty(i);
+                    throw e;
+                }
+            }
+        }
+        try {
+            channel.force(false);
+        } catch (final IOException | RuntimeException e) {
+            dirty = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Flushes the store and closes the file. The mapping is released by the garbage collector.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return the number of segments written since the last flush.
+     */
+    int getDirtySegmentCount() {
+        int count = 0;
+        for (int i = 0; i < dirtySegments.length(); i++) {
+            count += dirtySegments.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return the offset of a copy of the slot in its segment.
+     */
+    int copyOffset(final int slot, final int copy) {
+        return ((slot % slotsPerSegment) * 2 + copy) * copySize;
+    }
+
+    /**
+     * @return the offset of a copy of the slot in the file.
+     */
+    long fileOffset(final int slot, final int copy) {
+        return HEADER_SIZE + (long) (slot / slotsPerSegment) * slotsPerSegment * 2 * copySize
+            + copyOffset(slot, copy);
+    }
+
+    private void write(final int slot, final Consumer<ByteBuffer> writer) {
+        final ByteBuffer segment = segment(slot);
+        final int first = copyOffset(slot, 0);
+        final int second = copyOffset(slot, 1);
+        final long firstSequence = segment.getLong(first + SEQUENCE_OFFSET);
+        final long secondSequence = segment.getLong(second + SEQUENCE_OFFSET);
+        final int target = firstSequence <= secondSequence ? first : second;
+        final long sequence = Math.max(firstSequence, secondSequence) + 1;
+
+        final ByteBuffer state = segment.duplicate();
+        state.limit(target + COPY_HEADER_SIZE + stateCapacity).position(target + COPY_HEADER_SIZE);
+        writer.accept(state);
+        final int length = state.position() - target - COPY_HEADER_SIZE;
+        segment.putInt(target + LENGTH_OFFSET, length);
+        segment.putInt(target + CHECKSUM_OFFSET, checksum(segment, target, sequence, length));
+        // The sequence is written last, it makes the copy the latest one
+        segment.putLong(target + SEQUENCE_OFFSET, sequence);
+        markDirty(slot / slotsPerSegment);
+    }
+
+    private void markDirty(final int segment) {
+        dirtySegments.set(segment, 1);
+        dirty = true;
+    }
+
+    private boolean isValid(final ByteBuffer segment, final int copy) {
+        final long sequence = segment.getLong(copy + SEQUENCE_OFFSET);
+        final int length = segment.getInt(copy + LENGTH_OFFSET);
+        return sequence > 0 && length >= 0 && length <= stateCapacity
+            && segment.getInt(copy + CHECKSUM_OFFSET) == checksum(segment, copy, sequence, length);
+    }
+
+    /**
+     * Computes the checksum of the state, followed by the sequence and the length in little-endian byte order. The
+     * state is copied with absolute reads into the buffer of the thread, so the segment is neither duplicated nor
+     * modified.
+     */
+    private int checksum(final ByteBuffer segment, final int copy, final long sequence, final int length) {
+        final Checksum checksum = checksums.get();
+        final ByteBuffer buffer = checksum.buffer;
+        buffer.clear();
+        final int start = copy + COPY_HEADER_SIZE;
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            buffer.putLong(segment.getLong(start + i));
+        }
+        for (; i < length; i++) {
+            buffer.put(segment.get(start + i));
+        }
+        buffer.putLong(Long.reverseBytes(sequence)).putInt(Integer.reverseBytes(length)).flip();
+        checksum.crc.reset();
+        checksum.crc.update(buffer);
+        return (int) checksum.crc.getValue();
+    }
+
+    /**
+     * Resets the sequence of invalid copies, so the next commit to the slot overwrites them instead of the valid copy.
+     */
+    private void discardTornCopies() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            final ByteBuffer segment = segment(slot);
+            for (int copy = 0; copy < 2; copy++) {
+                final int offset = copyOffset(slot, copy);
+                if (segment.getLong(offset + SEQUENCE_OFFSET) != 0 && !isValid(segment, offset)) {
+                    segment.putLong(offset + SEQUENCE_OFFSET, 0L);
+                    markDirty(slot / slotsPerSegment);
+                }
+            }
+        }
+    }
+
+    private ByteBuffer segment(final int slot) {
+        if (slot < 0 || slot >= slotCount) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " is not in the range 0 to " + (slotCount - 1));
+        }
+        return segments[slot / slotsPerSegment];
+    }
+
+    private void writeHeader() throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(slotCount).putInt(stateCapacity);
+        header.clear();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private void checkHeader(final Path file) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Not a slot store: " + file);
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a slot store: " + file);
+        }
+        final int fileSlotCount = header.getInt();
+        final int fileStateCapacity = header.getInt();
+        if (fileSlotCount != slotCount || fileStateCapacity != stateCapacity) {
+            throw new IOException("The slot store " + file + " has " + fileSlotCount + " slots with a capacity of "
+                + fileStateCapacity + " bytes, expected " + slotCount + " slots with " + stateCapacity + " bytes");
+        }
+    }
+
+    /**
+     * Checksum and buffer of a thread, reused for all its commits.
+     */
+    private static final class Checksum {
+        private final CRC32 crc = new CRC32();
+        private final ByteBuffer buffer;
+
+        Checksum(final int stateCapacity) {
+            buffer = ByteBuffer.allocate(stateCapacity + Long.BYTES + Integer.BYTES);
+        }
+    }
+}
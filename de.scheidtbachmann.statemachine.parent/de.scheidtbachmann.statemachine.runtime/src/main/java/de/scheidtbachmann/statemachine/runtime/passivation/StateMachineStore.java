@@ -0,0 +1,57 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.passivation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Persistent store of the states of state machines, as written by
+ * {@link de.scheidtbachmann.statemachine.runtime.StateMachinePersistable#writeState(ByteBuffer)}.
+ *
+ * @param <K>
+ *            The type of the keys of the state machines.
+ */
+public interface StateMachineStore<K> {
+
+    /**
+     * Stores the state of a state machine, replacing a previously stored state. The buffer is not retained.
+     *
+     * @param key
+     *            The key of the state machine.
+     * @param state
+     *            The buffer with the state between its position and limit.
+     * @throws IOException
+     *             if the state cannot be stored.
+     */
+    void save(K key, ByteBuffer state) throws IOException;
+
+    /**
+     * @param key
+     *            The key of the state machine.
+     * @return a buffer with the stored state between its position and limit, or {@code null} if there is no state
+     *         stored for the key.
+     * @throws IOException
+     *             if the state cannot be loaded.
+     */
+    ByteBuffer load(K key) throws IOException;
+
+    /**
+     * Removes the stored state of a state machine, if any.
+     *
+     * @param key
+     *            The key of the state machine.
+     * @throws IOException
+     *             if the state cannot be removed.
+     */
+    void remove(K key) throws IOException;
+}
@@ -0,0 +1,322 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.table;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transition table of a single region of a table-driven state machine.
+ *
+ * The states of the region are numbered by the ordinals of their enum constants. The outgoing transitions of every
+ * state are stored in priority order, each with its target state, an optional guard id, an optional effect id and
+ * whether the transition is delayed. Guards and effects are generated code and referenced by id, so the table itself
+ * only consists of a few {@code int} arrays and one dispatch loop shared by all regions.
+ *
+ * Generated code stores the tables as string constants in the format of {@link #decode(String...)}, since large
+ * array initializers would exceed the 64KB limit of the static initializer.
+ */
+public final class StateMachineTransitionTable {
+
+    /** Result of {@link #select(int, boolean, Guards)} if no transition is enabled. */
+    public static final int NONE = -1;
+
+    /** Result of {@link #select(int, boolean, Guards)} if the state is final. */
+    public static final int FINAL = -2;
+
+    /** State flag of final states. */
+    public static final int FINAL_STATE = 1;
+
+    /** Transition flag of delayed transitions, which are only enabled if the region has not just been entered. */
+    public static final int DELAYED_TRANSITION = 1;
+
+    /** Maximum value that can be encoded into a table string. */
+    public static final int MAX_ENCODED_VALUE = Character.MAX_VALUE - 1;
+
+    private static final int MAX_CHUNK_LENGTH = 16384;
+    private static final int TRANSITION_FIELDS = 4;
+
+    /**
+     * Evaluates generated guards.
+     */
+    @FunctionalInterface
+    public interface Guards {
+
+        /**
+         * @param guardId
+         *            The id of the guard.
+         * @return whether the guard holds.
+         */
+        boolean evaluate(int guardId);
+    }
+
+    private final int[] firstTransition;
+    private final int[] stateFlags;
+    private final int[] targets;
+    private final int[] guards;
+    private final int[] effects;
+    private final int[] transitionFlags;
+
+    private StateMachineTransitionTable(final int[] firstTransition, final int[] stateFlags, final int[] targets,
+        final int[] guards, final int[] effects, final int[] transitionFlags) {
+        this.firstTransition = firstTransition;
+        this.stateFlags = stateFlags;
+        this.targets = targets;
+        this.guards = guards;
+        this.effects = effects;
+        this.transitionFlags = transitionFlags;
+    }
+
+    /**
+     * Selects the transition to take from the given state. The transitions are checked in priority order.
+     *
+     * @param state
+     *            The ordinal of the active state.
+     * @param delayedEnabled
+     *            Whether delayed transitions are enabled.
+     * @param guardEvaluator
+     *            The evaluator of the generated guards.
+     * @return the index of the selected transition, {@link #NONE} if no transition is enabled or {@link #FINAL} if the
+     *         state is final.
+     */
+    public int select(final int state, final boolean delayedEnabled, final Guards guardEvaluator) {
+        if ((stateFlags[state] & FINAL_STATE) != 0) {
+            return FINAL;
+        }
+        final int end = firstTransition[state + 1];
+        for (int transition = firstTransition[state]; transition < end; transition++) {
+            if (!delayedEnabled && (transitionFlags[transition] & DELAYED_TRANSITION) != 0) {
+                continue;
+            }
+            final int guard = guards[transition];
+            if (guard < 0 || guardEvaluator.evaluate(guard)) {
+                return transition;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * @param transition
+     *            The index of the transition.
+     * @return the ordinal of the target state.
+     */
+    public int getTarget(final int transition) {
+        return targets[transition];
+    }
+
+    /**
+     * @param transition
+     *            The index of the transition.
+     * @return the id of the effect, or {@code -1} if the transition has no effect.
+     */
+    public int getEffect(final int transition) {
+        return effects[transition];
+    }
+
+    /**
+     * @return the number of states of the region.
+     */
+    public int getStateCount() {
+        return stateFlags.length;
+    }
+
+    /**
+     * @return the number of transitions of the region.
+     */
+    public int getTransitionCount() {
+        return targets.length;
+    }
+
+    /**
+     * Decodes a table from its string representation. Every value is stored as a single character with the value
+     * increased by one, so {@code -1} is stored as {@code '\u0000'}. The characters contain, in this order:
+     * <ol>
+     * <li>the number of states and the number of transitions,</li>
+     * <li>the index of the first transition of every state, followed by the number of transitions,</li>
+     * <li>the flags of every state,</li>
+     * <li>target, guard id, effect id and flags of every transition.</li>
+     * </ol>
+     * The representation might be split into several chunks to keep each string constant below the class file limit.
+     *
+     * @param chunks
+     *            The chunks of the string representation.
+     * @return the decoded table.
+     */
+    public static StateMachineTransitionTable decode(final String... chunks) {
+        final StringBuilder builder = new StringBuilder();
+        for (final String chunk : chunks) {
+            builder.append(chunk);
+        }
+        final Reader reader = new Reader(builder);
+        final int stateCount = reader.next();
+        final int transitionCount = reader.next();
+        final int[] firstTransition = reader.next(stateCount + 1);
+        final int[] stateFlags = reader.next(stateCount);
+        final int[] targets = new int[transitionCount];
+        final int[] guards = new int[transitionCount];
+        final int[] effects = new int[transitionCount];
+        final int[] transitionFlags = new int[transitionCount];
+        for (int i = 0; i < transitionCount; i++) {
+            targets[i] = reader.next();
+            guards[i] = reader.next();
+            effects[i] = reader.next();
+            transitionFlags[i] = reader.next();
+        }
+        if (reader.position != builder.length()) {
+            throw new IllegalArgumentException(
+                String.format("Unexpected table length %d, expected %d", builder.length(), reader.position));
+        }
+        return new StateMachineTransitionTable(firstTransition, stateFlags, targets, guards, effects, transitionFlags);
+    }
+
+    /**
+     * Encodes the table into the string representation of {@link #decode(String...)}.
+     *
+     * @return the chunks of the string representation.
+     */
+    public String[] encode() {
+        final StringBuilder builder = new StringBuilder();
+        append(builder, getStateCount());
+        append(builder, getTransitionCount());
+        for (final int value : firstTransition) {
+            append(builder, value);
+        }
+        for (final int value : stateFlags) {
+            append(builder, value);
+        }
+        for (int i = 0; i < targets.length; i++) {
+            append(builder, targets[i]);
+            append(builder, guards[i]);
+            append(builder, effects[i]);
+            append(builder, transitionFlags[i]);
+        }
+        final List<String> chunks = new ArrayList<>();
+        for (int start = 0; start < builder.length(); start += MAX_CHUNK_LENGTH) {
+            chunks.add(builder.substring(start, Math.min(builder.length(), start + MAX_CHUNK_LENGTH)));
+        }
+        return chunks.toArray(new String[0]);
+    }
+
+    /**
+     * @return a new builder for tables.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static void append(final StringBuilder builder, final int value) {
+        if (value < -1 || value > MAX_ENCODED_VALUE) {
+            throw new IllegalArgumentException("Value cannot be encoded: " + value);
+        }
+        builder.append((char) (value + 1));
+    }
+
+    /**
+     * Sequential reader of the encoded characters.
+     */
+    private static final class Reader {
+
+        private final CharSequence encoded;
+        private int position;
+
+        Reader(final CharSequence encoded) {
+            this.encoded = encoded;
+        }
+
+        int next() {
+            if (position >= encoded.length()) {
+                throw new IllegalArgumentException("Table ends unexpectedly at " + position);
+            }
+            return encoded.charAt(position++) - 1;
+        }
+
+        int[] next(final int count) {
+            final int[] values = new int[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = next();
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Builder of tables, the states and their transitions have to be added in order.
+     */
+    public static final class Builder {
+
+        private final List<Integer> firstTransition = new ArrayList<>();
+        private final List<Integer> stateFlags = new ArrayList<>();
+        private final List<int[]> transitions = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds the next state, following transitions belong to this state.
+         *
+         * @param flags
+         *            The flags of the state, e.g. {@link StateMachineTransitionTable#FINAL_STATE}.
+         * @return this builder.
+         */
+        public Builder state(final int flags) {
+            firstTransition.add(transitions.size());
+            stateFlags.add(flags);
+            return this;
+        }
+
+        /**
+         * Adds the next transition of the last added state.
+         *
+         * @param target
+         *            The ordinal of the target state.
+         * @param guard
+         *            The id of the guard, {@code -1} for unconditional transitions.
+         * @param effect
+         *            The id of the effect, {@code -1} for transitions without effect.
+         * @param flags
+         *            The flags of the transition, e.g. {@link StateMachineTransitionTable#DELAYED_TRANSITION}.
+         * @return this builder.
+         */
+        public Builder transition(final int target, final int guard, final int effect, final int flags) {
+            if (stateFlags.isEmpty()) {
+                throw new IllegalStateException("A state has to be added before its transitions");
+            }
+            transitions.add(new int[] { target, guard, effect, flags });
+            return this;
+        }
+
+        /**
+         * @return the table of the added states and transitions.
+         */
+        public StateMachineTransitionTable build() {
+            final int[] first = new int[firstTransition.size() + 1];
+            for (int i = 0; i < firstTransition.size(); i++) {
+                first[i] = firstTransition.get(i);
+            }
+            first[firstTransition.size()] = transitions.size();
+            final int[] targets = new int[transitions.size()];
+            final int[] guards = new int[transitions.size()];
+            final int[] effects = new int[transitions.size()];
+            final int[] flags = new int[transitions.size()];
+            for (int i = 0; i < transitions.size(); i++) {
+                final int[] transition = transitions.get(i);
+                targets[i] = transition[0];
+                guards[i] = transition[1];
+                effects[i] = transition[2];
+                flags[i] = transition[TRANSITION_FIELDS - 1];
+            }
+            return new StateMachineTransitionTable(first, stateFlags.stream().mapToInt(Integer::intValue).toArray(),
+                targets, guards, effects, flags);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+/**
+ * Access to virtual threads for runtimes that support them.
+ *
+ * This is the Java 21 variant, which is packaged in {@code META-INF/versions/21} of the multi-release jar.
+ */
+final class VirtualThreadSupport {
+
+    private VirtualThreadSupport() {
+        // Utility class
+    }
+
+    /**
+     * Checks whether virtual threads are available in the running JVM.
+     *
+     * @return Always {@code true} for this variant.
+     */
+    static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Creates an unstarted thread.
+     *
+     * @param threadName
+     *            The name of the thread.
+     * @param runnable
+     *            The runnable to be executed by the thread.
+     * @return A new virtual thread.
+     */
+    static Thread newThread(final String threadName, final Runnable runnable) {
+        return Thread.ofVirtual().name(threadName).unstarted(runnable);
+    }
+}
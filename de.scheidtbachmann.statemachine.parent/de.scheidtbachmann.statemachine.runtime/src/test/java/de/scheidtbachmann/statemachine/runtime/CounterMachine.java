@@ -0,0 +1,89 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime;
+
+import java.nio.ByteBuffer;
+
+/**
+ * State machine with a single counter for the persistence tests, written after the schema hash like the generated
+ * state machines do.
+ */
+public class CounterMachine implements StateMachinePersistable {
+
+    public static final long SCHEMA_HASH = 0x1234_5678_9abc_def0L;
+    public static final int STATE_SIZE = Long.BYTES + Long.BYTES;
+
+    private final long schemaHash;
+    private final String key;
+    private long counter;
+
+    public CounterMachine(final long counter) {
+        this(SCHEMA_HASH, counter);
+    }
+
+    public CounterMachine(final long schemaHash, final long counter) {
+        this(schemaHash, null, counter);
+    }
+
+    /**
+     * @param key
+     *            The key the state machine has been created for, to tell instances apart.
+     */
+    public CounterMachine(final String key) {
+        this(SCHEMA_HASH, key, 0);
+    }
+
+    private CounterMachine(final long schemaHash, final String key, final long counter) {
+        this.schemaHash = schemaHash;
+        this.key = key;
+        this.counter = counter;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getCounter() {
+        return counter;
+    }
+
+    public void setCounter(final long counter) {
+        this.counter = counter;
+    }
+
+    public void increment() {
+        counter++;
+    }
+
+    @Override
+    public long getSchemaHash() {
+        return schemaHash;
+    }
+
+    @Override
+    public int getStateSize() {
+        return STATE_SIZE;
+    }
+
+    @Override
+    public void writeState(final ByteBuffer buffer) {
+        buffer.putLong(schemaHash).putLong(counter);
+    }
+
+    @Override
+    public void readState(final ByteBuffer buffer) {
+        if (buffer.getLong() != schemaHash) {
+            throw new IllegalArgumentException("Different chart");
+        }
+        counter = buffer.getLong();
+    }
+}
@@ -0,0 +1,168 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class StateMachineActivityHistoryTest {
+
+    private static final int CAPACITY = 3;
+
+    private final List<Long> decodedIds = new ArrayList<>();
+
+    private StateMachineActivityHistory testee;
+    private List<StateMachineHistoryEntry> result;
+
+    @Nested
+    class Creation {
+
+        @Test
+        void testCreation_NonPositiveCapacityShouldThrow() {
+            final Throwable thrown = catchThrowable(() -> new StateMachineActivityHistory(0, 1, null, Arrays::toString));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void testCreation_NonPositiveEventMaskWordsShouldThrow() {
+            final Throwable thrown = catchThrowable(() -> new StateMachineActivityHistory(1, 0, null, Arrays::toString));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void testCreation_ShouldBeEmpty() {
+            givenTesteeHasBeenCreated(1);
+            whenReadingEntries();
+            then(result).isEmpty();
+            then(testee.getCapacity()).isEqualTo(CAPACITY);
+        }
+    }
+
+    @Nested
+    class Recording {
+
+        @Test
+        void testRecording_ShouldKeepLatestActivationsOldestFirst() {
+            givenTesteeHasBeenCreated(1);
+            givenActivationsHaveBeenRecorded(5);
+            whenReadingEntries();
+            then(result).extracting(StateMachineHistoryEntry::getEvents).containsExactly("[2]", "[3]", "[4]");
+            then(testee.size()).isEqualTo(CAPACITY);
+        }
+
+        @Test
+        void testRecording_ShouldReuseSlots() {
+            givenTesteeHasBeenCreated(1);
+            final StateMachineActivityHistory.Slot firstSlot = testee.begin();
+            testee.begin();
+            testee.begin();
+            then(testee.begin()).isSameAs(firstSlot);
+        }
+
+        @Test
+        void testRecording_ReusedSlotShouldBeCleared() {
+            givenTesteeHasBeenCreated(1);
+            final StateMachineActivityHistory.Slot slot = testee.begin();
+            slot.setStartState("Start");
+            slot.setThrowable(new IllegalStateException());
+            slot.setMergedApplications(3);
+            testee.begin();
+            testee.begin();
+            testee.begin();
+            whenReadingEntries();
+            then(result.get(CAPACITY - 1).getStartState()).isNull();
+            then(result.get(CAPACITY - 1).getThrowable()).isNull();
+            then(result.get(CAPACITY - 1).getMergedApplications()).isEqualTo(1);
+        }
+
+        @Test
+        void testRecording_StatesShouldBeKeptIfNoConfigurationIdIsRecorded() {
+            givenTesteeHasBeenCreated(1);
+            final StateMachineActivityHistory.Slot slot = testee.begin();
+            slot.setStartState("Start");
+            slot.setEndState("End");
+            whenReadingEntries();
+            then(result.get(0).getStartState()).isEqualTo("Start");
+            then(result.get(0).getEndState()).isEqualTo("End");
+        }
+    }
+
+    @Nested
+    class Rendering {
+
+        @Test
+        void testRendering_ConfigurationsShouldOnlyBeDecodedWhenRead() {
+            givenTesteeHasBeenCreated(1);
+            givenActivationsHaveBeenRecorded(2);
+            whenReadingEntries();
+            then(decodedIds).isEmpty();
+            then(result.get(1).getStartState()).isEqualTo("State1");
+            then(result.get(1).getEndState()).isEqualTo("State2");
+            then(decodedIds).containsExactly(1L, 2L);
+        }
+
+        @Test
+        void testRendering_SingleWordEventMaskShouldBeRendered() {
+            givenTesteeHasBeenCreated(1);
+            testee.begin().setEventMask(5L);
+            whenReadingEntries();
+            then(result.get(0).getEvents()).isEqualTo("[5]");
+        }
+
+        @Test
+        void testRendering_MultiWordEventMaskShouldBeCopied() {
+            givenTesteeHasBeenCreated(2);
+            final long[] eventMask = { 1L, 2L };
+            testee.begin().setEventMask(eventMask);
+            eventMask[1] = 3L;
+            whenReadingEntries();
+            then(result.get(0).getEvents()).isEqualTo("[1, 2]");
+        }
+
+        @Test
+        void testRendering_MissingEventMaskShouldBeRenderedAsEmpty() {
+            givenTesteeHasBeenCreated(2);
+            testee.begin().setEventMask(null);
+            whenReadingEntries();
+            then(result.get(0).getEvents()).isEqualTo("[0, 0]");
+        }
+    }
+
+    private void givenTesteeHasBeenCreated(final int eventMaskWords) {
+        testee = new StateMachineActivityHistory(CAPACITY, eventMaskWords, this::decode, Arrays::toString);
+    }
+
+    private void givenActivationsHaveBeenRecorded(final int count) {
+        for (int i = 0; i < count; i++) {
+            final StateMachineActivityHistory.Slot slot = testee.begin();
+            slot.setStartConfigurationId(i);
+            slot.setEventMask(i);
+            slot.setEndConfigurationId(i + 1);
+        }
+    }
+
+    private void whenReadingEntries() {
+        result = testee.getEntries();
+    }
+
+    private String decode(final long configurationId) {
+        decodedIds.add(configurationId);
+        return "State" + configurationId;
+    }
+}
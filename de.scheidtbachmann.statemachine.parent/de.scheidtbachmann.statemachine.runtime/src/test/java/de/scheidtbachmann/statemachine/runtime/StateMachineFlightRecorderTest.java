@@ -0,0 +1,183 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class StateMachineFlightRecorderTest {
+
+    @TempDir
+    Path directory;
+
+    private StateMachineFlightRecorder testee;
+
+    @Nested
+    class Record {
+
+        @Test
+        void testRecord_ShouldKeepRecordsInOrder() {
+            givenRecorderHasBeenCreated(8);
+            final int first = testee.register("First");
+            final int second = testee.register("Second");
+            testee.record(first, 1, 2, 0x4L, false);
+            testee.record(second, -1, 3, 0L, false);
+            final StateMachineFlightRecording recording = testee.snapshot();
+            then(recording.getMachineNames()).containsExactly("First", "Second");
+            then(recording.getRecords()).extracting(StateMachineFlightRecording.Record::getMachineId)
+                .containsExactly(first, second);
+            then(recording.getRecords()).extracting(StateMachineFlightRecording.Record::getEndConfigurationId)
+                .containsExactly(2L, 3L);
+            then(recording.getRecords().get(0).getEventMask()).isEqualTo(0x4L);
+        }
+
+        @Test
+        void testRecord_FullRingShouldKeepLatestRecords() {
+            givenRecorderHasBeenCreated(4);
+            final int id = testee.register("Machine");
+            for (int i = 0; i < 10; i++) {
+                testee.record(id, i, i + 1, 0L, false);
+            }
+            then(testee.snapshot().getRecords()).extracting(
+                StateMachineFlightRecording.Record::getStartConfigurationId).containsExactly(6L, 7L, 8L, 9L);
+        }
+
+        @Test
+        void testRecord_CapacityShouldBeRoundedUpToPowerOfTwo() {
+            givenRecorderHasBeenCreated(5);
+            then(testee.getCapacity()).isEqualTo(8);
+        }
+
+        @Test
+        void testRecord_ConcurrentRecordingShouldKeepCompleteRecords() throws InterruptedException {
+            givenRecorderHasBeenCreated(1 << 16);
+            final List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int id = testee.register("Machine" + t);
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        testee.record(id, id, id, id, false);
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            final List<StateMachineFlightRecording.Record> records = testee.snapshot().getRecords();
+            then(records).hasSize(4 * 10_000);
+            then(records).allSatisfy(record -> {
+                then(record.getStartConfigurationId()).isEqualTo(record.getMachineId());
+                then(record.getEventMask()).isEqualTo(record.getMachineId());
+            });
+        }
+
+        @Test
+        void testRecord_InvalidCapacityShouldThrow() {
+            final Throwable thrown = catchThrowable(() -> new StateMachineFlightRecorder(0, directory));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class Register {
+
+        @Test
+        void testRegister_ShouldReuseIdOfUnregisteredMachine() {
+            givenRecorderHasBeenCreated(8);
+            final int first = testee.register("First");
+            final int second = testee.register("Second");
+            testee.unregister(first);
+            then(testee.register("Third")).isEqualTo(first);
+            then(testee.register("Fourth")).isEqualTo(second + 1);
+            then(testee.snapshot().getMachineNames()).containsExactly("Third", "Second", "Fourth");
+        }
+
+        @Test
+        void testUnregister_ShouldKeepNameUntilIdIsReused() {
+            givenRecorderHasBeenCreated(8);
+            final int id = testee.register("Machine");
+            testee.record(id, 1, 2, 0L, false);
+            testee.unregister(id);
+            final StateMachineFlightRecording recording = testee.snapshot();
+            then(recording.format(recording.getRecords().get(0))).endsWith(" Machine#0 1 -> 2 events=0x0");
+        }
+
+        @Test
+        void testUnregister_UnregisteredIdShouldThrow() {
+            givenRecorderHasBeenCreated(8);
+            final int id = testee.register("Machine");
+            testee.unregister(id);
+            final Throwable thrown = catchThrowable(() -> testee.unregister(id));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class Dump {
+
+        @Test
+        void testDump_ShouldBeReadable() throws IOException {
+            givenRecorderHasBeenCreated(8);
+            final int id = testee.register("Machine");
+            testee.record(id, 1, 2, 0x3L, false);
+            final Path file = testee.dump();
+            final StateMachineFlightRecording recording = StateMachineFlightRecording.read(file);
+            then(recording.getRecords()).hasSize(1);
+            then(recording.format(recording.getRecords().get(0))).endsWith(" Machine#0 1 -> 2 events=0x3");
+        }
+
+        @Test
+        void testDump_ExceptionShouldDumpAutomatically() throws IOException {
+            givenRecorderHasBeenCreated(8);
+            final int id = testee.register("Machine");
+            testee.record(id, 1, -1, 0L, true);
+            // Rate limited
+            testee.record(id, 1, -1, 0L, true);
+            final List<Path> dumps = dumpFiles();
+            then(dumps).hasSize(1);
+            final StateMachineFlightRecording recording = StateMachineFlightRecording.read(dumps.get(0));
+            then(recording.format(recording.getRecords().get(0))).endsWith(" Machine#0 1 -> ? events=0x0 EXCEPTION");
+        }
+
+        @Test
+        void testDump_OtherFileShouldThrow() throws IOException {
+            final Path file = directory.resolve("other" + StateMachineFlightRecorder.DUMP_SUFFIX);
+            Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+            final Throwable thrown = catchThrowable(() -> StateMachineFlightRecording.read(file));
+            then(thrown).isInstanceOf(IOException.class);
+        }
+    }
+
+    private void givenRecorderHasBeenCreated(final int capacity) {
+        testee = new StateMachineFlightRecorder(capacity, directory);
+    }
+
+    private List<Path> dumpFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(StateMachineFlightRecorder.DUMP_SUFFIX))
+                .collect(Collectors.toList());
+        }
+    }
+}
@@ -16,6 +16,8 @@ import static org.assertj.core.api.BDDAssertions.then;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 class StateMachineHistoryEntryTest {
@@ -144,6 +146,87 @@ class StateMachineHistoryEntryTest {
         }
     }
 
+    @Nested
+    class MergedApplications {
+
+        @Test
+        void testMergedApplications_UnsetShouldReturnOne() {
+            givenTesteeHasBeenCreated();
+            whenReceivingMergedApplications();
+            then(result).isEqualTo(1);
+            then(testee.isMerged()).isFalse();
+        }
+
+        @Test
+        void testMergedApplications_SetShouldReturnValueAndMarkAsMerged() {
+            givenTesteeHasBeenCreated();
+            testee.setMergedApplications(3);
+            whenReceivingMergedApplications();
+            then(result).isEqualTo(3);
+            then(testee.isMerged()).isTrue();
+        }
+
+        private void whenReceivingMergedApplications() {
+            result = testee.getMergedApplications();
+        }
+    }
+
+    @Nested
+    class Configuration {
+
+        private static final long START_CONFIGURATION_ID = 3;
+        private static final long END_CONFIGURATION_ID = 7;
+
+        private final List<Long> decodedIds = new ArrayList<>();
+
+        @Test
+        void testConfiguration_UnsetShouldReturnMinusOne() {
+            givenTesteeHasBeenCreated();
+            then(testee.getStartConfigurationId()).isEqualTo(-1);
+            then(testee.getEndConfigurationId()).isEqualTo(-1);
+        }
+
+        @Test
+        void testConfiguration_ShouldNotBeDecodedBeforeRead() {
+            givenTesteeHasBeenCreated();
+            givenConfigurationsHaveBeenSet();
+            then(testee.getStartConfigurationId()).isEqualTo(START_CONFIGURATION_ID);
+            then(testee.getEndConfigurationId()).isEqualTo(END_CONFIGURATION_ID);
+            then(decodedIds).isEmpty();
+        }
+
+        @Test
+        void testConfiguration_ShouldBeDecodedOnceOnRead() {
+            givenTesteeHasBeenCreated();
+            givenConfigurationsHaveBeenSet();
+            then(testee.getStartState()).isEqualTo("State3");
+            then(testee.getStartState()).isEqualTo("State3");
+            then(testee.getEndState()).isEqualTo("State7");
+            then(decodedIds).containsExactly(START_CONFIGURATION_ID, END_CONFIGURATION_ID);
+        }
+
+        @Test
+        void testConfiguration_ShouldEqualEntryWithDecodedStrings() {
+            givenTesteeHasBeenCreated();
+            givenConfigurationsHaveBeenSet();
+            final StateMachineHistoryEntry otherTestee = new StateMachineHistoryEntry();
+            otherTestee.setStartState("State3");
+            otherTestee.setEndState("State7");
+            then(testee).isEqualTo(otherTestee);
+            then(testee.hashCode()).isEqualTo(otherTestee.hashCode());
+        }
+
+        private void givenConfigurationsHaveBeenSet() {
+            testee.setStartConfiguration(START_CONFIGURATION_ID, this::decode);
+            testee.setEndConfiguration(END_CONFIGURATION_ID, this::decode);
+        }
+
+        private String decode(final long configurationId) {
+            decodedIds.add(configurationId);
+            return "State" + configurationId;
+        }
+    }
+
     @Nested
     class HashCodeAndEquals {
 
@@ -192,6 +275,15 @@ class StateMachineHistoryEntryTest {
             thenTesteesAreNotEqual();
         }
 
+        @Test
+        void testUnequal_MergedApplications() {
+            givenTwoTesteesAreCreated();
+            givenStartStateIsSetToSameValue();
+            givenEventsAreSetToSameInput();
+            otherTestee.setMergedApplications(2);
+            thenTesteesAreNotEqual();
+        }
+
         @Test
         void testUnequal_Null() {
             givenTesteeHasBeenCreated();
@@ -298,6 +390,7 @@ class StateMachineHistoryEntryTest {
             then(result).asString().contains("events=");
             then(result).asString().contains("endState=");
             then(result).asString().contains("throwable=");
+            then(result).asString().contains("mergedApplications=");
         }
 
         private void whenReceivingStringRepresentation() {
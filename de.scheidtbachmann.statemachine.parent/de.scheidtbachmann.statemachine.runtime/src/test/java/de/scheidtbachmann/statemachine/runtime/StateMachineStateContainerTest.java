@@ -17,6 +17,7 @@ import static org.assertj.core.api.BDDAssertions.then;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 class StateMachineStateContainerTest {
 
@@ -69,6 +70,55 @@ class StateMachineStateContainerTest {
         thenResultingStringMatches("State,OtherState");
     }
 
+    @Test
+    void testStringGeneration_PrecomputedStringOfContextShouldBeUsed() {
+        givenContextWithPrecomputedString("Precomputed");
+        givenTesteeHasBeenCreated();
+        whenBuildingString();
+        thenNoExceptionIsThrown();
+        thenResultingStringMatches("Precomputed");
+    }
+
+    @Test
+    void testStringGeneration_ConfigurationIdShouldBeDecoded() {
+        testee = new StateMachineStateContainer(42, configurationId -> "State" + configurationId);
+        whenBuildingString();
+        thenNoExceptionIsThrown();
+        thenResultingStringMatches("State42");
+        then(testee.getConfigurationId()).isEqualTo(42);
+    }
+
+    @Test
+    void testStringGeneration_CapturedStringShouldBeReturned() {
+        testee = new StateMachineStateContainer("Captured");
+        whenBuildingString();
+        thenNoExceptionIsThrown();
+        thenResultingStringMatches("Captured");
+        then(testee.getConfigurationId()).isEqualTo(-1);
+    }
+
+    @Test
+    void testConfigurationId_ContextShouldReturnMinusOne() {
+        givenStatesInContext(List.of("State"));
+        givenTesteeHasBeenCreated();
+        then(testee.getConfigurationId()).isEqualTo(-1);
+    }
+
+    private void givenContextWithPrecomputedString(final String currentState) {
+        inputContext = new StateMachineRootContext() {
+
+            @Override
+            public Stream<String> getCurrentState() {
+                return Stream.of("NotUsed");
+            }
+
+            @Override
+            public String getCurrentStateString() {
+                return currentState;
+            }
+        };
+    }
+
     private void givenStatesInContext(final List<String> states) {
         inputContext = () -> states.stream();
     }
@@ -0,0 +1,111 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+class StateMachineStateFileTest {
+
+    private static final long SCHEMA_HASH = CounterMachine.SCHEMA_HASH;
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private Throwable thrown;
+
+    @Nested
+    class RoundTrip {
+
+        @Test
+        void testRoundTrip_ShouldRestoreAllStates() throws IOException {
+            givenFileHasBeenWritten(List.of(new CounterMachine(SCHEMA_HASH, 1), new CounterMachine(SCHEMA_HASH, 2),
+                new CounterMachine(SCHEMA_HASH, 3)));
+            final List<CounterMachine> restored = List.of(new CounterMachine(SCHEMA_HASH, 0),
+                new CounterMachine(SCHEMA_HASH, 0), new CounterMachine(SCHEMA_HASH, 0));
+            StateMachineStateFile.read(file, restored);
+            then(restored).extracting(CounterMachine::getCounter).containsExactly(1L, 2L, 3L);
+        }
+
+        @Test
+        void testRoundTrip_NoStateMachinesShouldWriteHeaderOnly() throws IOException {
+            givenFileHasBeenWritten(List.of());
+            then(Files.size(file)).isEqualTo(3 * Integer.BYTES);
+            StateMachineStateFile.read(file, List.of());
+        }
+
+        @Test
+        void testRoundTrip_ShouldReplaceExistingFile() throws IOException {
+            givenFileHasBeenWritten(List.of(new CounterMachine(SCHEMA_HASH, 1)));
+            givenFileHasBeenWritten(List.of(new CounterMachine(SCHEMA_HASH, 7)));
+            final CounterMachine restored = new CounterMachine(SCHEMA_HASH, 0);
+            StateMachineStateFile.read(file, List.of(restored));
+            then(restored.getCounter()).isEqualTo(7);
+            then(directory.resolve("states.bin.tmp")).doesNotExist();
+        }
+    }
+
+    @Nested
+    class Mismatch {
+
+        @Test
+        void testMismatch_DifferentCountShouldThrow() throws IOException {
+            givenFileHasBeenWritten(List.of(new CounterMachine(SCHEMA_HASH, 1)));
+            whenReading(List.of(new CounterMachine(SCHEMA_HASH, 0), new CounterMachine(SCHEMA_HASH, 0)));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void testMismatch_DifferentChartShouldThrow() throws IOException {
+            givenFileHasBeenWritten(List.of(new CounterMachine(SCHEMA_HASH, 1)));
+            whenReading(List.of(new CounterMachine(SCHEMA_HASH + 1, 0)));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void testMismatch_OtherFileShouldThrow() throws IOException {
+            file = directory.resolve("other.bin");
+            Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 });
+            whenReading(List.of());
+            then(thrown).isInstanceOf(IOException.class);
+        }
+
+        @Test
+        void testMismatch_TruncatedFileShouldThrow() throws IOException {
+            givenFileHasBeenWritten(List.of(new CounterMachine(SCHEMA_HASH, 1)));
+            final byte[] content = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(content, content.length - 1));
+            whenReading(List.of(new CounterMachine(SCHEMA_HASH, 0)));
+            then(thrown).isInstanceOf(IOException.class);
+        }
+    }
+
+    private void givenFileHasBeenWritten(final List<CounterMachine> stateMachines) throws IOException {
+        file = directory.resolve("states.bin");
+        StateMachineStateFile.write(file, stateMachines);
+    }
+
+    private void whenReading(final List<CounterMachine> stateMachines) {
+        thrown = catchThrowable(() -> StateMachineStateFile.read(file, stateMachines));
+    }
+}
@@ -0,0 +1,269 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+class StateMachineBoundedMailboxTest {
+
+    private static final int CAPACITY = 2;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(this::newExecutorThread);
+    private volatile Thread executorThread;
+    private final CountDownLatch blocker = new CountDownLatch(1);
+    private final List<String> processedItems = Collections.synchronizedList(new ArrayList<>());
+    private final List<Boolean> offerResults = new ArrayList<>();
+    private StateMachineBoundedMailbox<String> testee;
+
+    @AfterEach
+    void shutdownExecutor() {
+        blocker.countDown();
+        executor.shutdownNow();
+    }
+
+    @Nested
+    class Processing {
+
+        @Test
+        void testOffer_ItemsShouldBeProcessedInOrder() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.BLOCK);
+            whenOffering("A", "B", "C");
+            thenAllItemsHaveBeenAccepted();
+            thenItemsHaveBeenProcessed("A", "B", "C");
+            then(testee.getQueueDepth()).isZero();
+        }
+
+        @Test
+        void testOffer_OtherTasksShouldRunBetweenItems() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.REJECT);
+            givenExecutorIsBlocked();
+            whenOffering("A", "B");
+            executor.execute(() -> processedItems.add("task"));
+            blocker.countDown();
+            thenItemsHaveBeenProcessed("A", "task", "B");
+        }
+
+        @Test
+        void testOffer_ItemsFromWithinTheExecutorShouldNotBeLimited() throws Exception {
+            testee = new StateMachineBoundedMailbox<>(executor, 1, StateMachineOverflowPolicy.BLOCK, item -> {
+                processedItems.add(item);
+                if ("A".equals(item)) {
+                    offerUnchecked("B");
+                    offerUnchecked("C");
+                }
+            }, null, StateMachineBoundedMailboxTest.this::isInExecutor);
+            whenOffering("A");
+            thenItemsHaveBeenProcessed("A", "B", "C");
+        }
+
+        @Test
+        void testOffer_OtherTaskInTheExecutorShouldNotBlockOnFullMailbox() throws Exception {
+            testee = new StateMachineBoundedMailbox<>(executor, 1, StateMachineOverflowPolicy.BLOCK, processedItems::add,
+                null, StateMachineBoundedMailboxTest.this::isInExecutor);
+            executor.submit(() -> {
+                offerUnchecked("A");
+                offerUnchecked("B");
+                offerUnchecked("C");
+            }).get(1, TimeUnit.SECONDS);
+            thenAllItemsHaveBeenAccepted();
+            thenItemsHaveBeenProcessed("A", "B", "C");
+        }
+
+        @Test
+        void testFlush_ShouldProcessPendingItemsInTheCallingTask() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.BLOCK);
+            final Future<?> flush = executor.submit(() -> {
+                blocker.await();
+                testee.flush();
+                return null;
+            });
+            whenOffering("A", "B");
+            blocker.countDown();
+            flush.get(1, TimeUnit.SECONDS);
+            then(processedItems).containsExactly("A", "B");
+            then(testee.getQueueDepth()).isZero();
+            thenItemsHaveBeenProcessed("A", "B");
+        }
+
+        private void offerUnchecked(final String item) {
+            try {
+                offerResults.add(testee.offer(item));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Nested
+    class Overflow {
+
+        @Test
+        void testOffer_RejectShouldNotAcceptNewItem() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.REJECT);
+            givenExecutorIsBlocked();
+            whenOffering("A", "B", "C");
+            then(offerResults).containsExactly(true, true, false);
+            then(testee.getRejectedCount()).isEqualTo(1);
+            blocker.countDown();
+            thenItemsHaveBeenProcessed("A", "B");
+        }
+
+        @Test
+        void testOffer_DropOldestShouldDiscardOldestItem() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.DROP_OLDEST);
+            givenExecutorIsBlocked();
+            whenOffering("A", "B", "C");
+            thenAllItemsHaveBeenAccepted();
+            then(testee.getDroppedCount()).isEqualTo(1);
+            blocker.countDown();
+            thenItemsHaveBeenProcessed("B", "C");
+        }
+
+        @Test
+        void testOffer_DropOldestShouldHandDroppedItemToListener() throws Exception {
+            final List<String> droppedItems = new ArrayList<>();
+            testee = new StateMachineBoundedMailbox<>(executor, CAPACITY, StateMachineOverflowPolicy.DROP_OLDEST,
+                processedItems::add, null, droppedItems::add, StateMachineBoundedMailboxTest.this::isInExecutor);
+            givenExecutorIsBlocked();
+            whenOffering("A", "B", "C", "D");
+            thenAllItemsHaveBeenAccepted();
+            then(droppedItems).containsExactly("A", "B");
+            blocker.countDown();
+            thenItemsHaveBeenProcessed("C", "D");
+        }
+
+        @Test
+        void testOffer_CoalesceShouldMergeIntoNewestItem() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.COALESCE);
+            givenExecutorIsBlocked();
+            whenOffering("A", "B", "C", "D");
+            thenAllItemsHaveBeenAccepted();
+            then(testee.getCoalescedCount()).isEqualTo(2);
+            blocker.countDown();
+            thenItemsHaveBeenProcessed("A", "BCD");
+        }
+
+        @Test
+        void testOffer_CoalesceWithoutCoalescerShouldReject() throws Exception {
+            testee = new StateMachineBoundedMailbox<>(executor, CAPACITY, StateMachineOverflowPolicy.COALESCE,
+                processedItems::add, null, StateMachineBoundedMailboxTest.this::isInExecutor);
+            givenExecutorIsBlocked();
+            whenOffering("A", "B", "C");
+            then(offerResults).containsExactly(true, true, false);
+            then(testee.getRejectedCount()).isEqualTo(1);
+        }
+
+        @Test
+        void testOffer_BlockShouldWaitForSpace() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.BLOCK);
+            givenExecutorIsBlocked();
+            whenOffering("A", "B");
+            final ExecutorService producer = Executors.newSingleThreadExecutor();
+            try {
+                final Future<Boolean> blockedOffer = producer.submit(() -> testee.offer("C"));
+                thenOfferIsStillBlocked(blockedOffer);
+                blocker.countDown();
+                then(blockedOffer.get(1, TimeUnit.SECONDS)).isTrue();
+            } finally {
+                producer.shutdownNow();
+            }
+            thenItemsHaveBeenProcessed("A", "B", "C");
+        }
+
+        private void thenOfferIsStillBlocked(final Future<Boolean> blockedOffer) throws Exception {
+            try {
+                blockedOffer.get(50, TimeUnit.MILLISECONDS);
+            } catch (final TimeoutException e) {
+                // expected
+            }
+            then(blockedOffer.isDone()).isFalse();
+        }
+    }
+
+    @Nested
+    class Metrics {
+
+        @Test
+        void testMetrics_ShouldTrackDepthAndHighWaterMark() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.REJECT);
+            givenExecutorIsBlocked();
+            whenOffering("A", "B");
+            then(testee.getCapacity()).isEqualTo(CAPACITY);
+            then(testee.getQueueDepth()).isEqualTo(2);
+            then(testee.getHighWaterMark()).isEqualTo(2);
+            blocker.countDown();
+            thenItemsHaveBeenProcessed("A", "B");
+            then(testee.getQueueDepth()).isZero();
+            then(testee.getHighWaterMark()).isEqualTo(2);
+            testee.resetHighWaterMark();
+            then(testee.getHighWaterMark()).isZero();
+        }
+    }
+
+    private void givenTesteeHasBeenCreated(final StateMachineOverflowPolicy policy) {
+        testee = new StateMachineBoundedMailbox<>(executor, CAPACITY, policy, processedItems::add, String::concat,
+            this::isInExecutor);
+    }
+
+    private Thread newExecutorThread(final Runnable runnable) {
+        executorThread = new Thread(runnable);
+        return executorThread;
+    }
+
+    private boolean isInExecutor() {
+        return Thread.currentThread() == executorThread;
+    }
+
+    private void givenExecutorIsBlocked() {
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private void whenOffering(final String... items) throws InterruptedException {
+        for (final String item : items) {
+            offerResults.add(testee.offer(item));
+        }
+    }
+
+    private void thenAllItemsHaveBeenAccepted() {
+        then(offerResults).doesNotContain(false);
+    }
+
+    private void thenItemsHaveBeenProcessed(final String... items) throws InterruptedException, ExecutionException {
+        // Items are drained one by one, so several rounds may be needed until the mailbox is empty
+        for (int i = 0; i <= items.length && testee.getQueueDepth() > 0; i++) {
+            executor.submit(() -> { /* wait for the previous tasks */ }).get();
+        }
+        executor.submit(() -> { /* wait for the last item */ }).get();
+        then(processedItems).containsExactly(items);
+    }
+}
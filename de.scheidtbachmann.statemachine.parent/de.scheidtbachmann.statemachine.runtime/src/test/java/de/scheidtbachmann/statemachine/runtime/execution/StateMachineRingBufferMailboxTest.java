@@ -0,0 +1,305 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+class StateMachineRingBufferMailboxTest {
+
+    private static final int CAPACITY = 4;
+    private static final int PRODUCERS = 4;
+    private static final int ITEMS_PER_PRODUCER = 10_000;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(this::newExecutorThread);
+    private volatile Thread executorThread;
+    private final CountDownLatch blocker = new CountDownLatch(1);
+    private final List<Integer> processedItems = Collections.synchronizedList(new ArrayList<>());
+    private StateMachineRingBufferMailbox<Slot> testee;
+
+    /** Mutable slot, as used by the generated code. */
+    private static final class Slot {
+        private int value;
+    }
+
+    @AfterEach
+    void shutdownExecutor() {
+        blocker.countDown();
+        executor.shutdownNow();
+    }
+
+    @Nested
+    class Processing {
+
+        @Test
+        void testPublish_ItemsShouldBeProcessedInOrder() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.BLOCK);
+            whenPublishing(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+            thenItemsHaveBeenProcessed(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        }
+
+        @Test
+        void testPublish_ConcurrentProducersShouldNotLoseItems() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.BLOCK);
+            final ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+            try {
+                final List<Future<?>> results = new ArrayList<>();
+                for (int p = 0; p < PRODUCERS; p++) {
+                    final int producer = p;
+                    results.add(producers.submit(() -> {
+                        for (int i = 0; i < ITEMS_PER_PRODUCER; i++) {
+                            publish(producer * ITEMS_PER_PRODUCER + i);
+                        }
+                        return null;
+                    }));
+                }
+                for (final Future<?> result : results) {
+                    result.get(10, TimeUnit.SECONDS);
+                }
+            } finally {
+                producers.shutdownNow();
+            }
+            waitUntilProcessed(PRODUCERS * ITEMS_PER_PRODUCER);
+            then(processedItems).hasSize(PRODUCERS * ITEMS_PER_PRODUCER).doesNotHaveDuplicates();
+            thenItemsOfEachProducerAreInOrder();
+        }
+
+        @Test
+        void testPublish_SlotsShouldBeReused() throws Exception {
+            final List<Slot> createdSlots = new ArrayList<>();
+            testee = new StateMachineRingBufferMailbox<>(executor, CAPACITY, StateMachineOverflowPolicy.BLOCK, () -> {
+                final Slot slot = new Slot();
+                createdSlots.add(slot);
+                return slot;
+            }, slot -> processedItems.add(slot.value), StateMachineRingBufferMailboxTest.this::isInExecutor);
+            whenPublishing(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+            thenItemsHaveBeenProcessed(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+            then(createdSlots).hasSize(CAPACITY);
+        }
+
+        @Test
+        void testFlush_ShouldProcessPublishedSlotsInTheCallingTask() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.BLOCK);
+            final Future<?> flush = executor.submit(() -> {
+                blocker.await();
+                testee.flush();
+                return null;
+            });
+            whenPublishing(1, 2, 3);
+            blocker.countDown();
+            flush.get(1, TimeUnit.SECONDS);
+            then(processedItems).containsExactly(1, 2, 3);
+            then(testee.getQueueDepth()).isZero();
+            whenPublishing(4, 5, 6, 7, 8);
+            thenItemsHaveBeenProcessed(1, 2, 3, 4, 5, 6, 7, 8);
+        }
+
+        private void thenItemsOfEachProducerAreInOrder() {
+            final int[] lastValues = new int[PRODUCERS];
+            Arrays.fill(lastValues, -1);
+            for (final int value : processedItems) {
+                final int producer = value / ITEMS_PER_PRODUCER;
+                then(value).isGreaterThan(lastValues[producer]);
+                lastValues[producer] = value;
+            }
+        }
+    }
+
+    @Nested
+    class Overflow {
+
+        @Test
+        void testClaim_RejectShouldFailIfFull() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.REJECT);
+            givenExecutorIsBlocked();
+            whenPublishing(1, 2, 3, 4);
+            then(testee.claim()).isEqualTo(StateMachineRingBufferMailbox.REJECTED);
+            then(testee.getRejectedCount()).isEqualTo(1);
+            then(testee.getQueueDepth()).isEqualTo(CAPACITY);
+            blocker.countDown();
+            thenItemsHaveBeenProcessed(1, 2, 3, 4);
+        }
+
+        @Test
+        void testClaim_BlockShouldWaitForFreeSlot() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.BLOCK);
+            givenExecutorIsBlocked();
+            whenPublishing(1, 2, 3, 4);
+            final ExecutorService producer = Executors.newSingleThreadExecutor();
+            try {
+                final Future<?> blockedPublish = producer.submit(() -> {
+                    publish(5);
+                    return null;
+                });
+                thenPublishIsStillBlocked(blockedPublish);
+                blocker.countDown();
+                blockedPublish.get(1, TimeUnit.SECONDS);
+            } finally {
+                producer.shutdownNow();
+            }
+            thenItemsHaveBeenProcessed(1, 2, 3, 4, 5);
+        }
+
+        @Test
+        void testClaim_ConsumerShouldUseOverflowIfFull() throws Exception {
+            final List<Long> claimsFromConsumer = new ArrayList<>();
+            testee = new StateMachineRingBufferMailbox<>(executor, 2, StateMachineOverflowPolicy.REJECT, Slot::new,
+                slot -> {
+                    if (slot.value == 1) {
+                        claimsFromConsumer.add(publishUnchecked(3));
+                    }
+                    processedItems.add(slot.value);
+                }, StateMachineRingBufferMailboxTest.this::isInExecutor);
+            givenExecutorIsBlocked();
+            whenPublishing(1, 2);
+            blocker.countDown();
+            thenItemsHaveBeenProcessed(1, 2, 3);
+            then(claimsFromConsumer).containsExactly(StateMachineRingBufferMailbox.OVERFLOW);
+            then(testee.getRejectedCount()).isZero();
+        }
+
+        @Test
+        void testClaim_OtherTaskInTheExecutorShouldNotBlockIfFull() throws Exception {
+            givenTesteeHasBeenCreated(StateMachineOverflowPolicy.BLOCK);
+            executor.submit(() -> {
+                for (int value = 1; value <= 2 * CAPACITY; value++) {
+                    publishUnchecked(value);
+                }
+            }).get(1, TimeUnit.SECONDS);
+            thenItemsHaveBeenProcessed(1, 2, 3, 4, 5, 6, 7, 8);
+            then(testee.getQueueDepth()).isZero();
+        }
+
+        @Test
+        void testClaim_OverflowShouldKeepOrderWithRing() throws Exception {
+            final List<Long> claimsFromConsumer = new ArrayList<>();
+            testee = new StateMachineRingBufferMailbox<>(executor, CAPACITY, StateMachineOverflowPolicy.BLOCK,
+                Slot::new, slot -> {
+                    // 5 goes to the overflow queue, 6 to the ring slot freed by 1, but is still processed after 5
+                    if (slot.value == 1 || slot.value == 2) {
+                        claimsFromConsumer.add(publishUnchecked(slot.value + CAPACITY));
+                    }
+                    processedItems.add(slot.value);
+                }, StateMachineRingBufferMailboxTest.this::isInExecutor);
+            givenExecutorIsBlocked();
+            whenPublishing(1, 2, 3, 4);
+            blocker.countDown();
+            thenItemsHaveBeenProcessed(1, 2, 3, 4, 5, 6);
+            then(claimsFromConsumer).containsExactly(StateMachineRingBufferMailbox.OVERFLOW, (long) CAPACITY);
+        }
+
+        private long publishUnchecked(final int value) {
+            try {
+                final long sequence = testee.claim();
+                testee.slot(sequence).value = value;
+                testee.publish(sequence);
+                return sequence;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return StateMachineRingBufferMailbox.REJECTED;
+            }
+        }
+
+        @Test
+        void testCreate_UnsupportedPolicyShouldFail() {
+            final Throwable thrown = catchThrowable(() -> givenTesteeHasBeenCreated(StateMachineOverflowPolicy.COALESCE));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        private void thenPublishIsStillBlocked(final Future<?> blockedPublish) throws Exception {
+            try {
+                blockedPublish.get(50, TimeUnit.MILLISECONDS);
+            } catch (final TimeoutException e) {
+                // expected
+            }
+            then(blockedPublish.isDone()).isFalse();
+        }
+    }
+
+    @Test
+    void testCapacity_ShouldBeRoundedToPowerOfTwo() {
+        testee = new StateMachineRingBufferMailbox<>(executor, 5, StateMachineOverflowPolicy.BLOCK, Slot::new,
+            slot -> { /* not used */ }, this::isInExecutor);
+        then(testee.getCapacity()).isEqualTo(8);
+    }
+
+    @Test
+    void testCapacity_ShouldBeAtLeastTwo() {
+        testee = new StateMachineRingBufferMailbox<>(executor, 1, StateMachineOverflowPolicy.BLOCK, Slot::new,
+            slot -> { /* not used */ }, this::isInExecutor);
+        then(testee.getCapacity()).isEqualTo(2);
+    }
+
+    private void givenTesteeHasBeenCreated(final StateMachineOverflowPolicy policy) {
+        testee = new StateMachineRingBufferMailbox<>(executor, CAPACITY, policy, Slot::new,
+            slot -> processedItems.add(slot.value), this::isInExecutor);
+    }
+
+    private Thread newExecutorThread(final Runnable runnable) {
+        executorThread = new Thread(runnable);
+        return executorThread;
+    }
+
+    private boolean isInExecutor() {
+        return Thread.currentThread() == executorThread;
+    }
+
+    private void givenExecutorIsBlocked() {
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private void whenPublishing(final int... values) throws InterruptedException {
+        for (final int value : values) {
+            publish(value);
+        }
+    }
+
+    private void publish(final int value) throws InterruptedException {
+        final long sequence = testee.claim();
+        then(sequence).isNotNegative();
+        testee.slot(sequence).value = value;
+        testee.publish(sequence);
+    }
+
+    private void waitUntilProcessed(final int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (processedItems.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void thenItemsHaveBeenProcessed(final Integer... values) throws InterruptedException {
+        waitUntilProcessed(values.length);
+        then(processedItems).containsExactly(values);
+    }
+}
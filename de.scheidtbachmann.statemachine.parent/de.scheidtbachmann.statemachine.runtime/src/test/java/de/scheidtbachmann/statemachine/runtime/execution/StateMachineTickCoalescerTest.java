@@ -0,0 +1,136 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+class StateMachineTickCoalescerTest {
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final CountDownLatch blocker = new CountDownLatch(1);
+    private final List<String> processedItems = Collections.synchronizedList(new ArrayList<>());
+    private StateMachineTickCoalescer<String> testee;
+
+    @AfterEach
+    void shutdownExecutor() {
+        blocker.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testOffer_SingleItemShouldNotBeMerged() throws Exception {
+        givenTesteeHasBeenCreated(4, 0);
+        whenOffering("A");
+        thenItemsHaveBeenProcessed("A:1");
+    }
+
+    @Test
+    void testOffer_PendingItemsShouldBeMergedIntoOneTick() throws Exception {
+        givenTesteeHasBeenCreated(4, 0);
+        givenExecutorIsBlocked();
+        whenOffering("A", "B", "C");
+        blocker.countDown();
+        thenItemsHaveBeenProcessed("ABC:3");
+        then(testee.getOfferedCount()).isEqualTo(3);
+        then(testee.getBatchCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testOffer_BatchesShouldBeLimitedByMaximumSize() throws Exception {
+        givenTesteeHasBeenCreated(2, 0);
+        givenExecutorIsBlocked();
+        whenOffering("A", "B", "C", "D", "E");
+        blocker.countDown();
+        thenItemsHaveBeenProcessed("AB:2", "CD:2", "E:1");
+    }
+
+    @Test
+    void testOffer_WindowShouldCollectLaterItems() throws Exception {
+        givenTesteeHasBeenCreated(8, 200);
+        whenOffering("A");
+        Thread.sleep(20);
+        whenOffering("B");
+        thenItemsHaveBeenProcessedWithin(1000, "AB:2");
+    }
+
+    @Test
+    void testOffer_ItemsFromWithinTheExecutorShouldRunInLaterTick() throws Exception {
+        testee = new StateMachineTickCoalescer<>(executor, 4, 0, TimeUnit.MILLISECONDS, String::concat,
+            (item, mergedItems) -> {
+                processedItems.add(item + ":" + mergedItems);
+                if ("A".equals(item)) {
+                    testee.offer("B");
+                }
+            });
+        whenOffering("A");
+        thenItemsHaveBeenProcessed("A:1", "B:1");
+    }
+
+    @Test
+    void testFlush_ShouldProcessPendingItemsWithoutWindow() throws Exception {
+        givenTesteeHasBeenCreated(2, 10_000);
+        whenOffering("A", "B", "C");
+        executor.submit(testee::flush).get(1, TimeUnit.SECONDS);
+        then(processedItems).containsExactly("AB:2", "C:1");
+        then(testee.getBatchCount()).isEqualTo(2);
+    }
+
+    private void givenTesteeHasBeenCreated(final int maxBatchSize, final long windowMillis) {
+        testee = new StateMachineTickCoalescer<>(executor, maxBatchSize, windowMillis, TimeUnit.MILLISECONDS,
+            String::concat, (item, mergedItems) -> processedItems.add(item + ":" + mergedItems));
+    }
+
+    private void givenExecutorIsBlocked() {
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private void whenOffering(final String... items) {
+        for (final String item : items) {
+            testee.offer(item);
+        }
+    }
+
+    private void thenItemsHaveBeenProcessed(final String... items) throws InterruptedException, ExecutionException {
+        // Each batch schedules the next one, so several rounds may be needed until all batches are done
+        for (int i = 0; i <= items.length; i++) {
+            executor.submit(() -> { /* wait for the previous tasks */ }).get();
+        }
+        then(processedItems).containsExactly(items);
+    }
+
+    private void thenItemsHaveBeenProcessedWithin(final long millis, final String... items)
+        throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + millis;
+        while (processedItems.size() < items.length && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        then(processedItems).containsExactly(items);
+    }
+}
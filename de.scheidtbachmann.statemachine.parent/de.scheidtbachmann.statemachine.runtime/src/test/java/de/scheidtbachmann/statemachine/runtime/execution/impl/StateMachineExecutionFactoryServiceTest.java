@@ -80,6 +80,14 @@ class StateMachineExecutionFactoryServiceTest {
         thenThreadIsNotRunningInExecutor();
     }
 
+    @Test
+    void testRunningInExecutor_ThreadInExecutorOfOtherFactory() throws InterruptedException, ExecutionException {
+        givenTesteeHasBeenCreated();
+        givenExecutorHasBeenRetrieved();
+        whenTestingForThreadRunningInExecutorOfOtherFactory();
+        thenThreadIsNotRunningInExecutor();
+    }
+
     private void givenTesteeHasBeenCreated() {
         testee = new StateMachineExecutionFactoryService();
     }
@@ -118,6 +126,19 @@ class StateMachineExecutionFactoryServiceTest {
         }).get();
     }
 
+    private void whenTestingForThreadRunningInExecutorOfOtherFactory()
+        throws InterruptedException, ExecutionException {
+        final StateMachineExecutionFactoryService otherFactory = new StateMachineExecutionFactoryService();
+        final ScheduledExecutorService otherExecutorService = otherFactory.createExecutor(NAME_FRAGMENT);
+        try {
+            otherExecutorService.submit(() -> {
+                result = testee.isRunningInExecutor();
+            }).get();
+        } finally {
+            otherFactory.releaseExecutor(otherExecutorService);
+        }
+    }
+
     private void thenScheduledExecutorIsReturned() {
         then(result).isNotNull();
         then(result).isInstanceOf(ScheduledExecutorService.class);
@@ -0,0 +1,115 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class StateMachineFlushingExecutionFactoryTest {
+
+    private final Semaphore flushes = new Semaphore(0);
+    private final AtomicInteger flushCount = new AtomicInteger();
+    private final Flushable store = () -> {
+        flushCount.incrementAndGet();
+        flushes.release();
+    };
+
+    @Test
+    void testFlushing_ShouldFlushPeriodically() throws InterruptedException, IOException {
+        final StateMachineFlushingExecutionFactory testee =
+            new StateMachineFlushingExecutionFactory(new StateMachineExecutionFactoryService(), store, 1,
+                TimeUnit.MILLISECONDS);
+        try {
+            then(flushes.tryAcquire(3, 5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            testee.shutdown();
+        }
+    }
+
+    @Test
+    void testFlushing_ReleasingExecutorShouldFlush() throws InterruptedException, IOException {
+        final StateMachineFlushingExecutionFactory testee =
+            new StateMachineFlushingExecutionFactory(new StateMachineExecutionFactoryService(), store, 1,
+                TimeUnit.HOURS);
+        try {
+            final ScheduledExecutorService executor = testee.createExecutor("Flushing");
+            testee.releaseExecutor(executor);
+            then(executor.isShutdown()).isTrue();
+            then(flushes.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            testee.shutdown();
+        }
+    }
+
+    @Test
+    void testFlushing_ReleasesDuringFlushShouldNotWaitAndShareNextFlush() throws InterruptedException, IOException {
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final Flushable blockingStore = () -> {
+            flushCount.incrementAndGet();
+            flushes.release();
+            try {
+                blocker.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        final StateMachineFlushingExecutionFactory testee =
+            new StateMachineFlushingExecutionFactory(new StateMachineExecutionFactoryService(), blockingStore, 1,
+                TimeUnit.HOURS);
+        try {
+            testee.releaseExecutor(testee.createExecutor("First"));
+            then(flushes.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+            // The flusher is blocked, the releases return anyway
+            testee.releaseExecutor(testee.createExecutor("Second"));
+            testee.releaseExecutor(testee.createExecutor("Third"));
+            testee.releaseExecutor(testee.createExecutor("Fourth"));
+            then(flushCount).hasValue(1);
+        } finally {
+            blocker.countDown();
+            testee.shutdown();
+        }
+        // One flush for the first release, one shared by the other releases and the last one of the shutdown
+        then(flushCount).hasValue(3);
+    }
+
+    @Test
+    void testFlushing_ShutdownShouldFlush() throws IOException {
+        final StateMachineFlushingExecutionFactory testee =
+            new StateMachineFlushingExecutionFactory(new StateMachineExecutionFactoryService(), store, 1,
+                TimeUnit.HOURS);
+        testee.shutdown();
+        then(flushCount).hasValue(1);
+    }
+
+    @Test
+    void testFlushing_FailingFlushShouldKeepFlushing() throws InterruptedException {
+        final Flushable failingStore = () -> {
+            flushes.release();
+            throw new IOException("Expected test failure");
+        };
+        final StateMachineFlushingExecutionFactory testee =
+            new StateMachineFlushingExecutionFactory(new StateMachineExecutionFactoryService(), failingStore, 1,
+                TimeUnit.MILLISECONDS);
+        then(flushes.tryAcquire(3, 5, TimeUnit.SECONDS)).isTrue();
+        then(catchThrowable(testee::shutdown)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,167 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class StateMachineLazyTimeoutManagerImplTest {
+
+    private static final Duration DEFAULT_DELAY = Duration.ofMillis(50);
+    private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+
+    private StateMachineLazyTimeoutManagerImpl testee;
+    private ScheduledThreadPoolExecutor executor;
+
+    private final CountDownLatch executed = new CountDownLatch(1);
+    private final AtomicInteger executionCount = new AtomicInteger();
+    private final AtomicLong executionTime = new AtomicLong();
+    private long startTime;
+
+    @BeforeEach
+    void createExecutor() {
+        executor = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Nested
+    class InstanceCreation {
+
+        @Test
+        void testCreation_AutostartTrueShouldRun() throws InterruptedException {
+            givenTesteeHasBeenCreatedWithAutostart(true);
+            then(testee.isRunning()).isTrue();
+            thenActionHasBeenExecutedNotEarly();
+            then(testee.isRunning()).isFalse();
+        }
+
+        @Test
+        void testCreation_AutostartFalseShouldNotRun() {
+            givenTesteeHasBeenCreatedWithAutostart(false);
+            then(testee.isRunning()).isFalse();
+            then(executor.getQueue()).isEmpty();
+        }
+    }
+
+    @Nested
+    class Cancel {
+
+        @Test
+        void testCancel_ShouldStopRunningTimeout() throws InterruptedException {
+            givenTesteeHasBeenCreatedWithAutostart(true);
+            testee.cancel();
+            then(testee.isRunning()).isFalse();
+            then(executed.await(DEFAULT_DELAY.multipliedBy(3).toMillis(), TimeUnit.MILLISECONDS)).isFalse();
+        }
+
+        @Test
+        void testCancel_StartAfterCancelShouldRunOnce() throws InterruptedException {
+            givenTesteeHasBeenCreatedWithAutostart(true);
+            testee.cancel();
+            startTime = System.nanoTime();
+            testee.start();
+            thenActionHasBeenExecutedNotEarly();
+            Thread.sleep(DEFAULT_DELAY.multipliedBy(2).toMillis());
+            then(executionCount).hasValue(1);
+        }
+    }
+
+    @Nested
+    class Restart {
+
+        private static final int RESTART_COUNT = 10_000;
+
+        @Test
+        void testRestart_ShouldPostponeExpiry() throws InterruptedException {
+            givenTesteeHasBeenCreatedWithAutostart(true);
+            Thread.sleep(DEFAULT_DELAY.dividedBy(2).toMillis());
+            startTime = System.nanoTime();
+            testee.restart();
+            thenActionHasBeenExecutedNotEarly();
+            then(executionCount).hasValue(1);
+        }
+
+        @Test
+        void testRestart_ShouldStartNonRunningTimeout() throws InterruptedException {
+            givenTesteeHasBeenCreatedWithAutostart(false);
+            startTime = System.nanoTime();
+            testee.restart();
+            thenActionHasBeenExecutedNotEarly();
+        }
+
+        @Test
+        void testRestart_ShouldKeepSingleScheduledTask() throws InterruptedException {
+            givenTesteeHasBeenCreatedWithAutostart(true);
+            for (int i = 0; i < RESTART_COUNT; i++) {
+                testee.restart();
+            }
+            startTime = System.nanoTime();
+            testee.restart();
+            then(executor.getQueue()).hasSize(1);
+            thenActionHasBeenExecutedNotEarly();
+            then(executionCount).hasValue(1);
+        }
+    }
+
+    @Nested
+    class Execution {
+
+        @Test
+        void testExecution_ThrowingTaskShouldNotThrowBack() throws InterruptedException {
+            final CountDownLatch failingExecuted = new CountDownLatch(1);
+            testee = new StateMachineLazyTimeoutManagerImpl(executor, 1, TimeUnit.MILLISECONDS, () -> {
+                failingExecuted.countDown();
+                throw new IllegalStateException("Expected test failure");
+            }, true);
+            then(failingExecuted.await(MAX_WAIT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+            testee.start();
+            then(testee.isRunning()).isTrue();
+        }
+
+        @Test
+        void testExecution_RejectingExecutorShouldStopTimeout() {
+            executor.shutdown();
+            givenTesteeHasBeenCreatedWithAutostart(true);
+            then(testee.isRunning()).isFalse();
+        }
+    }
+
+    private void givenTesteeHasBeenCreatedWithAutostart(final boolean autoStart) {
+        startTime = System.nanoTime();
+        testee = new StateMachineLazyTimeoutManagerImpl(executor, DEFAULT_DELAY.toMillis(), TimeUnit.MILLISECONDS,
+            () -> {
+                executionTime.set(System.nanoTime());
+                executionCount.incrementAndGet();
+                executed.countDown();
+            }, autoStart);
+    }
+
+    private void thenActionHasBeenExecutedNotEarly() throws InterruptedException {
+        then(executed.await(MAX_WAIT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+        then(executionTime.get() - startTime).isGreaterThanOrEqualTo(DEFAULT_DELAY.toNanos());
+    }
+}
@@ -0,0 +1,276 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class StateMachineStrandExecutionFactoryTest {
+
+    private static final String NAME_FRAGMENT = "Strand";
+    private static final Duration DEFAULT_DELAY = Duration.ofMillis(20);
+    private static final int TASK_COUNT = 1000;
+
+    private StateMachineStrandExecutionFactory testee;
+    private ScheduledExecutorService executorService;
+    private Object result;
+
+    @BeforeEach
+    void createTestee() {
+        testee = new StateMachineStrandExecutionFactory(2);
+        executorService = testee.createExecutor(NAME_FRAGMENT);
+    }
+
+    @AfterEach
+    void shutdownTestee() {
+        testee.shutdown();
+    }
+
+    @Nested
+    class Execution {
+
+        private final List<Integer> executedTasks = Collections.synchronizedList(new ArrayList<>());
+
+        @Test
+        void testExecute_TasksShouldRunInSubmissionOrder() throws InterruptedException, ExecutionException {
+            whenSubmittingNumberedTasks();
+            thenTasksHaveBeenExecutedInOrder();
+        }
+
+        @Test
+        void testExecute_TasksOfOneStrandShouldNeverOverlap() throws InterruptedException, ExecutionException {
+            final AtomicInteger concurrentTasks = new AtomicInteger();
+            final AtomicBoolean overlapDetected = new AtomicBoolean(false);
+            for (int i = 0; i < TASK_COUNT; i++) {
+                executorService.execute(() -> {
+                    if (concurrentTasks.incrementAndGet() > 1) {
+                        overlapDetected.set(true);
+                    }
+                    Thread.yield();
+                    concurrentTasks.decrementAndGet();
+                });
+            }
+            executorService.submit(() -> { /* wait for the previous tasks */ }).get();
+            then(overlapDetected).isFalse();
+        }
+
+        @Test
+        void testExecute_BlockedStrandShouldNotBlockOtherStrands()
+            throws InterruptedException, ExecutionException, TimeoutException {
+            final CountDownLatch blocker = new CountDownLatch(1);
+            executorService.execute(() -> {
+                try {
+                    blocker.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            final ScheduledExecutorService otherExecutor = testee.createExecutor(NAME_FRAGMENT);
+            otherExecutor.submit(() -> {
+                result = Boolean.TRUE;
+            }).get(1, TimeUnit.SECONDS);
+            blocker.countDown();
+            then(result).isEqualTo(Boolean.TRUE);
+        }
+
+        @Test
+        void testExecute_FailingTaskShouldNotStopStrand() throws InterruptedException, ExecutionException {
+            executorService.execute(() -> {
+                throw new IllegalStateException("Expected test failure");
+            });
+            whenSubmittingNumberedTasks();
+            thenTasksHaveBeenExecutedInOrder();
+        }
+
+        private void whenSubmittingNumberedTasks() throws InterruptedException, ExecutionException {
+            for (int i = 0; i < TASK_COUNT; i++) {
+                final int taskNumber = i;
+                executorService.execute(() -> executedTasks.add(taskNumber));
+            }
+            executorService.submit(() -> { /* wait for the previous tasks */ }).get();
+        }
+
+        private void thenTasksHaveBeenExecutedInOrder() {
+            then(executedTasks).hasSize(TASK_COUNT);
+            for (int i = 0; i < TASK_COUNT; i++) {
+                then(executedTasks.get(i)).isEqualTo(i);
+            }
+        }
+    }
+
+    @Nested
+    class Scheduling {
+
+        private ScheduledFuture<?> scheduledFuture;
+        private final CountDownLatch executed = new CountDownLatch(1);
+
+        @Test
+        void testSchedule_TaskShouldRunDelayedInStrand() throws InterruptedException {
+            whenSchedulingTask();
+            thenTaskHasBeenExecutedWithin(DEFAULT_DELAY.multipliedBy(50));
+            then(result).isEqualTo(Boolean.TRUE);
+        }
+
+        @Test
+        void testSchedule_CancelledTaskShouldNotRun() throws InterruptedException {
+            whenSchedulingTask();
+            scheduledFuture.cancel(false);
+            then(executed.await(DEFAULT_DELAY.multipliedBy(5).toMillis(), TimeUnit.MILLISECONDS)).isFalse();
+            then(scheduledFuture.isCancelled()).isTrue();
+        }
+
+        @Test
+        void testScheduleAtFixedRate_TaskShouldRepeatInStrand() throws InterruptedException {
+            final CountDownLatch repetitions = new CountDownLatch(3);
+            scheduledFuture = executorService.scheduleAtFixedRate(repetitions::countDown, 0, 5, TimeUnit.MILLISECONDS);
+            then(repetitions.await(1, TimeUnit.SECONDS)).isTrue();
+            scheduledFuture.cancel(false);
+        }
+
+        @Test
+        void testCreateTimeout_ShouldReturnTimeoutManager() {
+            result = testee.createTimeout(executorService, "TIMEOUT_ID", DEFAULT_DELAY.toMillis(),
+                TimeUnit.MILLISECONDS, null, false);
+            then(result).isInstanceOf(StateMachineTimeoutManager.class);
+        }
+
+        private void whenSchedulingTask() {
+            scheduledFuture = executorService.schedule(() -> {
+                result = testee.isRunningInExecutor();
+                executed.countDown();
+            }, DEFAULT_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private void thenTaskHasBeenExecutedWithin(final Duration duration) throws InterruptedException {
+            then(executed.await(duration.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+        }
+    }
+
+    @Nested
+    class RunningInExecutor {
+
+        @Test
+        void testRunningInExecutor_ThreadInExecutor() throws InterruptedException, ExecutionException {
+            executorService.submit(() -> {
+                result = testee.isRunningInExecutor();
+            }).get();
+            then(result).isEqualTo(Boolean.TRUE);
+        }
+
+        @Test
+        void testRunningInExecutor_ThreadOutOfExecutor() {
+            result = testee.isRunningInExecutor();
+            then(result).isEqualTo(Boolean.FALSE);
+        }
+
+        @Test
+        void testRunningInExecutor_StrandOfOtherFactory() throws InterruptedException, ExecutionException {
+            final StateMachineStrandExecutionFactory otherFactory = new StateMachineStrandExecutionFactory(1);
+            try {
+                otherFactory.createExecutor(NAME_FRAGMENT).submit(() -> {
+                    result = testee.isRunningInExecutor();
+                }).get();
+            } finally {
+                otherFactory.shutdown();
+            }
+            then(result).isEqualTo(Boolean.FALSE);
+        }
+    }
+
+    @Nested
+    class Release {
+
+        @Test
+        void testReleaseExecutor_ShouldShutdownAndTerminate() throws InterruptedException {
+            testee.releaseExecutor(executorService);
+            then(executorService.isShutdown()).isTrue();
+            then(executorService.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        void testReleaseExecutor_ShouldRejectNewTasks() {
+            testee.releaseExecutor(executorService);
+            final Throwable thrown = catchThrowable(() -> executorService.execute(() -> { /* never executed */ }));
+            then(thrown).isInstanceOf(RejectedExecutionException.class);
+        }
+
+        @Test
+        void testReleaseExecutor_QueuedTasksShouldStillRun() throws InterruptedException {
+            final CountDownLatch executed = new CountDownLatch(TASK_COUNT);
+            for (int i = 0; i < TASK_COUNT; i++) {
+                executorService.execute(executed::countDown);
+            }
+            testee.releaseExecutor(executorService);
+            then(executed.await(1, TimeUnit.SECONDS)).isTrue();
+            then(executorService.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Nested
+    class Shutdown {
+
+        @Test
+        void testShutdown_QueuedTasksShouldStillRun() throws InterruptedException {
+            final CountDownLatch blocker = new CountDownLatch(1);
+            final CountDownLatch executed = new CountDownLatch(TASK_COUNT);
+            executorService.execute(() -> {
+                try {
+                    blocker.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            for (int i = 0; i < TASK_COUNT; i++) {
+                executorService.execute(executed::countDown);
+            }
+            testee.shutdown();
+            blocker.countDown();
+            then(executed.await(1, TimeUnit.SECONDS)).isTrue();
+            then(executorService.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        void testShutdown_ShouldRejectNewTasks() {
+            testee.shutdown();
+            final Throwable thrown = catchThrowable(() -> executorService.execute(() -> { /* never executed */ }));
+            then(thrown).isInstanceOf(RejectedExecutionException.class);
+        }
+
+        @Test
+        void testShutdown_ShouldRejectNewStrands() {
+            testee.shutdown();
+            final Throwable thrown = catchThrowable(() -> testee.createExecutor(NAME_FRAGMENT));
+            then(thrown).isInstanceOf(RejectedExecutionException.class);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class StateMachineTimingWheelExecutionFactoryTest {
+
+    private static final Duration DEFAULT_DELAY = Duration.ofMillis(50);
+    private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+
+    private StateMachineTimingWheelExecutionFactory testee;
+    private ScheduledExecutorService executorService;
+    private StateMachineTimeoutManager timeoutManager;
+
+    private final CountDownLatch executed = new CountDownLatch(1);
+    private final AtomicLong executionTime = new AtomicLong();
+    private final AtomicBoolean executedInExecutor = new AtomicBoolean(false);
+    private final AtomicInteger executionCount = new AtomicInteger();
+    private long startTime;
+
+    @BeforeEach
+    void createTestee() {
+        testee = new StateMachineTimingWheelExecutionFactory(new StateMachineExecutionFactoryService(), 1,
+            TimeUnit.MILLISECONDS);
+        executorService = testee.createExecutor("TimingWheel");
+    }
+
+    @AfterEach
+    void shutdownTestee() {
+        testee.releaseExecutor(executorService);
+        testee.shutdown();
+    }
+
+    @Nested
+    class Execution {
+
+        @Test
+        void testExecution_ShouldRunActionInExecutorAfterDelay() throws InterruptedException {
+            givenTimeoutHasBeenCreatedWithAutostart(true);
+            thenActionHasBeenExecuted();
+            thenActionHasNotBeenExecutedEarly(DEFAULT_DELAY);
+            then(executedInExecutor).isTrue();
+            then(timeoutManager.isRunning()).isFalse();
+        }
+
+        @Test
+        void testExecution_ThrowingActionShouldNotStopWheel() throws InterruptedException {
+            testee.createTimeout(executorService, "FAILING", 1, TimeUnit.MILLISECONDS, () -> {
+                throw new IllegalStateException("Expected test failure");
+            }, true);
+            givenTimeoutHasBeenCreatedWithAutostart(true);
+            thenActionHasBeenExecuted();
+        }
+
+        @Test
+        void testExecution_ActionMayRestartTimeout() throws InterruptedException {
+            final CountDownLatch repetitions = new CountDownLatch(3);
+            final StateMachineTimeoutManager[] periodicTimeout = new StateMachineTimeoutManager[1];
+            periodicTimeout[0] = testee.createTimeout(executorService, "PERIODIC", 5, TimeUnit.MILLISECONDS, () -> {
+                repetitions.countDown();
+                periodicTimeout[0].start();
+            }, true);
+            then(repetitions.await(MAX_WAIT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+            periodicTimeout[0].cancel();
+        }
+    }
+
+    @Nested
+    class StartAndCancel {
+
+        @Test
+        void testStart_WithoutAutostartShouldNotRun() {
+            givenTimeoutHasBeenCreatedWithAutostart(false);
+            then(timeoutManager.isRunning()).isFalse();
+        }
+
+        @Test
+        void testStart_ShouldRunAfterExplicitStart() throws InterruptedException {
+            givenTimeoutHasBeenCreatedWithAutostart(false);
+            startTime = System.nanoTime();
+            timeoutManager.start();
+            then(timeoutManager.isRunning()).isTrue();
+            thenActionHasBeenExecuted();
+        }
+
+        @Test
+        void testCancel_ShouldStopRunningTimeout() throws InterruptedException {
+            givenTimeoutHasBeenCreatedWithAutostart(true);
+            timeoutManager.cancel();
+            then(timeoutManager.isRunning()).isFalse();
+            then(executed.await(DEFAULT_DELAY.multipliedBy(3).toMillis(), TimeUnit.MILLISECONDS)).isFalse();
+        }
+
+        @Test
+        void testCancel_StartAfterCancelShouldRunOnce() throws InterruptedException {
+            givenTimeoutHasBeenCreatedWithAutostart(true);
+            timeoutManager.cancel();
+            timeoutManager.start();
+            thenActionHasBeenExecuted();
+            Thread.sleep(DEFAULT_DELAY.multipliedBy(2).toMillis());
+            then(executionCount).hasValue(1);
+        }
+    }
+
+    @Nested
+    class Restart {
+
+        @Test
+        void testRestart_ShouldPostponeExpiry() throws InterruptedException {
+            givenTimeoutHasBeenCreatedWithAutostart(true);
+            Thread.sleep(DEFAULT_DELAY.dividedBy(2).toMillis());
+            startTime = System.nanoTime();
+            timeoutManager.restart();
+            thenActionHasBeenExecuted();
+            thenActionHasNotBeenExecutedEarly(DEFAULT_DELAY);
+            then(executionCount).hasValue(1);
+        }
+
+        @Test
+        void testRestart_ShouldStartNonRunningTimeout() throws InterruptedException {
+            givenTimeoutHasBeenCreatedWithAutostart(false);
+            startTime = System.nanoTime();
+            timeoutManager.restart();
+            thenActionHasBeenExecuted();
+        }
+    }
+
+    @Nested
+    class ManyTimeouts {
+
+        private static final int TIMEOUT_COUNT = 10_000;
+
+        @Test
+        void testManyTimeouts_AllShouldExpireNotEarlyAcrossWheelLevels() throws InterruptedException {
+            // A tiny tick duration makes the timeouts span several levels of the wheel
+            testee.shutdown();
+            testee = new StateMachineTimingWheelExecutionFactory(new StateMachineExecutionFactoryService(), 10,
+                TimeUnit.MICROSECONDS);
+
+            final Random random = new Random(4711);
+            final CountDownLatch allExecuted = new CountDownLatch(TIMEOUT_COUNT);
+            final AtomicInteger earlyExecutions = new AtomicInteger();
+            final List<StateMachineTimeoutManager> timeouts = new ArrayList<>();
+            for (int i = 0; i < TIMEOUT_COUNT; i++) {
+                final long delayMicros = random.nextInt(100_000);
+                final long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(delayMicros);
+                timeouts.add(testee.createTimeout(executorService, "T" + i, delayMicros, TimeUnit.MICROSECONDS, () -> {
+                    if (System.nanoTime() < deadline) {
+                        earlyExecutions.incrementAndGet();
+                    }
+                    allExecuted.countDown();
+                }, true));
+            }
+
+            then(allExecuted.await(MAX_WAIT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+            then(earlyExecutions).hasValue(0);
+            then(timeouts).noneMatch(StateMachineTimeoutManager::isRunning);
+        }
+    }
+
+    private void givenTimeoutHasBeenCreatedWithAutostart(final boolean autoStart) {
+        startTime = System.nanoTime();
+        timeoutManager = testee.createTimeout(executorService, "TIMEOUT_ID", DEFAULT_DELAY.toMillis(),
+            TimeUnit.MILLISECONDS, () -> {
+                executionTime.set(System.nanoTime());
+                executedInExecutor.set(testee.isRunningInExecutor());
+                executionCount.incrementAndGet();
+                executed.countDown();
+            }, autoStart);
+    }
+
+    private void thenActionHasBeenExecuted() throws InterruptedException {
+        then(executed.await(MAX_WAIT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+    }
+
+    private void thenActionHasNotBeenExecutedEarly(final Duration delay) {
+        then(executionTime.get() - startTime).isGreaterThanOrEqualTo(delay.toNanos());
+    }
+}
@@ -0,0 +1,112 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.execution.impl;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+class StateMachineVirtualThreadExecutionFactoryTest {
+
+    private static final String NAME_FRAGMENT = UUID.randomUUID().toString();
+    private static final Duration TIMEOUT_DELAY = Duration.ofMillis(20);
+    private static final int TASK_COUNT = 1000;
+
+    private StateMachineVirtualThreadExecutionFactory testee;
+    private ScheduledExecutorService executorService;
+    private Object result;
+
+    @BeforeEach
+    void createTestee() {
+        testee = new StateMachineVirtualThreadExecutionFactory();
+        executorService = testee.createExecutor(NAME_FRAGMENT);
+    }
+
+    @AfterEach
+    void releaseExecutor() {
+        testee.releaseExecutor(executorService);
+    }
+
+    @Test
+    void testCreateExecutor_ThreadShouldContainNameFragment() throws InterruptedException, ExecutionException {
+        whenRunningInExecutor(() -> result = Thread.currentThread().getName());
+        then(result).asString().contains(NAME_FRAGMENT);
+    }
+
+    @Test
+    void testCreateExecutor_TasksShouldRunInSubmissionOrder() throws InterruptedException, ExecutionException {
+        final List<Integer> executedTasks = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < TASK_COUNT; i++) {
+            final int taskNumber = i;
+            executorService.execute(() -> executedTasks.add(taskNumber));
+        }
+        whenRunningInExecutor(() -> { /* wait for the previous tasks */ });
+        then(executedTasks).hasSize(TASK_COUNT).isSorted();
+    }
+
+    /**
+     * Runs against the packaged multi-release jar only (see the runtime pom), as the Java 21 variant is not picked up
+     * from the classes directory.
+     */
+    @Test
+    @Tag("multi-release")
+    void testCreateExecutor_ShouldUseVirtualThreadsFromJava21() throws InterruptedException, ExecutionException {
+        final boolean virtualThreadsExpected = Runtime.version().feature() >= 21;
+        whenRunningInExecutor(() -> result = isVirtual(Thread.currentThread()));
+        then(result).isEqualTo(virtualThreadsExpected);
+        then(testee.isUsingVirtualThreads()).isEqualTo(virtualThreadsExpected);
+    }
+
+    @Test
+    void testCreateTimeout_TimeoutActionShouldRunInExecutor() throws InterruptedException {
+        final CountDownLatch executed = new CountDownLatch(1);
+        testee.createTimeout(executorService, "TIMEOUT_ID", TIMEOUT_DELAY.toMillis(), TimeUnit.MILLISECONDS, () -> {
+            result = testee.isRunningInExecutor();
+            executed.countDown();
+        }, true);
+        then(executed.await(1, TimeUnit.SECONDS)).isTrue();
+        then(result).isEqualTo(Boolean.TRUE);
+    }
+
+    @Test
+    void testRunningInExecutor_ThreadOutOfExecutor() {
+        result = testee.isRunningInExecutor();
+        then(result).isEqualTo(Boolean.FALSE);
+    }
+
+    private void whenRunningInExecutor(final Runnable task) throws InterruptedException, ExecutionException {
+        executorService.submit(task).get();
+    }
+
+    private static boolean isVirtual(final Thread thread) {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (final NoSuchMethodException e) {
+            return false;
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
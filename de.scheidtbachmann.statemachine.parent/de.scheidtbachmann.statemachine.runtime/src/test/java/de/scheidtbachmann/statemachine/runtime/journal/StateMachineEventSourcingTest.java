@@ -0,0 +1,211 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.journal;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.runtime.StateMachinePersistable;
+import de.scheidtbachmann.statemachine.runtime.passivation.StateMachineSlotStore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class StateMachineEventSourcingTest {
+
+    private static final int MACHINE_COUNT = 3;
+    private static final int SNAPSHOT_INTERVAL = 4;
+    private static final int SEGMENT_SIZE = StateMachineJournal.HEADER_SIZE + 8 * StateMachineJournal.RECORD_SIZE;
+
+    @TempDir
+    Path directory;
+
+    private StateMachineJournal journal;
+    private StateMachineSlotStore snapshots;
+    private StateMachineEventSourcing<SumMachine> testee;
+    private final List<SumMachine> machines = new ArrayList<>();
+    private List<SumMachine> recovered;
+    private long replayedCount;
+
+    @BeforeEach
+    void createTestee() throws IOException {
+        open();
+        for (int i = 0; i < MACHINE_COUNT; i++) {
+            machines.add(new SumMachine());
+        }
+    }
+
+    @AfterEach
+    void closeTestee() throws IOException {
+        journal.close();
+        snapshots.close();
+    }
+
+    @Nested
+    class Recover {
+
+        @Test
+        void testRecover_WithoutSnapshotsShouldReplayAllRecords() throws IOException {
+            givenTicksHaveBeenApplied(0, 1L, 2L, 3L);
+            givenTicksHaveBeenApplied(2, 5L);
+            whenRecovering();
+            thenRecoveredMachinesEqualMachines();
+            then(replayedCount).isEqualTo(4);
+        }
+
+        @Test
+        void testRecover_ShouldReplayOnlyRecordsAfterSnapshot() throws IOException {
+            givenTicksHaveBeenApplied(0, 1L, 2L, 3L, 4L, 5L, 6L);
+            givenTicksHaveBeenApplied(1, 7L);
+            whenRecovering();
+            thenRecoveredMachinesEqualMachines();
+            // 4 ticks of machine 0 are covered by its snapshot
+            then(replayedCount).isEqualTo(3);
+        }
+
+        @Test
+        void testRecover_ShouldContinueRecording() throws IOException {
+            givenTicksHaveBeenApplied(0, 1L, 2L, 3L, 4L, 5L);
+            whenRecovering();
+            machines.clear();
+            machines.addAll(recovered);
+            givenTicksHaveBeenApplied(0, 6L, 7L, 8L);
+            givenTicksHaveBeenApplied(1, 9L);
+            whenRecovering();
+            thenRecoveredMachinesEqualMachines();
+        }
+
+        @Test
+        void testRecover_UnknownMachineShouldThrow() throws IOException {
+            journal.append(MACHINE_COUNT, 1L);
+            final Throwable thrown = catchThrowable(StateMachineEventSourcingTest.this::whenRecovering);
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class Truncate {
+
+        @Test
+        void testTruncate_ShouldKeepRecordsAfterOldestSnapshot() throws IOException {
+            givenTicksHaveBeenApplied(0, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L);
+            givenTicksHaveBeenApplied(1, 13L, 14L, 15L, 16L, 17L);
+            // Only record 17 of machine 1 is needed
+            then(testee.truncate()).isEqualTo(2);
+            whenRecovering();
+            thenRecoveredMachinesEqualMachines();
+        }
+
+        @Test
+        void testTruncate_MachineWithoutSnapshotShouldKeepRecords() throws IOException {
+            givenTicksHaveBeenApplied(2, 1L);
+            givenTicksHaveBeenApplied(0, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L);
+            then(testee.truncate()).isZero();
+            whenRecovering();
+            thenRecoveredMachinesEqualMachines();
+        }
+
+        @Test
+        void testTruncate_AllSnapshotsShouldDeleteAllButCurrentSegment() throws IOException {
+            givenTicksHaveBeenApplied(0, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L, 16L);
+            then(testee.truncate()).isEqualTo(1);
+            then(journal.getSegmentCount()).isEqualTo(1);
+            whenRecovering();
+            thenRecoveredMachinesEqualMachines();
+            then(replayedCount).isZero();
+        }
+    }
+
+    private void open() throws IOException {
+        journal = new StateMachineJournal(directory.resolve("journal"), SEGMENT_SIZE);
+        snapshots = new StateMachineSlotStore(directory.resolve("snapshots.bin"), MACHINE_COUNT,
+            Long.BYTES + 2 * Long.BYTES);
+        testee = new StateMachineEventSourcing<>(journal, snapshots, MACHINE_COUNT, SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Applies the masks like the executor of the state machine would.
+     */
+    private void givenTicksHaveBeenApplied(final int machineId, final long... eventMasks) {
+        final SumMachine machine = machines.get(machineId);
+        for (final long eventMask : eventMasks) {
+            testee.record(machineId, eventMask);
+            machine.apply(eventMask);
+            testee.afterTick(machineId, machine);
+        }
+    }
+
+    /**
+     * Simulates a restart, the records are not synced explicitly.
+     */
+    private void whenRecovering() throws IOException {
+        journal.close();
+        snapshots.close();
+        open();
+        recovered = new ArrayList<>();
+        for (int i = 0; i < MACHINE_COUNT; i++) {
+            recovered.add(new SumMachine());
+        }
+        replayedCount = testee.recover(recovered::get, SumMachine::apply);
+    }
+
+    private void thenRecoveredMachinesEqualMachines() {
+        then(recovered).extracting(machine -> machine.sum)
+            .containsExactlyElementsOf(machines.stream().map(machine -> machine.sum)::iterator);
+        then(recovered).extracting(machine -> machine.ticks)
+            .containsExactlyElementsOf(machines.stream().map(machine -> machine.ticks)::iterator);
+    }
+
+    /**
+     * State machine that sums up the event masks, so every lost or repeated tick changes its state.
+     */
+    private static class SumMachine implements StateMachinePersistable {
+
+        private long sum;
+        private long ticks;
+
+        void apply(final long eventMask) {
+            sum += eventMask;
+            ticks++;
+        }
+
+        @Override
+        public long getSchemaHash() {
+            return 0;
+        }
+
+        @Override
+        public int getStateSize() {
+            return 2 * Long.BYTES;
+        }
+
+        @Override
+        public void writeState(final ByteBuffer buffer) {
+            buffer.putLong(sum).putLong(ticks);
+        }
+
+        @Override
+        public void readState(final ByteBuffer buffer) {
+            sum = buffer.getLong();
+            ticks = buffer.getLong();
+        }
+    }
+}
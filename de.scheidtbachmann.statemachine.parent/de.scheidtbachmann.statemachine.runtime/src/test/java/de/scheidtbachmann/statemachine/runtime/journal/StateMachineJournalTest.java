@@ -0,0 +1,223 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.journal;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class StateMachineJournalTest {
+
+    private static final int RECORDS_PER_SEGMENT = 4;
+    private static final int SEGMENT_SIZE =
+        StateMachineJournal.HEADER_SIZE + RECORDS_PER_SEGMENT * StateMachineJournal.RECORD_SIZE;
+
+    @TempDir
+    Path directory;
+
+    private StateMachineJournal testee;
+
+    @AfterEach
+    void closeTestee() throws IOException {
+        testee.close();
+    }
+
+    @Nested
+    class Append {
+
+        @Test
+        void testAppend_ShouldReplayRecordsInOrder() throws IOException {
+            givenJournalHasBeenOpened();
+            then(testee.append(1, 0x1L)).isEqualTo(1);
+            then(testee.append(2, 0x2L)).isEqualTo(2);
+            then(testee.append(1, 0x4L)).isEqualTo(3);
+            then(replay(0)).containsExactly("1:1:1", "2:2:2", "3:1:4");
+        }
+
+        @Test
+        void testAppend_ShouldReplayRecordsAfterSequence() throws IOException {
+            givenJournalHasBeenOpened();
+            givenRecordsHaveBeenAppended(10);
+            then(replay(8)).containsExactly("9:9:9", "10:10:a");
+            then(replay(10)).isEmpty();
+        }
+
+        @Test
+        void testAppend_FullSegmentShouldBeFollowedByNewSegment() throws IOException {
+            givenJournalHasBeenOpened();
+            givenRecordsHaveBeenAppended(RECORDS_PER_SEGMENT + 1);
+            then(testee.getSegmentCount()).isEqualTo(2);
+            then(replay(0)).hasSize(RECORDS_PER_SEGMENT + 1);
+        }
+    }
+
+    @Nested
+    class Sync {
+
+        @Test
+        void testSync_ShouldMakeAllAppendedRecordsDurable() throws IOException {
+            givenJournalHasBeenOpened();
+            givenRecordsHaveBeenAppended(6);
+            testee.sync(2);
+            then(testee.getDurableSequence()).isEqualTo(6);
+        }
+
+        @Test
+        void testSync_ConcurrentCallersShouldAllBeDurable() throws Exception {
+            givenJournalHasBeenOpened();
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                final List<Future<Long>> futures = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    final int machineId = i;
+                    futures.add(executor.submit(() -> {
+                        final long sequence = testee.append(machineId, 1L);
+                        testee.sync(sequence);
+                        return sequence;
+                    }));
+                }
+                for (final Future<Long> future : futures) {
+                    final long sequence = future.get();
+                    then(testee.getDurableSequence()).isGreaterThanOrEqualTo(sequence);
+                }
+            } finally {
+                executor.shutdown();
+            }
+            then(testee.getLastSequence()).isEqualTo(100);
+        }
+    }
+
+    @Nested
+    class Reopen {
+
+        @Test
+        void testReopen_ShouldContinueSequence() throws IOException {
+            givenJournalHasBeenOpened();
+            givenRecordsHaveBeenAppended(RECORDS_PER_SEGMENT + 2);
+            givenJournalHasBeenReopened();
+            then(testee.getLastSequence()).isEqualTo(RECORDS_PER_SEGMENT + 2);
+            then(testee.append(7, 7L)).isEqualTo(RECORDS_PER_SEGMENT + 3);
+            then(replay(0)).hasSize(RECORDS_PER_SEGMENT + 3);
+        }
+
+        @Test
+        void testReopen_TornRecordShouldEndJournal() throws IOException {
+            givenJournalHasBeenOpened();
+            givenRecordsHaveBeenAppended(3);
+            givenRecordHasBeenTorn(2);
+            givenJournalHasBeenReopened();
+            then(replay(0)).containsExactly("1:1:1");
+            // Record 3 must not reappear behind the next record
+            testee.append(5, 5L);
+            givenJournalHasBeenReopened();
+            then(replay(0)).containsExactly("1:1:1", "2:5:5");
+        }
+
+        @Test
+        void testReopen_UnfinishedSegmentShouldBeDeleted() throws IOException {
+            givenJournalHasBeenOpened();
+            givenRecordsHaveBeenAppended(RECORDS_PER_SEGMENT);
+            testee.close();
+            Files.write(directory.resolve(String.format("journal-%020d.log", RECORDS_PER_SEGMENT + 1)),
+                new byte[SEGMENT_SIZE]);
+            givenJournalHasBeenOpened();
+            then(testee.getSegmentCount()).isEqualTo(1);
+            then(testee.append(9, 9L)).isEqualTo(RECORDS_PER_SEGMENT + 1);
+        }
+    }
+
+    @Nested
+    class Truncate {
+
+        @Test
+        void testTruncate_ShouldDeleteCoveredSegments() throws IOException {
+            givenJournalHasBeenOpened();
+            givenRecordsHaveBeenAppended(3 * RECORDS_PER_SEGMENT);
+            then(testee.truncate(2 * RECORDS_PER_SEGMENT - 1)).isEqualTo(1);
+            then(segmentFiles()).hasSize(2);
+            then(replay(0)).first().isEqualTo((RECORDS_PER_SEGMENT + 1) + ":" + (RECORDS_PER_SEGMENT + 1) + ":"
+                + Long.toHexString(RECORDS_PER_SEGMENT + 1));
+        }
+
+        @Test
+        void testTruncate_ShouldRetainCurrentSegment() throws IOException {
+            givenJournalHasBeenOpened();
+            givenRecordsHaveBeenAppended(2 * RECORDS_PER_SEGMENT);
+            then(testee.truncate(2 * RECORDS_PER_SEGMENT)).isEqualTo(1);
+            then(testee.getSegmentCount()).isEqualTo(1);
+            givenJournalHasBeenReopened();
+            then(testee.append(1, 1L)).isEqualTo(2 * RECORDS_PER_SEGMENT + 1);
+        }
+    }
+
+    private void givenJournalHasBeenOpened() throws IOException {
+        testee = new StateMachineJournal(directory, SEGMENT_SIZE);
+    }
+
+    private void givenJournalHasBeenReopened() throws IOException {
+        testee.flush();
+        testee.close();
+        givenJournalHasBeenOpened();
+    }
+
+    private void givenRecordsHaveBeenAppended(final int count) throws IOException {
+        for (int i = 1; i <= count; i++) {
+            testee.append(i, i);
+        }
+    }
+
+    /**
+     * Simulates a crash while appending the record by flipping a byte of its event mask in the file.
+     */
+    private void givenRecordHasBeenTorn(final long sequence) throws IOException {
+        testee.flush();
+        final long offset = StateMachineJournal.HEADER_SIZE + (sequence - 1) * StateMachineJournal.RECORD_SIZE
+            + Long.BYTES;
+        try (FileChannel channel = FileChannel.open(segmentFiles().get(0), StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+            final ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, offset);
+            value.put(0, (byte) ~value.get(0)).clear();
+            channel.write(value, offset);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private List<String> replay(final long afterSequence) {
+        final List<String> records = new ArrayList<>();
+        testee.replay(afterSequence, (sequence, machineId, eventMask) -> records.add(
+            sequence + ":" + machineId + ":" + Long.toHexString(eventMask)));
+        return records;
+    }
+}
@@ -0,0 +1,59 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.passivation;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+class StateMachineDirectoryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private StateMachineDirectoryStore<Integer> testee;
+
+    @Test
+    void testLoad_MissingStateShouldReturnNull() throws IOException {
+        givenTesteeHasBeenCreated();
+        then(testee.load(1)).isNull();
+    }
+
+    @Test
+    void testLoad_ShouldReturnLatestSavedState() throws IOException {
+        givenTesteeHasBeenCreated();
+        testee.save(1, ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+        testee.save(1, ByteBuffer.wrap(new byte[] { 4, 5 }));
+        testee.save(2, ByteBuffer.wrap(new byte[] { 6 }));
+        then(testee.load(1)).isEqualTo(ByteBuffer.wrap(new byte[] { 4, 5 }));
+        then(testee.load(2)).isEqualTo(ByteBuffer.wrap(new byte[] { 6 }));
+    }
+
+    @Test
+    void testRemove_ShouldDeleteState() throws IOException {
+        givenTesteeHasBeenCreated();
+        testee.save(1, ByteBuffer.wrap(new byte[] { 1 }));
+        testee.remove(1);
+        testee.remove(2);
+        then(testee.load(1)).isNull();
+        then(directory.resolve("machines")).isEmptyDirectory();
+    }
+
+    private void givenTesteeHasBeenCreated() throws IOException {
+        testee = new StateMachineDirectoryStore<>(directory.resolve("machines"), key -> "machine-" + key);
+    }
+}
@@ -0,0 +1,286 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.passivation;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.runtime.CounterMachine;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+class StateMachineRegistryTest {
+
+    private static final int MAX_RESIDENT_COUNT = 2;
+    private static final long IDLE_SECONDS = 10;
+    private static final long LOAD_NANOS = 5_000;
+
+    private final MemoryStore store = new MemoryStore();
+    private final List<CounterMachine> disposed = new ArrayList<>();
+    private long now;
+
+    private StateMachineRegistry<String, CounterMachine> testee;
+
+    @Nested
+    class Creation {
+
+        @Test
+        void testCreation_NonPositiveResidentCountShouldThrow() {
+            final Throwable thrown = catchThrowable(() -> new StateMachineRegistry<>(store, new CounterLifecycle(),
+                0, IDLE_SECONDS, TimeUnit.SECONDS));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void testCreation_NegativeIdleTimeShouldThrow() {
+            final Throwable thrown = catchThrowable(() -> new StateMachineRegistry<>(store, new CounterLifecycle(),
+                1, -1, TimeUnit.SECONDS));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class Access {
+
+        @Test
+        void testApply_UnknownKeyShouldCreateInitializedMachine() {
+            givenTesteeHasBeenCreated();
+            whenIncrementing("a");
+            then(counter("a")).isEqualTo(101);
+            then(testee.getCreatedCount()).isEqualTo(1);
+            then(testee.getResidentCount()).isEqualTo(1);
+        }
+
+        @Test
+        void testApply_ResidentKeyShouldHit() {
+            givenTesteeHasBeenCreated();
+            whenIncrementing("a");
+            whenIncrementing("a");
+            then(counter("a")).isEqualTo(102);
+            then(testee.getCreatedCount()).isEqualTo(1);
+            then(testee.getHitCount()).isEqualTo(2);
+            then(testee.getMissCount()).isZero();
+        }
+    }
+
+    @Nested
+    class Failure {
+
+        @Test
+        void testApply_UnreadableStateShouldDisposeMachine() {
+            givenTesteeHasBeenCreated();
+            store.states.put("a", new byte[CounterMachine.STATE_SIZE]);
+            final Throwable thrown = catchThrowable(() -> whenIncrementing("a"));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+            then(disposed).extracting(CounterMachine::getKey).containsExactly("a");
+            then(testee.isResident("a")).isFalse();
+            then(testee.getResidentCount()).isZero();
+        }
+
+        @Test
+        void testApply_FailingLoadShouldDisposeMachine() {
+            givenTesteeHasBeenCreated();
+            store.failingLoad = true;
+            final Throwable thrown = catchThrowable(() -> whenIncrementing("a"));
+            then(thrown).isInstanceOf(UncheckedIOException.class);
+            then(disposed).extracting(CounterMachine::getKey).containsExactly("a");
+            then(testee.isResident("a")).isFalse();
+        }
+    }
+
+    @Nested
+    class Concurrency {
+
+        @Test
+        void testApply_ActionWaitingForOtherKeyShouldNotDeadlock() throws Exception {
+            givenTesteeHasBeenCreated();
+            final ExecutorService otherThread = Executors.newSingleThreadExecutor();
+            try {
+                testee.apply("a", machine -> {
+                    try {
+                        otherThread.submit(() -> whenIncrementing("b")).get(1, TimeUnit.SECONDS);
+                    } catch (final InterruptedException | ExecutionException | TimeoutException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    machine.increment();
+                });
+            } finally {
+                otherThread.shutdownNow();
+            }
+            then(counter("a")).isEqualTo(101);
+            then(counter("b")).isEqualTo(101);
+        }
+    }
+
+    @Nested
+    class Eviction {
+
+        @Test
+        void testApply_BeyondMaxResidentCountShouldPassivateLeastRecentlyUsed() {
+            givenTesteeHasBeenCreated();
+            whenIncrementing("a");
+            whenIncrementing("b");
+            whenIncrementing("a");
+            whenIncrementing("c");
+            then(testee.isResident("a")).isTrue();
+            then(testee.isResident("b")).isFalse();
+            then(testee.isResident("c")).isTrue();
+            then(testee.getPassivatedCount()).isEqualTo(1);
+            then(disposed).extracting(CounterMachine::getKey).containsExactly("b");
+            then(store.states).containsOnlyKeys("b");
+        }
+
+        @Test
+        void testApply_PassivatedKeyShouldRehydrate() {
+            givenTesteeHasBeenCreated();
+            whenIncrementing("b");
+            whenIncrementing("b");
+            whenIncrementing("a");
+            whenIncrementing("c");
+            then(counter("b")).isEqualTo(102);
+            then(testee.getMissCount()).isEqualTo(1);
+            then(testee.getCreatedCount()).isEqualTo(3);
+            then(testee.getRehydrationNanos()).isEqualTo(LOAD_NANOS);
+            then(testee.getMaxRehydrationNanos()).isEqualTo(LOAD_NANOS);
+        }
+
+        @Test
+        void testApply_FailingStoreShouldKeepMachine() {
+            givenTesteeHasBeenCreated();
+            whenIncrementing("a");
+            whenIncrementing("b");
+            store.failing = true;
+            final Throwable thrown = catchThrowable(() -> whenIncrementing("c"));
+            then(thrown).isInstanceOf(UncheckedIOException.class);
+            then(testee.isResident("a")).isTrue();
+            then(disposed).isEmpty();
+        }
+    }
+
+    @Nested
+    class Passivation {
+
+        @Test
+        void testPassivateIdle_ShouldPassivateMachinesIdleForIdleTime() {
+            givenTesteeHasBeenCreated();
+            whenIncrementing("a");
+            now += TimeUnit.SECONDS.toNanos(IDLE_SECONDS) / 2;
+            whenIncrementing("b");
+            now += TimeUnit.SECONDS.toNanos(IDLE_SECONDS) / 2;
+            then(testee.passivateIdle()).isEqualTo(1);
+            then(testee.isResident("a")).isFalse();
+            then(testee.isResident("b")).isTrue();
+        }
+
+        @Test
+        void testPassivateAll_ShouldPassivateAllMachines() {
+            givenTesteeHasBeenCreated();
+            whenIncrementing("a");
+            whenIncrementing("b");
+            testee.passivateAll();
+            then(testee.getResidentCount()).isZero();
+            then(store.states).containsOnlyKeys("a", "b");
+            then(counter("a")).isEqualTo(101);
+        }
+
+        @Test
+        void testRemove_ShouldForgetMachine() {
+            givenTesteeHasBeenCreated();
+            whenIncrementing("a");
+            whenIncrementing("a");
+            testee.passivateAll();
+            testee.remove("a");
+            then(counter("a")).isEqualTo(100);
+            then(testee.getCreatedCount()).isEqualTo(2);
+        }
+    }
+
+    private void givenTesteeHasBeenCreated() {
+        testee = new StateMachineRegistry<>(store, new CounterLifecycle(), MAX_RESIDENT_COUNT, IDLE_SECONDS,
+            TimeUnit.SECONDS, () -> now);
+    }
+
+    private void whenIncrementing(final String key) {
+        testee.apply(key, CounterMachine::increment);
+    }
+
+    private long counter(final String key) {
+        return testee.query(key, CounterMachine::getCounter);
+    }
+
+    private class CounterLifecycle implements StateMachineRegistry.Lifecycle<String, CounterMachine> {
+
+        @Override
+        public CounterMachine create(final String key) {
+            return new CounterMachine(key);
+        }
+
+        @Override
+        public void init(final CounterMachine stateMachine) {
+            stateMachine.setCounter(100);
+        }
+
+        @Override
+        public void dispose(final CounterMachine stateMachine) {
+            disposed.add(stateMachine);
+        }
+    }
+
+    /**
+     * Store in memory, loading a state takes {@link #LOAD_NANOS} on the clock of the test.
+     */
+    private class MemoryStore implements StateMachineStore<String> {
+
+        private final Map<String, byte[]> states = new HashMap<>();
+        private boolean failing;
+        private boolean failingLoad;
+
+        @Override
+        public void save(final String key, final ByteBuffer state) throws IOException {
+            if (failing) {
+                throw new IOException("Disk full");
+            }
+            final byte[] bytes = new byte[state.remaining()];
+            state.get(bytes);
+            states.put(key, bytes);
+        }
+
+        @Override
+        public ByteBuffer load(final String key) throws IOException {
+            if (failingLoad) {
+                throw new IOException("Disk failure");
+            }
+            final byte[] bytes = states.get(key);
+            now += LOAD_NANOS;
+            return bytes == null ? null : ByteBuffer.wrap(bytes);
+        }
+
+        @Override
+        public void remove(final String key) {
+            states.remove(key);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.passivation;
+
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import de.scheidtbachmann.statemachine.runtime.CounterMachine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+class StateMachineSlotStoreTest {
+
+    private static final int SLOT_COUNT = 4;
+    private static final int STATE_CAPACITY = CounterMachine.STATE_SIZE;
+
+    @TempDir
+    Path directory;
+
+    private StateMachineSlotStore testee;
+    private Throwable thrown;
+
+    @AfterEach
+    void closeTestee() throws IOException {
+        if (testee != null) {
+            testee.close();
+        }
+    }
+
+    @Nested
+    class Commit {
+
+        @Test
+        void testCommit_ShouldRestoreLatestState() throws IOException {
+            givenStoreHasBeenOpened();
+            testee.commit(1, new CounterMachine(1));
+            testee.commit(1, new CounterMachine(2));
+            testee.commit(1, new CounterMachine(3));
+            thenSlotContains(1, 3);
+        }
+
+        @Test
+        void testCommit_ShouldKeepOtherSlots() throws IOException {
+            givenStoreHasBeenOpened();
+            testee.commit(0, new CounterMachine(10));
+            testee.commit(3, new CounterMachine(30));
+            thenSlotContains(0, 10);
+            thenSlotContains(3, 30);
+            then(testee.restore(1, new CounterMachine(0))).isFalse();
+        }
+
+        @Test
+        void testCommit_ConcurrentCommitsToDifferentSlotsShouldBeValid() throws Exception {
+            givenStoreHasBeenOpened();
+            final ExecutorService executor = Executors.newFixedThreadPool(SLOT_COUNT);
+            try {
+                final List<Future<?>> commits = new ArrayList<>();
+                for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                    final int committedSlot = slot;
+                    commits.add(executor.submit(() -> {
+                        for (int counter = 1; counter <= 1000; counter++) {
+                            testee.commit(committedSlot, new CounterMachine(committedSlot * 10_000 + counter));
+                        }
+                    }));
+                }
+                for (final Future<?> commit : commits) {
+                    commit.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            givenStoreHasBeenReopened();
+            for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                thenSlotContains(slot, slot * 10_000 + 1000);
+            }
+        }
+
+        @Test
+        void testCommit_RemovedSlotShouldBeEmpty() throws IOException {
+            givenStoreHasBeenOpened();
+            testee.commit(2, new CounterMachine(5));
+            testee.remove(2);
+            then(testee.load(2)).isNull();
+        }
+
+        @Test
+        void testCommit_StateExceedingCapacityShouldThrow() throws IOException {
+            givenStoreHasBeenOpened();
+            thrown = catchThrowable(() -> testee.save(0, ByteBuffer.allocate(STATE_CAPACITY + 1)));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+            then(testee.load(0)).isNull();
+        }
+
+        @Test
+        void testCommit_SlotOutOfRangeShouldThrow() throws IOException {
+            givenStoreHasBeenOpened();
+            thrown = catchThrowable(() -> testee.commit(SLOT_COUNT, new CounterMachine(1)));
+            then(thrown).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+    }
+
+    @Nested
+    class Reopen {
+
+        @Test
+        void testReopen_ShouldRestoreCommittedStates() throws IOException {
+            givenStoreHasBeenOpened();
+            testee.commit(0, new CounterMachine(1));
+            testee.commit(0, new CounterMachine(2));
+            testee.commit(3, new CounterMachine(7));
+            givenStoreHasBeenReopened();
+            thenSlotContains(0, 2);
+            thenSlotContains(3, 7);
+        }
+
+        @Test
+        void testReopen_ChecksumShouldCoverStateSequenceAndLength() throws IOException {
+            givenStoreHasBeenOpened();
+            testee.commit(2, new CounterMachine(9));
+            testee.flush();
+            try (FileChannel channel = FileChannel.open(directory.resolve("slots.bin"), StandardOpenOption.READ)) {
+                final ByteBuffer copy = ByteBuffer.allocate(StateMachineSlotStore.COPY_HEADER_SIZE + STATE_CAPACITY);
+                channel.read(copy, testee.fileOffset(2, 0));
+                final long sequence = copy.getLong(0);
+                final int length = copy.getInt(Long.BYTES);
+                final CRC32 crc = new CRC32();
+                crc.update(copy.array(), StateMachineSlotStore.COPY_HEADER_SIZE, length);
+                crc.update(ByteBuffer.allocate(Long.BYTES + Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(sequence).putInt(length).array());
+                then(sequence).isEqualTo(1);
+                then(copy.getInt(Long.BYTES + Integer.BYTES)).isEqualTo((int) crc.getValue());
+            }
+        }
+
+        @Test
+        void testReopen_DifferentLayoutShouldThrow() throws IOException {
+            givenStoreHasBeenOpened();
+            testee.close();
+            testee = null;
+            thrown = catchThrowable(
+                () -> new StateMachineSlotStore(directory.resolve("slots.bin"), SLOT_COUNT + 1, STATE_CAPACITY));
+            then(thrown).isInstanceOf(IOException.class);
+        }
+
+        @Test
+        void testReopen_OtherFileShouldThrow() throws IOException {
+            final Path file = directory.resolve("other.bin");
+            Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+            thrown = catchThrowable(() -> new StateMachineSlotStore(file, SLOT_COUNT, STATE_CAPACITY));
+            then(thrown).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Nested
+    class Flush {
+
+        @Test
+        void testFlush_ShouldOnlyForceWrittenSegments() throws IOException {
+            givenStoreWithSegmentPerSlotHasBeenOpened();
+            testee.commit(1, new CounterMachine(1));
+            testee.commit(3, new CounterMachine(3));
+            then(testee.getDirtySegmentCount()).isEqualTo(2);
+            testee.flush();
+            then(testee.getDirtySegmentCount()).isZero();
+            testee.commit(3, new CounterMachine(4));
+            then(testee.getDirtySegmentCount()).isEqualTo(1);
+        }
+
+        @Test
+        void testFlush_SegmentsShouldKeepTheirSlots() throws IOException {
+            givenStoreWithSegmentPerSlotHasBeenOpened();
+            testee.commit(0, new CounterMachine(10));
+            testee.commit(2, new CounterMachine(20));
+            testee.close();
+            givenStoreWithSegmentPerSlotHasBeenOpened();
+            thenSlotContains(0, 10);
+            thenSlotContains(2, 20);
+            then(testee.restore(1, new CounterMachine(0))).isFalse();
+        }
+
+        private void givenStoreWithSegmentPerSlotHasBeenOpened() throws IOException {
+            testee = new StateMachineSlotStore(directory.resolve("slots.bin"), SLOT_COUNT, STATE_CAPACITY, 1);
+        }
+    }
+
+    @Nested
+    class Crash {
+
+        @Test
+        void testCrash_TornPayloadShouldRestorePreviousState() throws IOException {
+            givenStoreHasBeenOpened();
+            testee.commit(1, new CounterMachine(1));
+            testee.commit(1, new CounterMachine(2));
+            givenLatestCopyHasBeenTorn(1, StateMachineSlotStore.COPY_HEADER_SIZE);
+            givenStoreHasBeenReopened();
+            thenSlotContains(1, 1);
+        }
+
+        @Test
+        void testCrash_TornHeaderShouldRestorePreviousState() throws IOException {
+            givenStoreHasBeenOpened();
+            testee.commit(1, new CounterMachine(1));
+            testee.commit(1, new CounterMachine(2));
+            givenLatestCopyHasBeenTorn(1, Long.BYTES);
+            givenStoreHasBeenReopened();
+            thenSlotContains(1, 1);
+        }
+
+        @Test
+        void testCrash_TornFirstCommitShouldLeaveSlotEmpty() throws IOException {
+            givenStoreHasBeenOpened();
+            testee.commit(1, new CounterMachine(1));
+            givenLatestCopyHasBeenTorn(1, StateMachineSlotStore.COPY_HEADER_SIZE);
+            givenStoreHasBeenReopened();
+            then(testee.restore(1, new CounterMachine(0))).isFalse();
+        }
+
+        @Test
+        void testCrash_CommitAfterRecoveryShouldKeepPreviousState() throws IOException {
+            givenStoreHasBeenOpened();
+            testee.commit(1, new CounterMachine(1));
+            testee.commit(1, new CounterMachine(2));
+            givenLatestCopyHasBeenTorn(1, StateMachineSlotStore.COPY_HEADER_SIZE);
+            givenStoreHasBeenReopened();
+            testee.commit(1, new CounterMachine(3));
+            thenSlotContains(1, 3);
+            // A crash during the next commit must still find the state before
+            givenLatestCopyHasBeenTorn(1, StateMachineSlotStore.COPY_HEADER_SIZE);
+            givenStoreHasBeenReopened();
+            thenSlotContains(1, 1);
+        }
+
+        @Test
+        void testCrash_ShouldNotAffectOtherSlots() throws IOException {
+            givenStoreHasBeenOpened();
+            testee.commit(0, new CounterMachine(4));
+            testee.commit(1, new CounterMachine(1));
+            testee.commit(1, new CounterMachine(2));
+            givenLatestCopyHasBeenTorn(1, StateMachineSlotStore.COPY_HEADER_SIZE);
+            givenStoreHasBeenReopened();
+            thenSlotContains(0, 4);
+        }
+    }
+
+    private void givenStoreHasBeenOpened() throws IOException {
+        testee = new StateMachineSlotStore(directory.resolve("slots.bin"), SLOT_COUNT, STATE_CAPACITY);
+    }
+
+    private void givenStoreHasBeenReopened() throws IOException {
+        testee.close();
+        givenStoreHasBeenOpened();
+    }
+
+    /**
+     * Simulates a crash during the latest commit to the slot by flipping a byte of its copy in the file.
+     */
+    private void givenLatestCopyHasBeenTorn(final int slot, final int offsetInCopy) throws IOException {
+        testee.flush();
+        final long first = testee.fileOffset(slot, 0);
+        final long second = testee.fileOffset(slot, 1);
+        try (FileChannel channel = FileChannel.open(directory.resolve("slots.bin"), StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+            final long latest = readLong(channel, first) > readLong(channel, second) ? first : second;
+            final ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, latest + offsetInCopy);
+            value.put(0, (byte) ~value.get(0)).clear();
+            channel.write(value, latest + offsetInCopy);
+        }
+    }
+
+    private static long readLong(final FileChannel channel, final long position) throws IOException {
+        final ByteBuffer value = ByteBuffer.allocate(Long.BYTES);
+        channel.read(value, position);
+        return value.getLong(0);
+    }
+
+    private void thenSlotContains(final int slot, final long counter) {
+        final CounterMachine restored = new CounterMachine(0);
+        then(testee.restore(slot, restored)).isTrue();
+        then(restored.getCounter()).isEqualTo(counter);
+    }
+}
@@ -0,0 +1,189 @@
+// ******************************************************************************
+//
+// Copyright (c) 2026 by
+// Scheidt & Bachmann System Technik GmbH, 24109 Melsdorf
+//
+// This program and the accompanying materials are made available under the terms of the
+// Eclipse Public License v2.0 which accompanies this distribution, and is available at
+// https://www.eclipse.org/legal/epl-v20.html
+//
+// ******************************************************************************
+
+package de.scheidtbachmann.statemachine.runtime.table;
+
+import static de.scheidtbachmann.statemachine.runtime.table.StateMachineTransitionTable.DELAYED_TRANSITION;
+import static de.scheidtbachmann.statemachine.runtime.table.StateMachineTransitionTable.FINAL;
+import static de.scheidtbachmann.statemachine.runtime.table.StateMachineTransitionTable.FINAL_STATE;
+import static de.scheidtbachmann.statemachine.runtime.table.StateMachineTransitionTable.NONE;
+import static org.assertj.core.api.BDDAssertions.catchThrowable;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class StateMachineTransitionTableTest {
+
+    private static final int GUARD_GO = 0;
+    private static final int GUARD_STOP = 1;
+    private static final int EFFECT_COUNT = 0;
+
+    private final List<Integer> evaluatedGuards = new ArrayList<>();
+    private boolean go;
+    private boolean stop;
+
+    private StateMachineTransitionTable testee;
+    private int result;
+
+    /**
+     * Idle (0) -go-> Running (1) -delayed stop-> Idle, Running -delayed-> Done (2, final).
+     */
+    private StateMachineTransitionTable createTable() {
+        return StateMachineTransitionTable.builder()
+            .state(0)
+            .transition(1, GUARD_GO, EFFECT_COUNT, 0)
+            .state(0)
+            .transition(0, GUARD_STOP, -1, DELAYED_TRANSITION)
+            .transition(2, -1, -1, DELAYED_TRANSITION)
+            .state(FINAL_STATE)
+            .build();
+    }
+
+    @Nested
+    class Selection {
+
+        @Test
+        void testSelect_GuardHoldsShouldSelectTransition() {
+            givenTesteeHasBeenBuilt();
+            go = true;
+            whenSelecting(0, true);
+            then(result).isEqualTo(0);
+            then(testee.getTarget(result)).isEqualTo(1);
+            then(testee.getEffect(result)).isEqualTo(EFFECT_COUNT);
+        }
+
+        @Test
+        void testSelect_NoGuardHoldsShouldSelectNone() {
+            givenTesteeHasBeenBuilt();
+            whenSelecting(0, true);
+            then(result).isEqualTo(NONE);
+        }
+
+        @Test
+        void testSelect_DelayedTransitionsShouldBeSkippedIfNotEnabled() {
+            givenTesteeHasBeenBuilt();
+            stop = true;
+            whenSelecting(1, false);
+            then(result).isEqualTo(NONE);
+            then(evaluatedGuards).isEmpty();
+        }
+
+        @Test
+        void testSelect_TransitionsShouldBeCheckedInPriorityOrder() {
+            givenTesteeHasBeenBuilt();
+            stop = true;
+            whenSelecting(1, true);
+            then(testee.getTarget(result)).isEqualTo(0);
+            then(testee.getEffect(result)).isEqualTo(-1);
+        }
+
+        @Test
+        void testSelect_UnconditionalTransitionShouldBeSelectedWithoutGuard() {
+            givenTesteeHasBeenBuilt();
+            whenSelecting(1, true);
+            then(testee.getTarget(result)).isEqualTo(2);
+            then(evaluatedGuards).containsExactly(GUARD_STOP);
+        }
+
+        @Test
+        void testSelect_FinalStateShouldSelectFinal() {
+            givenTesteeHasBeenBuilt();
+            whenSelecting(2, true);
+            then(result).isEqualTo(FINAL);
+        }
+    }
+
+    @Nested
+    class Encoding {
+
+        @Test
+        void testEncoding_DecodedTableShouldMatch() {
+            testee = StateMachineTransitionTable.decode(createTable().encode());
+            then(testee.getStateCount()).isEqualTo(3);
+            then(testee.getTransitionCount()).isEqualTo(3);
+            go = true;
+            whenSelecting(0, true);
+            then(testee.getTarget(result)).isEqualTo(1);
+            whenSelecting(2, true);
+            then(result).isEqualTo(FINAL);
+        }
+
+        @Test
+        void testEncoding_LargeTableShouldBeSplitIntoChunks() {
+            final StateMachineTransitionTable.Builder builder = StateMachineTransitionTable.builder();
+            final int stateCount = 10000;
+            for (int i = 0; i < stateCount; i++) {
+                builder.state(0).transition((i + 1) % stateCount, -1, i, 0);
+            }
+            final String[] chunks = builder.build().encode();
+            then(chunks.length).isGreaterThan(1);
+            testee = StateMachineTransitionTable.decode(chunks);
+            then(testee.getTransitionCount()).isEqualTo(stateCount);
+            whenSelecting(stateCount - 1, true);
+            then(testee.getTarget(result)).isZero();
+            then(testee.getEffect(result)).isEqualTo(stateCount - 1);
+        }
+
+        @Test
+        void testEncoding_ValueOutOfRangeShouldThrow() {
+            final StateMachineTransitionTable table = StateMachineTransitionTable.builder()
+                .state(0)
+                .transition(StateMachineTransitionTable.MAX_ENCODED_VALUE + 1, -1, -1, 0)
+                .build();
+            then(catchThrowable(table::encode)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void testDecoding_TruncatedTableShouldThrow() {
+            final String encoded = String.join("", createTable().encode());
+            final Throwable thrown = catchThrowable(
+                () -> StateMachineTransitionTable.decode(encoded.substring(0, encoded.length() - 1)));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void testDecoding_TrailingCharactersShouldThrow() {
+            final String encoded = String.join("", createTable().encode());
+            final Throwable thrown = catchThrowable(() -> StateMachineTransitionTable.decode(encoded, "\u0001"));
+            then(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void testBuilder_TransitionWithoutStateShouldThrow() {
+        final Throwable thrown = catchThrowable(() -> StateMachineTransitionTable.builder().transition(0, -1, -1, 0));
+        then(thrown).isInstanceOf(IllegalStateException.class);
+    }
+
+    private void givenTesteeHasBeenBuilt() {
+        testee = createTable();
+    }
+
+    private void whenSelecting(final int state, final boolean delayedEnabled) {
+        result = testee.select(state, delayedEnabled, this::evaluate);
+    }
+
+    private boolean evaluate(final int guardId) {
+        evaluatedGuards.add(guardId);
+        switch (guardId) {
+            case GUARD_GO:
+                return go;
+            case GUARD_STOP:
+                return stop;
+            default:
+                return false;
+        }
+    }
+}
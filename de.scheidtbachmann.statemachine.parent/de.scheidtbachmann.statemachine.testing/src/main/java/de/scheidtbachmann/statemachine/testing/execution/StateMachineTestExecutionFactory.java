@@ -17,12 +17,7 @@ import de.scheidtbachmann.statemachine.runtime.execution.StateMachineTimeoutMana
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.Thread.State;
-import java.lang.ref.WeakReference;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -43,8 +38,8 @@ public class StateMachineTestExecutionFactory implements StateMachineExecutionFa
 
     private final Map<String, StateMachineTestTimeoutManager> timeouts;
 
-    private final List<WeakReference<Thread>> executorThreadReferences =
-        Collections.synchronizedList(new ArrayList<>());
+    // Marks the threads created by this factory, so the check for executor threads is a constant-time lookup
+    private final ThreadLocal<Boolean> executorThreadMarker = new ThreadLocal<>();
 
     public StateMachineTestExecutionFactory() {
         timeouts = new HashMap<>();
@@ -78,28 +73,19 @@ public class StateMachineTestExecutionFactory implements StateMachineExecutionFa
 
     @Override
     public boolean isRunningInExecutor() {
-        final Thread currentThread = Thread.currentThread();
-        return executorThreadReferences.stream().anyMatch(threadRef -> threadRef.get() == currentThread);
+        return executorThreadMarker.get() != null;
     }
 
     private Thread newThreadForExecutor(final Runnable runnable) {
-        purgeTerminatedThreadRefs();
-        final Thread createdThread = new Thread(runnable, "StateMachineTestExecutionThread");
+        final Thread createdThread = new Thread(() -> {
+            executorThreadMarker.set(Boolean.TRUE);
+            runnable.run();
+        }, "StateMachineTestExecutionThread");
         createdThread.setUncaughtExceptionHandler(
             (thread, throwable) -> LOG.error(String.format("Uncaught exception in Thread (%s)", thread), throwable));
-        executorThreadReferences.add(new WeakReference<>(createdThread));
         return createdThread;
     }
 
-    private void purgeTerminatedThreadRefs() {
-        executorThreadReferences.removeIf(this::isThreadTerminated);
-    }
-
-    private boolean isThreadTerminated(final WeakReference<Thread> threadRef) {
-        final Thread thread = threadRef.get();
-        return thread == null || thread.getState() == State.TERMINATED;
-    }
-
     private boolean timeoutIsRunning(final String timeoutId) {
         return timeouts.containsKey(timeoutId) && timeouts.get(timeoutId).isRunning();
     }
@@ -16,6 +16,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 class StateMachineTestExecutionFactoryTest {
@@ -43,6 +44,18 @@ class StateMachineTestExecutionFactoryTest {
         thenBothTasksShouldHaveExecuted();
     }
 
+    @Test
+    void testIsRunningInExecutor_ThreadInExecutor() throws InterruptedException, ExecutionException {
+        final AtomicBoolean runningInExecutor = new AtomicBoolean(false);
+        testee.createExecutor("").submit(() -> runningInExecutor.set(testee.isRunningInExecutor())).get();
+        assertTrue(runningInExecutor.get(), "Executor thread not detected.");
+    }
+
+    @Test
+    void testIsRunningInExecutor_ThreadOutOfExecutor() {
+        assertFalse(testee.isRunningInExecutor(), "Test thread detected as executor thread.");
+    }
+
     private void givenTaskSchedulesAnotherTask() {
         task = () -> {
             waitSomeTime();